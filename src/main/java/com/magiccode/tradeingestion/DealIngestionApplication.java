@@ -4,6 +4,7 @@
 import org.springframework.boot.autoconfigure.SpringBootApplication;
 import org.springframework.cache.annotation.EnableCaching;
 import org.springframework.scheduling.annotation.EnableAsync;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 /**
  * Main application class for the Trade Ingestion Service.
@@ -17,6 +18,7 @@
  * Key features enabled:
  * - @EnableCaching: Enables Spring's caching abstraction for improved performance
  * - @EnableAsync: Enables asynchronous processing for better scalability
+ * - @EnableScheduling: Enables scheduled maintenance tasks (stash retries, replica lag checks)
  * 
  * The application follows a microservices architecture with:
  * - RESTful APIs for deal management
@@ -27,6 +29,7 @@
 @SpringBootApplication
 @EnableCaching
 @EnableAsync
+@EnableScheduling
 public class DealIngestionApplication {
     /**
      * Main entry point for the application.
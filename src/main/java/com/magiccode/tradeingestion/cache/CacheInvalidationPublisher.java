@@ -0,0 +1,53 @@
+package com.magiccode.tradeingestion.cache;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.core.StringRedisTemplate;
+
+import java.util.UUID;
+
+/**
+ * Broadcasts L1 invalidations to the other instances over a Redis pub/sub channel.
+ *
+ * Messages have the form {@code nodeId\ncache\nkey}; the key part is left out when a whole
+ * region was cleared. Each instance ignores messages carrying its own node ID.
+ */
+@Slf4j
+public class CacheInvalidationPublisher {
+    static final char SEPARATOR = '\n';
+
+    private final StringRedisTemplate redisTemplate;
+    private final String channel;
+    private final String nodeId = UUID.randomUUID().toString();
+
+    public CacheInvalidationPublisher(StringRedisTemplate redisTemplate, String channel) {
+        this.redisTemplate = redisTemplate;
+        this.channel = channel;
+    }
+
+    public String getNodeId() {
+        return nodeId;
+    }
+
+    public String getChannel() {
+        return channel;
+    }
+
+    /**
+     * Publishes an invalidation. Failures are logged and swallowed; the L1 TTL bounds the
+     * staleness on instances that miss the message.
+     *
+     * @param cacheName The cache region
+     * @param key The key that changed, or null when the region was cleared
+     */
+    public void publish(String cacheName, String key) {
+        StringBuilder message = new StringBuilder(nodeId).append(SEPARATOR).append(cacheName);
+        if (key != null) {
+            message.append(SEPARATOR).append(key);
+        }
+        try {
+            redisTemplate.convertAndSend(channel, message.toString());
+        } catch (Exception e) {
+            log.warn("Failed to publish cache invalidation for {}: {}", cacheName, e.getMessage());
+        }
+    }
+}
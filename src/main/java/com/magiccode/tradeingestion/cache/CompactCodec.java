@@ -0,0 +1,123 @@
+package com.magiccode.tradeingestion.cache;
+
+import com.fasterxml.jackson.annotation.JsonTypeInfo;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileGenerator;
+import com.magiccode.tradeingestion.exception.DealProcessingException;
+import net.jpountz.lz4.LZ4Compressor;
+import net.jpountz.lz4.LZ4Factory;
+import net.jpountz.lz4.LZ4FastDecompressor;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+/**
+ * Binary codec for values kept in Redis: Jackson Smile with optional LZ4 block compression.
+ *
+ * Encoded values start with a three byte header {@code [magic][format version][flags]},
+ * followed by the original length when the LZ4 flag is set. The magic byte can never start a
+ * JSON document, which lets readers tell compact values from values written by instances that
+ * still use JSON. Readers reject format versions newer than their own instead of guessing.
+ *
+ * Fields are written by name with type ids, as the JSON serializer does, so adding or removing
+ * fields on a class does not need a new format version.
+ */
+public class CompactCodec {
+    static final byte MAGIC = (byte) 0xC5;
+    static final byte FORMAT_VERSION = 1;
+    private static final byte FLAG_LZ4 = 0x01;
+    private static final int HEADER_BYTES = 3;
+
+    private final ObjectMapper smileMapper;
+    private final int compressionThreshold;
+    private final LZ4Compressor compressor;
+    private final LZ4FastDecompressor decompressor;
+
+    /**
+     * @param compressionThreshold Encoded size from which values are compressed, or 0 to never compress
+     */
+    public CompactCodec(int compressionThreshold) {
+        SmileFactory smileFactory = SmileFactory.builder()
+            .enable(SmileGenerator.Feature.CHECK_SHARED_STRING_VALUES)
+            .build();
+        this.smileMapper = new ObjectMapper(smileFactory)
+            .findAndRegisterModules()
+            .configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
+        this.smileMapper.activateDefaultTyping(smileMapper.getPolymorphicTypeValidator(),
+            ObjectMapper.DefaultTyping.EVERYTHING, JsonTypeInfo.As.PROPERTY);
+        this.compressionThreshold = compressionThreshold;
+        LZ4Factory factory = LZ4Factory.fastestInstance();
+        this.compressor = factory.fastCompressor();
+        this.decompressor = factory.fastDecompressor();
+    }
+
+    /**
+     * Encodes a value, compressing it when it reaches the threshold and compression pays off.
+     */
+    public byte[] encode(Object value) {
+        byte[] smile;
+        try {
+            smile = smileMapper.writeValueAsBytes(value);
+        } catch (IOException e) {
+            throw new DealProcessingException("Failed to encode value of type " + value.getClass().getName(), e);
+        }
+        if (compressionThreshold > 0 && smile.length >= compressionThreshold) {
+            int maxLength = compressor.maxCompressedLength(smile.length);
+            byte[] out = new byte[HEADER_BYTES + Integer.BYTES + maxLength];
+            int compressedLength = compressor.compress(smile, 0, smile.length, out, HEADER_BYTES + Integer.BYTES, maxLength);
+            if (compressedLength < smile.length) {
+                writeHeader(out, FLAG_LZ4);
+                ByteBuffer.wrap(out, HEADER_BYTES, Integer.BYTES).putInt(smile.length);
+                return Arrays.copyOf(out, HEADER_BYTES + Integer.BYTES + compressedLength);
+            }
+        }
+        byte[] out = new byte[HEADER_BYTES + smile.length];
+        writeHeader(out, (byte) 0);
+        System.arraycopy(smile, 0, out, HEADER_BYTES, smile.length);
+        return out;
+    }
+
+    /**
+     * Decodes a value written by {@link #encode(Object)}.
+     *
+     * @throws DealProcessingException if the bytes are not a compact value this codec can read
+     */
+    public Object decode(byte[] bytes) {
+        if (!canDecode(bytes)) {
+            throw new DealProcessingException("Unsupported compact value format");
+        }
+        try {
+            if ((bytes[2] & FLAG_LZ4) != 0) {
+                int originalLength = ByteBuffer.wrap(bytes, HEADER_BYTES, Integer.BYTES).getInt();
+                byte[] smile = decompressor.decompress(bytes, HEADER_BYTES + Integer.BYTES, originalLength);
+                return smileMapper.readValue(smile, Object.class);
+            }
+            return smileMapper.readValue(bytes, HEADER_BYTES, bytes.length - HEADER_BYTES, Object.class);
+        } catch (IOException | RuntimeException e) {
+            throw new DealProcessingException("Failed to decode compact value", e);
+        }
+    }
+
+    /**
+     * Whether the bytes were written by this codec, in any format version.
+     */
+    public static boolean isCompact(byte[] bytes) {
+        return bytes != null && bytes.length >= HEADER_BYTES && bytes[0] == MAGIC;
+    }
+
+    /**
+     * Whether the bytes are a compact value in a format version this codec understands.
+     */
+    public static boolean canDecode(byte[] bytes) {
+        return isCompact(bytes) && bytes[1] >= 1 && bytes[1] <= FORMAT_VERSION;
+    }
+
+    private static void writeHeader(byte[] out, byte flags) {
+        out[0] = MAGIC;
+        out[1] = FORMAT_VERSION;
+        out[2] = flags;
+    }
+}
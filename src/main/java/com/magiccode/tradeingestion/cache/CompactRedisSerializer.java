@@ -0,0 +1,111 @@
+package com.magiccode.tradeingestion.cache;
+
+import com.magiccode.tradeingestion.config.CompactCodecProperties;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.serializer.GenericJackson2JsonRedisSerializer;
+import org.springframework.data.redis.serializer.RedisSerializer;
+import org.springframework.data.redis.serializer.SerializationException;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Redis value serializer that writes either JSON or {@link CompactCodec} values and reads both.
+ *
+ * A compact value in a format version newer than this instance understands is treated as a
+ * cache miss rather than an error, so older instances keep working while a rolling deploy
+ * introduces a new format.
+ *
+ * Records {@code deal.codec.size}, {@code deal.codec.encode} and {@code deal.codec.decode}
+ * tagged by format, which gives bytes per entry and encode and decode times for comparison.
+ */
+@Slf4j
+public class CompactRedisSerializer implements RedisSerializer<Object> {
+    private static final byte[] EMPTY = new byte[0];
+
+    private final CompactCodecProperties.Format format;
+    private final CompactCodec codec;
+    private final GenericJackson2JsonRedisSerializer jsonSerializer = new GenericJackson2JsonRedisSerializer();
+    private final String formatTag;
+    private final DistributionSummary encodedSize;
+    private final Timer encodeTimer;
+    private final Timer compactDecodeTimer;
+    private final Timer jsonDecodeTimer;
+    private final Counter unreadable;
+
+    public CompactRedisSerializer(CompactCodecProperties properties, MeterRegistry meterRegistry) {
+        this.format = properties.getFormat();
+        this.codec = new CompactCodec((int) properties.getCompressionThreshold().toBytes());
+        this.formatTag = format.name().toLowerCase();
+        this.encodedSize = DistributionSummary.builder("deal.codec.size")
+            .description("Encoded size of values written to Redis")
+            .baseUnit("bytes")
+            .tag("format", formatTag)
+            .register(meterRegistry);
+        this.encodeTimer = Timer.builder("deal.codec.encode")
+            .description("Time taken to encode a value for Redis")
+            .tag("format", formatTag)
+            .register(meterRegistry);
+        this.compactDecodeTimer = decodeTimer(meterRegistry, "smile");
+        this.jsonDecodeTimer = decodeTimer(meterRegistry, "json");
+        this.unreadable = Counter.builder("deal.codec.unreadable")
+            .description("Number of Redis values in an unknown format that were treated as missing")
+            .register(meterRegistry);
+    }
+
+    private static Timer decodeTimer(MeterRegistry meterRegistry, String format) {
+        return Timer.builder("deal.codec.decode")
+            .description("Time taken to decode a value read from Redis")
+            .tag("format", format)
+            .register(meterRegistry);
+    }
+
+    @Override
+    public byte[] serialize(Object value) throws SerializationException {
+        if (value == null) {
+            return EMPTY;
+        }
+        long start = System.nanoTime();
+        byte[] bytes;
+        if (format == CompactCodecProperties.Format.SMILE) {
+            try {
+                bytes = codec.encode(value);
+            } catch (RuntimeException e) {
+                throw new SerializationException("Could not write compact value: " + e.getMessage(), e);
+            }
+        } else {
+            bytes = jsonSerializer.serialize(value);
+        }
+        encodeTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        encodedSize.record(bytes.length);
+        return bytes;
+    }
+
+    @Override
+    public Object deserialize(byte[] bytes) throws SerializationException {
+        if (bytes == null || bytes.length == 0) {
+            return null;
+        }
+        long start = System.nanoTime();
+        if (!CompactCodec.isCompact(bytes)) {
+            Object value = jsonSerializer.deserialize(bytes);
+            jsonDecodeTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            return value;
+        }
+        if (!CompactCodec.canDecode(bytes)) {
+            unreadable.increment();
+            log.debug("Ignoring Redis value in unsupported compact format version {}", bytes[1]);
+            return null;
+        }
+        try {
+            Object value = codec.decode(bytes);
+            compactDecodeTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            return value;
+        } catch (RuntimeException e) {
+            throw new SerializationException("Could not read compact value: " + e.getMessage(), e);
+        }
+    }
+}
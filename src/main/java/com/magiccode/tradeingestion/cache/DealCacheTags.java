@@ -0,0 +1,253 @@
+package com.magiccode.tradeingestion.cache;
+
+import com.magiccode.tradeingestion.config.CacheTierProperties;
+import com.magiccode.tradeingestion.model.FixedIncomeDerivativeDeal;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Tag index for cached deal lists.
+ *
+ * A list loaded through {@link #getTagged(String, String, Collection, Callable)} is recorded
+ * under every tag it depends on, such as {@code status:NEW} or {@code counterparty:CP001}.
+ * Saving a deal evicts only the lists tagged with the deal's old and new values, instead of
+ * clearing whole regions.
+ *
+ * The index is kept in Redis sets ({@code deal:cache:tag:{tag}}) so lists cached by other
+ * instances are evicted too, and in memory for this instance. If Redis cannot be reached while
+ * evicting, every region that holds tagged lists is cleared so no stale list survives.
+ */
+@Component
+@Slf4j
+public class DealCacheTags {
+    public static final String ALL = "all";
+    private static final String KEY_PREFIX = "deal:cache:tag:";
+    private static final char SEPARATOR = '\n';
+
+    private final CacheManager cacheManager;
+    private final ObjectProvider<StringRedisTemplate> redisTemplateProvider;
+    private final CacheTierProperties properties;
+    private final Map<String, Set<String>> localIndex = new ConcurrentHashMap<>();
+    private final Set<String> taggedRegions = ConcurrentHashMap.newKeySet();
+    private final MeterRegistry meterRegistry;
+    private final Counter indexFailures;
+
+    public DealCacheTags(CacheManager cacheManager,
+                         ObjectProvider<StringRedisTemplate> redisTemplateProvider,
+                         CacheTierProperties properties,
+                         MeterRegistry meterRegistry) {
+        this.cacheManager = cacheManager;
+        this.redisTemplateProvider = redisTemplateProvider;
+        this.properties = properties;
+        this.meterRegistry = meterRegistry;
+        this.indexFailures = Counter.builder("deal.cache.tag.index.failures")
+            .description("Number of tag index updates that failed and fell back to clearing regions")
+            .register(meterRegistry);
+    }
+
+    /**
+     * Builds a tag from a dimension and its value.
+     */
+    public static String tag(String dimension, Object value) {
+        return dimension + ':' + value;
+    }
+
+    /**
+     * Tags a fixed income deal belongs to: all deals, its type, its status and its counterparty.
+     */
+    public static List<String> tagsOf(FixedIncomeDerivativeDeal deal) {
+        List<String> tags = new ArrayList<>(4);
+        tags.add(ALL);
+        if (deal.getDealType() != null) {
+            tags.add(tag("type", deal.getDealType()));
+        }
+        if (deal.getStatus() != null) {
+            tags.add(tag("status", deal.getStatus()));
+        }
+        if (deal.getCounterparty() != null && deal.getCounterparty().getEntityId() != null) {
+            tags.add(tag("counterparty", deal.getCounterparty().getEntityId()));
+        }
+        return tags;
+    }
+
+    /**
+     * Returns a cached list, loading and tagging it on a miss.
+     *
+     * Tags are recorded inside the loader, so a hit costs no index writes, and before the list is
+     * read, so an eviction during the load removes the record. The record is checked once the
+     * list is cached: if an eviction removed it meanwhile, the list may predate the change that
+     * caused the eviction and is evicted too.
+     *
+     * @param cacheName The list region
+     * @param key The list's key
+     * @param tags The tags the list depends on
+     * @param loader Loads the list on a miss
+     * @return The cached or loaded list
+     */
+    public <T> T getTagged(String cacheName, String key, Collection<String> tags, Callable<T> loader) {
+        Cache cache = cacheManager.getCache(cacheName);
+        if (cache == null) {
+            return call(loader);
+        }
+        String entry = cacheName + SEPARATOR + key;
+        boolean[] loaded = new boolean[1];
+        T value;
+        try {
+            value = cache.get(key, () -> {
+                loaded[0] = true;
+                register(cacheName, entry, tags);
+                return loader.call();
+            });
+        } catch (Cache.ValueRetrievalException e) {
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw e;
+        }
+        if (loaded[0] && evictedSinceRegistered(entry, tags)) {
+            evict(cacheName, key);
+        }
+        return value;
+    }
+
+    /**
+     * Evicts every list recorded under any of the given tags once the current transaction commits.
+     */
+    public void evictTaggedAfterCommit(Collection<String> tags) {
+        Set<String> snapshot = new LinkedHashSet<>(tags);
+        DealCacheWriter.afterCommit(() -> evictTagged(snapshot));
+    }
+
+    /**
+     * Evicts every list recorded under any of the given tags.
+     */
+    public void evictTagged(Collection<String> tags) {
+        Set<String> entries = new HashSet<>();
+        for (String tag : tags) {
+            Set<String> local = localIndex.remove(tag);
+            if (local != null) {
+                entries.addAll(local);
+            }
+        }
+        StringRedisTemplate redisTemplate = redisTemplateProvider.getIfAvailable();
+        if (redisTemplate != null) {
+            try {
+                for (String tag : tags) {
+                    Set<String> shared = redisTemplate.opsForSet().members(KEY_PREFIX + tag);
+                    if (shared != null && !shared.isEmpty()) {
+                        entries.addAll(shared);
+                        redisTemplate.opsForSet().remove(KEY_PREFIX + tag, shared.toArray());
+                    }
+                }
+            } catch (Exception e) {
+                indexFailures.increment();
+                log.warn("Failed to read cache tag index, clearing tagged regions {}: {}", taggedRegions, e.getMessage());
+                taggedRegions.forEach(this::clear);
+                return;
+            }
+        }
+        for (String entry : entries) {
+            int separator = entry.indexOf(SEPARATOR);
+            if (separator > 0) {
+                evict(entry.substring(0, separator), entry.substring(separator + 1));
+            }
+        }
+    }
+
+    private void register(String cacheName, String entry, Collection<String> tags) {
+        taggedRegions.add(cacheName);
+        for (String tag : tags) {
+            localIndex.computeIfAbsent(tag, t -> ConcurrentHashMap.newKeySet()).add(entry);
+        }
+        StringRedisTemplate redisTemplate = redisTemplateProvider.getIfAvailable();
+        if (redisTemplate == null) {
+            return;
+        }
+        try {
+            for (String tag : tags) {
+                redisTemplate.opsForSet().add(KEY_PREFIX + tag, entry);
+                redisTemplate.expire(KEY_PREFIX + tag, properties.getTagIndexTtl());
+            }
+        } catch (Exception e) {
+            // The list is still cached; its region TTL bounds how long another instance can miss the eviction
+            indexFailures.increment();
+            log.warn("Failed to record cache tags for {}: {}", entry, e.getMessage());
+        }
+    }
+
+    // Evicting a tag removes its records, so a missing record means an eviction raced the load
+    private boolean evictedSinceRegistered(String entry, Collection<String> tags) {
+        for (String tag : tags) {
+            Set<String> local = localIndex.get(tag);
+            if (local == null || !local.contains(entry)) {
+                return true;
+            }
+        }
+        StringRedisTemplate redisTemplate = redisTemplateProvider.getIfAvailable();
+        if (redisTemplate == null) {
+            return false;
+        }
+        try {
+            for (String tag : tags) {
+                if (Boolean.FALSE.equals(redisTemplate.opsForSet().isMember(KEY_PREFIX + tag, entry))) {
+                    return true;
+                }
+            }
+        } catch (Exception e) {
+            // As when recording fails, the region TTL bounds how long the list can outlive an eviction
+            indexFailures.increment();
+            log.warn("Failed to check cache tags for {}: {}", entry, e.getMessage());
+        }
+        return false;
+    }
+
+    private void evict(String cacheName, String key) {
+        Cache cache = cacheManager.getCache(cacheName);
+        if (cache == null) {
+            return;
+        }
+        try {
+            cache.evict(key);
+            meterRegistry.counter("deal.cache.tag.evictions", "cache", cacheName).increment();
+        } catch (RuntimeException e) {
+            log.warn("Failed to evict {} from cache {}: {}", key, cacheName, e.getMessage());
+        }
+    }
+
+    private void clear(String cacheName) {
+        Cache cache = cacheManager.getCache(cacheName);
+        if (cache != null) {
+            try {
+                cache.clear();
+            } catch (RuntimeException e) {
+                log.warn("Failed to clear cache {}: {}", cacheName, e.getMessage());
+            }
+        }
+    }
+
+    private static <T> T call(Callable<T> loader) {
+        try {
+            return loader.call();
+        } catch (RuntimeException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,114 @@
+package com.magiccode.tradeingestion.cache;
+
+import com.magiccode.tradeingestion.model.Deal;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Writes saved deals into their single-entity cache regions once the saving transaction commits.
+ *
+ * Ingestion paths call {@link #putAfterCommit(Deal, String, String)} with the by-ID and
+ * by-deal-ID regions their reads use, so the first read after ingestion is a cache hit instead
+ * of a database round trip. Nothing is written when the transaction rolls back. Without an
+ * active transaction the cache is updated immediately.
+ *
+ * List regions cannot be updated in place, so their affected entries are evicted after commit
+ * with {@link #evictAfterCommit(String, Object)}.
+ *
+ * A failing cache write never fails the ingestion: the entry is evicted instead, and the next
+ * read repopulates it.
+ */
+@Component
+@Slf4j
+public class DealCacheWriter {
+    private final CacheManager cacheManager;
+    private final Counter writes;
+    private final Counter failures;
+
+    public DealCacheWriter(CacheManager cacheManager, MeterRegistry meterRegistry) {
+        this.cacheManager = cacheManager;
+        this.writes = Counter.builder("deal.cache.write.through")
+            .description("Number of deals written to the cache after commit")
+            .register(meterRegistry);
+        this.failures = Counter.builder("deal.cache.write.through.failures")
+            .description("Number of write-through cache updates that failed and were evicted instead")
+            .register(meterRegistry);
+    }
+
+    /**
+     * Puts a saved deal into the given regions after the current transaction commits.
+     *
+     * @param deal The saved deal, with its ID assigned
+     * @param byIdCache Region keyed by the deal's UUID
+     * @param byDealIdCache Region keyed by the deal ID
+     */
+    public void putAfterCommit(Deal deal, String byIdCache, String byDealIdCache) {
+        afterCommit(() -> {
+            put(byIdCache, deal.getId(), deal);
+            put(byDealIdCache, deal.getDealId(), deal);
+            writes.increment();
+        });
+    }
+
+    /**
+     * Evicts a cache entry after the current transaction commits.
+     *
+     * @param cacheName The region
+     * @param key The key to evict; ignored when null
+     */
+    public void evictAfterCommit(String cacheName, Object key) {
+        if (key == null) {
+            return;
+        }
+        afterCommit(() -> {
+            Cache cache = cacheManager.getCache(cacheName);
+            if (cache != null) {
+                evict(cache, key);
+            }
+        });
+    }
+
+    private void put(String cacheName, Object key, Deal deal) {
+        Cache cache = cacheManager.getCache(cacheName);
+        if (cache == null || key == null) {
+            return;
+        }
+        try {
+            cache.put(key, deal);
+        } catch (RuntimeException e) {
+            failures.increment();
+            log.warn("Failed to write deal {} to cache {}, evicting instead: {}", deal.getDealId(), cacheName, e.getMessage());
+            evict(cache, key);
+        }
+    }
+
+    private static void evict(Cache cache, Object key) {
+        try {
+            cache.evict(key);
+        } catch (RuntimeException e) {
+            log.warn("Failed to evict {} from cache {}: {}", key, cache.getName(), e.getMessage());
+        }
+    }
+
+    /**
+     * Runs an action after the current transaction commits, or immediately without one.
+     */
+    static void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+}
@@ -0,0 +1,433 @@
+package com.magiccode.tradeingestion.cache;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.Cache;
+import org.springframework.cache.support.SimpleValueWrapper;
+
+import java.time.Duration;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.Supplier;
+
+/**
+ * A cache region with an in-process Caffeine tier (L1) in front of a shared Redis cache (L2).
+ *
+ * Reads try L1 first and populate it from L2 on a miss. Writes and evictions go to both tiers and
+ * are broadcast through the {@link CacheInvalidationPublisher} so other instances drop their L1
+ * copy. L1 entries expire after their own TTL, which bounds how long an instance can serve a value
+ * whose invalidation message it missed.
+ *
+ * {@link #get(Object, Callable)}, which {@code @Cacheable(sync = true)} uses, coalesces concurrent
+ * misses: one caller per key runs the loader and the others wait for its result. With a
+ * refresh-ahead fraction configured, a read of an L1 entry older than that fraction of the L1
+ * TTL reloads it in the background, so hot keys are refreshed before they expire. A refresh
+ * that overlaps a write or eviction of its key on this instance is discarded, or evicted again
+ * if it was already written, so it cannot replace the newer state.
+ *
+ * L1 hands out the same object to every caller, so cached values must be treated as read-only.
+ */
+@Slf4j
+public class TwoTierCache implements Cache {
+    private static final int GENERATION_STRIPES = 64;
+
+    private final String name;
+    private final com.github.benmanes.caffeine.cache.Cache<String, Object> l1;
+    private final Cache l2;
+    private final CacheInvalidationPublisher publisher;
+    private final Counter l1Hits;
+    private final Counter l1Misses;
+    private final Counter l2Hits;
+    private final Counter l2Misses;
+    private final Counter coalesced;
+    private final Counter stampedes;
+    private final Counter refreshes;
+    private final Counter refreshFailures;
+    private final Counter refreshesSuperseded;
+    private final long refreshAfterNanos;
+    private final Executor refreshExecutor;
+    private final ConcurrentMap<String, Load> loads = new ConcurrentHashMap<>();
+    // Bumped before every write or eviction of a key in the stripe, so a refresh can tell it raced one
+    private final AtomicLongArray generations = new AtomicLongArray(GENERATION_STRIPES);
+
+    /**
+     * @param name The cache region name
+     * @param l2 The Redis cache of the region
+     * @param l1MaximumSize Maximum number of L1 entries, or 0 to bypass L1
+     * @param l1Ttl Time after which L1 entries expire
+     * @param refreshAhead Fraction of the L1 TTL after which reads reload an entry, or 0 to disable
+     * @param refreshExecutor Executor for refresh-ahead reloads
+     * @param publisher Publisher for cross-instance invalidation, may be null
+     * @param meterRegistry Registry for the per-tier metrics
+     */
+    public TwoTierCache(String name, Cache l2, long l1MaximumSize, Duration l1Ttl, double refreshAhead,
+                        Executor refreshExecutor, CacheInvalidationPublisher publisher, MeterRegistry meterRegistry) {
+        this.name = name;
+        this.l2 = l2;
+        this.publisher = publisher;
+        if (l1MaximumSize > 0) {
+            this.l1 = Caffeine.newBuilder()
+                .maximumSize(l1MaximumSize)
+                .expireAfterWrite(l1Ttl)
+                .recordStats()
+                .build();
+            CaffeineCacheMetrics.monitor(meterRegistry, l1, name, "tier", "l1");
+        } else {
+            this.l1 = null;
+        }
+        this.l1Hits = requests(meterRegistry, "l1", "hit");
+        this.l1Misses = requests(meterRegistry, "l1", "miss");
+        this.l2Hits = requests(meterRegistry, "l2", "hit");
+        this.l2Misses = requests(meterRegistry, "l2", "miss");
+        this.refreshAfterNanos = l1 != null && refreshAhead > 0 ? (long) (l1Ttl.toNanos() * refreshAhead) : 0;
+        this.refreshExecutor = refreshExecutor;
+        this.coalesced = Counter.builder("deal.cache.coalesced")
+            .description("Number of cache misses that waited for another caller's load instead of loading")
+            .tag("cache", name)
+            .register(meterRegistry);
+        this.stampedes = Counter.builder("deal.cache.stampede")
+            .description("Number of loads that had concurrent callers waiting for the same key")
+            .tag("cache", name)
+            .register(meterRegistry);
+        this.refreshes = refreshes(meterRegistry, "success");
+        this.refreshFailures = refreshes(meterRegistry, "failure");
+        this.refreshesSuperseded = refreshes(meterRegistry, "superseded");
+    }
+
+    private Counter refreshes(MeterRegistry meterRegistry, String result) {
+        return Counter.builder("deal.cache.refresh")
+            .description("Number of refresh-ahead reloads")
+            .tag("cache", name)
+            .tag("result", result)
+            .register(meterRegistry);
+    }
+
+    private Counter requests(MeterRegistry meterRegistry, String tier, String result) {
+        return Counter.builder("deal.cache.requests")
+            .description("Number of cache lookups per tier and result")
+            .tag("cache", name)
+            .tag("tier", tier)
+            .tag("result", result)
+            .register(meterRegistry);
+    }
+
+    @Override
+    public String getName() {
+        return name;
+    }
+
+    @Override
+    public Object getNativeCache() {
+        return l2.getNativeCache();
+    }
+
+    @Override
+    public ValueWrapper get(Object key) {
+        Object local = getLocal(key);
+        if (local != null) {
+            return new SimpleValueWrapper(local);
+        }
+        ValueWrapper wrapper = l2.get(key);
+        if (wrapper == null || wrapper.get() == null) {
+            l2Misses.increment();
+            return wrapper;
+        }
+        l2Hits.increment();
+        putLocal(key, wrapper.get());
+        return wrapper;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T get(Object key, Class<T> type) {
+        ValueWrapper wrapper = get(key);
+        Object value = wrapper != null ? wrapper.get() : null;
+        if (value != null && type != null && !type.isInstance(value)) {
+            throw new IllegalStateException("Cached value is not of required type [" + type.getName() + "]: " + value);
+        }
+        return (T) value;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T get(Object key, Callable<T> valueLoader) {
+        Object local = getLocal(key);
+        if (local != null) {
+            refreshAhead(key, valueLoader);
+            return (T) local;
+        }
+        String localKey = localKey(key);
+        Load load = new Load();
+        Load inFlight = loads.putIfAbsent(localKey, load);
+        if (inFlight != null) {
+            coalesced.increment();
+            inFlight.waiters.incrementAndGet();
+            return (T) inFlight.await();
+        }
+        try {
+            Object value = load(key, valueLoader);
+            load.future.complete(value);
+            return (T) value;
+        } catch (RuntimeException e) {
+            load.future.completeExceptionally(e);
+            throw e;
+        } finally {
+            loads.remove(localKey, load);
+            if (load.waiters.get() > 0) {
+                stampedes.increment();
+            }
+        }
+    }
+
+    private Object load(Object key, Callable<?> valueLoader) {
+        ValueWrapper wrapper = l2.get(key);
+        if (wrapper != null && wrapper.get() != null) {
+            l2Hits.increment();
+            putLocal(key, wrapper.get());
+            return wrapper.get();
+        }
+        l2Misses.increment();
+        Object value;
+        try {
+            value = valueLoader.call();
+        } catch (Exception e) {
+            throw new ValueRetrievalException(key, valueLoader, e);
+        }
+        if (value != null) {
+            l2.put(key, value);
+            putLocal(key, value);
+        }
+        return value;
+    }
+
+    /**
+     * Reloads an L1 entry in the background once it is older than the refresh-ahead threshold.
+     * The reloaded value is written to both tiers without an invalidation broadcast, since other
+     * instances bound their staleness by their own L1 TTL.
+     *
+     * The key's generation is read before loading. If a write or eviction bumped it before the
+     * reloaded value is written, the value is dropped; if it was bumped while the value was being
+     * written, the key is evicted, since the newer write may have landed first.
+     */
+    private void refreshAhead(Object key, Callable<?> valueLoader) {
+        if (refreshAfterNanos <= 0 || refreshExecutor == null) {
+            return;
+        }
+        String localKey = localKey(key);
+        long age = l1.policy().expireAfterWrite()
+            .map(expiration -> expiration.ageOf(localKey, TimeUnit.NANOSECONDS).orElse(0))
+            .orElse(0L);
+        if (age < refreshAfterNanos) {
+            return;
+        }
+        Load load = new Load();
+        if (loads.putIfAbsent(localKey, load) != null) {
+            return;
+        }
+        try {
+            int stripe = stripe(localKey);
+            long generation = generations.get(stripe);
+            refreshExecutor.execute(() -> {
+                try {
+                    Object value = valueLoader.call();
+                    if (generations.get(stripe) != generation) {
+                        refreshesSuperseded.increment();
+                    } else if (value != null) {
+                        l2.put(key, value);
+                        putLocal(key, value);
+                        if (generations.get(stripe) != generation) {
+                            evict(key);
+                            refreshesSuperseded.increment();
+                        } else {
+                            refreshes.increment();
+                        }
+                    } else {
+                        refreshes.increment();
+                    }
+                    load.future.complete(value);
+                } catch (Exception e) {
+                    load.future.completeExceptionally(new ValueRetrievalException(key, valueLoader, e));
+                    refreshFailures.increment();
+                    log.debug("Refresh-ahead of {} in cache {} failed: {}", key, name, e.getMessage());
+                } finally {
+                    loads.remove(localKey, load);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            loads.remove(localKey, load);
+        }
+    }
+
+    @Override
+    public CompletableFuture<?> retrieve(Object key) {
+        Object local = getLocal(key);
+        if (local != null) {
+            return CompletableFuture.completedFuture(local);
+        }
+        CompletableFuture<?> remote = l2.retrieve(key);
+        if (remote == null) {
+            return null;
+        }
+        return remote.thenApply(value -> {
+            Object unwrapped = value instanceof ValueWrapper wrapper ? wrapper.get() : value;
+            (unwrapped != null ? l2Hits : l2Misses).increment();
+            if (unwrapped != null) {
+                putLocal(key, unwrapped);
+            }
+            return value;
+        });
+    }
+
+    @Override
+    public <T> CompletableFuture<T> retrieve(Object key, Supplier<CompletableFuture<T>> valueLoader) {
+        return l2.retrieve(key, valueLoader);
+    }
+
+    @Override
+    public void put(Object key, Object value) {
+        bump(key);
+        l2.put(key, value);
+        if (value != null) {
+            putLocal(key, value);
+        } else {
+            evictLocal(key);
+        }
+        publish(key);
+    }
+
+    @Override
+    public ValueWrapper putIfAbsent(Object key, Object value) {
+        bump(key);
+        ValueWrapper existing = l2.putIfAbsent(key, value);
+        evictLocal(key);
+        publish(key);
+        return existing;
+    }
+
+    @Override
+    public void evict(Object key) {
+        bump(key);
+        l2.evict(key);
+        evictLocal(key);
+        publish(key);
+    }
+
+    @Override
+    public boolean evictIfPresent(Object key) {
+        bump(key);
+        boolean evicted = l2.evictIfPresent(key);
+        evictLocal(key);
+        publish(key);
+        return evicted;
+    }
+
+    @Override
+    public void clear() {
+        bumpAll();
+        l2.clear();
+        clearLocal();
+        publish(null);
+    }
+
+    @Override
+    public boolean invalidate() {
+        bumpAll();
+        boolean invalidated = l2.invalidate();
+        clearLocal();
+        publish(null);
+        return invalidated;
+    }
+
+    /**
+     * Drops a key from L1 only, used when another instance changed it.
+     */
+    void evictLocal(Object key) {
+        bump(key);
+        if (l1 != null) {
+            l1.invalidate(localKey(key));
+        }
+    }
+
+    /**
+     * Drops all L1 entries only, used when another instance cleared the region.
+     */
+    void clearLocal() {
+        bumpAll();
+        if (l1 != null) {
+            l1.invalidateAll();
+        }
+    }
+
+    private Object getLocal(Object key) {
+        if (l1 == null) {
+            return null;
+        }
+        Object value = l1.getIfPresent(localKey(key));
+        (value != null ? l1Hits : l1Misses).increment();
+        return value;
+    }
+
+    private void putLocal(Object key, Object value) {
+        if (l1 != null) {
+            l1.put(localKey(key), value);
+        }
+    }
+
+    private void bump(Object key) {
+        generations.incrementAndGet(stripe(localKey(key)));
+    }
+
+    private void bumpAll() {
+        for (int i = 0; i < GENERATION_STRIPES; i++) {
+            generations.incrementAndGet(i);
+        }
+    }
+
+    private static int stripe(String localKey) {
+        return Math.floorMod(localKey.hashCode(), GENERATION_STRIPES);
+    }
+
+    private void publish(Object key) {
+        if (publisher != null) {
+            publisher.publish(name, key != null ? localKey(key) : null);
+        }
+    }
+
+    /**
+     * A load in progress for one key, shared by every caller that misses on the key meanwhile.
+     */
+    private static final class Load {
+        private final CompletableFuture<Object> future = new CompletableFuture<>();
+        private final AtomicInteger waiters = new AtomicInteger();
+
+        private Object await() {
+            try {
+                return future.join();
+            } catch (CompletionException e) {
+                if (e.getCause() instanceof RuntimeException runtimeException) {
+                    throw runtimeException;
+                }
+                throw e;
+            }
+        }
+    }
+
+    /**
+     * Keys are compared by their string form, the same form RedisCache stores them under,
+     * so an invalidation message names exactly the entry it refers to.
+     */
+    static String localKey(Object key) {
+        return String.valueOf(key);
+    }
+}
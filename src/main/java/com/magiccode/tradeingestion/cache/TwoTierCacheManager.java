@@ -0,0 +1,113 @@
+package com.magiccode.tradeingestion.cache;
+
+import com.magiccode.tradeingestion.config.CacheTierProperties;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cache manager that layers a Caffeine L1 over every region of a Redis cache manager.
+ *
+ * L1 size and TTL come from {@link CacheTierProperties#region(String)}; a region with L1
+ * disabled is served from Redis only. The manager also listens on the invalidation channel and
+ * drops L1 entries changed by other instances, and owns the small bounded pool that runs
+ * refresh-ahead reloads; reloads that do not fit are skipped.
+ */
+@Slf4j
+public class TwoTierCacheManager implements CacheManager, MessageListener, DisposableBean {
+    private static final int REFRESH_THREADS = 4;
+    private static final int REFRESH_QUEUE_CAPACITY = 1000;
+
+    private final CacheManager l2CacheManager;
+    private final CacheTierProperties properties;
+    private final CacheInvalidationPublisher publisher;
+    private final MeterRegistry meterRegistry;
+    private final ConcurrentMap<String, TwoTierCache> caches = new ConcurrentHashMap<>();
+    private final ThreadPoolExecutor refreshExecutor = new ThreadPoolExecutor(
+        REFRESH_THREADS, REFRESH_THREADS, 60, TimeUnit.SECONDS,
+        new ArrayBlockingQueue<>(REFRESH_QUEUE_CAPACITY),
+        Thread.ofPlatform().name("cache-refresh-", 0).daemon().factory());
+
+    public TwoTierCacheManager(CacheManager l2CacheManager, CacheTierProperties properties,
+                               CacheInvalidationPublisher publisher, MeterRegistry meterRegistry) {
+        this.l2CacheManager = l2CacheManager;
+        this.properties = properties;
+        this.publisher = publisher;
+        this.meterRegistry = meterRegistry;
+        this.refreshExecutor.allowCoreThreadTimeOut(true);
+    }
+
+    @Override
+    public Cache getCache(String name) {
+        TwoTierCache cache = caches.get(name);
+        if (cache != null) {
+            return cache;
+        }
+        Cache l2 = l2CacheManager.getCache(name);
+        if (l2 == null) {
+            return null;
+        }
+        return caches.computeIfAbsent(name, n -> createCache(n, l2));
+    }
+
+    @Override
+    public Collection<String> getCacheNames() {
+        Set<String> names = new LinkedHashSet<>(l2CacheManager.getCacheNames());
+        names.addAll(caches.keySet());
+        return names;
+    }
+
+    private TwoTierCache createCache(String name, Cache l2) {
+        CacheTierProperties.Region region = properties.region(name);
+        long l1Size = Boolean.TRUE.equals(region.getL1Enabled()) ? region.getL1MaximumSize() : 0;
+        return new TwoTierCache(name, l2, l1Size, region.getL1Ttl(), region.getRefreshAhead(),
+            refreshExecutor, publisher, meterRegistry);
+    }
+
+    @Override
+    public void destroy() {
+        refreshExecutor.shutdownNow();
+    }
+
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        handleInvalidation(new String(message.getBody(), StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Applies an invalidation message published by another instance to the local L1.
+     */
+    void handleInvalidation(String message) {
+        String[] parts = message.split(String.valueOf(CacheInvalidationPublisher.SEPARATOR), 3);
+        if (parts.length < 2) {
+            log.warn("Ignoring malformed cache invalidation message");
+            return;
+        }
+        if (publisher != null && publisher.getNodeId().equals(parts[0])) {
+            return;
+        }
+        TwoTierCache cache = caches.get(parts[1]);
+        if (cache == null) {
+            return;
+        }
+        if (parts.length == 3) {
+            cache.evictLocal(parts[2]);
+        } else {
+            cache.clearLocal();
+        }
+    }
+}
@@ -0,0 +1,33 @@
+package com.magiccode.tradeingestion.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Configuration properties for the hot-reloadable business rules behind
+ * {@link com.magiccode.tradeingestion.service.validation.BusinessRuleEngine}.
+ *
+ * The rule file is checked for changes every {@code deal.business-rules.reload-interval} milliseconds.
+ * While disabled no business rules are evaluated and lifecycle transitions follow the built-in
+ * sequence.
+ */
+@Getter
+@Setter
+@Configuration
+@ConfigurationProperties(prefix = "deal.business-rules")
+public class BusinessRuleProperties {
+    private boolean enabled = false;
+
+    /**
+     * Versioned rule file, as a Spring resource location such as {@code file:/etc/deal/business-rules.json}
+     */
+    private String location = "classpath:business-rules.json";
+
+    public void validate() {
+        if (enabled && (location == null || location.isBlank())) {
+            throw new IllegalStateException("deal.business-rules.location must be set when business rules are enabled");
+        }
+    }
+}
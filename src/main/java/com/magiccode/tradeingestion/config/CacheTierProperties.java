@@ -0,0 +1,102 @@
+package com.magiccode.tradeingestion.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Configuration properties for the two-tier deal caches.
+ *
+ * Each cache region gets a size-bounded in-process Caffeine tier (L1) in front of Redis (L2).
+ * Regions without their own entry under {@code regions} use {@code defaults}.
+ */
+@Getter
+@Setter
+@Configuration
+@ConfigurationProperties(prefix = "deal.cache")
+public class CacheTierProperties {
+    private boolean twoTierEnabled = true;
+
+    /**
+     * Redis pub/sub channel used to tell other instances to drop L1 entries
+     */
+    private String invalidationChannel = "deal-cache-invalidation";
+
+    /**
+     * Expiry of the Redis sets that record which cached lists carry a tag; at least the longest list L2 TTL
+     */
+    private Duration tagIndexTtl = Duration.ofHours(1);
+
+    private Region defaults = Region.withDefaults();
+    private Map<String, Region> regions = new HashMap<>();
+
+    public Region region(String name) {
+        Region region = regions.get(name);
+        if (region == null) {
+            return defaults;
+        }
+        Region merged = new Region();
+        merged.setL1Enabled(region.getL1Enabled() != null ? region.getL1Enabled() : defaults.getL1Enabled());
+        merged.setL1MaximumSize(region.getL1MaximumSize() != null ? region.getL1MaximumSize() : defaults.getL1MaximumSize());
+        merged.setL1Ttl(region.getL1Ttl() != null ? region.getL1Ttl() : defaults.getL1Ttl());
+        merged.setL2Ttl(region.getL2Ttl() != null ? region.getL2Ttl() : defaults.getL2Ttl());
+        merged.setRefreshAhead(region.getRefreshAhead() != null ? region.getRefreshAhead() : defaults.getRefreshAhead());
+        return merged;
+    }
+
+    public void validate() {
+        if (tagIndexTtl.isNegative() || tagIndexTtl.isZero()) {
+            throw new IllegalStateException("Cache tag index TTL must be positive");
+        }
+        validate("defaults", defaults);
+        for (Map.Entry<String, Region> entry : regions.entrySet()) {
+            validate(entry.getKey(), region(entry.getKey()));
+        }
+    }
+
+    private static void validate(String name, Region region) {
+        if (region.getL1Ttl().compareTo(region.getL2Ttl()) > 0) {
+            throw new IllegalStateException("L1 TTL of cache region " + name + " must not exceed its L2 TTL");
+        }
+        if (region.getRefreshAhead() < 0 || region.getRefreshAhead() >= 1) {
+            throw new IllegalStateException("Refresh-ahead of cache region " + name + " must be at least 0 and below 1");
+        }
+    }
+
+    /**
+     * Settings of one cache region; unset values fall back to {@code defaults}.
+     */
+    @Getter
+    @Setter
+    public static class Region {
+        private Boolean l1Enabled;
+        private Long l1MaximumSize;
+
+        /**
+         * Kept below the L2 TTL so an entry never outlives its Redis copy in memory
+         */
+        private Duration l1Ttl;
+
+        private Duration l2Ttl;
+
+        /**
+         * Fraction of the L1 TTL after which a read reloads the entry in the background; 0 disables
+         */
+        private Double refreshAhead;
+
+        static Region withDefaults() {
+            Region region = new Region();
+            region.setL1Enabled(true);
+            region.setL1MaximumSize(10_000L);
+            region.setL1Ttl(Duration.ofMinutes(5));
+            region.setL2Ttl(Duration.ofMinutes(30));
+            region.setRefreshAhead(0.0);
+            return region;
+        }
+    }
+}
@@ -0,0 +1,40 @@
+package com.magiccode.tradeingestion.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.util.unit.DataSize;
+
+/**
+ * Configuration properties for the encoding of Redis cache values and stashed messages.
+ *
+ * Values are always readable in both formats, so a rolling deploy first ships the reader with
+ * {@code format: json} and flips to {@code smile} once every instance runs it.
+ */
+@Getter
+@Setter
+@Configuration
+@ConfigurationProperties(prefix = "deal.codec")
+public class CompactCodecProperties {
+    public enum Format {
+        JSON,
+        SMILE
+    }
+
+    /**
+     * Format new values are written in
+     */
+    private Format format = Format.JSON;
+
+    /**
+     * Encoded values at least this large are LZ4-compressed; zero disables compression
+     */
+    private DataSize compressionThreshold = DataSize.ofKilobytes(1);
+
+    public void validate() {
+        if (compressionThreshold.isNegative()) {
+            throw new IllegalStateException("deal.codec.compression-threshold must not be negative");
+        }
+    }
+}
@@ -0,0 +1,50 @@
+package com.magiccode.tradeingestion.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+/**
+ * Configuration properties for the blocks of deal IDs fetched from the deal ID service.
+ *
+ * Block sizes follow the consumption rate: each block aims to last {@code target-coverage},
+ * bounded by {@code min-size} and {@code max-size}.
+ */
+@Getter
+@Setter
+@Configuration
+@ConfigurationProperties(prefix = "deal.id.block")
+public class DealIdBlockProperties {
+    private int initialSize = 100;
+    private int minSize = 20;
+    private int maxSize = 5_000;
+
+    /**
+     * How long a block should last at the recent consumption rate
+     */
+    private Duration targetCoverage = Duration.ofSeconds(10);
+
+    /**
+     * Fraction of the last block size below which the next block is prefetched
+     */
+    private double lowWatermark = 0.25;
+
+    private Duration fetchTimeout = Duration.ofSeconds(2);
+    private int maxRetries = 3;
+    private Duration retryBackoff = Duration.ofMillis(100);
+
+    public void validate() {
+        if (minSize <= 0 || minSize > maxSize || initialSize < minSize || initialSize > maxSize) {
+            throw new IllegalStateException("deal.id.block sizes must satisfy 0 < min-size <= initial-size <= max-size");
+        }
+        if (lowWatermark <= 0 || lowWatermark >= 1) {
+            throw new IllegalStateException("deal.id.block.low-watermark must be between 0 and 1");
+        }
+        if (maxRetries < 0) {
+            throw new IllegalStateException("deal.id.block.max-retries must not be negative");
+        }
+    }
+}
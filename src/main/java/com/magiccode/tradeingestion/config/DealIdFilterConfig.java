@@ -0,0 +1,27 @@
+package com.magiccode.tradeingestion.config;
+
+import com.magiccode.tradeingestion.service.dedup.DealIdFilter;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+
+/**
+ * Subscribes the deal ID filter to IDs accepted by other instances when sharing through Redis is enabled.
+ */
+@Configuration
+@ConditionalOnProperty(name = "deal.dedup.filter.share-via-redis", havingValue = "true")
+public class DealIdFilterConfig {
+
+    @Bean
+    public RedisMessageListenerContainer dealIdFilterListenerContainer(RedisConnectionFactory connectionFactory,
+                                                                       DealIdFilter dealIdFilter,
+                                                                       DealIdFilterProperties properties) {
+        RedisMessageListenerContainer container = new RedisMessageListenerContainer();
+        container.setConnectionFactory(connectionFactory);
+        container.addMessageListener(dealIdFilter, new ChannelTopic(properties.getChannel()));
+        return container;
+    }
+}
@@ -0,0 +1,46 @@
+package com.magiccode.tradeingestion.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Configuration properties for the in-memory filter of known deal IDs used to skip
+ * duplicate checks against the database.
+ */
+@Getter
+@Setter
+@Configuration
+@ConfigurationProperties(prefix = "deal.dedup.filter")
+public class DealIdFilterProperties {
+    /**
+     * Use the filter to skip duplicate lookups. Without {@link #shareViaRedis} the filter only
+     * knows deals accepted by this instance, so a duplicate delivered to another instance is caught
+     * by the unique deal ID column on save instead of by the lookup.
+     */
+    private boolean enabled = true;
+
+    /**
+     * Deal IDs the first filter segment is sized for; the filter grows beyond it
+     */
+    private long expectedInsertions = 1_000_000;
+
+    private double falsePositiveRate = 0.001;
+
+    /**
+     * Broadcast inserted deal IDs over Redis pub/sub so every instance's filter sees them
+     */
+    private boolean shareViaRedis = false;
+
+    private String channel = "deal-id-filter";
+
+    public void validate() {
+        if (expectedInsertions <= 0) {
+            throw new IllegalStateException("deal.dedup.filter.expected-insertions must be positive");
+        }
+        if (falsePositiveRate <= 0 || falsePositiveRate >= 1) {
+            throw new IllegalStateException("deal.dedup.filter.false-positive-rate must be between 0 and 1");
+        }
+    }
+}
@@ -0,0 +1,20 @@
+package com.magiccode.tradeingestion.config;
+
+import com.magiccode.tradeingestion.service.entitlement.EntitlementSource;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Provides entitlements from {@code deal.entitlements.principals} unless another
+ * {@link EntitlementSource} is defined.
+ */
+@Configuration
+public class EntitlementConfig {
+
+    @Bean
+    @ConditionalOnMissingBean(EntitlementSource.class)
+    public EntitlementSource configuredEntitlementSource(EntitlementProperties properties) {
+        return principalName -> properties.getPrincipals().get(principalName);
+    }
+}
@@ -0,0 +1,94 @@
+package com.magiccode.tradeingestion.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Configuration properties for the compiled entitlement model behind
+ * {@link com.magiccode.tradeingestion.service.DefaultAuthorizationService}.
+ *
+ * While disabled every check is authorized, as before entitlements existed.
+ */
+@Getter
+@Setter
+@Configuration
+@ConfigurationProperties(prefix = "deal.entitlements")
+public class EntitlementProperties {
+    private boolean enabled = false;
+
+    /**
+     * Number of principals whose compiled entitlements are kept in memory
+     */
+    private long cacheMaximumSize = 10_000;
+
+    private Duration cacheTtl = Duration.ofMinutes(30);
+
+    /**
+     * Age after which a principal's entitlements are reloaded in the background on the next check
+     */
+    private Duration refreshAfter = Duration.ofMinutes(5);
+
+    /**
+     * Classification levels from lowest to highest; a clearance covers its level and all below
+     */
+    private List<String> classificationLevels = new ArrayList<>(List.of("PUBLIC", "INTERNAL", "CONFIDENTIAL", "RESTRICTED"));
+
+    /**
+     * Every role a principal can hold or a resource can require
+     */
+    private Set<String> roles = new LinkedHashSet<>();
+
+    /**
+     * Every jurisdiction a principal can be entitled to or a resource can belong to
+     */
+    private Set<String> jurisdictions = new LinkedHashSet<>();
+
+    /**
+     * Grants by principal name, used when no other entitlement source is configured
+     */
+    private Map<String, Grant> principals = new HashMap<>();
+
+    public void validate() {
+        if (cacheMaximumSize <= 0) {
+            throw new IllegalStateException("deal.entitlements.cache-maximum-size must be positive");
+        }
+        if (refreshAfter.compareTo(cacheTtl) >= 0) {
+            throw new IllegalStateException("deal.entitlements.refresh-after must be shorter than cache-ttl");
+        }
+        if (roles.size() > Long.SIZE || jurisdictions.size() > Long.SIZE) {
+            throw new IllegalStateException("deal.entitlements supports at most 64 roles and 64 jurisdictions");
+        }
+    }
+
+    /**
+     * Entitlements granted to one principal.
+     */
+    @Getter
+    @Setter
+    public static class Grant {
+        private Set<String> roles = new HashSet<>();
+
+        /**
+         * Highest classification level the principal may see
+         */
+        private String clearance;
+
+        private Set<String> jurisdictions = new HashSet<>();
+
+        /**
+         * Permissions in the form {@code RESOURCE:OPERATION}, for example {@code DEAL:READ}
+         */
+        private Set<String> permissions = new HashSet<>();
+    }
+}
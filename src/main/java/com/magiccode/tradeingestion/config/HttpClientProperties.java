@@ -0,0 +1,124 @@
+package com.magiccode.tradeingestion.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Configuration properties for the outbound HTTP clients, one per downstream service.
+ *
+ * Downstreams without their own entry under {@code clients}, and unset values of those that have
+ * one, use {@code defaults}.
+ */
+@Getter
+@Setter
+@Configuration
+@ConfigurationProperties(prefix = "deal.http-client")
+public class HttpClientProperties {
+    private Client defaults = Client.withDefaults();
+    private Map<String, Client> clients = new HashMap<>();
+
+    public Client client(String name) {
+        Client client = clients.get(name);
+        if (client == null) {
+            return defaults;
+        }
+        Client merged = new Client();
+        merged.setMaxConnections(client.getMaxConnections() != null ? client.getMaxConnections() : defaults.getMaxConnections());
+        merged.setPendingAcquireMaxCount(client.getPendingAcquireMaxCount() != null ? client.getPendingAcquireMaxCount() : defaults.getPendingAcquireMaxCount());
+        merged.setPendingAcquireTimeout(client.getPendingAcquireTimeout() != null ? client.getPendingAcquireTimeout() : defaults.getPendingAcquireTimeout());
+        merged.setMaxIdleTime(client.getMaxIdleTime() != null ? client.getMaxIdleTime() : defaults.getMaxIdleTime());
+        merged.setMaxLifeTime(client.getMaxLifeTime() != null ? client.getMaxLifeTime() : defaults.getMaxLifeTime());
+        merged.setConnectTimeout(client.getConnectTimeout() != null ? client.getConnectTimeout() : defaults.getConnectTimeout());
+        merged.setReadTimeout(client.getReadTimeout() != null ? client.getReadTimeout() : defaults.getReadTimeout());
+        merged.setResponseTimeout(client.getResponseTimeout() != null ? client.getResponseTimeout() : defaults.getResponseTimeout());
+        merged.setHttp2(client.getHttp2() != null ? client.getHttp2() : defaults.getHttp2());
+        merged.setLogSampleRate(client.getLogSampleRate() != null ? client.getLogSampleRate() : defaults.getLogSampleRate());
+        merged.setLogMaxPerSecond(client.getLogMaxPerSecond() != null ? client.getLogMaxPerSecond() : defaults.getLogMaxPerSecond());
+        return merged;
+    }
+
+    public void validate() {
+        validate("defaults", defaults);
+        for (String name : clients.keySet()) {
+            validate(name, client(name));
+        }
+    }
+
+    private static void validate(String name, Client client) {
+        if (client.getMaxConnections() <= 0 || client.getPendingAcquireMaxCount() < 0) {
+            throw new IllegalStateException("Connection pool limits of HTTP client " + name + " must be positive");
+        }
+        if (client.getLogSampleRate() < 0 || client.getLogSampleRate() > 1) {
+            throw new IllegalStateException("Log sample rate of HTTP client " + name + " must be between 0 and 1");
+        }
+        if (client.getLogMaxPerSecond() < 0) {
+            throw new IllegalStateException("Log rate limit of HTTP client " + name + " must not be negative");
+        }
+    }
+
+    /**
+     * Settings of one downstream's client; unset values fall back to {@code defaults}.
+     */
+    @Getter
+    @Setter
+    public static class Client {
+        private Integer maxConnections;
+
+        /**
+         * Requests allowed to wait for a pooled connection before new ones are rejected
+         */
+        private Integer pendingAcquireMaxCount;
+
+        private Duration pendingAcquireTimeout;
+        private Duration maxIdleTime;
+        private Duration maxLifeTime;
+        private Duration connectTimeout;
+
+        /**
+         * Longest gap between two reads on an open connection
+         */
+        private Duration readTimeout;
+
+        /**
+         * Longest wait for the response after the request was sent
+         */
+        private Duration responseTimeout;
+
+        /**
+         * Negotiate HTTP/2 (h2c upgrade on plain connections), falling back to HTTP/1.1
+         */
+        private Boolean http2;
+
+        /**
+         * Fraction of exchanges logged; 0 disables request logging
+         */
+        private Double logSampleRate;
+
+        /**
+         * Upper bound on logged exchanges per second, whatever the sample rate
+         */
+        private Integer logMaxPerSecond;
+
+        static Client withDefaults() {
+            Client client = new Client();
+            client.setMaxConnections(200);
+            client.setPendingAcquireMaxCount(1_000);
+            client.setPendingAcquireTimeout(Duration.ofSeconds(2));
+            client.setMaxIdleTime(Duration.ofSeconds(30));
+            client.setMaxLifeTime(Duration.ofMinutes(5));
+            client.setConnectTimeout(Duration.ofSeconds(1));
+            client.setReadTimeout(Duration.ofSeconds(5));
+            client.setResponseTimeout(Duration.ofSeconds(5));
+            client.setHttp2(false);
+            client.setLogSampleRate(0.01);
+            client.setLogMaxPerSecond(10);
+            return client;
+        }
+    }
+}
@@ -0,0 +1,40 @@
+package com.magiccode.tradeingestion.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+/**
+ * Configuration properties for the store of deal versions that have already been processed.
+ */
+@Getter
+@Setter
+@Configuration
+@ConfigurationProperties(prefix = "deal.idempotency")
+public class IdempotencyProperties {
+    private long maximumSize = 1_000_000;
+
+    /**
+     * How long a processed deal version is remembered; bounds how late a duplicate is still detected
+     */
+    private Duration ttl = Duration.ofHours(24);
+
+    /**
+     * Whether processed versions are also recorded in Redis, to detect duplicates across instances
+     */
+    private boolean redisEnabled = false;
+
+    private String redisKeyPrefix = "deal:idempotency:";
+
+    public void validate() {
+        if (maximumSize <= 0) {
+            throw new IllegalStateException("deal.idempotency.maximum-size must be positive");
+        }
+        if (ttl.isNegative() || ttl.isZero()) {
+            throw new IllegalStateException("deal.idempotency.ttl must be positive");
+        }
+    }
+}
@@ -0,0 +1,54 @@
+package com.magiccode.tradeingestion.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.magiccode.tradeingestion.repository.FixedIncomeDerivativeDealRepository;
+import com.magiccode.tradeingestion.service.DealHistoryService;
+import com.magiccode.tradeingestion.service.FixedIncomeDerivativeDealService;
+import com.magiccode.tradeingestion.service.RawPayloadStore;
+import com.magiccode.tradeingestion.service.journal.IngestJournal;
+import com.magiccode.tradeingestion.service.journal.WriteBehindDealService;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.jms.core.JmsTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.io.IOException;
+import java.nio.file.Path;
+
+/**
+ * Configuration for write-behind ingestion through the local ingest journal.
+ *
+ * Both beans are singletons created before the JMS listener containers start, so journal
+ * records left by a previous run are flushed to Postgres before consumption resumes.
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "deal.journal", name = "enabled", havingValue = "true")
+public class IngestJournalConfig {
+
+    @Bean(destroyMethod = "close")
+    public IngestJournal ingestJournal(IngestJournalProperties properties, MeterRegistry meterRegistry) throws IOException {
+        properties.validate();
+        return new IngestJournal(
+            Path.of(properties.getDirectory()),
+            (int) properties.getSegmentSize().toBytes(),
+            properties.getGroupCommitWindow(),
+            meterRegistry);
+    }
+
+    @Bean
+    public WriteBehindDealService writeBehindDealService(IngestJournal ingestJournal,
+                                                         FixedIncomeDerivativeDealService dealService,
+                                                         FixedIncomeDerivativeDealRepository dealRepository,
+                                                         DealHistoryService dealHistoryService,
+                                                         RawPayloadStore rawPayloadStore,
+                                                         JmsTemplate jmsTemplate,
+                                                         ObjectMapper objectMapper,
+                                                         PlatformTransactionManager transactionManager,
+                                                         MeterRegistry meterRegistry,
+                                                         IngestJournalProperties properties) {
+        return new WriteBehindDealService(ingestJournal, dealService, dealRepository, dealHistoryService, rawPayloadStore,
+            jmsTemplate, objectMapper, transactionManager, meterRegistry, properties.getFlushBatchSize(), properties.getFlushInterval());
+    }
+}
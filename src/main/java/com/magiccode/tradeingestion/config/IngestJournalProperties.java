@@ -0,0 +1,46 @@
+package com.magiccode.tradeingestion.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+
+/**
+ * Configuration properties for the local ingest journal used in write-behind mode.
+ *
+ * When enabled, accepted fixed income deals are acknowledged once they are durable in the
+ * journal and a background flusher writes them to Postgres in batches.
+ */
+@Getter
+@Setter
+@Configuration
+@ConfigurationProperties(prefix = "deal.journal")
+public class IngestJournalProperties {
+    private boolean enabled = false;
+    private String directory = "./data/journal";
+    private DataSize segmentSize = DataSize.ofMegabytes(64);
+
+    /**
+     * How long the sync thread waits for more appends before issuing an fsync.
+     * Zero syncs as soon as anything is pending.
+     */
+    private Duration groupCommitWindow = Duration.ofMillis(1);
+
+    private int flushBatchSize = 500;
+    private Duration flushInterval = Duration.ofMillis(100);
+
+    public void validate() {
+        if (directory == null || directory.isEmpty()) {
+            throw new IllegalStateException("Journal directory is required when the ingest journal is enabled");
+        }
+        if (segmentSize.toBytes() < DataSize.ofKilobytes(64).toBytes() || segmentSize.toBytes() > Integer.MAX_VALUE) {
+            throw new IllegalStateException("Journal segment size must be between 64KB and 2GB");
+        }
+        if (flushBatchSize <= 0) {
+            throw new IllegalStateException("Journal flush batch size must be positive");
+        }
+    }
+}
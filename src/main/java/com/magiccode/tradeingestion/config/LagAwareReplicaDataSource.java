@@ -0,0 +1,46 @@
+package com.magiccode.tradeingestion.config;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+
+import javax.sql.DataSource;
+import java.util.Map;
+
+/**
+ * Datasource used for read-only connections.
+ *
+ * Routes to the replica pool while {@link ReplicaLagMonitor} reports it as available,
+ * and falls back to the primary pool otherwise so stale reads are never served.
+ */
+public class LagAwareReplicaDataSource extends AbstractRoutingDataSource {
+
+    public enum Route {
+        PRIMARY,
+        REPLICA
+    }
+
+    private final ReplicaLagMonitor lagMonitor;
+    private final Counter replicaRoutes;
+    private final Counter fallbackRoutes;
+
+    public LagAwareReplicaDataSource(DataSource primary, DataSource replica,
+                                     ReplicaLagMonitor lagMonitor, MeterRegistry meterRegistry) {
+        this.lagMonitor = lagMonitor;
+        this.replicaRoutes = meterRegistry.counter("deal.datasource.read.route", "route", "replica");
+        this.fallbackRoutes = meterRegistry.counter("deal.datasource.read.route", "route", "primary");
+        setTargetDataSources(Map.of(Route.PRIMARY, primary, Route.REPLICA, replica));
+        setDefaultTargetDataSource(primary);
+        afterPropertiesSet();
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        if (lagMonitor.isReplicaAvailable()) {
+            replicaRoutes.increment();
+            return Route.REPLICA;
+        }
+        fallbackRoutes.increment();
+        return Route.PRIMARY;
+    }
+}
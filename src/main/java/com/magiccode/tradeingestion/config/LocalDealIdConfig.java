@@ -0,0 +1,28 @@
+package com.magiccode.tradeingestion.config;
+
+import com.magiccode.tradeingestion.service.dealid.LocalDealIdGenerator;
+import com.magiccode.tradeingestion.service.dealid.RedisNodeIdLease;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.redis.core.StringRedisTemplate;
+
+/**
+ * Generates deal IDs in process, with node IDs leased through Redis, when local generation is enabled.
+ */
+@Configuration
+@ConditionalOnProperty(name = "deal.id.local.enabled", havingValue = "true")
+public class LocalDealIdConfig {
+
+    @Bean
+    public RedisNodeIdLease dealIdNodeLease(StringRedisTemplate stringRedisTemplate, LocalDealIdProperties properties) {
+        properties.validate();
+        return new RedisNodeIdLease(stringRedisTemplate, properties);
+    }
+
+    @Bean
+    public LocalDealIdGenerator localDealIdGenerator(RedisNodeIdLease dealIdNodeLease, LocalDealIdProperties properties) {
+        return new LocalDealIdGenerator(properties.getPrefix(), dealIdNodeLease, System::currentTimeMillis,
+            properties.getMaxClockDrift().toMillis());
+    }
+}
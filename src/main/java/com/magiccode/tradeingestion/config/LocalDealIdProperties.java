@@ -0,0 +1,55 @@
+package com.magiccode.tradeingestion.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+/**
+ * Configuration properties for minting deal IDs in process instead of calling the deal ID service.
+ */
+@Getter
+@Setter
+@Configuration
+@ConfigurationProperties(prefix = "deal.id.local")
+public class LocalDealIdProperties {
+    private boolean enabled = false;
+
+    /**
+     * Prefix of generated IDs, as in {@code IRS-yyyyMMdd-...}
+     */
+    private String prefix = "IRS";
+
+    /**
+     * Redis key prefix of node ID leases
+     */
+    private String leaseKeyPrefix = "deal:id:node:";
+
+    private Duration leaseTtl = Duration.ofSeconds(30);
+
+    /**
+     * Kept well below the lease TTL so a slow renewal never lets the lease lapse
+     */
+    private Duration leaseRenewInterval = Duration.ofSeconds(10);
+
+    /**
+     * How far generated timestamps may run ahead of the wall clock, after a clock rollback or
+     * sequence exhaustion, before generation fails. A newly leased node ID is not used until this
+     * long after it was acquired.
+     */
+    private Duration maxClockDrift = Duration.ofSeconds(5);
+
+    public void validate() {
+        if (prefix == null || prefix.isBlank()) {
+            throw new IllegalStateException("deal.id.local.prefix must not be blank");
+        }
+        if (leaseRenewInterval.multipliedBy(2).compareTo(leaseTtl) > 0) {
+            throw new IllegalStateException("deal.id.local.lease-renew-interval must be at most half the lease TTL");
+        }
+        if (maxClockDrift.isNegative()) {
+            throw new IllegalStateException("deal.id.local.max-clock-drift must not be negative");
+        }
+    }
+}
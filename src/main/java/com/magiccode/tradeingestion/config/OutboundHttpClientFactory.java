@@ -0,0 +1,175 @@
+package com.magiccode.tradeingestion.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.netty.channel.ChannelOption;
+import io.netty.handler.timeout.ReadTimeoutHandler;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.ExchangeFilterFunction;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.netty.http.HttpProtocol;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Builds the outbound {@link WebClient} of each downstream service from {@link HttpClientProperties}.
+ *
+ * Every downstream gets its own bounded Reactor Netty connection pool, named
+ * {@code deal-{downstream}}, whose gauges are published as {@code reactor.netty.connection.provider.*}.
+ * Request latency is recorded per downstream, method and status as {@code deal.http.client.requests};
+ * each timer is registered once and then looked up from the downstream's own map.
+ * Only a sample of exchanges is logged, and no more than {@code log-max-per-second} of them.
+ */
+@Component
+@Slf4j
+public class OutboundHttpClientFactory implements DisposableBean {
+    private final HttpClientProperties properties;
+    private final MeterRegistry meterRegistry;
+    private final List<ConnectionProvider> providers = new CopyOnWriteArrayList<>();
+
+    public OutboundHttpClientFactory(HttpClientProperties properties, MeterRegistry meterRegistry) {
+        properties.validate();
+        this.properties = properties;
+        this.meterRegistry = meterRegistry;
+    }
+
+    /**
+     * Builds the client of one downstream.
+     *
+     * @param downstream The downstream's name, as used under {@code deal.http-client.clients}
+     */
+    public WebClient create(String downstream) {
+        HttpClientProperties.Client client = properties.client(downstream);
+        ConnectionProvider provider = ConnectionProvider.builder("deal-" + downstream)
+            .maxConnections(client.getMaxConnections())
+            .pendingAcquireMaxCount(client.getPendingAcquireMaxCount())
+            .pendingAcquireTimeout(client.getPendingAcquireTimeout())
+            .maxIdleTime(client.getMaxIdleTime())
+            .maxLifeTime(client.getMaxLifeTime())
+            .evictInBackground(client.getMaxIdleTime())
+            .metrics(true)
+            .build();
+        providers.add(provider);
+
+        long readTimeoutMillis = client.getReadTimeout().toMillis();
+        HttpClient httpClient = HttpClient.create(provider)
+            .option(ChannelOption.CONNECT_TIMEOUT_MILLIS, (int) client.getConnectTimeout().toMillis())
+            .option(ChannelOption.SO_KEEPALIVE, true)
+            .responseTimeout(client.getResponseTimeout())
+            .doOnConnected(connection -> connection.addHandlerLast(
+                new ReadTimeoutHandler(readTimeoutMillis, TimeUnit.MILLISECONDS)));
+        if (client.getHttp2()) {
+            httpClient = httpClient.protocol(HttpProtocol.H2C, HttpProtocol.HTTP11);
+        }
+
+        return WebClient.builder()
+            .clientConnector(new ReactorClientHttpConnector(httpClient))
+            .filter(instrument(downstream, client))
+            .build();
+    }
+
+    @Override
+    public void destroy() {
+        providers.forEach(ConnectionProvider::dispose);
+    }
+
+    private ExchangeFilterFunction instrument(String downstream, HttpClientProperties.Client client) {
+        ExchangeLogSampler sampler = new ExchangeLogSampler(client.getLogSampleRate(), client.getLogMaxPerSecond());
+        RequestTimers timers = new RequestTimers(downstream, meterRegistry);
+        return (request, next) -> {
+            long start = System.nanoTime();
+            boolean logged = sampler.sample();
+            if (logged) {
+                log.info("[{}] Request: {} {}", downstream, request.method(), request.url());
+            }
+            return next.exchange(request)
+                .doOnNext(response -> {
+                    long elapsed = System.nanoTime() - start;
+                    timers.record(request.method().name(), String.valueOf(response.statusCode().value()), elapsed);
+                    if (logged) {
+                        log.info("[{}] Response: {} {} -> {} in {}ms", downstream, request.method(), request.url(),
+                            response.statusCode().value(), TimeUnit.NANOSECONDS.toMillis(elapsed));
+                    }
+                })
+                .doOnError(error -> timers.record(request.method().name(), "IO_ERROR", System.nanoTime() - start));
+        };
+    }
+
+    /**
+     * The request timers of one downstream by method and status, registered on first use.
+     */
+    static final class RequestTimers {
+        private final String downstream;
+        private final MeterRegistry meterRegistry;
+        private final Map<String, Map<String, Timer>> byMethod = new ConcurrentHashMap<>();
+
+        RequestTimers(String downstream, MeterRegistry meterRegistry) {
+            this.downstream = downstream;
+            this.meterRegistry = meterRegistry;
+        }
+
+        void record(String method, String status, long elapsedNanos) {
+            Map<String, Timer> byStatus = byMethod.get(method);
+            if (byStatus == null) {
+                byStatus = byMethod.computeIfAbsent(method, m -> new ConcurrentHashMap<>());
+            }
+            Timer timer = byStatus.get(status);
+            if (timer == null) {
+                timer = byStatus.computeIfAbsent(status, s -> register(method, s));
+            }
+            timer.record(elapsedNanos, TimeUnit.NANOSECONDS);
+        }
+
+        private Timer register(String method, String status) {
+            return Timer.builder("deal.http.client.requests")
+                .description("Latency of outbound HTTP requests per downstream service")
+                .tag("client", downstream)
+                .tag("method", method)
+                .tag("status", status)
+                .register(meterRegistry);
+        }
+    }
+
+    /**
+     * Picks exchanges to log: a random sample, capped at a number per second.
+     */
+    static final class ExchangeLogSampler {
+        private final double sampleRate;
+        private final int maxPerSecond;
+        private final AtomicLong window = new AtomicLong();
+
+        ExchangeLogSampler(double sampleRate, int maxPerSecond) {
+            this.sampleRate = sampleRate;
+            this.maxPerSecond = maxPerSecond;
+        }
+
+        boolean sample() {
+            if (sampleRate <= 0 || maxPerSecond <= 0 || ThreadLocalRandom.current().nextDouble() >= sampleRate) {
+                return false;
+            }
+            // Upper bits hold the current second, lower 32 bits the exchanges logged in it
+            long second = System.currentTimeMillis() / 1000;
+            while (true) {
+                long current = window.get();
+                long count = current >>> 32 == second ? current & 0xFFFF_FFFFL : 0;
+                if (count >= maxPerSecond) {
+                    return false;
+                }
+                if (window.compareAndSet(current, (second << 32) | (count + 1))) {
+                    return true;
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,46 @@
+package com.magiccode.tradeingestion.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+/**
+ * Configuration properties for the read replica used by read-only service methods.
+ *
+ * When enabled, {@code @Transactional(readOnly = true)} work is routed to the replica pool
+ * while writes keep using the primary datasource configured under {@code spring.datasource}.
+ */
+@Getter
+@Setter
+@Configuration
+@ConfigurationProperties(prefix = "deal.datasource.replica")
+public class ReadReplicaProperties {
+    private boolean enabled = false;
+    private String url;
+    private String username;
+    private String password;
+    private int maximumPoolSize = 10;
+    private int minimumIdle = 2;
+
+    /**
+     * Kept short so an unreachable replica fails fast and read-only work falls back to the primary.
+     */
+    private Duration connectionTimeout = Duration.ofSeconds(2);
+
+    /**
+     * Maximum replication lag tolerated before read-only work falls back to the primary.
+     */
+    private Duration maxLag = Duration.ofSeconds(5);
+
+    public void validate() {
+        if (url == null || url.isEmpty()) {
+            throw new IllegalStateException("Replica datasource URL is required when replica routing is enabled");
+        }
+        if (minimumIdle > maximumPoolSize) {
+            throw new IllegalStateException("Replica pool minimum idle cannot be greater than maximum pool size");
+        }
+    }
+}
@@ -1,5 +1,10 @@
 package com.magiccode.tradeingestion.config;
 
+import com.magiccode.tradeingestion.cache.CacheInvalidationPublisher;
+import com.magiccode.tradeingestion.cache.CompactRedisSerializer;
+import com.magiccode.tradeingestion.cache.TwoTierCacheManager;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.cache.CacheManager;
 import org.springframework.cache.annotation.EnableCaching;
 import org.springframework.context.annotation.Bean;
@@ -9,8 +14,11 @@
 import org.springframework.data.redis.cache.RedisCacheManager;
 import org.springframework.data.redis.connection.RedisConnectionFactory;
 import org.springframework.data.redis.core.RedisTemplate;
-import org.springframework.data.redis.serializer.GenericJackson2JsonRedisSerializer;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
 import org.springframework.data.redis.serializer.RedisSerializationContext;
+import org.springframework.data.redis.serializer.RedisSerializer;
 import org.springframework.data.redis.serializer.StringRedisSerializer;
 
 import java.time.Duration;
@@ -18,7 +26,8 @@
 /**
  * Configuration class for Redis setup.
  * Configures RedisTemplate with appropriate serializers for keys and values,
- * and sets up caching with specific TTLs for different types of data.
+ * and sets up caching with specific TTLs for different types of data, optionally behind
+ * an in-process L1 tier.
  */
 @Configuration
 @EnableCaching
@@ -26,54 +35,101 @@ public class RedisConfig {
 
     @Bean
     @Primary
-    public RedisTemplate<String, Object> redisTemplate(RedisConnectionFactory connectionFactory) {
+    public RedisTemplate<String, Object> redisTemplate(RedisConnectionFactory connectionFactory,
+                                                       RedisSerializer<Object> redisValueSerializer) {
         RedisTemplate<String, Object> template = new RedisTemplate<>();
         template.setConnectionFactory(connectionFactory);
         
         // Use StringRedisSerializer for keys
         template.setKeySerializer(new StringRedisSerializer());
         
-        // Use Jackson serializer for values
-        template.setValueSerializer(new GenericJackson2JsonRedisSerializer());
+        // Use the configured JSON or compact serializer for values
+        template.setValueSerializer(redisValueSerializer);
         
         // Use StringRedisSerializer for hash keys
         template.setHashKeySerializer(new StringRedisSerializer());
         
-        // Use Jackson serializer for hash values
-        template.setHashValueSerializer(new GenericJackson2JsonRedisSerializer());
+        // Use the configured JSON or compact serializer for hash values
+        template.setHashValueSerializer(redisValueSerializer);
         
         template.setEnableTransactionSupport(true);
         template.afterPropertiesSet();
         return template;
     }
 
+    /**
+     * Template for raw byte values such as stashed messages, which are encoded by the caller.
+     */
+    @Bean
+    public RedisTemplate<String, byte[]> binaryRedisTemplate(RedisConnectionFactory connectionFactory) {
+        RedisTemplate<String, byte[]> template = new RedisTemplate<>();
+        template.setConnectionFactory(connectionFactory);
+        template.setKeySerializer(new StringRedisSerializer());
+        template.setValueSerializer(RedisSerializer.byteArray());
+        template.afterPropertiesSet();
+        return template;
+    }
+
+    /**
+     * Serializer for values in Redis; writes {@code deal.codec.format} and reads JSON and compact values.
+     */
+    @Bean
+    public RedisSerializer<Object> redisValueSerializer(CompactCodecProperties compactCodecProperties,
+                                                        MeterRegistry meterRegistry) {
+        compactCodecProperties.validate();
+        return new CompactRedisSerializer(compactCodecProperties, meterRegistry);
+    }
+
+    /**
+     * Cache manager for all {@code @Cacheable} regions. Redis TTLs come from {@code deal.cache};
+     * with {@code deal.cache.two-tier-enabled} every region gets a Caffeine L1 in front of Redis.
+     */
     @Bean
     @Primary
-    public CacheManager cacheManager(RedisConnectionFactory connectionFactory) {
-        RedisCacheConfiguration defaultConfig = RedisCacheConfiguration.defaultCacheConfig()
-            .entryTtl(Duration.ofMinutes(30))
+    public CacheManager cacheManager(RedisConnectionFactory connectionFactory,
+                                     CacheTierProperties cacheTierProperties,
+                                     RedisSerializer<Object> redisValueSerializer,
+                                     MeterRegistry meterRegistry) {
+        cacheTierProperties.validate();
+        RedisCacheManager.RedisCacheManagerBuilder builder = RedisCacheManager.builder(connectionFactory)
+            .cacheDefaults(redisCacheConfiguration(cacheTierProperties.getDefaults().getL2Ttl(), redisValueSerializer));
+        // Configure specific cache TTLs
+        cacheTierProperties.getRegions().keySet().forEach(name -> builder.withCacheConfiguration(name,
+            redisCacheConfiguration(cacheTierProperties.region(name).getL2Ttl(), redisValueSerializer)));
+        RedisCacheManager redisCacheManager = builder.build();
+        redisCacheManager.afterPropertiesSet();
+
+        if (!cacheTierProperties.isTwoTierEnabled()) {
+            return redisCacheManager;
+        }
+        StringRedisTemplate stringRedisTemplate = new StringRedisTemplate(connectionFactory);
+        CacheInvalidationPublisher publisher =
+            new CacheInvalidationPublisher(stringRedisTemplate, cacheTierProperties.getInvalidationChannel());
+        return new TwoTierCacheManager(redisCacheManager, cacheTierProperties, publisher, meterRegistry);
+    }
+
+    /**
+     * Subscribes the two-tier cache manager to L1 invalidations published by other instances.
+     */
+    @Bean
+    @ConditionalOnProperty(name = "deal.cache.two-tier-enabled", havingValue = "true", matchIfMissing = true)
+    public RedisMessageListenerContainer cacheInvalidationListenerContainer(RedisConnectionFactory connectionFactory,
+                                                                            CacheManager cacheManager,
+                                                                            CacheTierProperties cacheTierProperties) {
+        RedisMessageListenerContainer container = new RedisMessageListenerContainer();
+        container.setConnectionFactory(connectionFactory);
+        if (cacheManager instanceof TwoTierCacheManager twoTierCacheManager) {
+            container.addMessageListener(twoTierCacheManager,
+                new ChannelTopic(cacheTierProperties.getInvalidationChannel()));
+        }
+        return container;
+    }
+
+    private static RedisCacheConfiguration redisCacheConfiguration(Duration ttl, RedisSerializer<Object> valueSerializer) {
+        return RedisCacheConfiguration.defaultCacheConfig()
+            .entryTtl(ttl)
             .disableCachingNullValues()
             .serializeKeysWith(RedisSerializationContext.SerializationPair.fromSerializer(new StringRedisSerializer()))
-            .serializeValuesWith(RedisSerializationContext.SerializationPair.fromSerializer(new GenericJackson2JsonRedisSerializer()));
-
-        // Configure specific cache TTLs
-        return RedisCacheManager.builder(connectionFactory)
-            .cacheDefaults(defaultConfig)
-            .withCacheConfiguration("counterparties",
-                RedisCacheConfiguration.defaultCacheConfig()
-                    .entryTtl(Duration.ofHours(24))
-                    .serializeKeysWith(RedisSerializationContext.SerializationPair.fromSerializer(new StringRedisSerializer()))
-                    .serializeValuesWith(RedisSerializationContext.SerializationPair.fromSerializer(new GenericJackson2JsonRedisSerializer())))
-            .withCacheConfiguration("instruments",
-                RedisCacheConfiguration.defaultCacheConfig()
-                    .entryTtl(Duration.ofHours(24))
-                    .serializeKeysWith(RedisSerializationContext.SerializationPair.fromSerializer(new StringRedisSerializer()))
-                    .serializeValuesWith(RedisSerializationContext.SerializationPair.fromSerializer(new GenericJackson2JsonRedisSerializer())))
-            .withCacheConfiguration("deals",
-                RedisCacheConfiguration.defaultCacheConfig()
-                    .entryTtl(Duration.ofHours(1))
-                    .serializeKeysWith(RedisSerializationContext.SerializationPair.fromSerializer(new StringRedisSerializer()))
-                    .serializeValuesWith(RedisSerializationContext.SerializationPair.fromSerializer(new GenericJackson2JsonRedisSerializer())))
-            .build();
+            .serializeValuesWith(RedisSerializationContext.SerializationPair.fromSerializer(valueSerializer));
     }
-} 
\ No newline at end of file
+}
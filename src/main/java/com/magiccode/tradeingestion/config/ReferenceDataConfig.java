@@ -0,0 +1,22 @@
+package com.magiccode.tradeingestion.config;
+
+import com.magiccode.tradeingestion.service.refdata.HttpReferenceDataSource;
+import com.magiccode.tradeingestion.service.refdata.ReferenceDataSource;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.reactive.function.client.WebClient;
+
+/**
+ * Connects the reference data store to the reference data service when a source URL is configured.
+ */
+@Configuration
+@ConditionalOnProperty(name = "deal.reference-data.source-url")
+public class ReferenceDataConfig {
+
+    @Bean
+    public ReferenceDataSource referenceDataSource(@Qualifier("referenceDataWebClient") WebClient webClient, ReferenceDataProperties properties) {
+        return new HttpReferenceDataSource(webClient, properties.getSourceUrl());
+    }
+}
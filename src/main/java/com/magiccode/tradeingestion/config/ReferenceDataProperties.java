@@ -0,0 +1,25 @@
+package com.magiccode.tradeingestion.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Configuration properties for the in-memory counterparty and instrument reference data.
+ */
+@Getter
+@Setter
+@Configuration
+@ConfigurationProperties(prefix = "deal.reference-data")
+public class ReferenceDataProperties {
+    /**
+     * Base URL of the reference data service; without it only the local snapshot file is used
+     */
+    private String sourceUrl;
+
+    /**
+     * Local snapshot file loaded at startup and rewritten after every change
+     */
+    private String snapshotFile = "./data/refdata/reference-data.snapshot";
+}
@@ -0,0 +1,84 @@
+package com.magiccode.tradeingestion.config;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import javax.sql.DataSource;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Periodically measures replication lag on the read replica.
+ *
+ * The replica is considered available only while the last measurement succeeded and the
+ * lag stayed within {@link ReadReplicaProperties#getMaxLag()}. A replica that has replayed
+ * everything it received reports zero lag, so an idle primary does not make it look stale.
+ * That only holds while WAL is still arriving, so a standby without a streaming WAL receiver
+ * (disconnected, restarting or stalled) is reported as unavailable rather than caught up.
+ * Reading the receiver status needs the pg_read_all_stats role for the replica user.
+ */
+@Slf4j
+public class ReplicaLagMonitor {
+    static final String LAG_QUERY =
+        "SELECT CASE WHEN NOT pg_is_in_recovery() THEN 0 " +
+        "WHEN NOT EXISTS (SELECT 1 FROM pg_stat_wal_receiver WHERE status = 'streaming') THEN NULL " +
+        "WHEN pg_last_wal_receive_lsn() = pg_last_wal_replay_lsn() THEN 0 " +
+        "ELSE COALESCE(EXTRACT(EPOCH FROM (now() - pg_last_xact_replay_timestamp())) * 1000, 0) END";
+
+    private final JdbcTemplate replicaJdbcTemplate;
+    private final long maxLagMillis;
+    private final AtomicLong lagMillis = new AtomicLong(-1);
+    private volatile boolean replicaAvailable = false;
+
+    public ReplicaLagMonitor(DataSource replicaDataSource, ReadReplicaProperties properties, MeterRegistry meterRegistry) {
+        this.replicaJdbcTemplate = new JdbcTemplate(replicaDataSource);
+        this.replicaJdbcTemplate.setQueryTimeout((int) Math.max(1, properties.getConnectionTimeout().toSeconds()));
+        this.maxLagMillis = properties.getMaxLag().toMillis();
+        Gauge.builder("deal.datasource.replica.lag", lagMillis, AtomicLong::get)
+            .description("Replication lag of the read replica in milliseconds, -1 when unreachable or not streaming")
+            .baseUnit("milliseconds")
+            .register(meterRegistry);
+        Gauge.builder("deal.datasource.replica.available", this, monitor -> monitor.isReplicaAvailable() ? 1 : 0)
+            .description("Whether read-only work is currently routed to the replica")
+            .register(meterRegistry);
+    }
+
+    @Scheduled(fixedDelayString = "${deal.datasource.replica.lag-check-interval:5000}")
+    public void checkLag() {
+        try {
+            Number lag = replicaJdbcTemplate.queryForObject(LAG_QUERY, Number.class);
+            if (lag == null) {
+                log.warn("Read replica has no streaming WAL receiver");
+                lagMillis.set(-1);
+                updateAvailability(false);
+                return;
+            }
+            long currentLag = lag.longValue();
+            lagMillis.set(currentLag);
+            updateAvailability(currentLag <= maxLagMillis);
+        } catch (Exception e) {
+            log.warn("Failed to measure replica lag: {}", e.getMessage());
+            lagMillis.set(-1);
+            updateAvailability(false);
+        }
+    }
+
+    private void updateAvailability(boolean available) {
+        if (available != replicaAvailable) {
+            log.info("Read replica {} (lag {} ms, max {} ms)",
+                available ? "available, routing read-only work to replica" : "unavailable, falling back to primary",
+                lagMillis.get(), maxLagMillis);
+        }
+        replicaAvailable = available;
+    }
+
+    public boolean isReplicaAvailable() {
+        return replicaAvailable;
+    }
+
+    public long getLagMillis() {
+        return lagMillis.get();
+    }
+}
@@ -2,35 +2,37 @@
 
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
-import org.springframework.web.reactive.function.client.ExchangeFilterFunction;
+import org.springframework.context.annotation.Primary;
 import org.springframework.web.reactive.function.client.WebClient;
-import reactor.core.publisher.Mono;
-import lombok.extern.slf4j.Slf4j;
 
+/**
+ * Outbound HTTP clients, one per downstream service, each with its own connection pool,
+ * timeouts and sampled logging (see {@link OutboundHttpClientFactory}).
+ */
 @Configuration
-@Slf4j
 public class RestTemplateConfig {
+    public static final String TRANSFORMATION = "transformation";
+    public static final String DEAL_ID = "deal-id";
+    public static final String REFERENCE_DATA = "reference-data";
 
     @Bean
-    public WebClient webClient() {
-        return WebClient.builder()
-            .filter(logRequest())
-            .filter(logResponse())
-            .build();
+    @Primary
+    public WebClient webClient(OutboundHttpClientFactory clientFactory) {
+        return clientFactory.create("default");
     }
 
-    private ExchangeFilterFunction logRequest() {
-        return ExchangeFilterFunction.ofRequestProcessor(clientRequest -> {
-            log.info("Request: {} {}", clientRequest.method(), clientRequest.url());
-            clientRequest.headers().forEach((name, values) -> values.forEach(value -> log.info("{}={}", name, value)));
-            return Mono.just(clientRequest);
-        });
+    @Bean
+    public WebClient transformationWebClient(OutboundHttpClientFactory clientFactory) {
+        return clientFactory.create(TRANSFORMATION);
     }
 
-    private ExchangeFilterFunction logResponse() {
-        return ExchangeFilterFunction.ofResponseProcessor(clientResponse -> {
-            log.info("Response status: {}", clientResponse.statusCode());
-            return Mono.just(clientResponse);
-        });
+    @Bean
+    public WebClient dealIdWebClient(OutboundHttpClientFactory clientFactory) {
+        return clientFactory.create(DEAL_ID);
+    }
+
+    @Bean
+    public WebClient referenceDataWebClient(OutboundHttpClientFactory clientFactory) {
+        return clientFactory.create(REFERENCE_DATA);
     }
-} 
\ No newline at end of file
+}
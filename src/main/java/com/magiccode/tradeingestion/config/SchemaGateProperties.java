@@ -0,0 +1,79 @@
+package com.magiccode.tradeingestion.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Configuration properties for the schema gate that checks raw deal payloads before binding.
+ *
+ * Schemas are keyed by the payload's {@code messageHeader.schemaVersion}. Field paths are dotted,
+ * with {@code []} for the elements of an array, as in {@code legs[].legId}.
+ */
+@Getter
+@Setter
+@Configuration
+@ConfigurationProperties(prefix = "deal.schema-gate")
+public class SchemaGateProperties {
+    private boolean enabled = false;
+
+    /**
+     * Schema applied to payloads without a schema version
+     */
+    private String defaultVersion = "1.0";
+
+    /**
+     * Whether payloads naming a version without a schema are rejected rather than checked against the default
+     */
+    private boolean rejectUnknownVersions = false;
+
+    /**
+     * Deepest nesting accepted; deeper payloads are rejected without being walked further
+     */
+    private int maxDepth = 32;
+
+    /**
+     * Violations collected before a payload is rejected
+     */
+    private int maxViolations = 10;
+
+    private Map<String, Schema> versions = new HashMap<>();
+
+    public void validate() {
+        if (enabled && !versions.containsKey(defaultVersion)) {
+            throw new IllegalStateException("deal.schema-gate.versions has no schema for default version " + defaultVersion);
+        }
+        if (maxDepth <= 0 || maxViolations <= 0) {
+            throw new IllegalStateException("deal.schema-gate.max-depth and max-violations must be positive");
+        }
+    }
+
+    public enum FieldType {
+        STRING, NUMBER, INTEGER, BOOLEAN, OBJECT, ARRAY,
+        /** A string in ISO {@code yyyy-MM-dd} form */
+        DATE
+    }
+
+    @Getter
+    @Setter
+    public static class Schema {
+        /**
+         * Fields that must be present and not null, checked wherever their parent object appears
+         */
+        private List<String> required = new ArrayList<>();
+
+        private Map<String, FieldType> types = new LinkedHashMap<>();
+
+        /**
+         * Values a string field may take
+         */
+        private Map<String, List<String>> allowedValues = new LinkedHashMap<>();
+    }
+}
@@ -0,0 +1,45 @@
+package com.magiccode.tradeingestion.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+/**
+ * Configuration properties for batching calls to the remote transformation service.
+ *
+ * Concurrent transform requests are held for up to {@code linger}, or until {@code max-batch-size}
+ * deals are waiting, and then sent as one list request.
+ */
+@Getter
+@Setter
+@Configuration
+@ConfigurationProperties(prefix = "deal.transformation.batch")
+public class TransformationBatchProperties {
+    private boolean enabled = false;
+
+    /**
+     * Endpoint accepting a JSON array of deals and returning the transformed deals in the same order
+     */
+    private String url = "http://localhost:8082/api/transform/batch";
+
+    private int maxBatchSize = 50;
+    private Duration linger = Duration.ofMillis(5);
+    private Duration requestTimeout = Duration.ofSeconds(2);
+
+    /**
+     * Whether deals of a failed batch are retried one by one against the single-deal endpoint
+     */
+    private boolean fallbackToSingle = true;
+
+    public void validate() {
+        if (maxBatchSize <= 0) {
+            throw new IllegalStateException("deal.transformation.batch.max-batch-size must be positive");
+        }
+        if (linger.isNegative() || requestTimeout.isNegative() || requestTimeout.isZero()) {
+            throw new IllegalStateException("deal.transformation.batch linger and request-timeout must be positive");
+        }
+    }
+}
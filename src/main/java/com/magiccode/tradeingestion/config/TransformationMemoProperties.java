@@ -0,0 +1,45 @@
+package com.magiccode.tradeingestion.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+/**
+ * Configuration properties for memoizing transformation results by deal content.
+ */
+@Getter
+@Setter
+@Configuration
+@ConfigurationProperties(prefix = "deal.transformation.memo")
+public class TransformationMemoProperties {
+    private boolean enabled = false;
+    private HashAlgorithm hash = HashAlgorithm.XXH64;
+    private long maximumSize = 100_000;
+    private Duration ttl = Duration.ofMinutes(10);
+
+    /**
+     * Whether results are shared with other instances through Redis
+     */
+    private boolean redisEnabled = false;
+
+    private String redisKeyPrefix = "deal:transform:memo:";
+
+    public void validate() {
+        if (maximumSize <= 0) {
+            throw new IllegalStateException("deal.transformation.memo.maximum-size must be positive");
+        }
+        if (ttl.isNegative() || ttl.isZero()) {
+            throw new IllegalStateException("deal.transformation.memo.ttl must be positive");
+        }
+    }
+
+    public enum HashAlgorithm {
+        /** 64-bit xxHash; fast, adequate while payloads are not adversarial */
+        XXH64,
+        /** SHA-256; slower, collision resistant */
+        SHA_256
+    }
+}
@@ -0,0 +1,108 @@
+package com.magiccode.tradeingestion.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Configuration properties for the in-process transformation rules.
+ *
+ * Rules run in the order declared. Fields are bean property paths of the deal, such as
+ * {@code currency} or {@code dataSecurity.classificationLevel}; values are converted to the
+ * property's type once, when the rules are compiled.
+ */
+@Getter
+@Setter
+@Configuration
+@ConfigurationProperties(prefix = "deal.transformation.rules")
+public class TransformationRuleProperties {
+    private boolean enabled = false;
+
+    /**
+     * Whether a deal the rules fail on is sent to the remote transformation service instead
+     */
+    private boolean fallbackToRemote = true;
+
+    private List<Rule> rules = new ArrayList<>();
+
+    public void validate() {
+        for (int i = 0; i < rules.size(); i++) {
+            Rule rule = rules.get(i);
+            String name = "deal.transformation.rules.rules[" + i + "]";
+            if (rule.getKind() == null || rule.getField() == null || rule.getField().isBlank()) {
+                throw new IllegalStateException(name + " needs a kind and a field");
+            }
+            switch (rule.getKind()) {
+                case DEFAULT, ENRICH -> {
+                    if (rule.getValue() == null) {
+                        throw new IllegalStateException(name + " needs a value");
+                    }
+                }
+                case COPY -> {
+                    if (rule.getSource() == null) {
+                        throw new IllegalStateException(name + " needs a source");
+                    }
+                }
+                case MAP -> {
+                    if (rule.getMapping().isEmpty()) {
+                        throw new IllegalStateException(name + " needs a mapping");
+                    }
+                }
+                case NORMALIZE -> {
+                    if (rule.getNormalize() == null) {
+                        throw new IllegalStateException(name + " needs a normalization");
+                    }
+                    if (rule.getNormalize() == Normalization.SCALE && rule.getScale() == null) {
+                        throw new IllegalStateException(name + " needs a scale");
+                    }
+                }
+            }
+        }
+    }
+
+    public enum Kind {
+        /** Sets the field to {@code value} when it is null */
+        DEFAULT,
+        /** Sets the field to {@code value} unconditionally */
+        ENRICH,
+        /** Copies {@code source} into the field when the field is null */
+        COPY,
+        /** Replaces the value of {@code source}, or of the field itself, through {@code mapping} */
+        MAP,
+        /** Normalizes the field in place */
+        NORMALIZE
+    }
+
+    public enum Normalization {
+        UPPER_CASE, LOWER_CASE, TRIM, SCALE
+    }
+
+    @Getter
+    @Setter
+    public static class Rule {
+        private Kind kind;
+        private String field;
+        private String source;
+        private String value;
+        private Map<String, String> mapping = new LinkedHashMap<>();
+        private Normalization normalize;
+
+        /**
+         * Decimal places for {@code SCALE}, rounding half-even
+         */
+        private Integer scale;
+
+        /**
+         * Deal types the rule applies to; empty applies it to all
+         */
+        private Set<String> dealTypes = new HashSet<>();
+    }
+}
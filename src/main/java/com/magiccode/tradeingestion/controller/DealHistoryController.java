@@ -0,0 +1,47 @@
+package com.magiccode.tradeingestion.controller;
+
+import com.magiccode.tradeingestion.exception.DealProcessingException;
+import com.magiccode.tradeingestion.service.DealHistoryService;
+import com.magiccode.tradeingestion.service.DealVersionView;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.time.Instant;
+
+@RestController
+@RequestMapping("/api/deals")
+public class DealHistoryController {
+    private static final Logger logger = LoggerFactory.getLogger(DealHistoryController.class);
+
+    private final DealHistoryService dealHistoryService;
+
+    public DealHistoryController(DealHistoryService dealHistoryService) {
+        this.dealHistoryService = dealHistoryService;
+    }
+
+    /**
+     * Returns a deal as of a history version or a point in time; the latest version when neither is given.
+     */
+    @GetMapping("/{dealId}/history")
+    public ResponseEntity<DealVersionView> getDealAsOf(
+            @PathVariable String dealId,
+            @RequestParam(required = false) Long version,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant asOf) {
+        if (version != null && asOf != null) {
+            throw new DealProcessingException("Specify either version or asOf, not both");
+        }
+        logger.info("Received request for deal {} as of version {} / time {}", dealId, version, asOf);
+        DealVersionView view = asOf != null
+            ? dealHistoryService.getAsOf(dealId, asOf)
+            : dealHistoryService.getVersion(dealId, version != null ? version : Long.MAX_VALUE);
+        return new ResponseEntity<>(view, HttpStatus.OK);
+    }
+}
@@ -0,0 +1,74 @@
+package com.magiccode.tradeingestion.controller;
+
+import com.magiccode.tradeingestion.exception.DealProcessingException;
+import com.magiccode.tradeingestion.model.FixedIncomeDerivativeDeal;
+import com.magiccode.tradeingestion.service.AuthorizationService;
+import com.magiccode.tradeingestion.service.FixedIncomeDerivativeDealService;
+import com.magiccode.tradeingestion.service.entitlement.DataVisibility;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.security.Principal;
+import java.util.List;
+
+/**
+ * Lists fixed income derivative deals, returning only the deals the caller's entitlements allow.
+ */
+@RestController
+@RequestMapping("/api/fixed-income-deals")
+public class FixedIncomeDealController {
+    private static final Logger logger = LoggerFactory.getLogger(FixedIncomeDealController.class);
+
+    private final FixedIncomeDerivativeDealService dealService;
+    private final AuthorizationService authorizationService;
+
+    public FixedIncomeDealController(FixedIncomeDerivativeDealService dealService,
+                                     AuthorizationService authorizationService) {
+        this.dealService = dealService;
+        this.authorizationService = authorizationService;
+    }
+
+    @GetMapping
+    public ResponseEntity<List<FixedIncomeDerivativeDeal>> getAllDeals(Principal principal) {
+        logger.info("Received request to get all fixed income deals");
+        return new ResponseEntity<>(dealService.getAllDeals(visibility(principal)), HttpStatus.OK);
+    }
+
+    @GetMapping("/type/{dealType}")
+    public ResponseEntity<List<FixedIncomeDerivativeDeal>> getDealsByType(@PathVariable String dealType,
+                                                                          Principal principal) {
+        logger.info("Received request to get fixed income deals by type: {}", dealType);
+        return new ResponseEntity<>(dealService.getDealsByType(dealType, visibility(principal)), HttpStatus.OK);
+    }
+
+    @GetMapping("/status/{status}")
+    public ResponseEntity<List<FixedIncomeDerivativeDeal>> getDealsByStatus(@PathVariable String status,
+                                                                            Principal principal) {
+        logger.info("Received request to get fixed income deals by status: {}", status);
+        return new ResponseEntity<>(dealService.getDealsByStatus(status, visibility(principal)), HttpStatus.OK);
+    }
+
+    @GetMapping("/counterparty/{entityId}")
+    public ResponseEntity<List<FixedIncomeDerivativeDeal>> getDealsByCounterparty(@PathVariable String entityId,
+                                                                                  Principal principal) {
+        logger.info("Received request to get fixed income deals by counterparty: {}", entityId);
+        return new ResponseEntity<>(dealService.getDealsByCounterparty(entityId, visibility(principal)), HttpStatus.OK);
+    }
+
+    @ExceptionHandler(DealProcessingException.class)
+    public ResponseEntity<String> handleDealProcessingException(DealProcessingException e) {
+        logger.error("Deal processing error: {}", e.getMessage(), e);
+        return new ResponseEntity<>(e.getMessage(), HttpStatus.BAD_REQUEST);
+    }
+
+    private DataVisibility visibility(Principal principal) {
+        return authorizationService.visibility(principal);
+    }
+}
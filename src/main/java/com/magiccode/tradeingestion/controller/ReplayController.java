@@ -0,0 +1,39 @@
+package com.magiccode.tradeingestion.controller;
+
+import com.magiccode.tradeingestion.exception.DealProcessingException;
+import com.magiccode.tradeingestion.service.DealReplayService;
+import com.magiccode.tradeingestion.service.ReplayReport;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.time.Instant;
+
+@RestController
+@RequestMapping("/api/replay")
+public class ReplayController {
+    private static final Logger logger = LoggerFactory.getLogger(ReplayController.class);
+
+    private final DealReplayService dealReplayService;
+
+    public ReplayController(DealReplayService dealReplayService) {
+        this.dealReplayService = dealReplayService;
+    }
+
+    @PostMapping
+    public ResponseEntity<ReplayReport> replay(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant to) {
+        if (!from.isBefore(to)) {
+            throw new DealProcessingException("Replay window start must be before its end");
+        }
+        logger.info("Received request to replay raw payloads between {} and {}", from, to);
+        return new ResponseEntity<>(dealReplayService.replay(from, to), HttpStatus.OK);
+    }
+}
@@ -0,0 +1,29 @@
+package com.magiccode.tradeingestion.exception;
+
+import java.util.List;
+
+/**
+ * Thrown when a raw payload fails the schema gate before it is bound to a deal.
+ *
+ * Extends IllegalArgumentException so the message is sent to the DLQ and never retried.
+ */
+public class PayloadRejectedException extends IllegalArgumentException {
+    private static final long serialVersionUID = 1L;
+
+    private final String schemaVersion;
+    private final List<String> violations;
+
+    public PayloadRejectedException(String schemaVersion, List<String> violations) {
+        super("Payload rejected by schema " + schemaVersion + ": " + String.join("; ", violations));
+        this.schemaVersion = schemaVersion;
+        this.violations = List.copyOf(violations);
+    }
+
+    public String getSchemaVersion() {
+        return schemaVersion;
+    }
+
+    public List<String> getViolations() {
+        return violations;
+    }
+}
@@ -2,14 +2,19 @@
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.magiccode.tradeingestion.exception.DealProcessingException;
+import com.magiccode.tradeingestion.exception.PayloadRejectedException;
 import com.magiccode.tradeingestion.model.FixedIncomeDerivativeDeal;
 import com.magiccode.tradeingestion.service.FixedIncomeDerivativeDealService;
+import com.magiccode.tradeingestion.service.RawPayloadStore;
+import com.magiccode.tradeingestion.service.journal.WriteBehindDealService;
+import com.magiccode.tradeingestion.service.schema.PayloadSchemaGate;
 import io.github.resilience4j.retry.annotation.Retry;
 import jakarta.jms.Message;
 import jakarta.jms.Session;
 import jakarta.jms.TextMessage;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.jms.annotation.JmsListener;
 import org.springframework.stereotype.Component;
 
@@ -20,6 +25,9 @@ public class FixedIncomeDerivativeDealListener {
 
     private final FixedIncomeDerivativeDealService dealService;
     private final ObjectMapper objectMapper;
+    private final RawPayloadStore rawPayloadStore;
+    private final ObjectProvider<WriteBehindDealService> writeBehindDealService;
+    private final PayloadSchemaGate payloadSchemaGate;
 
     @JmsListener(destination = "fixed.income.derivative.deals")
     @Retry(name = "fixedIncomeDerivativeDealProcessing")
@@ -27,14 +35,28 @@ public void onMessage(Message message, Session session) {
         try {
             if (message instanceof TextMessage) {
                 String messageText = ((TextMessage) message).getText();
+                // Reject malformed or non-conforming payloads before paying for a full bind
+                payloadSchemaGate.check(messageText);
                 FixedIncomeDerivativeDeal deal = objectMapper.readValue(messageText, FixedIncomeDerivativeDeal.class);
                 log.info("Received fixed income derivative deal: {}", deal.getDealId());
-                dealService.processDeal(deal);
+                WriteBehindDealService writeBehind = writeBehindDealService.getIfAvailable();
+                if (writeBehind != null) {
+                    // Acknowledged once durable in the local journal; Postgres, raw payload included,
+                    // is written by the flusher
+                    writeBehind.accept(deal, messageText);
+                } else {
+                    rawPayloadStore.store(deal, messageText);
+                    dealService.processDeal(deal);
+                }
                 log.info("Successfully processed fixed income derivative deal: {}", deal.getDealId());
             } else {
                 log.error("Received unsupported message type: {}", message.getClass().getName());
                 throw new DealProcessingException("Unsupported message type: " + message.getClass().getName());
             }
+        } catch (PayloadRejectedException e) {
+            // Not wrapped, so the retry treats it as the permanent failure it is
+            log.warn("Rejected fixed income derivative deal payload: {}", e.getMessage());
+            throw e;
         } catch (Exception e) {
             log.error("Error processing fixed income derivative deal: {}", e.getMessage(), e);
             throw new DealProcessingException("Failed to process deal", e);
@@ -0,0 +1,56 @@
+package com.magiccode.tradeingestion.model;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+import java.time.LocalDate;
+
+/**
+ * A matured or cancelled deal moved out of the hot deal tables.
+ *
+ * The full deal is kept as gzip-compressed JSON; only the deal ID (primary key) and a few
+ * descriptive columns are stored uncompressed, so archived deals stay reachable by deal ID
+ * without carrying the indexes of the hot tables.
+ *
+ * @see FixedIncomeDerivativeDeal
+ */
+@Entity
+@Table(name = "archived_deals", indexes = {
+    @Index(name = "idx_archived_deals_archived_at", columnList = "archived_at")
+})
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ArchivedDeal {
+
+    @Id
+    @Column(name = "deal_id", nullable = false)
+    private String dealId;
+
+    @Column(name = "deal_class", nullable = false)
+    private String dealClass;
+
+    @Column(name = "status")
+    private String status;
+
+    @Column(name = "maturity_date")
+    private LocalDate maturityDate;
+
+    @Column(name = "payload", nullable = false)
+    private byte[] payload;
+
+    @Column(name = "original_size", nullable = false)
+    private int originalSize;
+
+    @Column(name = "archived_at", nullable = false)
+    private Instant archivedAt;
+}
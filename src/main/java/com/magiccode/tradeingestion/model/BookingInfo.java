@@ -1,5 +1,7 @@
 package com.magiccode.tradeingestion.model;
 
+import com.fasterxml.jackson.annotation.JsonBackReference;
+import com.fasterxml.jackson.annotation.JsonManagedReference;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.NotNull;
 import lombok.AllArgsConstructor;
@@ -40,6 +42,7 @@ public class BookingInfo implements Serializable {
     
     @OneToMany(mappedBy = "bookingInfo", cascade = CascadeType.ALL, orphanRemoval = true)
     @Builder.Default
+    @JsonManagedReference("booking-books")
     private List<Book> books = new ArrayList<>();
     
     /**
@@ -61,6 +64,7 @@ public static class Book implements Serializable {
         
         @ManyToOne(fetch = FetchType.LAZY)
         @JoinColumn(name = "booking_info_id", nullable = false)
+        @JsonBackReference("booking-books")
         private BookingInfo bookingInfo;
         
         @NotNull
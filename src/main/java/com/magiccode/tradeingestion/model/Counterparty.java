@@ -9,7 +9,7 @@
  * Represents a counterparty in the financial system.
  * 
  * This class encapsulates basic information about a counterparty,
- * including their unique identifier and name. It implements Serializable
+ * including their unique identifier, name and legal entity identifier. It implements Serializable
  * to support caching and persistence operations.
  * 
  * @see Deal
@@ -30,4 +30,9 @@ public class Counterparty implements Serializable {
      * Legal name of the counterparty
      */
     private String name;
+
+    /**
+     * Legal Entity Identifier (ISO 17442) of the counterparty
+     */
+    private String lei;
 } 
\ No newline at end of file
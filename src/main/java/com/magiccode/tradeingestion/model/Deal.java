@@ -45,7 +45,9 @@
 @NoArgsConstructor
 @SuperBuilder(toBuilder = true)
 @Entity
-@Table(name = "deals")
+@Table(name = "deals", indexes = {
+    @Index(name = "idx_deals_status", columnList = "base_status")
+})
 @Inheritance(strategy = InheritanceType.JOINED)
 public abstract class Deal implements Serializable {
 
@@ -0,0 +1,46 @@
+package com.magiccode.tradeingestion.model;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * Pointer to the latest entry in a deal's version history.
+ *
+ * Only locates the latest history row and snapshot; the state itself lives in the history, so
+ * moving the pointer rewrites a small fixed-size row rather than the whole deal.
+ *
+ * @see DealVersion
+ */
+@Entity
+@Table(name = "deal_current_versions")
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class DealCurrentVersion {
+
+    @Id
+    @Column(name = "deal_id", nullable = false)
+    private String dealId;
+
+    @Column(name = "version", nullable = false)
+    private long version;
+
+    @Column(name = "version_id", nullable = false)
+    private UUID versionId;
+
+    @Column(name = "last_snapshot_version", nullable = false)
+    private long lastSnapshotVersion;
+
+    @Column(name = "updated_at", nullable = false)
+    private Instant updatedAt;
+}
@@ -1,5 +1,6 @@
 package com.magiccode.tradeingestion.model;
 
+import com.fasterxml.jackson.annotation.JsonBackReference;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.*;
 import lombok.AllArgsConstructor;
@@ -32,6 +33,7 @@ public class DealLeg implements Serializable {
 
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "derivative_deal_id", nullable = false)
+    @JsonBackReference("deal-legs")
     private FixedIncomeDerivativeDeal deal;
 
     @NotBlank(message = "Leg ID is required")
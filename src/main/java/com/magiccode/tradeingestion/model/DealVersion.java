@@ -0,0 +1,77 @@
+package com.magiccode.tradeingestion.model;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import jakarta.persistence.UniqueConstraint;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.JdbcTypeCode;
+import org.hibernate.type.SqlTypes;
+
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * One immutable entry in the append-only version history of a deal.
+ *
+ * Every accepted event appends a row. Most rows hold a top-level JSON merge patch against the
+ * previous version; every {@code deal.history.snapshot-interval} versions a full snapshot is
+ * written instead, so a deal at any version can be rebuilt from at most that many rows.
+ *
+ * @see DealCurrentVersion
+ */
+@Entity
+@Table(name = "deal_versions",
+    uniqueConstraints = @UniqueConstraint(name = "uk_deal_versions_deal_id_version", columnNames = {"deal_id", "version"}),
+    indexes = @Index(name = "idx_deal_versions_deal_id_recorded_at", columnList = "deal_id, recorded_at"))
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class DealVersion {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.UUID)
+    private UUID id;
+
+    @Column(name = "deal_id", nullable = false)
+    private String dealId;
+
+    /**
+     * History sequence number of this version, starting at 1 for the first accepted event
+     */
+    @Column(name = "version", nullable = false)
+    private long version;
+
+    /**
+     * JPA {@code @Version} of the deal row when this version was recorded
+     */
+    @Column(name = "entity_version")
+    private Long entityVersion;
+
+    @Column(name = "event_type")
+    private String eventType;
+
+    @Column(name = "deal_class", nullable = false)
+    private String dealClass;
+
+    @Column(name = "snapshot", nullable = false)
+    private boolean snapshot;
+
+    /**
+     * Full deal state when {@link #snapshot} is set, otherwise a merge patch against the previous version
+     */
+    @JdbcTypeCode(SqlTypes.JSON)
+    @Column(name = "payload", nullable = false, columnDefinition = "jsonb")
+    private String payload;
+
+    @Column(name = "recorded_at", nullable = false)
+    private Instant recordedAt;
+}
@@ -1,5 +1,6 @@
 package com.magiccode.tradeingestion.model;
 
+import com.fasterxml.jackson.annotation.JsonManagedReference;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.*;
 import lombok.AllArgsConstructor;
@@ -42,7 +43,11 @@
  * @see CounterpartyInfo
  */
 @Entity
-@Table(name = "fixed_income_derivative_deals")
+@Table(name = "fixed_income_derivative_deals", indexes = {
+    @Index(name = "idx_fi_deals_maturity_date", columnList = "maturity_date"),
+    @Index(name = "idx_fi_deals_security", columnList = "data_jurisdiction, classification_level"),
+    @Index(name = "idx_fi_deals_counterparty", columnList = "counterparty_entity_id, data_jurisdiction")
+})
 @Data
 @EqualsAndHashCode(callSuper = true)
 @NoArgsConstructor
@@ -94,6 +99,7 @@ public class FixedIncomeDerivativeDeal extends Deal implements Serializable {
     private CounterpartyInfo counterparty;
 
     @OneToMany(mappedBy = "deal", cascade = CascadeType.ALL, orphanRemoval = true)
+    @JsonManagedReference("deal-legs")
     private List<DealLeg> legs;
 
     @Embedded
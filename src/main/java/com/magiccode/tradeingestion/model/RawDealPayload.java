@@ -0,0 +1,72 @@
+package com.magiccode.tradeingestion.model;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.JdbcTypeCode;
+import org.hibernate.type.SqlTypes;
+
+import java.time.Instant;
+
+/**
+ * Raw inbound message envelope as received from the broker.
+ *
+ * The payload is kept exactly as it arrived so deals can be re-mapped and reprocessed
+ * after a mapping fix without asking upstream to resend. Depending on the configured
+ * encoding the envelope is stored either as JSONB or as a compressed bytea.
+ *
+ * @see FixedIncomeDerivativeDeal
+ * @see MessageHeader
+ */
+@Entity
+@Table(name = "raw_deal_payloads", indexes = {
+    @Index(name = "idx_raw_deal_payloads_received_at", columnList = "received_at"),
+    @Index(name = "idx_raw_deal_payloads_deal_id", columnList = "deal_id, received_at")
+})
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class RawDealPayload {
+
+    /**
+     * Message ID from {@code messageHeader.messageId}
+     */
+    @Id
+    @Column(name = "message_id", nullable = false)
+    private String messageId;
+
+    @Column(name = "deal_id", nullable = false)
+    private String dealId;
+
+    @Column(name = "deal_version")
+    private Long dealVersion;
+
+    /**
+     * Payload encoding, either {@code JSON} or {@code GZIP}
+     */
+    @Column(name = "encoding", nullable = false)
+    private String encoding;
+
+    @JdbcTypeCode(SqlTypes.JSON)
+    @Column(name = "payload_json", columnDefinition = "jsonb")
+    private String payloadJson;
+
+    @Column(name = "payload_compressed")
+    private byte[] payloadCompressed;
+
+    @Column(name = "original_size", nullable = false)
+    private int originalSize;
+
+    @Column(name = "stored_size", nullable = false)
+    private int storedSize;
+
+    @Column(name = "received_at", nullable = false)
+    private Instant receivedAt;
+}
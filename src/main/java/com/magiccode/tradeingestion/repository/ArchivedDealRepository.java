@@ -0,0 +1,29 @@
+package com.magiccode.tradeingestion.repository;
+
+import com.magiccode.tradeingestion.model.ArchivedDeal;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.Set;
+import java.util.stream.Stream;
+
+@Repository
+public interface ArchivedDealRepository extends JpaRepository<ArchivedDeal, String> {
+
+    @Query("SELECT a.dealId FROM ArchivedDeal a WHERE a.dealId IN :dealIds")
+    Set<String> findArchivedDealIds(@Param("dealIds") Collection<String> dealIds);
+
+    /**
+     * Streams every archived deal ID without loading the payloads. Must be consumed inside a
+     * transaction so the driver can fetch the rows with a cursor.
+     */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "10000"))
+    @Query("SELECT a.dealId FROM ArchivedDeal a")
+    Stream<String> streamAllDealIds();
+}
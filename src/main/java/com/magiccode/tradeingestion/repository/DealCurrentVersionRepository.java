@@ -0,0 +1,9 @@
+package com.magiccode.tradeingestion.repository;
+
+import com.magiccode.tradeingestion.model.DealCurrentVersion;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface DealCurrentVersionRepository extends JpaRepository<DealCurrentVersion, String> {
+}
@@ -0,0 +1,35 @@
+package com.magiccode.tradeingestion.repository;
+
+import com.magiccode.tradeingestion.model.DealVersion;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+
+@Repository
+public interface DealVersionRepository extends JpaRepository<DealVersion, UUID> {
+
+    /**
+     * Returns the newest versions up to and including the given version, newest first.
+     * Callers limit the page to the snapshot interval so the range always reaches a snapshot.
+     */
+    @Query("SELECT v FROM DealVersion v WHERE v.dealId = :dealId AND v.version <= :version ORDER BY v.version DESC")
+    List<DealVersion> findChainUpToVersion(@Param("dealId") String dealId,
+                                           @Param("version") long version,
+                                           Pageable pageable);
+
+    /**
+     * Returns the newest versions recorded at or before the given time, newest first.
+     */
+    @Query("SELECT v FROM DealVersion v WHERE v.dealId = :dealId AND v.recordedAt <= :asOf ORDER BY v.version DESC")
+    List<DealVersion> findChainAsOf(@Param("dealId") String dealId,
+                                    @Param("asOf") Instant asOf,
+                                    Pageable pageable);
+
+    List<DealVersion> findByDealIdOrderByVersionAsc(String dealId);
+}
@@ -0,0 +1,80 @@
+package com.magiccode.tradeingestion.repository;
+
+import com.magiccode.tradeingestion.model.FixedIncomeDerivativeDeal;
+import com.magiccode.tradeingestion.service.entitlement.DataVisibility;
+import jakarta.persistence.criteria.Expression;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Predicate;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Query predicates for fixed income derivative deals, combined with
+ * {@link FixedIncomeDerivativeDealRepository#findAll(Specification)}.
+ *
+ * {@link #visibleTo(DataVisibility)} pushes entitlement filtering into the query, so deals a
+ * caller may not see are never fetched. Its classification and jurisdiction predicates are
+ * served by {@code idx_fi_deals_security}.
+ */
+public final class FixedIncomeDealSpecifications {
+
+    private FixedIncomeDealSpecifications() {
+    }
+
+    public static Specification<FixedIncomeDerivativeDeal> hasDealType(String dealType) {
+        return (root, query, cb) -> cb.equal(root.get("dealType"), dealType);
+    }
+
+    public static Specification<FixedIncomeDerivativeDeal> hasStatus(String status) {
+        return (root, query, cb) -> cb.equal(root.get("status"), status);
+    }
+
+    public static Specification<FixedIncomeDerivativeDeal> hasCounterparty(String entityId) {
+        return (root, query, cb) -> cb.equal(root.get("counterparty").get("entityId"), entityId);
+    }
+
+    /**
+     * Restricts deals to those a principal may see.
+     *
+     * Unset classification levels and jurisdictions do not restrict a deal; an access control
+     * list, when set, is a comma-separated list that must name the principal or one of its roles.
+     *
+     * @param visibility The principal's visibility
+     * @return The predicate, or null when the visibility is unrestricted
+     */
+    public static Specification<FixedIncomeDerivativeDeal> visibleTo(DataVisibility visibility) {
+        if (visibility.unrestricted()) {
+            return null;
+        }
+        return (root, query, cb) -> {
+            Path<Object> security = root.get("dataSecurity");
+            Path<String> classification = security.get("classificationLevel");
+            Path<String> jurisdiction = security.get("dataJurisdiction");
+            Path<String> acl = security.get("accessControlList");
+
+            List<Predicate> predicates = new ArrayList<>(3);
+            predicates.add(visibility.classificationLevels().isEmpty()
+                ? cb.isNull(classification)
+                : cb.or(cb.isNull(classification), classification.in(visibility.classificationLevels())));
+            predicates.add(visibility.jurisdictions().isEmpty()
+                ? cb.isNull(jurisdiction)
+                : cb.or(cb.isNull(jurisdiction), jurisdiction.in(visibility.jurisdictions())));
+
+            List<Predicate> aclMatches = new ArrayList<>(visibility.accessControlEntries().size() + 1);
+            aclMatches.add(cb.isNull(acl));
+            Expression<String> delimitedAcl = cb.concat(cb.concat(",", cb.function("replace", String.class, acl,
+                cb.literal(" "), cb.literal(""))), ",");
+            for (String entry : visibility.accessControlEntries()) {
+                aclMatches.add(cb.like(delimitedAcl, "%," + escapeLike(entry) + ",%", '\\'));
+            }
+            predicates.add(cb.or(aclMatches.toArray(Predicate[]::new)));
+            return cb.and(predicates.toArray(Predicate[]::new));
+        };
+    }
+
+    private static String escapeLike(String value) {
+        return value.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+    }
+}
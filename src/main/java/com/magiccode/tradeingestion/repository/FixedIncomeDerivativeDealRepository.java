@@ -1,18 +1,54 @@
 package com.magiccode.tradeingestion.repository;
 
 import com.magiccode.tradeingestion.model.FixedIncomeDerivativeDeal;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
+import java.util.stream.Stream;
 
 @Repository
-public interface FixedIncomeDerivativeDealRepository extends JpaRepository<FixedIncomeDerivativeDeal, UUID> {
+public interface FixedIncomeDerivativeDealRepository extends JpaRepository<FixedIncomeDerivativeDeal, UUID>,
+        JpaSpecificationExecutor<FixedIncomeDerivativeDeal> {
     Optional<FixedIncomeDerivativeDeal> findByDealId(String dealId);
     List<FixedIncomeDerivativeDeal> findByInstrumentId(String instrumentId);
     List<FixedIncomeDerivativeDeal> findByDealType(String dealType);
     List<FixedIncomeDerivativeDeal> findByStatus(String status);
     List<FixedIncomeDerivativeDeal> findByCounterpartyEntityId(String entityId);
+
+    @Query("SELECT d.dealId FROM FixedIncomeDerivativeDeal d WHERE d.dealId IN :dealIds")
+    Set<String> findExistingDealIds(@Param("dealIds") Collection<String> dealIds);
+
+    /**
+     * Returns deal IDs that have matured before the given date or are cancelled, after the given
+     * deal ID in deal ID order, so callers can page through candidates with a keyset cursor.
+     */
+    @Query("SELECT d.dealId FROM FixedIncomeDerivativeDeal d " +
+           "WHERE (d.maturityDate < :maturedBefore OR d.status = 'CANCELLED') AND d.dealId > :after " +
+           "ORDER BY d.dealId")
+    List<String> findArchivableDealIds(@Param("maturedBefore") LocalDate maturedBefore,
+                                       @Param("after") String after,
+                                       Pageable pageable);
+
+    List<FixedIncomeDerivativeDeal> findByDealIdIn(Collection<String> dealIds);
+
+    /**
+     * Streams every deal ID without loading the deals. Must be consumed inside a transaction
+     * so the driver can fetch the rows with a cursor.
+     */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "10000"))
+    @Query("SELECT d.dealId FROM FixedIncomeDerivativeDeal d")
+    Stream<String> streamAllDealIds();
 } 
\ No newline at end of file
@@ -0,0 +1,29 @@
+package com.magiccode.tradeingestion.repository;
+
+import com.magiccode.tradeingestion.model.RawDealPayload;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.Set;
+import java.util.stream.Stream;
+
+@Repository
+public interface RawDealPayloadRepository extends JpaRepository<RawDealPayload, String> {
+
+    @QueryHints({
+        @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+        @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("select p from RawDealPayload p where p.receivedAt >= :from and p.receivedAt < :to order by p.receivedAt")
+    Stream<RawDealPayload> streamReceivedBetween(@Param("from") Instant from, @Param("to") Instant to);
+
+    @Query("select p.messageId from RawDealPayload p where p.messageId in :messageIds")
+    Set<String> findExistingMessageIds(@Param("messageIds") Collection<String> messageIds);
+}
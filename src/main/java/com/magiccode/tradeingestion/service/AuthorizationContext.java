@@ -1,5 +1,7 @@
 package com.magiccode.tradeingestion.service;
 
+import com.magiccode.tradeingestion.service.entitlement.RequiredRoleMask;
+
 import java.util.Map;
 import java.util.Set;
 
@@ -7,6 +9,9 @@
  * Represents the context for an authorization decision.
  * Contains information about the resource, its classification level,
  * jurisdiction, required roles, and additional attributes.
+ *
+ * The required roles are compiled to a bitmask on the first entitlement check and kept with the
+ * context, so they should not change once the context is built.
  */
 public class AuthorizationContext {
     private final String resourceId;
@@ -14,6 +19,7 @@ public class AuthorizationContext {
     private final String jurisdiction;
     private final Set<String> requiredRoles;
     private final Map<String, String> attributes;
+    private volatile RequiredRoleMask requiredRoleMask;
 
     private AuthorizationContext(Builder builder) {
         this.resourceId = builder.resourceId;
@@ -43,6 +49,17 @@ public Map<String, String> getAttributes() {
         return attributes;
     }
 
+    /**
+     * The required roles as last compiled by an entitlement model, or null if not compiled yet.
+     */
+    public RequiredRoleMask getRequiredRoleMask() {
+        return requiredRoleMask;
+    }
+
+    public void setRequiredRoleMask(RequiredRoleMask requiredRoleMask) {
+        this.requiredRoleMask = requiredRoleMask;
+    }
+
     /**
      * Builder class for AuthorizationContext.
      */
@@ -1,6 +1,9 @@
 package com.magiccode.tradeingestion.service;
 
+import com.magiccode.tradeingestion.service.entitlement.DataVisibility;
+
 import java.security.Principal;
+import java.util.List;
 import java.util.Set;
 
 /**
@@ -40,4 +43,32 @@ public interface AuthorizationService {
      * @return An AuthorizationResult containing the decision and reason
      */
     AuthorizationResult authorize(Principal principal, Operation operation, Resource resource, AuthorizationContext context);
-} 
\ No newline at end of file
+
+    /**
+     * Checks one operation on many resources for the same principal, as list endpoints do.
+     *
+     * @param principal The principal representing the user
+     * @param operation The operation being requested
+     * @param resource The kind of resource the operation is being performed on
+     * @param contexts The authorization context of each resource
+     * @return Whether each resource is authorized, in the order of {@code contexts}
+     */
+    default boolean[] authorizeAll(Principal principal, Operation operation, Resource resource, List<AuthorizationContext> contexts) {
+        boolean[] authorized = new boolean[contexts.size()];
+        for (int i = 0; i < authorized.length; i++) {
+            authorized[i] = authorize(principal, operation, resource, contexts.get(i)).isAuthorized();
+        }
+        return authorized;
+    }
+
+    /**
+     * Describes the deals a principal may see, so list queries can filter in the database
+     * instead of checking each row after loading it.
+     *
+     * @param principal The principal representing the user
+     * @return The principal's visibility; unrestricted when no entitlements apply
+     */
+    default DataVisibility visibility(Principal principal) {
+        return DataVisibility.UNRESTRICTED;
+    }
+}
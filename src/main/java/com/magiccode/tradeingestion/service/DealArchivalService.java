@@ -0,0 +1,287 @@
+package com.magiccode.tradeingestion.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.magiccode.tradeingestion.cache.DealCacheTags;
+import com.magiccode.tradeingestion.exception.DealProcessingException;
+import com.magiccode.tradeingestion.model.ArchivedDeal;
+import com.magiccode.tradeingestion.model.FixedIncomeDerivativeDeal;
+import com.magiccode.tradeingestion.repository.ArchivedDealRepository;
+import com.magiccode.tradeingestion.repository.FixedIncomeDerivativeDealRepository;
+import io.github.resilience4j.ratelimiter.RateLimiter;
+import io.github.resilience4j.ratelimiter.RateLimiterConfig;
+import io.github.resilience4j.ratelimiter.RateLimiterRegistry;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Moves matured and cancelled fixed income deals out of the hot tables into {@code archived_deals}.
+ *
+ * The scheduled job pages through candidates by deal ID and archives each batch in its own
+ * transaction: the deals are written to the archive as compressed JSON and deleted from the hot
+ * tables together, so an interrupted run simply continues with the remaining candidates on the
+ * next run. Batches are throttled by the {@code dealArchival} rate limiter and a fixed delay, and
+ * the job backs off while threads are waiting for database connections, so it does not compete
+ * with ingestion.
+ *
+ * {@link #findArchived(String)} lets deal lookups fall back to the archive transparently.
+ *
+ * @see ArchivedDeal
+ */
+@Service
+@Slf4j
+public class DealArchivalService {
+    static final String RATE_LIMITER_NAME = "dealArchival";
+
+    private final FixedIncomeDerivativeDealRepository dealRepository;
+    private final ArchivedDealRepository archivedDealRepository;
+    private final ObjectMapper objectMapper;
+    private final CacheManager cacheManager;
+    private final DealCacheTags dealCacheTags;
+    private final MeterRegistry meterRegistry;
+    private final TransactionTemplate transactionTemplate;
+    private final RateLimiter rateLimiter;
+    private final boolean enabled;
+    private final int batchSize;
+    private final Duration batchDelay;
+    private final int maxBatchesPerRun;
+    private final Counter archivedCounter;
+    private final Counter deferredCounter;
+    private final Counter archiveHits;
+    private final Timer batchTimer;
+    private final AtomicBoolean running = new AtomicBoolean(false);
+    private volatile Instant lastRunCompletedAt;
+
+    public DealArchivalService(
+            FixedIncomeDerivativeDealRepository dealRepository,
+            ArchivedDealRepository archivedDealRepository,
+            ObjectMapper objectMapper,
+            CacheManager cacheManager,
+            DealCacheTags dealCacheTags,
+            MeterRegistry meterRegistry,
+            PlatformTransactionManager transactionManager,
+            RateLimiterRegistry rateLimiterRegistry,
+            @Value("${deal.archive.enabled:false}") boolean enabled,
+            @Value("${deal.archive.batch-size:200}") int batchSize,
+            @Value("${deal.archive.deals-per-second:200}") int dealsPerSecond,
+            @Value("${deal.archive.batch-delay:100ms}") Duration batchDelay,
+            @Value("${deal.archive.max-batches-per-run:1000}") int maxBatchesPerRun) {
+        this.dealRepository = dealRepository;
+        this.archivedDealRepository = archivedDealRepository;
+        this.objectMapper = objectMapper;
+        this.cacheManager = cacheManager;
+        this.dealCacheTags = dealCacheTags;
+        this.meterRegistry = meterRegistry;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.enabled = enabled;
+        // A batch takes one permit per deal, so it can never ask for more than one period allows
+        this.batchSize = Math.min(batchSize, dealsPerSecond);
+        this.batchDelay = batchDelay;
+        this.maxBatchesPerRun = maxBatchesPerRun;
+        this.rateLimiter = rateLimiterRegistry.rateLimiter(RATE_LIMITER_NAME, RateLimiterConfig.custom()
+            .limitForPeriod(dealsPerSecond)
+            .limitRefreshPeriod(Duration.ofSeconds(1))
+            .timeoutDuration(Duration.ofSeconds(5))
+            .build());
+        this.archivedCounter = Counter.builder("deal.archive.archived")
+            .description("Number of deals moved to the archive")
+            .register(meterRegistry);
+        this.deferredCounter = Counter.builder("deal.archive.deferred")
+            .description("Number of archive batches deferred because the database was busy")
+            .register(meterRegistry);
+        this.archiveHits = Counter.builder("deal.archive.lookup.hits")
+            .description("Number of deal lookups answered from the archive")
+            .register(meterRegistry);
+        this.batchTimer = Timer.builder("deal.archive.batch")
+            .description("Time taken to archive one batch of deals")
+            .register(meterRegistry);
+        Gauge.builder("deal.archive.last.run", this,
+                service -> service.lastRunCompletedAt == null ? 0 : service.lastRunCompletedAt.getEpochSecond())
+            .description("Epoch seconds at which the last archival run completed")
+            .register(meterRegistry);
+    }
+
+    /**
+     * Runs one archival pass over matured and cancelled deals.
+     *
+     * @return The number of deals archived in this run
+     */
+    @Scheduled(fixedDelayString = "${deal.archive.interval:300000}",
+               initialDelayString = "${deal.archive.initial-delay:60000}")
+    public int archiveEligibleDeals() {
+        if (!enabled || !running.compareAndSet(false, true)) {
+            return 0;
+        }
+        int archived = 0;
+        try {
+            LocalDate today = LocalDate.now();
+            String cursor = "";
+            for (int batch = 0; batch < maxBatchesPerRun; batch++) {
+                if (databaseBusy()) {
+                    deferredCounter.increment();
+                    log.debug("Deferring deal archival, threads are waiting for database connections");
+                    Thread.sleep(batchDelay.toMillis() * 10);
+                    continue;
+                }
+                List<String> dealIds = dealRepository.findArchivableDealIds(today, cursor, PageRequest.of(0, batchSize));
+                if (dealIds.isEmpty()) {
+                    break;
+                }
+                cursor = dealIds.get(dealIds.size() - 1);
+                if (!rateLimiter.acquirePermission(dealIds.size())) {
+                    log.debug("Deal archival rate limit reached, ending run early");
+                    break;
+                }
+                try {
+                    archived += batchTimer.recordCallable(() -> archiveBatch(dealIds));
+                } catch (Exception e) {
+                    log.warn("Failed to archive batch ending at deal {}, skipping it in this run: {}", cursor, e.getMessage());
+                }
+                Thread.sleep(batchDelay.toMillis());
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            lastRunCompletedAt = Instant.now();
+            running.set(false);
+        }
+        if (archived > 0) {
+            log.info("Archived {} matured or cancelled deal(s)", archived);
+        }
+        return archived;
+    }
+
+    /**
+     * Looks up an archived deal by its deal ID.
+     *
+     * @param dealId The deal ID
+     * @return The archived deal, or empty if the deal was never archived
+     */
+    public Optional<FixedIncomeDerivativeDeal> findArchived(String dealId) {
+        return archivedDealRepository.findById(dealId).map(archivedDeal -> {
+            archiveHits.increment();
+            try {
+                return objectMapper.readValue(gunzip(archivedDeal.getPayload()), FixedIncomeDerivativeDeal.class);
+            } catch (IOException e) {
+                throw new DealProcessingException("Failed to read archived deal: " + dealId, e);
+            }
+        });
+    }
+
+    /**
+     * Whether a deal with the given ID was archived. Archiving removes the deal's row, so duplicate
+     * checks consult this once the live table misses.
+     *
+     * @param dealId The deal ID
+     * @return Whether the deal is in the archive
+     */
+    public boolean isArchived(String dealId) {
+        return archivedDealRepository.existsById(dealId);
+    }
+
+    /**
+     * Returns which of the given deal IDs were archived.
+     *
+     * @param dealIds The deal IDs to check
+     * @return The archived ones
+     */
+    public Set<String> findArchivedDealIds(Collection<String> dealIds) {
+        return dealIds.isEmpty() ? Set.of() : archivedDealRepository.findArchivedDealIds(dealIds);
+    }
+
+    private int archiveBatch(List<String> dealIds) {
+        List<UUID> ids = new ArrayList<>(dealIds.size());
+        Set<String> tags = new HashSet<>();
+        Integer archived = transactionTemplate.execute(status -> {
+            List<FixedIncomeDerivativeDeal> deals = dealRepository.findByDealIdIn(dealIds);
+            List<ArchivedDeal> archivedDeals = new ArrayList<>(deals.size());
+            Instant now = Instant.now();
+            for (FixedIncomeDerivativeDeal deal : deals) {
+                ids.add(deal.getId());
+                tags.addAll(DealCacheTags.tagsOf(deal));
+                byte[] json;
+                try {
+                    json = objectMapper.writeValueAsBytes(deal);
+                } catch (IOException e) {
+                    throw new DealProcessingException("Failed to serialize deal for archive: " + deal.getDealId(), e);
+                }
+                archivedDeals.add(ArchivedDeal.builder()
+                    .dealId(deal.getDealId())
+                    .dealClass(deal.getClass().getSimpleName())
+                    .status(deal.getStatus())
+                    .maturityDate(deal.getMaturityDate())
+                    .payload(gzip(json))
+                    .originalSize(json.length)
+                    .archivedAt(now)
+                    .build());
+            }
+            archivedDealRepository.saveAll(archivedDeals);
+            dealRepository.deleteAll(deals);
+            return deals.size();
+        });
+        int count = archived != null ? archived : 0;
+        archivedCounter.increment(count);
+        evictDeals(dealIds, ids);
+        dealCacheTags.evictTagged(tags);
+        return count;
+    }
+
+    private boolean databaseBusy() {
+        return meterRegistry.find("hikaricp.connections.pending").gauges().stream()
+            .anyMatch(gauge -> gauge.value() > 0);
+    }
+
+    private void evictDeals(List<String> dealIds, List<UUID> ids) {
+        Cache byDealId = cacheManager.getCache("fixedIncomeDealsByDealId");
+        if (byDealId != null) {
+            dealIds.forEach(byDealId::evict);
+        }
+        Cache byId = cacheManager.getCache("fixedIncomeDeals");
+        if (byId != null) {
+            ids.forEach(byId::evict);
+        }
+    }
+
+    private static byte[] gzip(byte[] raw) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(Math.max(64, raw.length / 4));
+        try (GZIPOutputStream gzip = new GZIPOutputStream(out)) {
+            gzip.write(raw);
+        } catch (IOException e) {
+            throw new DealProcessingException("Failed to compress archived deal", e);
+        }
+        return out.toByteArray();
+    }
+
+    private static byte[] gunzip(byte[] compressed) throws IOException {
+        try (GZIPInputStream gzip = new GZIPInputStream(new ByteArrayInputStream(compressed))) {
+            return gzip.readAllBytes();
+        }
+    }
+}
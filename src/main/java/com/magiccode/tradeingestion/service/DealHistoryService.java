@@ -0,0 +1,280 @@
+package com.magiccode.tradeingestion.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.magiccode.tradeingestion.exception.DealProcessingException;
+import com.magiccode.tradeingestion.model.Deal;
+import com.magiccode.tradeingestion.model.DealCurrentVersion;
+import com.magiccode.tradeingestion.model.DealVersion;
+import com.magiccode.tradeingestion.repository.DealCurrentVersionRepository;
+import com.magiccode.tradeingestion.repository.DealVersionRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.function.Supplier;
+
+/**
+ * Maintains the append-only version history of deals and answers as-of queries.
+ *
+ * {@link #record(Deal)} is called in the same transaction as each accepted save. It appends a
+ * {@link DealVersion} row and moves the deal's {@link DealCurrentVersion} pointer. Rows hold a
+ * top-level JSON merge patch against the previous version, with a full snapshot every
+ * {@code deal.history.snapshot-interval} versions. An as-of lookup therefore reads at most that
+ * many rows in a single range scan over {@code (deal_id, version)} and replays the patches on
+ * top of the snapshot.
+ *
+ * The pointer is a fixed-size row and is read without a lock: concurrent appends for the same
+ * deal collide on the unique {@code (deal_id, version)} of the history row, and the deal row's own
+ * optimistic version already serializes its updates. The state a delta is computed against is
+ * kept in a bounded cache of {@code deal.history.state-cache-size} deals, keyed by the history row
+ * it was recorded as, and rebuilt from the chain like an as-of lookup on a miss
+ * ({@code deal.history.base.rebuilds}).
+ *
+ * Per event the history therefore writes one row of {@code deal.history.row.size} bytes plus
+ * the pointer update, against the {@code deal.history.state.size} bytes an in-place update of
+ * the deal rewrites anyway; the two summaries show the write amplification of the history.
+ *
+ * @see DealVersion
+ * @see DealCurrentVersion
+ */
+@Service
+@Slf4j
+public class DealHistoryService {
+
+    private final DealVersionRepository versionRepository;
+    private final DealCurrentVersionRepository currentVersionRepository;
+    private final ObjectMapper objectMapper;
+    private final boolean enabled;
+    private final int snapshotInterval;
+    private final DistributionSummary snapshotRowSize;
+    private final DistributionSummary deltaRowSize;
+    private final DistributionSummary stateSize;
+    private final Counter baseRebuilds;
+    private final Timer lookupTimer;
+    private final Cache<String, RecordedState> recordedStates;
+
+    public DealHistoryService(
+            DealVersionRepository versionRepository,
+            DealCurrentVersionRepository currentVersionRepository,
+            ObjectMapper objectMapper,
+            MeterRegistry meterRegistry,
+            @Value("${deal.history.enabled:true}") boolean enabled,
+            @Value("${deal.history.snapshot-interval:20}") int snapshotInterval,
+            @Value("${deal.history.state-cache-size:10000}") long stateCacheSize) {
+        if (snapshotInterval < 1) {
+            throw new IllegalStateException("Deal history snapshot interval must be at least 1");
+        }
+        this.versionRepository = versionRepository;
+        this.currentVersionRepository = currentVersionRepository;
+        this.objectMapper = objectMapper;
+        this.enabled = enabled;
+        this.snapshotInterval = snapshotInterval;
+        this.snapshotRowSize = rowSize(meterRegistry, "snapshot");
+        this.deltaRowSize = rowSize(meterRegistry, "delta");
+        this.stateSize = DistributionSummary.builder("deal.history.state.size")
+            .description("Size of the full deal state, as rewritten by an in-place update")
+            .baseUnit("bytes")
+            .register(meterRegistry);
+        this.baseRebuilds = Counter.builder("deal.history.base.rebuilds")
+            .description("Number of deltas whose base state was not cached and was rebuilt from the history")
+            .register(meterRegistry);
+        this.recordedStates = Caffeine.newBuilder()
+            .maximumSize(stateCacheSize)
+            .build();
+        this.lookupTimer = Timer.builder("deal.history.lookup")
+            .description("Time taken to rebuild a deal at a given version or time")
+            .register(meterRegistry);
+    }
+
+    /**
+     * Appends the given deal state to its version history.
+     *
+     * @param deal The deal as just saved
+     * @return The appended history row, or {@code null} when history is disabled
+     */
+    @Transactional
+    public DealVersion record(Deal deal) {
+        if (!enabled) {
+            return null;
+        }
+        String stateJson = objectMapper.valueToTree(deal).toString();
+        // Re-read so number nodes compare equal to the stored state they are diffed against
+        ObjectNode state = readObject(stateJson);
+        Instant now = Instant.now();
+
+        Optional<DealCurrentVersion> current = currentVersionRepository.findById(deal.getDealId());
+        long version = current.map(pointer -> pointer.getVersion() + 1).orElse(1L);
+        boolean snapshot = current.isEmpty() || version - current.get().getLastSnapshotVersion() >= snapshotInterval;
+        String payload = snapshot ? stateJson : diff(previousState(current.get()), state).toString();
+
+        DealVersion saved = versionRepository.save(DealVersion.builder()
+            .dealId(deal.getDealId())
+            .version(version)
+            .entityVersion(deal.getVersion())
+            .eventType(deal.getEventType())
+            .dealClass(deal.getClass().getSimpleName())
+            .snapshot(snapshot)
+            .payload(payload)
+            .recordedAt(now)
+            .build());
+
+        DealCurrentVersion pointer = current.orElseGet(() -> DealCurrentVersion.builder().dealId(deal.getDealId()).build());
+        pointer.setVersion(version);
+        pointer.setVersionId(saved.getId());
+        if (snapshot) {
+            pointer.setLastSnapshotVersion(version);
+        }
+        pointer.setUpdatedAt(now);
+        currentVersionRepository.save(pointer);
+        // Keyed by the new row's ID, so a state from a rolled back append is never used as a base
+        recordedStates.put(deal.getDealId(), new RecordedState(saved.getId(), state));
+
+        (snapshot ? snapshotRowSize : deltaRowSize).record(payload.getBytes(StandardCharsets.UTF_8).length);
+        stateSize.record(stateJson.getBytes(StandardCharsets.UTF_8).length);
+        log.debug("Recorded version {} of deal {} as {}", version, deal.getDealId(), snapshot ? "snapshot" : "delta");
+        return saved;
+    }
+
+    /**
+     * Returns a deal as it was at the given history version.
+     *
+     * @throws DealProcessingException if the deal has no history at or before that version
+     */
+    @Transactional(readOnly = true)
+    public DealVersionView getVersion(String dealId, long version) {
+        return lookupTimer.record(() -> rebuild(dealId,
+            versionRepository.findChainUpToVersion(dealId, version, chainPage()),
+            () -> versionRepository.findChainUpToVersion(dealId, version, Pageable.unpaged())));
+    }
+
+    /**
+     * Returns a deal as it was at the given time.
+     *
+     * @throws DealProcessingException if the deal has no history at or before that time
+     */
+    @Transactional(readOnly = true)
+    public DealVersionView getAsOf(String dealId, Instant asOf) {
+        return lookupTimer.record(() -> rebuild(dealId,
+            versionRepository.findChainAsOf(dealId, asOf, chainPage()),
+            () -> versionRepository.findChainAsOf(dealId, asOf, Pageable.unpaged())));
+    }
+
+    private ObjectNode previousState(DealCurrentVersion current) {
+        RecordedState recorded = recordedStates.getIfPresent(current.getDealId());
+        if (recorded != null && recorded.versionId().equals(current.getVersionId())) {
+            return recorded.state();
+        }
+        baseRebuilds.increment();
+        String dealId = current.getDealId();
+        return (ObjectNode) rebuild(dealId,
+            versionRepository.findChainUpToVersion(dealId, current.getVersion(), chainPage()),
+            () -> versionRepository.findChainUpToVersion(dealId, current.getVersion(), Pageable.unpaged())).state();
+    }
+
+    private DealVersionView rebuild(String dealId, List<DealVersion> newestFirst,
+                                    Supplier<List<DealVersion>> fullChain) {
+        if (newestFirst.isEmpty()) {
+            throw new DealProcessingException("No version history found for deal: " + dealId);
+        }
+        int snapshotIndex = indexOfSnapshot(newestFirst);
+        if (snapshotIndex < 0) {
+            // Only happens when the snapshot interval was lowered after these versions were written
+            newestFirst = fullChain.get();
+            snapshotIndex = indexOfSnapshot(newestFirst);
+            if (snapshotIndex < 0) {
+                throw new DealProcessingException("Version history of deal " + dealId + " has no snapshot");
+            }
+        }
+
+        ObjectNode state = readObject(newestFirst.get(snapshotIndex).getPayload());
+        for (int i = snapshotIndex - 1; i >= 0; i--) {
+            apply(state, readObject(newestFirst.get(i).getPayload()));
+        }
+        DealVersion target = newestFirst.get(0);
+        return new DealVersionView(target.getDealId(), target.getVersion(), target.getEntityVersion(),
+            target.getEventType(), target.getDealClass(), target.getRecordedAt(), state);
+    }
+
+    /**
+     * Computes a top-level JSON merge patch (RFC 7386) that turns {@code previous} into {@code current}.
+     */
+    static ObjectNode diff(ObjectNode previous, ObjectNode current) {
+        ObjectNode patch = previous.objectNode();
+        for (Iterator<Map.Entry<String, JsonNode>> fields = current.fields(); fields.hasNext(); ) {
+            Map.Entry<String, JsonNode> field = fields.next();
+            if (!field.getValue().equals(previous.get(field.getKey()))) {
+                patch.set(field.getKey(), field.getValue());
+            }
+        }
+        for (Iterator<String> names = previous.fieldNames(); names.hasNext(); ) {
+            String name = names.next();
+            if (!current.has(name)) {
+                patch.putNull(name);
+            }
+        }
+        return patch;
+    }
+
+    static void apply(ObjectNode target, ObjectNode patch) {
+        for (Iterator<Map.Entry<String, JsonNode>> fields = patch.fields(); fields.hasNext(); ) {
+            Map.Entry<String, JsonNode> field = fields.next();
+            if (field.getValue().isNull()) {
+                target.remove(field.getKey());
+            } else {
+                target.set(field.getKey(), field.getValue());
+            }
+        }
+    }
+
+    private static int indexOfSnapshot(List<DealVersion> newestFirst) {
+        for (int i = 0; i < newestFirst.size(); i++) {
+            if (newestFirst.get(i).isSnapshot()) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private Pageable chainPage() {
+        return PageRequest.of(0, snapshotInterval);
+    }
+
+    private ObjectNode readObject(String json) {
+        try {
+            return (ObjectNode) objectMapper.readTree(json);
+        } catch (JsonProcessingException e) {
+            throw new DealProcessingException("Failed to read deal history payload", e);
+        }
+    }
+
+    // The state recorded as a history row, never modified once cached
+    private record RecordedState(UUID versionId, ObjectNode state) {
+    }
+
+    private static DistributionSummary rowSize(MeterRegistry meterRegistry, String kind) {
+        return DistributionSummary.builder("deal.history.row.size")
+            .description("Size of an appended deal history row")
+            .baseUnit("bytes")
+            .tag("kind", kind)
+            .register(meterRegistry);
+    }
+}
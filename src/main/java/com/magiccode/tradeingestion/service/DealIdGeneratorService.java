@@ -1,93 +1,159 @@
 package com.magiccode.tradeingestion.service;
 
+import com.magiccode.tradeingestion.config.DealIdBlockProperties;
 import com.magiccode.tradeingestion.exception.DealProcessingException;
+import com.magiccode.tradeingestion.service.dealid.DealIdPool;
+import com.magiccode.tradeingestion.service.dealid.LocalDealIdGenerator;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.ParameterizedTypeReference;
 import org.springframework.stereotype.Service;
 import org.springframework.web.reactive.function.client.WebClient;
-import reactor.core.publisher.Mono;
+import reactor.util.retry.Retry;
 
+import java.util.List;
+import java.util.Map;
 import java.util.concurrent.CompletableFuture;
-import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 
+/**
+ * Hands out deal IDs allocated by the deal ID service in blocks.
+ *
+ * Each counterparty has a {@link DealIdPool} filled by {@code POST {url}/blocks}, which returns a
+ * JSON array of IDs. Requests are non-blocking with a per-attempt timeout and exponential retry
+ * backoff, so no thread sleeps or waits on the service while the pool still holds IDs.
+ *
+ * With {@code deal.id.local.enabled} IDs are instead minted in process by a
+ * {@link LocalDealIdGenerator}, without calling the deal ID service at all.
+ */
 @Service
 public class DealIdGeneratorService {
     private static final Logger logger = LoggerFactory.getLogger(DealIdGeneratorService.class);
-    private static final int MAX_RETRIES = 3;
-    private static final long RETRY_DELAY_MS = 1000;
+    private static final ParameterizedTypeReference<List<String>> ID_LIST = new ParameterizedTypeReference<>() {
+    };
 
     private final String dealIdServiceUrl;
     private final WebClient webClient;
-    private final ExecutorService executorService;
+    private final DealIdBlockProperties properties;
+    private final LocalDealIdGenerator localGenerator;
+    private final Map<String, DealIdPool> pools = new ConcurrentHashMap<>();
+    private final Timer refillTimer;
+    private final DistributionSummary blockSizes;
+    private final Counter poolEmpty;
 
+    /**
+     * Creates a service that always allocates IDs from the deal ID service.
+     */
+    public DealIdGeneratorService(String dealIdServiceUrl, WebClient webClient, DealIdBlockProperties properties,
+                                  MeterRegistry meterRegistry) {
+        this(dealIdServiceUrl, webClient, properties, meterRegistry, (LocalDealIdGenerator) null);
+    }
+
+    @Autowired
     public DealIdGeneratorService(
             @Value("${deal.id.service.url:http://localhost:8082/api/deal-ids}") String dealIdServiceUrl,
-            WebClient webClient) {
+            @Qualifier("dealIdWebClient") WebClient webClient,
+            DealIdBlockProperties properties,
+            MeterRegistry meterRegistry,
+            ObjectProvider<LocalDealIdGenerator> localGenerator) {
+        this(dealIdServiceUrl, webClient, properties, meterRegistry, localGenerator.getIfAvailable());
+    }
+
+    private DealIdGeneratorService(String dealIdServiceUrl, WebClient webClient, DealIdBlockProperties properties,
+                                   MeterRegistry meterRegistry, LocalDealIdGenerator localGenerator) {
+        properties.validate();
         this.dealIdServiceUrl = dealIdServiceUrl;
         this.webClient = webClient;
-        this.executorService = Executors.newFixedThreadPool(5);
+        this.properties = properties;
+        this.localGenerator = localGenerator;
+        this.refillTimer = Timer.builder("deal.id.block.refill")
+            .description("Time taken to fetch a block of deal IDs")
+            .publishPercentiles(0.5, 0.99)
+            .register(meterRegistry);
+        this.blockSizes = DistributionSummary.builder("deal.id.block.size")
+            .description("Number of deal IDs fetched per block")
+            .register(meterRegistry);
+        this.poolEmpty = Counter.builder("deal.id.pool.empty")
+            .description("Number of deal ID requests that found the pool empty and waited for a block")
+            .register(meterRegistry);
+        Gauge.builder("deal.id.pool.available", pools,
+                p -> p.values().stream().mapToInt(DealIdPool::available).sum())
+            .description("Number of pre-allocated deal IDs held across counterparties")
+            .register(meterRegistry);
     }
 
     /**
-     * Generates a deal ID synchronously with retry logic
+     * Generates a deal ID, waiting for the deal ID service only when the pool is empty.
+     *
+     * @throws DealProcessingException if no deal ID could be obtained
      */
     public String generateDealId(String counterpartyId) {
-        return generateDealIdWithRetry(counterpartyId);
+        if (localGenerator != null) {
+            return localGenerator.next();
+        }
+        CompletableFuture<String> dealId = generateDealIdAsync(counterpartyId);
+        long timeoutMillis = properties.getFetchTimeout().toMillis() * (properties.getMaxRetries() + 1)
+            + properties.getRetryBackoff().toMillis() * (1L << properties.getMaxRetries());
+        try {
+            return dealId.get(timeoutMillis, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new DealProcessingException("Deal ID generation interrupted", e);
+        } catch (ExecutionException e) {
+            throw new DealProcessingException("Failed to generate deal ID: " + e.getCause().getMessage(), e.getCause());
+        } catch (TimeoutException e) {
+            throw new DealProcessingException("Timed out waiting for a deal ID", e);
+        }
     }
 
     /**
-     * Generates a deal ID asynchronously
+     * Generates a deal ID asynchronously; completes immediately while the pool holds IDs.
      */
     public CompletableFuture<String> generateDealIdAsync(String counterpartyId) {
-        return CompletableFuture.supplyAsync(() -> generateDealId(counterpartyId), executorService);
-    }
-
-    /**
-     * Generates a deal ID with retry logic
-     */
-    private String generateDealIdWithRetry(String counterpartyId) {
-        int attempts = 0;
-        while (attempts < MAX_RETRIES) {
+        if (localGenerator != null) {
             try {
-                logger.info("Requesting deal ID for counterparty: {}", counterpartyId);
-                String dealId = webClient.post()
-                    .uri(dealIdServiceUrl)
-                    .bodyValue(new DealIdRequest(counterpartyId))
-                    .retrieve()
-                    .bodyToMono(String.class)
-                    .block();
-
-                if (dealId == null || dealId.isEmpty()) {
-                    throw new DealProcessingException("Received empty deal ID from service");
-                }
-
-                logger.info("Generated deal ID: {} for counterparty: {}", dealId, counterpartyId);
-                return dealId;
-
-            } catch (Exception e) {
-                attempts++;
-                logger.warn("Failed to generate deal ID (attempt {}/{}): {}",
-                    attempts, MAX_RETRIES, e.getMessage());
-
-                if (attempts == MAX_RETRIES) {
-                    throw new DealProcessingException("Failed to generate deal ID after " + MAX_RETRIES + " attempts", e);
-                }
-
-                try {
-                    Thread.sleep(RETRY_DELAY_MS * attempts);
-                } catch (InterruptedException ie) {
-                    Thread.currentThread().interrupt();
-                    throw new DealProcessingException("Deal ID generation interrupted", ie);
-                }
+                return CompletableFuture.completedFuture(localGenerator.next());
+            } catch (DealProcessingException e) {
+                return CompletableFuture.failedFuture(e);
             }
         }
+        DealIdPool pool = pools.computeIfAbsent(counterpartyId != null ? counterpartyId : "", this::createPool);
+        if (pool.available() == 0) {
+            poolEmpty.increment();
+        }
+        return pool.take();
+    }
+
+    private DealIdPool createPool(String counterpartyId) {
+        return new DealIdPool(size -> fetchBlock(counterpartyId, size), properties, refillTimer, blockSizes);
+    }
 
-        throw new DealProcessingException("Failed to generate deal ID");
+    private CompletableFuture<List<String>> fetchBlock(String counterpartyId, int size) {
+        logger.debug("Requesting block of {} deal IDs for counterparty: {}", size, counterpartyId);
+        return webClient.post()
+            .uri(dealIdServiceUrl + "/blocks")
+            .bodyValue(new DealIdBlockRequest(counterpartyId, size))
+            .retrieve()
+            .bodyToMono(ID_LIST)
+            .timeout(properties.getFetchTimeout())
+            .retryWhen(Retry.backoff(properties.getMaxRetries(), properties.getRetryBackoff())
+                .doBeforeRetry(signal -> logger.warn("Failed to fetch deal ID block (attempt {}/{}): {}",
+                    signal.totalRetries() + 1, properties.getMaxRetries() + 1, signal.failure().getMessage())))
+            .toFuture();
     }
 
-    // Java 21 record pattern
-    private record DealIdRequest(String counterpartyId) {
+    private record DealIdBlockRequest(String counterpartyId, int size) {
     }
-} 
\ No newline at end of file
+}
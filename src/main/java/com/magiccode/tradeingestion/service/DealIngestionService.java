@@ -1,8 +1,10 @@
 package com.magiccode.tradeingestion.service;
 
+import com.magiccode.tradeingestion.cache.DealCacheWriter;
 import com.magiccode.tradeingestion.exception.DealProcessingException;
 import com.magiccode.tradeingestion.model.Deal;
 import com.magiccode.tradeingestion.repository.DealRepository;
+import com.magiccode.tradeingestion.service.pipeline.StepScope;
 import io.github.resilience4j.circuitbreaker.CircuitBreaker;
 import io.github.resilience4j.circuitbreaker.CircuitBreakerConfig;
 import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
@@ -10,8 +12,10 @@
 import io.github.resilience4j.retry.RetryConfig;
 import io.github.resilience4j.retry.RetryRegistry;
 import io.micrometer.core.annotation.Timed;
+import io.micrometer.core.instrument.MeterRegistry;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.cache.annotation.CacheEvict;
 import org.springframework.cache.annotation.Cacheable;
 import org.springframework.stereotype.Service;
@@ -30,7 +34,7 @@
  * - Ensures proper message sequencing using distributed locks
  * - Validates and transforms deals before persistence
  * - Implements circuit breaker pattern for fault tolerance
- * - Provides caching for frequently accessed deals
+ * - Provides caching for frequently accessed deals, written through on ingest
  * - Supports retry mechanism for transient failures
  * - Maintains transaction boundaries
  * 
@@ -50,10 +54,16 @@ public class DealIngestionService {
     private final DealValidationService dealValidationService;
     private final DealTransformationService dealTransformationService;
     private final MessageSequencingService messageSequencingService;
+    private final DealCacheWriter dealCacheWriter;
 
     // Resilience4j components for fault tolerance
     private final CircuitBreakerRegistry circuitBreakerRegistry;
     private final RetryRegistry retryRegistry;
+    private final MeterRegistry meterRegistry;
+
+    // Run validation and remote transformation side by side rather than one after the other
+    @Value("${deal.pipeline.parallel-steps:false}")
+    private boolean parallelSteps;
 
     /**
      * Processes a deal through the complete pipeline with resilience patterns.
@@ -63,6 +73,9 @@ public class DealIngestionService {
      * 2. Business rule validation
      * 3. Data transformation
      * 4. Persistent storage with circuit breaker and retry mechanisms
+     *
+     * With {@code deal.pipeline.parallel-steps}, validation and transformation run concurrently
+     * in a {@link StepScope}; a failure of either cancels the other before anything is saved.
      * 
      * @param deal The deal to process
      * @return The processed and persisted deal
@@ -76,11 +89,8 @@ public Deal processDeal(Deal deal) {
         // Step 1: Ensure proper message sequencing
         messageSequencingService.processWithSequence(deal);
 
-        // Step 2: Validate deal against business rules
-        dealValidationService.validateDealOrThrow(deal);
-
-        // Step 3: Transform deal data
-        Deal transformedDeal = dealTransformationService.transformDeal(deal);
+        // Steps 2 and 3: Validate deal against business rules and transform deal data
+        Deal transformedDeal = validateAndTransform(deal);
 
         // Step 4: Save deal with resilience patterns
         CircuitBreaker circuitBreaker = circuitBreakerRegistry.circuitBreaker("dealProcessing");
@@ -100,7 +110,28 @@ public Deal processDeal(Deal deal) {
                 }
             });
 
-        return decoratedSupplier.get();
+        Deal savedDeal = decoratedSupplier.get();
+        dealCacheWriter.putAfterCommit(savedDeal, "deals", "dealsByDealId");
+        dealCacheWriter.evictAfterCommit("dealLists", "all");
+        dealCacheWriter.evictAfterCommit("dealsBySymbol", savedDeal.getInstrumentId());
+        return savedDeal;
+    }
+
+    private Deal validateAndTransform(Deal deal) {
+        // Validation only reads the deal, so it can overlap a transformation that returns a new one
+        if (!parallelSteps || dealTransformationService.transformsInPlace()) {
+            dealValidationService.validateDealOrThrow(deal);
+            return dealTransformationService.transformDeal(deal);
+        }
+        try (StepScope scope = new StepScope(meterRegistry)) {
+            scope.fork("validation", () -> {
+                dealValidationService.validateDealOrThrow(deal);
+                return null;
+            });
+            Supplier<Deal> transformed = scope.fork("transformation", () -> dealTransformationService.transformDeal(deal));
+            scope.join();
+            return transformed.get();
+        }
     }
 
     /**
@@ -110,7 +141,8 @@ public Deal processDeal(Deal deal) {
      * @param id The UUID of the deal
      * @return Optional containing the deal if found, empty otherwise
      */
-    @Cacheable(value = "deals", key = "#id")
+    @Cacheable(value = "deals", key = "#id", sync = true)
+    @Transactional(readOnly = true)
     public Optional<Deal> getDealById(UUID id) {
         log.info("Retrieving deal by ID: {}", id);
         return dealRepository.findById(id);
@@ -123,7 +155,8 @@ public Optional<Deal> getDealById(UUID id) {
      * 
      * @return List of all deals
      */
-    @Cacheable(value = "deals", key = "'all'")
+    @Cacheable(value = "dealLists", key = "'all'")
+    @Transactional(readOnly = true)
     public List<Deal> getAllDeals() {
         log.info("Retrieving all deals");
         return dealRepository.findAll();
@@ -136,17 +169,18 @@ public List<Deal> getAllDeals() {
      * @param symbol The instrument symbol to search for
      * @return List of deals for the given symbol
      */
-    @Cacheable(value = "deals", key = "#symbol")
+    @Cacheable(value = "dealsBySymbol", key = "#symbol")
+    @Transactional(readOnly = true)
     public List<Deal> getDealsBySymbol(String symbol) {
         log.info("Retrieving deals by symbol: {}", symbol);
         return dealRepository.findByInstrumentId(symbol);
     }
 
     /**
-     * Clears the deal cache.
+     * Clears the deal caches.
      * Should be called when deal data is modified outside this service.
      */
-    @CacheEvict(value = "deals", allEntries = true)
+    @CacheEvict(value = {"deals", "dealsByDealId", "dealLists", "dealsBySymbol"}, allEntries = true)
     public void clearCache() {
         log.info("Clearing deals cache");
     }
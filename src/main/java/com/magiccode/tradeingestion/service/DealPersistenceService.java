@@ -1,8 +1,10 @@
 package com.magiccode.tradeingestion.service;
 
+import com.magiccode.tradeingestion.cache.DealCacheWriter;
 import com.magiccode.tradeingestion.exception.DealProcessingException;
 import com.magiccode.tradeingestion.model.Deal;
 import com.magiccode.tradeingestion.repository.DealRepository;
+import io.micrometer.core.annotation.Timed;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.cache.annotation.CacheEvict;
@@ -40,6 +42,9 @@ public class DealPersistenceService {
     private final ConcurrentHashMap<String, Lock> dealLocks = new ConcurrentHashMap<>();
     private final ConcurrentHashMap<String, Deal> dealStore = new ConcurrentHashMap<>();
     private final DealRepository dealRepository;
+    private final DealHistoryService dealHistoryService;
+    private final DealArchivalService dealArchivalService;
+    private final DealCacheWriter dealCacheWriter;
 
     /**
      * Retrieves a deal by its ID.
@@ -48,7 +53,11 @@ public class DealPersistenceService {
      * @return The found deal
      * @throws DealProcessingException if the deal is not found
      */
-    @Cacheable(value = "deals", key = "#id")
+    @Timed(value = "get.deal",
+           description = "Time taken to get a deal by ID",
+           percentiles = {0.5, 0.99})
+    @Cacheable(value = "deals", key = "#id", sync = true)
+    @Transactional(readOnly = true)
     public Deal getDealById(final UUID id) {
         return dealRepository.findById(id)
             .orElseThrow(() -> new DealProcessingException(
@@ -56,21 +65,24 @@ public Deal getDealById(final UUID id) {
     }
 
     /**
-     * Retrieves a deal by its deal ID.
+     * Retrieves a deal by its deal ID, falling back to the archive for matured or cancelled deals.
      *
      * @param dealId The deal ID to search for
      * @return The found deal
      * @throws DealProcessingException if the deal is not found
      */
-    @Cacheable(value = "dealsByDealId", key = "#dealId")
+    @Cacheable(value = "dealsByDealId", key = "#dealId", sync = true)
+    @Transactional(readOnly = true)
     public Deal getDealByDealId(final String dealId) {
         return dealRepository.findByDealId(dealId)
+            .or(() -> dealArchivalService.findArchived(dealId).map(Deal.class::cast))
             .orElseThrow(() -> new DealProcessingException(
                 "Deal not found with deal ID: " + dealId));
     }
 
     /**
      * Saves a deal to the database with optimistic locking.
+     * The saved deal is written to the {@code deals} and {@code dealsByDealId} caches after commit.
      *
      * @param deal The deal to save
      * @return The saved deal
@@ -121,7 +133,10 @@ private Deal saveDealWithLock(final Deal deal) {
             log.debug("Incremented version for deal {} to {}", dealId, deal.getVersion());
         }
 
-        return dealRepository.save(deal);
+        final Deal savedDeal = dealRepository.save(deal);
+        dealHistoryService.record(savedDeal);
+        dealCacheWriter.putAfterCommit(savedDeal, "deals", "dealsByDealId");
+        return savedDeal;
     }
 
     /**
@@ -132,7 +147,7 @@ public void clearCache() {
         log.info("Cache cleared for deals");
     }
 
-    @CacheEvict(value = "deals", key = "#dealId")
+    @CacheEvict(value = "dealsByDealId", key = "#dealId")
     public void deleteDeal(String dealId) {
         dealStore.remove(dealId);
         dealLocks.remove(dealId);
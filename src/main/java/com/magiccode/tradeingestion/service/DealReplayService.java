@@ -0,0 +1,168 @@
+package com.magiccode.tradeingestion.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.magiccode.tradeingestion.exception.DealProcessingException;
+import com.magiccode.tradeingestion.model.FixedIncomeDerivativeDeal;
+import com.magiccode.tradeingestion.model.RawDealPayload;
+import com.magiccode.tradeingestion.repository.RawDealPayloadRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.persistence.EntityManager;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+
+/**
+ * Replays stored raw payloads back through the fixed income processing pipeline.
+ *
+ * Payloads are streamed from {@code raw_deal_payloads} in arrival order and dispatched to
+ * a fixed number of single-threaded lanes chosen by deal ID. Different deals replay in
+ * parallel while all versions of one deal are applied in the order they were received.
+ * The broker is never involved and replayed deals are not republished.
+ *
+ * @see RawPayloadStore
+ * @see FixedIncomeDerivativeDealService#reprocessDeal(FixedIncomeDerivativeDeal)
+ */
+@Service
+@Slf4j
+public class DealReplayService {
+
+    private final RawDealPayloadRepository payloadRepository;
+    private final RawPayloadStore payloadStore;
+    private final FixedIncomeDerivativeDealService dealService;
+    private final ObjectMapper objectMapper;
+    private final EntityManager entityManager;
+    private final TransactionTemplate readOnlyTransaction;
+    private final Timer replayTimer;
+    private final int parallelism;
+    private final int maxInFlight;
+    private final double targetDealsPerSecond;
+    private final AtomicBoolean running = new AtomicBoolean(false);
+
+    public DealReplayService(
+            RawDealPayloadRepository payloadRepository,
+            RawPayloadStore payloadStore,
+            FixedIncomeDerivativeDealService dealService,
+            ObjectMapper objectMapper,
+            EntityManager entityManager,
+            PlatformTransactionManager transactionManager,
+            MeterRegistry meterRegistry,
+            @Value("${deal.replay.parallelism:8}") int parallelism,
+            @Value("${deal.replay.max-in-flight:1024}") int maxInFlight,
+            @Value("${deal.replay.target-deals-per-second:500}") double targetDealsPerSecond) {
+        this.payloadRepository = payloadRepository;
+        this.payloadStore = payloadStore;
+        this.dealService = dealService;
+        this.objectMapper = objectMapper;
+        this.entityManager = entityManager;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.replayTimer = Timer.builder("deal.replay.payload")
+            .description("Time taken to replay a stored raw payload")
+            .register(meterRegistry);
+        this.parallelism = parallelism;
+        this.maxInFlight = maxInFlight;
+        this.targetDealsPerSecond = targetDealsPerSecond;
+    }
+
+    /**
+     * Replays every payload received in the given window.
+     *
+     * @param from Inclusive start of the receive window
+     * @param to Exclusive end of the receive window
+     * @return A report with counts, throughput and storage figures for the run
+     * @throws DealProcessingException if another replay is already running
+     */
+    public ReplayReport replay(Instant from, Instant to) {
+        if (!running.compareAndSet(false, true)) {
+            throw new DealProcessingException("A replay is already running");
+        }
+        log.info("Starting replay of raw payloads received between {} and {}", from, to);
+
+        ExecutorService[] lanes = new ExecutorService[parallelism];
+        for (int i = 0; i < parallelism; i++) {
+            lanes[i] = Executors.newSingleThreadExecutor(Thread.ofPlatform().name("deal-replay-" + i).factory());
+        }
+        Semaphore inFlight = new Semaphore(maxInFlight);
+        AtomicLong replayed = new AtomicLong();
+        AtomicLong failed = new AtomicLong();
+        AtomicLong rawBytes = new AtomicLong();
+        AtomicLong storedBytes = new AtomicLong();
+        long start = System.nanoTime();
+
+        try {
+            readOnlyTransaction.executeWithoutResult(status -> {
+                try (Stream<RawDealPayload> payloads = payloadRepository.streamReceivedBetween(from, to)) {
+                    payloads.forEach(payload -> {
+                        // Keep the streaming persistence context from growing with the replay
+                        entityManager.detach(payload);
+                        inFlight.acquireUninterruptibly();
+                        lanes[Math.floorMod(payload.getDealId().hashCode(), parallelism)].execute(() -> {
+                            try {
+                                replayTimer.record(() -> replayOne(payload));
+                                replayed.incrementAndGet();
+                                rawBytes.addAndGet(payload.getOriginalSize());
+                                storedBytes.addAndGet(payload.getStoredSize());
+                            } catch (Exception e) {
+                                failed.incrementAndGet();
+                                log.warn("Failed to replay message {} for deal {}: {}",
+                                    payload.getMessageId(), payload.getDealId(), e.getMessage());
+                            } finally {
+                                inFlight.release();
+                            }
+                        });
+                    });
+                }
+            });
+        } finally {
+            awaitLanes(lanes);
+            running.set(false);
+        }
+
+        Duration elapsed = Duration.ofNanos(System.nanoTime() - start);
+        double seconds = Math.max(elapsed.toNanos(), 1) / 1_000_000_000.0;
+        ReplayReport report = new ReplayReport(replayed.get(), failed.get(), elapsed,
+            replayed.get() / seconds, targetDealsPerSecond, rawBytes.get(), storedBytes.get());
+        log.info("Replay finished: {} replayed, {} failed in {} ms ({} deals/s, target {}), storage ratio {}",
+            report.replayed(), report.failed(), elapsed.toMillis(), String.format("%.1f", report.dealsPerSecond()),
+            targetDealsPerSecond, String.format("%.3f", report.storageRatio()));
+        return report;
+    }
+
+    private void replayOne(RawDealPayload payload) {
+        try {
+            FixedIncomeDerivativeDeal deal = objectMapper.readValue(payloadStore.decode(payload), FixedIncomeDerivativeDeal.class);
+            dealService.reprocessDeal(deal);
+        } catch (DealProcessingException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new DealProcessingException("Failed to map raw payload " + payload.getMessageId(), e);
+        }
+    }
+
+    private static void awaitLanes(ExecutorService[] lanes) {
+        for (ExecutorService lane : lanes) {
+            lane.shutdown();
+        }
+        try {
+            for (ExecutorService lane : lanes) {
+                lane.awaitTermination(1, TimeUnit.HOURS);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new DealProcessingException("Replay interrupted", e);
+        }
+    }
+}
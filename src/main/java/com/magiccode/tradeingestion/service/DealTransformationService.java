@@ -2,33 +2,87 @@
 
 import com.magiccode.tradeingestion.model.Deal;
 import com.magiccode.tradeingestion.exception.DealProcessingException;
+import com.magiccode.tradeingestion.service.transformation.TransformationBatcher;
+import com.magiccode.tradeingestion.service.transformation.TransformationMemo;
+import com.magiccode.tradeingestion.service.transformation.TransformationMemo.Transformed;
+import com.magiccode.tradeingestion.service.transformation.TransformationRuleEngine;
 import io.github.resilience4j.circuitbreaker.annotation.CircuitBreaker;
 import io.github.resilience4j.ratelimiter.annotation.RateLimiter;
 import io.github.resilience4j.retry.annotation.Retry;
 import io.github.resilience4j.timelimiter.annotation.TimeLimiter;
 import io.micrometer.core.annotation.Timed;
-import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import org.springframework.web.reactive.function.client.WebClient;
 import reactor.core.publisher.Mono;
 
+import java.util.concurrent.ExecutionException;
+
+/**
+ * Transforms deals with the in-process rules or the remote transformation service.
+ *
+ * While {@code deal.transformation.rules.enabled} is set, deals are transformed by the compiled
+ * rules of the {@link TransformationRuleEngine} without a network call; a deal the rules fail on
+ * goes to the remote service if {@code fallback-to-remote} is set.
+ *
+ * Remote calls are coalesced into list requests by the {@link TransformationBatcher} while
+ * {@code deal.transformation.batch.enabled} is set; otherwise each deal is posted on its own.
+ *
+ * With {@code deal.transformation.memo.enabled}, {@link #transformDeal(Deal)} answers repeated
+ * payloads from the {@link TransformationMemo} without transforming them again.
+ */
 @Slf4j
 @Service
-@RequiredArgsConstructor
 public class DealTransformationService {
 
     private final WebClient webClient;
+    private final TransformationBatcher transformationBatcher;
+    private final TransformationRuleEngine ruleEngine;
+    private final TransformationMemo transformationMemo;
     
     @Value("${deal.transformation.service.url:http://localhost:8082/api/transform}")
     private String transformationServiceUrl;
 
+    public DealTransformationService(@Qualifier("transformationWebClient") WebClient webClient,
+                                     TransformationBatcher transformationBatcher,
+                                     TransformationRuleEngine ruleEngine,
+                                     TransformationMemo transformationMemo) {
+        this.webClient = webClient;
+        this.transformationBatcher = transformationBatcher;
+        this.ruleEngine = ruleEngine;
+        this.transformationMemo = transformationMemo;
+    }
+
     @Timed(value = "deal.transformation.time", description = "Time taken to transform a deal")
     @CircuitBreaker(name = "dealTransformation", fallbackMethod = "transformDealFallback")
     public Deal transformDeal(Deal deal) {
         log.info("Transforming deal: {}", deal.getDealId());
-        
+
+        return transformationMemo.transform(deal, this::transformUncached);
+    }
+
+    // Reports the path actually taken, so a rule failure that fell back to remote is not counted as local
+    private Transformed transformUncached(Deal deal) {
+        Deal local = transformLocally(deal);
+        if (local != null) {
+            return new Transformed(local, "local");
+        }
+        return new Transformed(transformRemotely(deal), "remote");
+    }
+
+    private Deal transformRemotely(Deal deal) {
+        if (transformationBatcher.isEnabled()) {
+            try {
+                return transformationBatcher.submit(deal).get();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new DealProcessingException("Deal transformation interrupted", e);
+            } catch (ExecutionException e) {
+                throw new DealProcessingException("Deal transformation failed: " + e.getCause().getMessage(), e.getCause());
+            }
+        }
         return webClient.post()
                 .uri(transformationServiceUrl)
                 .bodyValue(deal)
@@ -37,6 +91,14 @@ public Deal transformDeal(Deal deal) {
                 .block();
     }
     
+    /**
+     * Whether {@link #transformDeal(Deal)} modifies the given deal rather than returning a new one,
+     * so nothing else may read the deal while it is being transformed.
+     */
+    public boolean transformsInPlace() {
+        return ruleEngine.isEnabled();
+    }
+
     public Deal transformDealFallback(Deal deal, Exception e) {
         log.error("Error transforming deal: {}. Using fallback method.", deal.getDealId(), e);
         return deal;
@@ -44,7 +106,14 @@ public Deal transformDealFallback(Deal deal, Exception e) {
     
     public Mono<Deal> transformDealAsync(Deal deal) {
         log.info("Asynchronously transforming deal: {}", deal.getDealId());
-        
+
+        Deal local = transformLocally(deal);
+        if (local != null) {
+            return Mono.just(local);
+        }
+        if (transformationBatcher.isEnabled()) {
+            return Mono.fromFuture(() -> transformationBatcher.submit(deal));
+        }
         return webClient.post()
                 .uri(transformationServiceUrl)
                 .bodyValue(deal)
@@ -52,4 +121,24 @@ public Mono<Deal> transformDealAsync(Deal deal) {
                 .bodyToMono(Deal.class)
                 .onErrorMap(e -> new DealProcessingException("Async deal transformation failed", e));
     }
-} 
\ No newline at end of file
+
+    /**
+     * Applies the in-process rules.
+     *
+     * @return The transformed deal, or null if the deal should go to the remote service
+     */
+    private Deal transformLocally(Deal deal) {
+        if (!ruleEngine.isEnabled()) {
+            return null;
+        }
+        try {
+            return ruleEngine.apply(deal);
+        } catch (RuntimeException e) {
+            if (!ruleEngine.isFallbackToRemote()) {
+                throw new DealProcessingException("Rule-based transformation failed for deal: " + deal.getDealId(), e);
+            }
+            log.warn("Rule-based transformation failed for deal {}, using remote service: {}", deal.getDealId(), e.getMessage());
+            return null;
+        }
+    }
+}
@@ -1,10 +1,12 @@
 package com.magiccode.tradeingestion.service;
 
 import com.magiccode.tradeingestion.exception.DealProcessingException;
+import com.magiccode.tradeingestion.model.CounterpartyInfo;
 import com.magiccode.tradeingestion.model.Deal;
+import com.magiccode.tradeingestion.model.FixedIncomeDerivativeDeal;
+import com.magiccode.tradeingestion.service.refdata.ReferenceDataStore;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.cache.annotation.Cacheable;
 import org.springframework.stereotype.Service;
 
 import java.math.BigDecimal;
@@ -15,35 +17,63 @@
 @RequiredArgsConstructor
 @Slf4j
 public class DealValidationService {
+    private static final int PARALLEL_THRESHOLD = 256;
+
+    private final ReferenceDataStore referenceDataStore;
 
     public List<String> validateDeal(Deal deal) {
-        List<String> errors = new ArrayList<>();
-        
+        // Allocated on the first error only; a valid deal returns the shared empty list
+        List<String> errors = null;
+
+        // Validate instrument against reference data, once it has been loaded
+        if (deal.getInstrumentId() != null && referenceDataStore.isLoaded()
+            && !isValidInstrument(deal.getInstrumentId())) {
+            errors = add(errors, "Unknown instrument: " + deal.getInstrumentId());
+        }
+
+        // Validate counterparty against reference data, by entity ID or LEI
+        if (deal instanceof FixedIncomeDerivativeDeal fixedIncomeDeal && fixedIncomeDeal.getCounterparty() != null
+            && referenceDataStore.isLoaded() && !isKnownCounterparty(fixedIncomeDeal.getCounterparty())) {
+            errors = add(errors, "Unknown counterparty: " + fixedIncomeDeal.getCounterparty().getEntityId());
+        }
+
+        BigDecimal quantity = deal.getInstrumentQuantity();
+        BigDecimal price = deal.getInstrumentPrice();
+        // Notional and settlement amount are both quantity times price; computed once
+        BigDecimal notional = quantity != null && price != null ? quantity.multiply(price) : null;
+
         // Validate notional amount
-        if (deal.getNotionalAmount() != null && 
-            deal.getNotionalAmount().compareTo(BigDecimal.ZERO) <= 0) {
-            errors.add("Notional amount must be greater than zero");
+        if (notional != null && notional.signum() <= 0) {
+            errors = add(errors, "Notional amount must be greater than zero");
         }
         
         // Validate instrument quantity
-        if (deal.getInstrumentQuantity() != null && 
-            deal.getInstrumentQuantity().compareTo(BigDecimal.ZERO) <= 0) {
-            errors.add("Instrument quantity must be greater than zero");
+        if (quantity != null && quantity.signum() <= 0) {
+            errors = add(errors, "Instrument quantity must be greater than zero");
         }
         
         // Validate instrument price
-        if (deal.getInstrumentPrice() != null && 
-            deal.getInstrumentPrice().compareTo(BigDecimal.ZERO) < 0) {
-            errors.add("Instrument price cannot be negative");
+        if (price != null && price.signum() < 0) {
+            errors = add(errors, "Instrument price cannot be negative");
         }
         
         // Validate settlement amount
-        if (deal.getInstrumentSettlementAmount() != null && 
-            deal.getInstrumentSettlementAmount().compareTo(BigDecimal.ZERO) < 0) {
-            errors.add("Settlement amount cannot be negative");
+        if (notional != null && notional.signum() < 0) {
+            errors = add(errors, "Settlement amount cannot be negative");
         }
         
-        return errors;
+        return errors != null ? errors : List.of();
+    }
+
+    /**
+     * Validates a batch of deals, in parallel for large batches.
+     *
+     * @return The errors of each deal, in the order of the given list
+     */
+    public List<List<String>> validateAll(List<? extends Deal> deals) {
+        return (deals.size() < PARALLEL_THRESHOLD ? deals.stream() : deals.parallelStream())
+            .<List<String>>map(this::validateDeal)
+            .toList();
     }
     
     public void validateDealOrThrow(Deal deal) {
@@ -53,17 +83,50 @@ public void validateDealOrThrow(Deal deal) {
         }
     }
 
-    @Cacheable(value = "counterparties", key = "#counterpartyId")
+    /**
+     * Checks a counterparty ID or LEI against the in-memory reference data.
+     * Until reference data has been loaded only the format is checked.
+     */
     public boolean isValidCounterparty(String counterpartyId) {
-        // In a real application, this would check against a reference data service
         log.debug("Validating counterparty: {}", counterpartyId);
-        return counterpartyId != null && counterpartyId.length() >= 3;
+        if (counterpartyId == null) {
+            return false;
+        }
+        if (!referenceDataStore.isLoaded()) {
+            return counterpartyId.length() >= 3;
+        }
+        return referenceDataStore.findCounterparty(counterpartyId).isPresent()
+            || referenceDataStore.findCounterpartyByLei(counterpartyId).isPresent();
     }
 
-    @Cacheable(value = "instruments", key = "#instrumentId")
+    /**
+     * Checks an instrument ID or symbol against the in-memory reference data.
+     * Until reference data has been loaded only the format is checked.
+     */
     public boolean isValidInstrument(String instrumentId) {
-        // In a real application, this would check against a reference data service
         log.debug("Validating instrument: {}", instrumentId);
-        return instrumentId != null && instrumentId.length() >= 2;
+        if (instrumentId == null) {
+            return false;
+        }
+        if (!referenceDataStore.isLoaded()) {
+            return instrumentId.length() >= 2;
+        }
+        return referenceDataStore.findInstrument(instrumentId).isPresent()
+            || referenceDataStore.findInstrumentBySymbol(instrumentId).isPresent();
+    }
+
+    private boolean isKnownCounterparty(CounterpartyInfo counterparty) {
+        if (counterparty.getEntityId() == null && counterparty.getLei() == null) {
+            // Nothing to look up; a missing counterparty is not a reference data error
+            return true;
+        }
+        return (counterparty.getEntityId() != null && isValidCounterparty(counterparty.getEntityId()))
+            || (counterparty.getLei() != null && isValidCounterparty(counterparty.getLei()));
+    }
+
+    private static List<String> add(List<String> errors, String error) {
+        List<String> list = errors != null ? errors : new ArrayList<>(4);
+        list.add(error);
+        return list;
     }
-}
\ No newline at end of file
+}
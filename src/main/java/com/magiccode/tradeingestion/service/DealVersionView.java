@@ -0,0 +1,27 @@
+package com.magiccode.tradeingestion.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+
+import java.time.Instant;
+
+/**
+ * A deal as it was at one point in its version history.
+ *
+ * @param dealId The deal ID
+ * @param version History sequence number of the returned version
+ * @param entityVersion JPA version of the deal row when the version was recorded
+ * @param eventType Event type of the deal at that version
+ * @param dealClass Simple class name of the deal
+ * @param recordedAt When the version was recorded
+ * @param state Full deal state at that version
+ */
+public record DealVersionView(
+    String dealId,
+    long version,
+    Long entityVersion,
+    String eventType,
+    String dealClass,
+    Instant recordedAt,
+    JsonNode state
+) {
+}
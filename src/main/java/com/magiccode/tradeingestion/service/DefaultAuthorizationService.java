@@ -1,130 +1,141 @@
 package com.magiccode.tradeingestion.service;
 
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
+import java.util.List;
 import java.util.Set;
-import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.TimeUnit;
 import com.github.benmanes.caffeine.cache.Caffeine;
-import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.LoadingCache;
+import com.magiccode.tradeingestion.config.EntitlementProperties;
+import com.magiccode.tradeingestion.service.entitlement.DataVisibility;
+import com.magiccode.tradeingestion.service.entitlement.EntitlementDecision;
+import com.magiccode.tradeingestion.service.entitlement.EntitlementModel;
+import com.magiccode.tradeingestion.service.entitlement.EntitlementSource;
+import com.magiccode.tradeingestion.service.entitlement.PrincipalEntitlements;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import java.security.Principal;
 
 /**
  * Default implementation of the AuthorizationService interface.
- * This service provides authorization checks with caching capabilities to improve performance.
+ *
+ * Each principal's roles, classification clearance, jurisdictions and permissions are compiled
+ * once into bitsets ({@link PrincipalEntitlements}) and kept in a Caffeine cache keyed by the
+ * principal name, which reloads entries in the background once they are older than
+ * {@code deal.entitlements.refresh-after}. A check is then a single cache lookup followed by
+ * bitwise tests. {@link #authorizeAll(Principal, Operation, Resource, List)} looks the principal
+ * up once for a whole list of resources.
+ *
+ * While {@code deal.entitlements.enabled} is false every check is authorized.
  */
 @Service
 public class DefaultAuthorizationService implements AuthorizationService {
     private static final Logger logger = LoggerFactory.getLogger(DefaultAuthorizationService.class);
-    
-    // Cache for storing authorization decisions
-    private final Cache<String, Boolean> authorizationCache;
-    
+    private static final AuthorizationResult INVALID_PRINCIPAL = new AuthorizationResult(false, "Invalid principal or context");
+    private static final AuthorizationResult INVALID_USER = new AuthorizationResult(false, "Invalid user ID");
+
+    private final EntitlementModel model;
+
+    // Compiled entitlements by principal name; null while entitlements are disabled
+    private final LoadingCache<String, PrincipalEntitlements> entitlementCache;
+
+    /**
+     * Creates a service that authorizes every well-formed request.
+     */
     public DefaultAuthorizationService() {
-        // Initialize the cache with a maximum size and expiration time
-        this.authorizationCache = Caffeine.newBuilder()
-            .maximumSize(1000)
-            .expireAfterWrite(5, TimeUnit.MINUTES)
-            .build();
+        this.model = null;
+        this.entitlementCache = null;
+    }
+
+    @Autowired
+    public DefaultAuthorizationService(EntitlementProperties properties, EntitlementSource source, MeterRegistry meterRegistry) {
+        properties.validate();
+        if (!properties.isEnabled()) {
+            this.model = null;
+            this.entitlementCache = null;
+            return;
+        }
+        this.model = new EntitlementModel(properties);
+        this.entitlementCache = Caffeine.newBuilder()
+            .maximumSize(properties.getCacheMaximumSize())
+            .expireAfterWrite(properties.getCacheTtl())
+            .refreshAfterWrite(properties.getRefreshAfter())
+            .recordStats()
+            .build(principalName -> model.compile(source.load(principalName)));
+        CaffeineCacheMetrics.monitor(meterRegistry, entitlementCache, "entitlements");
     }
-    
+
     @Override
     public boolean isAuthorized(String userId, Operation operation, Resource resource) {
-        String cacheKey = generateCacheKey(userId, operation, resource);
-        
-        // Check cache first
-        Boolean cachedResult = authorizationCache.getIfPresent(cacheKey);
-        if (cachedResult != null) {
-            logger.debug("Cache hit for authorization check: {}", cacheKey);
-            return cachedResult;
+        if (model == null) {
+            return true;
         }
-        
-        // Perform actual authorization check
-        boolean isAuthorized = performAuthorizationCheck(userId, operation, resource);
-        
-        // Cache the result
-        authorizationCache.put(cacheKey, isAuthorized);
-        
-        return isAuthorized;
+        long required = EntitlementModel.permissionBit(resource, operation);
+        return (entitlementCache.get(userId).permissions() & required) == required;
     }
-    
+
     @Override
     public boolean isAuthorized(String userId, Set<Operation> operations, Resource resource) {
-        // Check each operation individually
-        for (Operation operation : operations) {
-            if (!isAuthorized(userId, operation, resource)) {
-                return false;
-            }
+        if (model == null) {
+            return true;
         }
-        return true;
+        long required = EntitlementModel.permissionMask(resource, operations);
+        return (entitlementCache.get(userId).permissions() & required) == required;
     }
 
     @Override
     public AuthorizationResult authorize(Principal principal, Operation operation, Resource resource, AuthorizationContext context) {
         if (principal == null || context == null) {
-            return new AuthorizationResult(false, "Invalid principal or context");
+            return INVALID_PRINCIPAL;
         }
 
         String userId = principal.getName();
         if (userId == null || userId.isEmpty()) {
-            return new AuthorizationResult(false, "Invalid user ID");
+            return INVALID_USER;
         }
 
-        // Check if user has required roles
-        if (context.getRequiredRoles() != null && !context.getRequiredRoles().isEmpty()) {
-            // TODO: Implement role checking logic
-            // For now, we'll assume the user has the required roles
-        }
+        return decide(userId, EntitlementModel.permissionBit(resource, operation), context).toResult();
+    }
 
-        // Check classification level
-        if (context.getClassificationLevel() != null) {
-            // TODO: Implement classification level checking logic
-            // For now, we'll assume the user has the required clearance
+    @Override
+    public boolean[] authorizeAll(Principal principal, Operation operation, Resource resource, List<AuthorizationContext> contexts) {
+        boolean[] authorized = new boolean[contexts.size()];
+        String userId = principal != null ? principal.getName() : null;
+        if (userId == null || userId.isEmpty()) {
+            return authorized;
         }
-
-        // Check jurisdiction
-        if (context.getJurisdiction() != null) {
-            // TODO: Implement jurisdiction checking logic
-            // For now, we'll assume the user has the required jurisdiction
+        long required = EntitlementModel.permissionBit(resource, operation);
+        PrincipalEntitlements entitlements = model != null ? entitlementCache.get(userId) : null;
+        for (int i = 0; i < authorized.length; i++) {
+            AuthorizationContext context = contexts.get(i);
+            authorized[i] = context != null
+                && (entitlements == null || model.check(entitlements, required, context).isAuthorized());
         }
-
-        // Perform the basic authorization check
-        boolean isAuthorized = isAuthorized(userId, operation, resource);
-        
-        return new AuthorizationResult(isAuthorized, isAuthorized ? "Authorized" : "Unauthorized");
+        return authorized;
     }
-    
-    /**
-     * Performs the actual authorization check.
-     * This method should be implemented with the specific authorization logic.
-     *
-     * @param userId The ID of the user requesting authorization
-     * @param operation The operation being requested
-     * @param resource The resource the operation is being performed on
-     * @return true if the user is authorized, false otherwise
-     */
-    private boolean performAuthorizationCheck(String userId, Operation operation, Resource resource) {
-        // TODO: Implement actual authorization logic
-        // This could involve:
-        // - Checking user roles and permissions
-        // - Verifying resource ownership
-        // - Consulting external authorization services
-        // - Applying business rules
-        
-        // For now, return true as a placeholder
-        return true;
+
+    @Override
+    public DataVisibility visibility(Principal principal) {
+        if (model == null) {
+            return DataVisibility.UNRESTRICTED;
+        }
+        String userId = principal != null ? principal.getName() : null;
+        if (userId == null || userId.isEmpty()) {
+            return model.visibility("", PrincipalEntitlements.NONE);
+        }
+        return model.visibility(userId, entitlementCache.get(userId));
     }
-    
-    /**
-     * Generates a unique cache key for an authorization check.
-     *
-     * @param userId The ID of the user
-     * @param operation The operation being requested
-     * @param resource The resource being accessed
-     * @return A unique string key for caching
-     */
-    private String generateCacheKey(String userId, Operation operation, Resource resource) {
-        return String.format("%s:%s:%s", userId, operation, resource);
+
+    private EntitlementDecision decide(String userId, long required, AuthorizationContext context) {
+        if (model == null) {
+            return EntitlementDecision.AUTHORIZED;
+        }
+        EntitlementDecision decision = model.check(entitlementCache.get(userId), required, context);
+        if (!decision.isAuthorized()) {
+            logger.debug("Denied {} for {}: {}", context.getResourceId(), userId, decision);
+        }
+        return decision;
     }
-} 
\ No newline at end of file
+}
@@ -1,8 +1,13 @@
 package com.magiccode.tradeingestion.service;
 
+import com.magiccode.tradeingestion.cache.DealCacheTags;
+import com.magiccode.tradeingestion.cache.DealCacheWriter;
 import com.magiccode.tradeingestion.exception.DealProcessingException;
 import com.magiccode.tradeingestion.model.FixedIncomeDerivativeDeal;
+import com.magiccode.tradeingestion.repository.FixedIncomeDealSpecifications;
 import com.magiccode.tradeingestion.repository.FixedIncomeDerivativeDealRepository;
+import com.magiccode.tradeingestion.service.dedup.DealIdFilter;
+import com.magiccode.tradeingestion.service.entitlement.DataVisibility;
 import com.magiccode.tradeingestion.service.transformation.DealTransformationService;
 import com.magiccode.tradeingestion.service.validation.DealValidationService;
 import io.github.resilience4j.circuitbreaker.annotation.CircuitBreaker;
@@ -12,14 +17,20 @@
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.cache.annotation.CacheEvict;
 import org.springframework.cache.annotation.Cacheable;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.jms.core.JmsTemplate;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Locale;
+import java.util.Set;
 import java.util.UUID;
-import java.util.Optional;
 
 /**
  * Service class for handling fixed income derivative deals.
@@ -33,6 +44,11 @@ public class FixedIncomeDerivativeDealService {
     private final JmsTemplate jmsTemplate;
     private final DealValidationService validationService;
     private final DealTransformationService<FixedIncomeDerivativeDeal> transformationService;
+    private final DealHistoryService dealHistoryService;
+    private final DealArchivalService dealArchivalService;
+    private final DealCacheWriter dealCacheWriter;
+    private final DealIdFilter dealIdFilter;
+    private final DealCacheTags dealCacheTags;
 
     /**
      * Constructs a new FixedIncomeDerivativeDealService.
@@ -41,17 +57,32 @@ public class FixedIncomeDerivativeDealService {
      * @param jmsTemplate The JMS template for message sending
      * @param validationService The service for deal validation
      * @param transformationService The service for deal transformation
+     * @param dealHistoryService The service recording deal version history
+     * @param dealArchivalService The service holding archived deals
+     * @param dealCacheWriter Writes saved deals to the caches after commit
+     * @param dealIdFilter Filter of known deal IDs used to skip duplicate lookups
+     * @param dealCacheTags Tag index used to cache deal lists and evict only the affected ones
      */
     public FixedIncomeDerivativeDealService(
         final FixedIncomeDerivativeDealRepository dealRepository,
         final JmsTemplate jmsTemplate,
         final DealValidationService validationService,
-        final DealTransformationService<FixedIncomeDerivativeDeal> transformationService
+        final DealTransformationService<FixedIncomeDerivativeDeal> transformationService,
+        final DealHistoryService dealHistoryService,
+        final DealArchivalService dealArchivalService,
+        final DealCacheWriter dealCacheWriter,
+        final DealIdFilter dealIdFilter,
+        final DealCacheTags dealCacheTags
     ) {
         this.dealRepository = dealRepository;
         this.jmsTemplate = jmsTemplate;
         this.validationService = validationService;
         this.transformationService = transformationService;
+        this.dealHistoryService = dealHistoryService;
+        this.dealArchivalService = dealArchivalService;
+        this.dealCacheWriter = dealCacheWriter;
+        this.dealIdFilter = dealIdFilter;
+        this.dealCacheTags = dealCacheTags;
     }
 
     /**
@@ -71,6 +102,41 @@ public FixedIncomeDerivativeDealService(
     public FixedIncomeDerivativeDeal processDeal(final FixedIncomeDerivativeDeal deal) {
         log.info("Processing fixed income derivative deal: {}", deal.getDealId());
         
+        FixedIncomeDerivativeDeal transformedDeal = prepareDeal(deal);
+        FixedIncomeDerivativeDeal savedDeal;
+        try {
+            savedDeal = dealRepository.save(transformedDeal);
+            // Surface a concurrent insert of the same deal ID here rather than at commit
+            dealRepository.flush();
+        } catch (DataIntegrityViolationException e) {
+            if (!isDuplicateDealId(e)) {
+                throw e;
+            }
+            log.error("Deal {} already exists", deal.getDealId());
+            throw new DealProcessingException("Deal already exists: " + deal.getDealId());
+        }
+        dealHistoryService.record(savedDeal);
+        writeThrough(savedDeal, Set.of());
+        jmsTemplate.convertAndSend("fixed-income-deals", savedDeal);
+        
+        log.info("Successfully processed fixed income derivative deal: {}", 
+                savedDeal.getDealId());
+        
+        return savedDeal;
+    }
+
+    /**
+     * Validates, de-duplicates and transforms a deal without saving it.
+     * The duplicate lookup is skipped when the {@link DealIdFilter} knows the deal ID is new; the
+     * deal ID joins the filter only when the saved deal is written through.
+     * Used by {@link #processDeal(FixedIncomeDerivativeDeal)} and by the write-behind journal,
+     * which saves the prepared deal later.
+     *
+     * @param deal The deal to prepare
+     * @return The transformed deal, ready to be saved
+     * @throws DealProcessingException if the deal fails validation or already exists
+     */
+    public FixedIncomeDerivativeDeal prepareDeal(final FixedIncomeDerivativeDeal deal) {
         try {
             validationService.validateDeal(deal);
         } catch (IllegalArgumentException e) {
@@ -78,25 +144,114 @@ public FixedIncomeDerivativeDeal processDeal(final FixedIncomeDerivativeDeal dea
             throw new DealProcessingException("Deal validation failed: " + e.getMessage());
         }
         
-        Optional<FixedIncomeDerivativeDeal> existingDeal = 
-            dealRepository.findByDealId(deal.getDealId());
-        
-        if (existingDeal.isPresent()) {
-            log.error("Deal {} already exists", deal.getDealId());
-            throw new DealProcessingException("Deal already exists: " + deal.getDealId());
+        // Only deal IDs the filter may have seen need the database lookup
+        if (dealIdFilter.mightContain(deal.getDealId())) {
+            // Archiving removes the live row, so a matured or cancelled deal is only found in the archive
+            if (dealRepository.findByDealId(deal.getDealId()).isPresent()
+                    || dealArchivalService.isArchived(deal.getDealId())) {
+                log.error("Deal {} already exists", deal.getDealId());
+                throw new DealProcessingException("Deal already exists: " + deal.getDealId());
+            }
+            dealIdFilter.recordFalsePositive();
         }
         
         deal.setProcessedAt(LocalDateTime.now());
-        FixedIncomeDerivativeDeal transformedDeal = transformationService.transform(deal);
-        FixedIncomeDerivativeDeal savedDeal = dealRepository.save(transformedDeal);
-        jmsTemplate.convertAndSend("fixed-income-deals", savedDeal);
-        
-        log.info("Successfully processed fixed income derivative deal: {}", 
-                savedDeal.getDealId());
-        
+        return transformationService.transform(deal);
+    }
+
+    /**
+     * Returns which of the given deal IDs already exist, live or archived.
+     *
+     * @param dealIds The deal IDs to check
+     * @return The existing ones
+     */
+    public Set<String> findExistingDealIds(final Collection<String> dealIds) {
+        Set<String> existing = new HashSet<>(dealRepository.findExistingDealIds(dealIds));
+        if (existing.size() < dealIds.size()) {
+            existing.addAll(dealArchivalService.findArchivedDealIds(
+                dealIds.stream().filter(dealId -> !existing.contains(dealId)).toList()));
+        }
+        return existing;
+    }
+
+    /**
+     * Releases what {@link #prepareDeal(FixedIncomeDerivativeDeal)} recorded for a deal that was
+     * not kept after all, so the same message can be prepared again. Only needed outside a
+     * transaction; a rollback releases it on its own.
+     *
+     * @param deal The prepared deal
+     */
+    public void releasePrepared(final FixedIncomeDerivativeDeal deal) {
+        transformationService.release(deal);
+    }
+
+    /**
+     * Reprocesses a deal mapped from a stored raw payload.
+     * Unlike {@link #processDeal(FixedIncomeDerivativeDeal)} an existing deal is overwritten
+     * with the re-mapped state instead of being rejected, and nothing is published.
+     *
+     * @param deal The re-mapped deal
+     * @return The saved deal
+     * @throws DealProcessingException if the deal fails validation
+     */
+    @Timed(value = "reprocess.fixed.income.deal",
+           description = "Time taken to reprocess a fixed income derivative deal from a raw payload")
+    @Transactional
+    public FixedIncomeDerivativeDeal reprocessDeal(final FixedIncomeDerivativeDeal deal) {
+        log.debug("Reprocessing fixed income derivative deal: {}", deal.getDealId());
+
+        try {
+            validationService.validateDeal(deal);
+        } catch (IllegalArgumentException e) {
+            throw new DealProcessingException("Deal validation failed: " + e.getMessage());
+        }
+
+        Set<String> previousTags = new LinkedHashSet<>();
+        dealRepository.findByDealId(deal.getDealId()).ifPresent(existing -> {
+            previousTags.addAll(DealCacheTags.tagsOf(existing));
+            deal.setId(existing.getId());
+            deal.setVersion(existing.getVersion());
+            deal.setCreatedAt(existing.getCreatedAt());
+        });
+
+        deal.setProcessedAt(LocalDateTime.now());
+        // The version was copied from the stored deal, so it must be transformed again rather than recognised
+        FixedIncomeDerivativeDeal savedDeal = dealRepository.save(transformationService.retransform(deal));
+        dealHistoryService.record(savedDeal);
+        writeThrough(savedDeal, previousTags);
         return savedDeal;
     }
 
+    /**
+     * Writes a deal saved outside this service, such as by the write-behind journal flusher, to
+     * the caches after the current transaction commits, as if it had been processed here.
+     *
+     * @param savedDeal The saved deal
+     */
+    public void writeThroughAfterCommit(final FixedIncomeDerivativeDeal savedDeal) {
+        writeThrough(savedDeal, Set.of());
+    }
+
+    /**
+     * Writes a saved deal to the single-deal caches and the deal ID filter and evicts the lists
+     * tagged with its previous and current values, all after commit.
+     */
+    private void writeThrough(final FixedIncomeDerivativeDeal savedDeal, final Set<String> previousTags) {
+        dealIdFilter.add(savedDeal.getDealId());
+        dealCacheWriter.putAfterCommit(savedDeal, "fixedIncomeDeals", "fixedIncomeDealsByDealId");
+        Set<String> tags = new LinkedHashSet<>(previousTags);
+        tags.addAll(DealCacheTags.tagsOf(savedDeal));
+        dealCacheTags.evictTaggedAfterCommit(tags);
+    }
+
+    /**
+     * Whether a constraint violation comes from one of the unique deal ID columns.
+     */
+    private static boolean isDuplicateDealId(final DataIntegrityViolationException e) {
+        String message = e.getMostSpecificCause().getMessage();
+        return message != null && message.toLowerCase(Locale.ROOT).contains("deal_id");
+    }
+
     /**
      * Fallback method for deal processing.
      *
@@ -121,8 +276,10 @@ public FixedIncomeDerivativeDeal processDealFallback(
      * @throws DealProcessingException if the deal is not found
      */
     @Timed(value = "get.fixed.income.deal", 
-           description = "Time taken to get a fixed income derivative deal by ID")
-    @Cacheable(value = "fixedIncomeDeals", key = "#id")
+           description = "Time taken to get a fixed income derivative deal by ID",
+           percentiles = {0.5, 0.99})
+    @Cacheable(value = "fixedIncomeDeals", key = "#id", sync = true)
+    @Transactional(readOnly = true)
     public FixedIncomeDerivativeDeal getDealById(final UUID id) {
         return dealRepository.findById(id)
             .orElseThrow(() -> new DealProcessingException(
@@ -130,17 +287,20 @@ public FixedIncomeDerivativeDeal getDealById(final UUID id) {
     }
 
     /**
-     * Retrieves a deal by its deal ID.
+     * Retrieves a deal by its deal ID, falling back to the archive for matured or cancelled deals.
      *
      * @param dealId The deal ID to search for
      * @return The found deal
      * @throws DealProcessingException if the deal is not found
      */
     @Timed(value = "get.fixed.income.deal.by.dealid", 
-           description = "Time taken to get a fixed income derivative deal by deal ID")
-    @Cacheable(value = "fixedIncomeDealsByDealId", key = "#dealId")
+           description = "Time taken to get a fixed income derivative deal by deal ID",
+           percentiles = {0.5, 0.99})
+    @Cacheable(value = "fixedIncomeDealsByDealId", key = "#dealId", sync = true)
+    @Transactional(readOnly = true)
     public FixedIncomeDerivativeDeal getDealByDealId(final String dealId) {
         return dealRepository.findByDealId(dealId)
+            .or(() -> dealArchivalService.findArchived(dealId))
             .orElseThrow(() -> new DealProcessingException(
                 "Fixed income derivative deal not found with deal ID: " + dealId));
     }
@@ -152,9 +312,26 @@ public FixedIncomeDerivativeDeal getDealByDealId(final String dealId) {
      */
     @Timed(value = "get.all.fixed.income.deals", 
            description = "Time taken to get all fixed income derivative deals")
-    @Cacheable(value = "allFixedIncomeDeals")
+    @Transactional(readOnly = true)
     public List<FixedIncomeDerivativeDeal> getAllDeals() {
-        return dealRepository.findAll();
+        return dealCacheTags.getTagged("allFixedIncomeDeals", DealCacheTags.ALL,
+            List.of(DealCacheTags.ALL), dealRepository::findAll);
+    }
+
+    /**
+     * Retrieves the fixed income derivative deals a principal may see.
+     *
+     * @param visibility The principal's visibility
+     * @return A list of the visible deals
+     */
+    @Timed(value = "get.all.fixed.income.deals",
+           description = "Time taken to get all fixed income derivative deals")
+    @Transactional(readOnly = true)
+    public List<FixedIncomeDerivativeDeal> getAllDeals(final DataVisibility visibility) {
+        if (visibility.unrestricted()) {
+            return getAllDeals();
+        }
+        return getVisible("allFixedIncomeDeals", DealCacheTags.ALL, DealCacheTags.ALL, null, visibility);
     }
 
     /**
@@ -165,9 +342,28 @@ public List<FixedIncomeDerivativeDeal> getAllDeals() {
      */
     @Timed(value = "get.fixed.income.deals.by.type", 
            description = "Time taken to get fixed income derivative deals by type")
-    @Cacheable(value = "fixedIncomeDealsByType", key = "#dealType")
+    @Transactional(readOnly = true)
     public List<FixedIncomeDerivativeDeal> getDealsByType(final String dealType) {
-        return dealRepository.findByDealType(dealType);
+        return dealCacheTags.getTagged("fixedIncomeDealsByType", dealType,
+            List.of(DealCacheTags.tag("type", dealType)), () -> dealRepository.findByDealType(dealType));
+    }
+
+    /**
+     * Retrieves the deals of a type that a principal may see.
+     *
+     * @param dealType The type of deals to retrieve
+     * @param visibility The principal's visibility
+     * @return A list of matching deals
+     */
+    @Timed(value = "get.fixed.income.deals.by.type",
+           description = "Time taken to get fixed income derivative deals by type")
+    @Transactional(readOnly = true)
+    public List<FixedIncomeDerivativeDeal> getDealsByType(final String dealType, final DataVisibility visibility) {
+        if (visibility.unrestricted()) {
+            return getDealsByType(dealType);
+        }
+        return getVisible("fixedIncomeDealsByType", dealType, DealCacheTags.tag("type", dealType),
+            FixedIncomeDealSpecifications.hasDealType(dealType), visibility);
     }
 
     /**
@@ -178,9 +374,28 @@ public List<FixedIncomeDerivativeDeal> getDealsByType(final String dealType) {
      */
     @Timed(value = "get.fixed.income.deals.by.status", 
            description = "Time taken to get fixed income derivative deals by status")
-    @Cacheable(value = "fixedIncomeDealsByStatus", key = "#status")
+    @Transactional(readOnly = true)
     public List<FixedIncomeDerivativeDeal> getDealsByStatus(final String status) {
-        return dealRepository.findByStatus(status);
+        return dealCacheTags.getTagged("fixedIncomeDealsByStatus", status,
+            List.of(DealCacheTags.tag("status", status)), () -> dealRepository.findByStatus(status));
+    }
+
+    /**
+     * Retrieves the deals with a status that a principal may see.
+     *
+     * @param status The status to filter by
+     * @param visibility The principal's visibility
+     * @return A list of matching deals
+     */
+    @Timed(value = "get.fixed.income.deals.by.status",
+           description = "Time taken to get fixed income derivative deals by status")
+    @Transactional(readOnly = true)
+    public List<FixedIncomeDerivativeDeal> getDealsByStatus(final String status, final DataVisibility visibility) {
+        if (visibility.unrestricted()) {
+            return getDealsByStatus(status);
+        }
+        return getVisible("fixedIncomeDealsByStatus", status, DealCacheTags.tag("status", status),
+            FixedIncomeDealSpecifications.hasStatus(status), visibility);
     }
 
     /**
@@ -191,9 +406,42 @@ public List<FixedIncomeDerivativeDeal> getDealsByStatus(final String status) {
      */
     @Timed(value = "get.fixed.income.deals.by.counterparty", 
            description = "Time taken to get fixed income derivative deals by counterparty")
-    @Cacheable(value = "fixedIncomeDealsByCounterparty", key = "#entityId")
+    @Transactional(readOnly = true)
     public List<FixedIncomeDerivativeDeal> getDealsByCounterparty(final String entityId) {
-        return dealRepository.findByCounterpartyEntityId(entityId);
+        return dealCacheTags.getTagged("fixedIncomeDealsByCounterparty", entityId,
+            List.of(DealCacheTags.tag("counterparty", entityId)),
+            () -> dealRepository.findByCounterpartyEntityId(entityId));
+    }
+
+    /**
+     * Retrieves the deals with a counterparty that a principal may see.
+     *
+     * @param entityId The entity ID of the counterparty
+     * @param visibility The principal's visibility
+     * @return A list of matching deals
+     */
+    @Timed(value = "get.fixed.income.deals.by.counterparty",
+           description = "Time taken to get fixed income derivative deals by counterparty")
+    @Transactional(readOnly = true)
+    public List<FixedIncomeDerivativeDeal> getDealsByCounterparty(final String entityId, final DataVisibility visibility) {
+        if (visibility.unrestricted()) {
+            return getDealsByCounterparty(entityId);
+        }
+        return getVisible("fixedIncomeDealsByCounterparty", entityId, DealCacheTags.tag("counterparty", entityId),
+            FixedIncomeDealSpecifications.hasCounterparty(entityId), visibility);
+    }
+
+    /**
+     * Loads a list with the visibility filter applied in the query, caching it per distinct visibility
+     * under the same tag as the unfiltered list.
+     */
+    private List<FixedIncomeDerivativeDeal> getVisible(final String cacheName, final String key, final String tag,
+                                                       final Specification<FixedIncomeDerivativeDeal> filter,
+                                                       final DataVisibility visibility) {
+        Specification<FixedIncomeDerivativeDeal> query = Specification.where(filter)
+            .and(FixedIncomeDealSpecifications.visibleTo(visibility));
+        return dealCacheTags.getTagged(cacheName, key + '#' + visibility.cacheKey(), List.of(tag),
+            () -> dealRepository.findAll(query));
     }
 
     /**
@@ -2,13 +2,18 @@
 
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.magiccode.tradeingestion.cache.CompactCodec;
+import com.magiccode.tradeingestion.config.CompactCodecProperties;
 import com.magiccode.tradeingestion.exception.DealProcessingException;
 import com.magiccode.tradeingestion.model.Deal;
 import io.micrometer.core.instrument.MeterRegistry;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.serializer.RedisSerializer;
+import org.springframework.data.redis.serializer.SerializationException;
 import org.springframework.stereotype.Component;
 
+import java.io.IOException;
 import java.time.Duration;
 import java.util.Set;
 
@@ -22,7 +27,9 @@
  * 3. Clean up stashed messages after successful processing
  * 
  * Messages are stored with a configurable TTL to prevent resource exhaustion
- * and automatically expire if not processed within the time window.
+ * and automatically expire if not processed within the time window. They are written
+ * as JSON or, with {@code deal.codec.format: smile}, in the compact binary format;
+ * both are read back regardless of the configured format.
  * 
  * @see Deal
  * @see RedisService
@@ -38,12 +45,17 @@ public class MessageStasher {
     private final RedisService redisService;
     private final ObjectMapper objectMapper;
     private final MeterRegistry meterRegistry;
+    private final RedisSerializer<Object> redisValueSerializer;
+    private final CompactCodecProperties compactCodecProperties;
 
     public void stash(Deal deal) {
         try {
             String stashKey = STASH_KEY_PREFIX + deal.getDealId() + ":" + deal.getVersion();
-            String dealJson = objectMapper.writeValueAsString(deal);
-            redisService.set(stashKey, dealJson, STASH_TTL);
+            if (compactCodecProperties.getFormat() == CompactCodecProperties.Format.SMILE) {
+                redisService.setBytes(stashKey, redisValueSerializer.serialize(deal), STASH_TTL);
+            } else {
+                redisService.set(stashKey, objectMapper.writeValueAsString(deal), STASH_TTL);
+            }
             log.info("Stashed message for deal {} with version {}", deal.getDealId(), deal.getVersion());
             meterRegistry.counter("deal.sequence.message.stashed", "dealId", deal.getDealId()).increment();
         } catch (JsonProcessingException e) {
@@ -62,12 +74,15 @@ public void cleanup(String dealId) {
 
     public Deal retrieve(String stashKey) {
         try {
-            String dealJson = redisService.get(stashKey);
-            if (dealJson != null) {
-                return objectMapper.readValue(dealJson, Deal.class);
+            byte[] stashed = redisService.getBytes(stashKey);
+            if (stashed == null) {
+                return null;
             }
-            return null;
-        } catch (JsonProcessingException e) {
+            if (CompactCodec.isCompact(stashed)) {
+                return (Deal) redisValueSerializer.deserialize(stashed);
+            }
+            return objectMapper.readValue(stashed, Deal.class);
+        } catch (IOException | SerializationException e) {
             log.error("Failed to retrieve stashed message with key {}: {}", stashKey, e.getMessage());
             return null;
         }
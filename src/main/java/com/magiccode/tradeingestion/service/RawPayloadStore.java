@@ -0,0 +1,192 @@
+package com.magiccode.tradeingestion.service;
+
+import com.magiccode.tradeingestion.exception.DealProcessingException;
+import com.magiccode.tradeingestion.model.Deal;
+import com.magiccode.tradeingestion.model.FixedIncomeDerivativeDeal;
+import com.magiccode.tradeingestion.model.RawDealPayload;
+import com.magiccode.tradeingestion.repository.RawDealPayloadRepository;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Stores raw inbound message envelopes so deals can be replayed without the broker.
+ *
+ * Payloads are keyed by {@code messageHeader.messageId}; redelivered messages keep the
+ * first stored copy. With {@code deal.payload.store.encoding=json} the envelope goes into
+ * a JSONB column, with {@code gzip} it is compressed into a bytea column. Raw and stored
+ * sizes are recorded as distribution summaries so the compression overhead is visible.
+ *
+ * With write-behind ingestion the envelope travels in the journal record as a {@link Received}
+ * and is stored by the flusher through {@link #storeAll(Collection)}, off the acknowledgement path.
+ *
+ * @see RawDealPayload
+ * @see DealReplayService
+ */
+@Service
+@Slf4j
+public class RawPayloadStore {
+    static final String ENCODING_JSON = "JSON";
+    static final String ENCODING_GZIP = "GZIP";
+
+    private final RawDealPayloadRepository payloadRepository;
+    private final boolean enabled;
+    private final String encoding;
+    private final DistributionSummary rawSize;
+    private final DistributionSummary storedSize;
+
+    public RawPayloadStore(
+            RawDealPayloadRepository payloadRepository,
+            MeterRegistry meterRegistry,
+            @Value("${deal.payload.store.enabled:true}") boolean enabled,
+            @Value("${deal.payload.store.encoding:gzip}") String encoding) {
+        this.payloadRepository = payloadRepository;
+        this.enabled = enabled;
+        this.encoding = encoding.toUpperCase();
+        if (!ENCODING_JSON.equals(this.encoding) && !ENCODING_GZIP.equals(this.encoding)) {
+            throw new IllegalStateException("Unsupported raw payload encoding: " + encoding);
+        }
+        this.rawSize = DistributionSummary.builder("deal.payload.raw.size")
+            .description("Size of inbound message envelopes")
+            .baseUnit("bytes")
+            .register(meterRegistry);
+        this.storedSize = DistributionSummary.builder("deal.payload.stored.size")
+            .description("Size of stored message envelopes after encoding")
+            .baseUnit("bytes")
+            .tag("encoding", this.encoding)
+            .register(meterRegistry);
+    }
+
+    /**
+     * Stores the raw envelope of a received deal message.
+     *
+     * @param deal The deal mapped from the payload, used for its message ID, deal ID and version
+     * @param rawPayload The message text exactly as received
+     */
+    public void store(FixedIncomeDerivativeDeal deal, String rawPayload) {
+        if (!enabled) {
+            return;
+        }
+        String messageId = messageIdOf(deal);
+        if (payloadRepository.existsById(messageId)) {
+            log.debug("Raw payload for message {} already stored, keeping first copy", messageId);
+            return;
+        }
+        RawDealPayload payload = encode(messageId, deal.getDealId(), deal.getVersion(), rawPayload);
+        payloadRepository.save(payload);
+        rawSize.record(payload.getOriginalSize());
+        storedSize.record(payload.getStoredSize());
+    }
+
+    /**
+     * Stores the raw envelopes of several received deal messages with one lookup for those
+     * already stored.
+     *
+     * @param received The deals with the message text each was mapped from
+     */
+    public void storeAll(Collection<Received> received) {
+        if (!enabled) {
+            return;
+        }
+        Map<String, Received> byMessageId = new LinkedHashMap<>();
+        for (Received message : received) {
+            if (message.rawPayload() != null) {
+                byMessageId.putIfAbsent(messageIdOf(message.deal()), message);
+            }
+        }
+        if (byMessageId.isEmpty()) {
+            return;
+        }
+        byMessageId.keySet().removeAll(payloadRepository.findExistingMessageIds(byMessageId.keySet()));
+        List<RawDealPayload> payloads = new ArrayList<>(byMessageId.size());
+        byMessageId.forEach((messageId, message) -> payloads.add(
+            encode(messageId, message.deal().getDealId(), message.deal().getVersion(), message.rawPayload())));
+        payloadRepository.saveAll(payloads);
+        for (RawDealPayload payload : payloads) {
+            rawSize.record(payload.getOriginalSize());
+            storedSize.record(payload.getStoredSize());
+        }
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    RawDealPayload encode(String messageId, String dealId, Long version, String rawPayload) {
+        byte[] raw = rawPayload.getBytes(StandardCharsets.UTF_8);
+        RawDealPayload.RawDealPayloadBuilder builder = RawDealPayload.builder()
+            .messageId(messageId)
+            .dealId(dealId)
+            .dealVersion(version)
+            .encoding(encoding)
+            .originalSize(raw.length)
+            .receivedAt(Instant.now());
+        if (ENCODING_GZIP.equals(encoding)) {
+            byte[] compressed = gzip(raw);
+            return builder.payloadCompressed(compressed).storedSize(compressed.length).build();
+        }
+        return builder.payloadJson(rawPayload).storedSize(raw.length).build();
+    }
+
+    /**
+     * Returns the envelope text of a stored payload regardless of how it was encoded.
+     */
+    public String decode(RawDealPayload payload) {
+        if (ENCODING_GZIP.equals(payload.getEncoding())) {
+            return new String(gunzip(payload.getPayloadCompressed()), StandardCharsets.UTF_8);
+        }
+        return payload.getPayloadJson();
+    }
+
+    private static String messageIdOf(Deal deal) {
+        if (deal instanceof FixedIncomeDerivativeDeal fixedIncomeDeal
+                && fixedIncomeDeal.getMessageHeader() != null
+                && fixedIncomeDeal.getMessageHeader().getMessageId() != null) {
+            return fixedIncomeDeal.getMessageHeader().getMessageId();
+        }
+        // Envelopes without a header are keyed by deal and version so redeliveries still collapse
+        return deal.getDealId() + ":" + deal.getVersion();
+    }
+
+    private static byte[] gzip(byte[] raw) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(Math.max(64, raw.length / 4));
+        try (GZIPOutputStream gzip = new GZIPOutputStream(out)) {
+            gzip.write(raw);
+        } catch (IOException e) {
+            throw new DealProcessingException("Failed to compress raw payload", e);
+        }
+        return out.toByteArray();
+    }
+
+    private static byte[] gunzip(byte[] compressed) {
+        try (GZIPInputStream gzip = new GZIPInputStream(new ByteArrayInputStream(compressed))) {
+            return gzip.readAllBytes();
+        } catch (IOException e) {
+            throw new DealProcessingException("Failed to decompress raw payload", e);
+        }
+    }
+
+    /**
+     * A deal together with the message text it was mapped from.
+     *
+     * @param deal The deal mapped from the payload
+     * @param rawPayload The message text exactly as received, {@code null} if it is not kept
+     */
+    public record Received(FixedIncomeDerivativeDeal deal, String rawPayload) {
+    }
+}
@@ -16,6 +16,7 @@
 @Slf4j
 public class RedisService {
     private final RedisTemplate<String, String> redisTemplate;
+    private final RedisTemplate<String, byte[]> binaryRedisTemplate;
 
     // Lua script for atomic acquire lock operation
     private static final RedisScript<Boolean> ACQUIRE_LOCK_SCRIPT = new DefaultRedisScript<>(
@@ -62,6 +63,14 @@ public String get(String key) {
         return redisTemplate.opsForValue().get(key);
     }
 
+    public void setBytes(String key, byte[] value, Duration ttl) {
+        binaryRedisTemplate.opsForValue().set(key, value, ttl);
+    }
+
+    public byte[] getBytes(String key) {
+        return binaryRedisTemplate.opsForValue().get(key);
+    }
+
     public Long increment(String key) {
         return redisTemplate.opsForValue().increment(key);
     }
@@ -0,0 +1,35 @@
+package com.magiccode.tradeingestion.service;
+
+import java.time.Duration;
+
+/**
+ * Outcome of a raw payload replay run.
+ *
+ * @param replayed Number of payloads reprocessed successfully
+ * @param failed Number of payloads that could not be reprocessed
+ * @param elapsed Wall-clock time of the run
+ * @param dealsPerSecond Achieved replay throughput
+ * @param targetDealsPerSecond Configured throughput target
+ * @param rawBytes Total size of the replayed envelopes as received
+ * @param storedBytes Total size of the replayed envelopes as stored
+ */
+public record ReplayReport(
+    long replayed,
+    long failed,
+    Duration elapsed,
+    double dealsPerSecond,
+    double targetDealsPerSecond,
+    long rawBytes,
+    long storedBytes
+) {
+    public boolean meetsTarget() {
+        return dealsPerSecond >= targetDealsPerSecond;
+    }
+
+    /**
+     * Stored size relative to the raw size; below 1.0 means compression saved space.
+     */
+    public double storageRatio() {
+        return rawBytes == 0 ? 1.0 : (double) storedBytes / rawBytes;
+    }
+}
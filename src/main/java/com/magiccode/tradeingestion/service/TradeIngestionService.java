@@ -57,6 +57,7 @@ public Deal processDeal(Deal deal) {
      * @param id The UUID of the deal to retrieve
      * @return An Optional containing the deal if found, empty otherwise
      */
+    @Transactional(readOnly = true)
     public Optional<Deal> getDealById(UUID id) {
         return dealRepository.findById(id);
     }
@@ -66,6 +67,7 @@ public Optional<Deal> getDealById(UUID id) {
      * 
      * @return A list of all deals
      */
+    @Transactional(readOnly = true)
     public List<Deal> getAllDeals() {
         return dealRepository.findAll();
     }
@@ -76,6 +78,7 @@ public List<Deal> getAllDeals() {
      * @param instrumentId The identifier of the instrument
      * @return A list of deals for the specified instrument
      */
+    @Transactional(readOnly = true)
     public List<Deal> getDealsByInstrumentId(String instrumentId) {
         return dealRepository.findByInstrumentId(instrumentId);
     }
@@ -86,6 +89,7 @@ public List<Deal> getDealsByInstrumentId(String instrumentId) {
      * @param symbol The symbol to search for
      * @return A list of deals matching the symbol
      */
+    @Transactional(readOnly = true)
     public List<Deal> getDealsBySymbol(String symbol) {
         return dealRepository.findByInstrumentId(symbol);
     }
@@ -0,0 +1,150 @@
+package com.magiccode.tradeingestion.service.dealid;
+
+import com.magiccode.tradeingestion.config.DealIdBlockProperties;
+import com.magiccode.tradeingestion.exception.DealProcessingException;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Timer;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.IntFunction;
+
+/**
+ * Local pool of pre-allocated deal IDs for one counterparty.
+ *
+ * IDs are taken from a lock-free queue. When the pool drops below the low-watermark the next
+ * block is fetched in the background, so takers normally never wait for the deal ID service; at
+ * most one fetch is in flight at a time. Block sizes follow the consumption rate measured between
+ * fetches.
+ */
+public class DealIdPool {
+    private static final int MAX_TAKE_ATTEMPTS = 3;
+
+    private final IntFunction<CompletableFuture<List<String>>> blockFetcher;
+    private final DealIdBlockProperties properties;
+    private final Timer refillTimer;
+    private final DistributionSummary blockSizes;
+    private final ConcurrentLinkedQueue<String> ids = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger available = new AtomicInteger();
+    private final AtomicLong consumed = new AtomicLong();
+    private final AtomicReference<CompletableFuture<Void>> refill = new AtomicReference<>();
+    private volatile int blockSize;
+    private volatile double ratePerSecond = -1;
+    private volatile long lastRefillNanos = System.nanoTime();
+    private volatile long consumedAtLastRefill;
+
+    public DealIdPool(IntFunction<CompletableFuture<List<String>>> blockFetcher,
+                      DealIdBlockProperties properties,
+                      Timer refillTimer,
+                      DistributionSummary blockSizes) {
+        this.blockFetcher = blockFetcher;
+        this.properties = properties;
+        this.refillTimer = refillTimer;
+        this.blockSizes = blockSizes;
+        this.blockSize = properties.getInitialSize();
+    }
+
+    /**
+     * Takes a deal ID, waiting for a block only when the pool is empty.
+     *
+     * @return A future completed with the deal ID
+     */
+    public CompletableFuture<String> take() {
+        return take(1);
+    }
+
+    /**
+     * Number of IDs currently held.
+     */
+    public int available() {
+        return available.get();
+    }
+
+    /**
+     * Size of the next block to fetch.
+     */
+    public int blockSize() {
+        return blockSize;
+    }
+
+    private CompletableFuture<String> take(int attempt) {
+        String id = ids.poll();
+        if (id != null) {
+            available.decrementAndGet();
+            consumed.incrementAndGet();
+            if (available.get() < Math.max(1, (int) (blockSize * properties.getLowWatermark()))) {
+                refill();
+            }
+            return CompletableFuture.completedFuture(id);
+        }
+        if (attempt > MAX_TAKE_ATTEMPTS) {
+            return CompletableFuture.failedFuture(new DealProcessingException("Deal ID pool stayed empty after refilling"));
+        }
+        return refill().thenCompose(ignored -> take(attempt + 1));
+    }
+
+    private CompletableFuture<Void> refill() {
+        while (true) {
+            CompletableFuture<Void> current = refill.get();
+            if (current != null) {
+                return current;
+            }
+            CompletableFuture<Void> next = new CompletableFuture<>();
+            if (refill.compareAndSet(null, next)) {
+                startRefill(next);
+                return next;
+            }
+        }
+    }
+
+    private void startRefill(CompletableFuture<Void> completion) {
+        int size = nextBlockSize();
+        long start = System.nanoTime();
+        CompletableFuture<List<String>> fetch;
+        try {
+            fetch = blockFetcher.apply(size);
+        } catch (RuntimeException e) {
+            fetch = CompletableFuture.failedFuture(e);
+        }
+        fetch.whenComplete((block, error) -> {
+            refillTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            boolean empty = error == null && (block == null || block.isEmpty());
+            if (error == null && !empty) {
+                ids.addAll(block);
+                available.addAndGet(block.size());
+                blockSizes.record(block.size());
+            }
+            refill.set(null);
+            if (error != null) {
+                completion.completeExceptionally(error);
+            } else if (empty) {
+                completion.completeExceptionally(new DealProcessingException("Deal ID service returned an empty block"));
+            } else {
+                completion.complete(null);
+            }
+        });
+    }
+
+    /**
+     * Sizes the next block so it lasts about {@code target-coverage} at the recent consumption rate.
+     */
+    private int nextBlockSize() {
+        long now = System.nanoTime();
+        long consumedNow = consumed.get();
+        double elapsedSeconds = (now - lastRefillNanos) / 1e9;
+        if (elapsedSeconds > 0 && consumedNow > consumedAtLastRefill) {
+            double rate = (consumedNow - consumedAtLastRefill) / elapsedSeconds;
+            ratePerSecond = ratePerSecond < 0 ? rate : 0.5 * ratePerSecond + 0.5 * rate;
+            double wanted = ratePerSecond * properties.getTargetCoverage().toMillis() / 1000.0;
+            blockSize = (int) Math.max(properties.getMinSize(), Math.min(properties.getMaxSize(), Math.ceil(wanted)));
+        }
+        lastRefillNanos = now;
+        consumedAtLastRefill = consumedNow;
+        return blockSize;
+    }
+}
@@ -0,0 +1,97 @@
+package com.magiccode.tradeingestion.service.dealid;
+
+import com.magiccode.tradeingestion.exception.DealProcessingException;
+
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * Generates time-ordered, unique deal IDs in process, without any network call.
+ *
+ * IDs have the form {@code PREFIX-yyyyMMdd-nnnnnnnnnnnnnnn}: the UTC date, then fifteen zero-padded
+ * digits packing the millisecond of the day, the node ID and a per-millisecond sequence. IDs of
+ * one node sort in generation order; IDs of different nodes cannot collide while their node IDs
+ * differ.
+ *
+ * Timestamp and sequence live in one {@link AtomicLong}, so generation is a lock-free
+ * compare-and-set. If the clock moves backwards, or more than 4096 IDs are requested within a
+ * millisecond, the generator keeps counting forward from its last timestamp instead of reusing
+ * one, up to {@code maxClockDriftMillis} ahead of the wall clock.
+ */
+public class LocalDealIdGenerator {
+    static final int SEQUENCE_BITS = 12;
+    static final int NODE_BITS = 10;
+    public static final int MAX_NODES = 1 << NODE_BITS;
+    private static final long MILLIS_PER_DAY = 86_400_000L;
+    private static final int DIGITS = 15;
+    private static final DateTimeFormatter DATE = DateTimeFormatter.BASIC_ISO_DATE;
+
+    private final String prefix;
+    private final NodeIdSource nodeIdSource;
+    private final LongSupplier clock;
+    private final long maxClockDriftMillis;
+    private final AtomicLong state = new AtomicLong();
+    private volatile DayPrefix dayPrefix = new DayPrefix(Long.MIN_VALUE, "");
+
+    public LocalDealIdGenerator(String prefix, NodeIdSource nodeIdSource, LongSupplier clock, long maxClockDriftMillis) {
+        this.prefix = prefix;
+        this.nodeIdSource = nodeIdSource;
+        this.clock = clock;
+        this.maxClockDriftMillis = maxClockDriftMillis;
+    }
+
+    /**
+     * Generates the next deal ID.
+     *
+     * @throws DealProcessingException if no node ID is held or the clock drift limit is exceeded
+     */
+    public String next() {
+        int nodeId = nodeIdSource.currentNodeId();
+        if (nodeId < 0 || nodeId >= MAX_NODES) {
+            throw new DealProcessingException("No deal ID node lease is held");
+        }
+        long next;
+        while (true) {
+            long previous = state.get();
+            long now = clock.getAsLong();
+            // A sequence overflow carries into the timestamp, borrowing the next millisecond
+            next = now > (previous >>> SEQUENCE_BITS) ? now << SEQUENCE_BITS : previous + 1;
+            if ((next >>> SEQUENCE_BITS) - now > maxClockDriftMillis) {
+                throw new DealProcessingException("Deal ID generation is more than " + maxClockDriftMillis
+                    + "ms ahead of the clock");
+            }
+            if (state.compareAndSet(previous, next)) {
+                break;
+            }
+        }
+        return format(next >>> SEQUENCE_BITS, nodeId, next & ((1L << SEQUENCE_BITS) - 1));
+    }
+
+    private String format(long millis, int nodeId, long sequence) {
+        long day = Math.floorDiv(millis, MILLIS_PER_DAY);
+        long millisOfDay = Math.floorMod(millis, MILLIS_PER_DAY);
+        long packed = (millisOfDay << (NODE_BITS + SEQUENCE_BITS)) | ((long) nodeId << SEQUENCE_BITS) | sequence;
+
+        String digits = Long.toString(packed);
+        StringBuilder id = new StringBuilder(prefix.length() + 10 + DIGITS)
+            .append(dayPrefix(day));
+        for (int i = digits.length(); i < DIGITS; i++) {
+            id.append('0');
+        }
+        return id.append(digits).toString();
+    }
+
+    private String dayPrefix(long day) {
+        DayPrefix current = dayPrefix;
+        if (current.day() != day) {
+            current = new DayPrefix(day, prefix + '-' + LocalDate.ofEpochDay(day).format(DATE) + '-');
+            dayPrefix = current;
+        }
+        return current.prefix();
+    }
+
+    private record DayPrefix(long day, String prefix) {
+    }
+}
@@ -0,0 +1,14 @@
+package com.magiccode.tradeingestion.service.dealid;
+
+/**
+ * Source of the node ID that makes locally generated deal IDs unique across instances.
+ */
+public interface NodeIdSource {
+
+    /**
+     * Returns the node ID currently held.
+     *
+     * @return The node ID, or -1 while none is held
+     */
+    int currentNodeId();
+}
@@ -0,0 +1,112 @@
+package com.magiccode.tradeingestion.service.dealid;
+
+import com.magiccode.tradeingestion.config.LocalDealIdProperties;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Node ID leased through Redis.
+ *
+ * A free node ID is claimed with {@code SET NX} and a TTL, then renewed in the background only
+ * while this instance still owns the key. The node ID is reported as held only until the lease
+ * would expire without a renewal, so two instances never generate with the same node ID even if
+ * renewals stall.
+ *
+ * The previous holder of a node ID may have issued timestamps up to the configured maximum clock
+ * drift ahead of its clock, so a newly acquired node ID is only reported once that drift has
+ * passed; IDs issued afterwards cannot repeat one of the previous holder's.
+ */
+@Slf4j
+public class RedisNodeIdLease implements NodeIdSource, AutoCloseable {
+    private static final DefaultRedisScript<Long> RENEW = new DefaultRedisScript<>(
+        "if redis.call('get', KEYS[1]) == ARGV[1] then return redis.call('pexpire', KEYS[1], ARGV[2]) else return 0 end",
+        Long.class);
+    private static final DefaultRedisScript<Long> RELEASE = new DefaultRedisScript<>(
+        "if redis.call('get', KEYS[1]) == ARGV[1] then return redis.call('del', KEYS[1]) else return 0 end",
+        Long.class);
+
+    private final StringRedisTemplate redisTemplate;
+    private final LocalDealIdProperties properties;
+    private final String owner = UUID.randomUUID().toString();
+    private final ScheduledExecutorService renewer;
+    private volatile int nodeId = -1;
+    private volatile long usableFromNanos;
+    private volatile long validUntilNanos;
+
+    public RedisNodeIdLease(StringRedisTemplate redisTemplate, LocalDealIdProperties properties) {
+        this.redisTemplate = redisTemplate;
+        this.properties = properties;
+        this.renewer = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "deal-id-node-lease");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long interval = properties.getLeaseRenewInterval().toMillis();
+        renewer.scheduleWithFixedDelay(this::renewOrAcquire, 0, interval, TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public int currentNodeId() {
+        long now = System.nanoTime();
+        return now - usableFromNanos >= 0 && now - validUntilNanos < 0 ? nodeId : -1;
+    }
+
+    @Override
+    public void close() {
+        renewer.shutdownNow();
+        int held = nodeId;
+        nodeId = -1;
+        if (held >= 0) {
+            try {
+                redisTemplate.execute(RELEASE, List.of(key(held)), owner);
+            } catch (Exception e) {
+                log.warn("Failed to release deal ID node {}: {}", held, e.getMessage());
+            }
+        }
+    }
+
+    void renewOrAcquire() {
+        long ttl = properties.getLeaseTtl().toMillis();
+        // Leave a margin for the round trip so the lease is given up before Redis expires it
+        long start = System.nanoTime();
+        try {
+            int held = nodeId;
+            if (held >= 0) {
+                Long renewed = redisTemplate.execute(RENEW, List.of(key(held)), owner, String.valueOf(ttl));
+                if (renewed != null && renewed == 1L) {
+                    validUntilNanos = start + TimeUnit.MILLISECONDS.toNanos(ttl) * 9 / 10;
+                    return;
+                }
+                log.warn("Lost deal ID node lease {}", held);
+                nodeId = -1;
+            }
+            int offset = ThreadLocalRandom.current().nextInt(LocalDealIdGenerator.MAX_NODES);
+            for (int i = 0; i < LocalDealIdGenerator.MAX_NODES; i++) {
+                int candidate = (offset + i) % LocalDealIdGenerator.MAX_NODES;
+                if (Boolean.TRUE.equals(redisTemplate.opsForValue()
+                        .setIfAbsent(key(candidate), owner, properties.getLeaseTtl()))) {
+                    validUntilNanos = start + TimeUnit.MILLISECONDS.toNanos(ttl) * 9 / 10;
+                    usableFromNanos = System.nanoTime() + properties.getMaxClockDrift().toNanos();
+                    nodeId = candidate;
+                    log.info("Leased deal ID node {}, usable after {} ms", candidate, properties.getMaxClockDrift().toMillis());
+                    return;
+                }
+            }
+            log.error("No free deal ID node among {}", LocalDealIdGenerator.MAX_NODES);
+        } catch (Exception e) {
+            log.warn("Failed to renew deal ID node lease: {}", e.getMessage());
+        }
+    }
+
+    private String key(int node) {
+        return properties.getLeaseKeyPrefix() + node;
+    }
+}
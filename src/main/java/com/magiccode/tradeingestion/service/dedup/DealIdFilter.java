@@ -0,0 +1,221 @@
+package com.magiccode.tradeingestion.service.dedup;
+
+import com.magiccode.tradeingestion.config.DealIdFilterProperties;
+import com.magiccode.tradeingestion.repository.ArchivedDealRepository;
+import com.magiccode.tradeingestion.repository.FixedIncomeDerivativeDealRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+
+/**
+ * Filter of known fixed income deal IDs that lets inserts skip the duplicate lookup.
+ *
+ * Existing deal IDs, live and archived, are streamed from the database into a {@link ScalableBloomFilter} once the
+ * application is ready, and every accepted deal ID is added afterwards. Until the initial load
+ * has finished, or when the filter is disabled, {@link #mightContain(String)} answers true so the
+ * database is always consulted. A negative answer is definite; a positive one still needs the
+ * database lookup. Deal IDs are added once the transaction saving the deal commits, so a rolled
+ * back deal leaves no trace in the filter.
+ *
+ * A negative answer is only definite for deals this instance has seen. With several instances,
+ * {@code deal.dedup.filter.share-via-redis} broadcasts added IDs so that a deal accepted by
+ * another instance is not mistaken for a new one here; the broadcast is asynchronous, so the
+ * unique deal ID column remains the final guard against a duplicate that arrives on two instances
+ * at once.
+ */
+@Service
+@Slf4j
+public class DealIdFilter implements MessageListener {
+    private final DealIdFilterProperties properties;
+    private final FixedIncomeDerivativeDealRepository dealRepository;
+    private final ArchivedDealRepository archivedDealRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final ObjectProvider<StringRedisTemplate> redisTemplateProvider;
+    private final ScalableBloomFilter filter;
+    private final Counter lookupsAvoided;
+    private final Counter falsePositives;
+    private final AtomicLong positives = new AtomicLong();
+    private volatile boolean ready = false;
+
+    public DealIdFilter(DealIdFilterProperties properties,
+                        FixedIncomeDerivativeDealRepository dealRepository,
+                        ArchivedDealRepository archivedDealRepository,
+                        PlatformTransactionManager transactionManager,
+                        ObjectProvider<StringRedisTemplate> redisTemplateProvider,
+                        MeterRegistry meterRegistry) {
+        properties.validate();
+        this.properties = properties;
+        this.dealRepository = dealRepository;
+        this.archivedDealRepository = archivedDealRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setReadOnly(true);
+        this.redisTemplateProvider = redisTemplateProvider;
+        this.filter = new ScalableBloomFilter(properties.getExpectedInsertions(), properties.getFalsePositiveRate());
+        this.lookupsAvoided = Counter.builder("deal.dedup.filter.lookups.avoided")
+            .description("Number of duplicate checks answered by the filter without a database lookup")
+            .register(meterRegistry);
+        this.falsePositives = Counter.builder("deal.dedup.filter.false.positives")
+            .description("Number of deal IDs the filter reported as possibly present that were new")
+            .register(meterRegistry);
+        Gauge.builder("deal.dedup.filter.memory", filter, ScalableBloomFilter::bitSizeInBytes)
+            .description("Memory held by the deal ID filter")
+            .baseUnit("bytes")
+            .register(meterRegistry);
+        Gauge.builder("deal.dedup.filter.elements", filter, ScalableBloomFilter::approximateElementCount)
+            .description("Number of deal IDs in the filter")
+            .register(meterRegistry);
+        Gauge.builder("deal.dedup.filter.false.positive.rate", filter, ScalableBloomFilter::expectedFalsePositiveRate)
+            .description("False-positive rate of the deal ID filter estimated from its fill ratio")
+            .register(meterRegistry);
+        Gauge.builder("deal.dedup.filter.false.positive.observed", this, DealIdFilter::observedFalsePositiveRate)
+            .description("Share of positive filter answers that turned out to be new deals")
+            .register(meterRegistry);
+    }
+
+    /**
+     * Loads the IDs of existing deals in the background once the application is ready.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        if (properties.isEnabled()) {
+            Thread.ofPlatform().name("deal-id-filter-loader").daemon().start(this::loadExistingDealIds);
+        }
+    }
+
+    /**
+     * Streams the IDs of all existing and archived deals into the filter and starts answering from it.
+     */
+    public void loadExistingDealIds() {
+        long started = System.nanoTime();
+        try {
+            Long loaded = transactionTemplate.execute(status -> {
+                long count = 0;
+                try (Stream<String> dealIds = dealRepository.streamAllDealIds()) {
+                    count += putAll(dealIds);
+                }
+                // Archived deals no longer have a live row but must still be recognised as duplicates
+                try (Stream<String> dealIds = archivedDealRepository.streamAllDealIds()) {
+                    count += putAll(dealIds);
+                }
+                return count;
+            });
+            ready = true;
+            log.info("Loaded {} deal ID(s) into the duplicate filter in {} ms ({} bytes)",
+                loaded, (System.nanoTime() - started) / 1_000_000, filter.bitSizeInBytes());
+        } catch (Exception e) {
+            log.error("Failed to load deal IDs into the duplicate filter, duplicate checks will always query the database", e);
+        }
+    }
+
+    private long putAll(Stream<String> dealIds) {
+        long count = 0;
+        for (String dealId : (Iterable<String>) dealIds::iterator) {
+            filter.put(dealId);
+            count++;
+        }
+        return count;
+    }
+
+    /**
+     * Whether a deal with the given ID might already exist.
+     *
+     * @return false only if the deal definitely does not exist
+     */
+    public boolean mightContain(String dealId) {
+        if (!properties.isEnabled() || !ready) {
+            return true;
+        }
+        if (filter.mightContain(dealId)) {
+            positives.incrementAndGet();
+            return true;
+        }
+        lookupsAvoided.increment();
+        return false;
+    }
+
+    /**
+     * Records that a positive answer of {@link #mightContain(String)} was a new deal, once the
+     * current transaction commits.
+     */
+    public void recordFalsePositive() {
+        if (ready) {
+            afterCommit(falsePositives::increment);
+        }
+    }
+
+    /**
+     * Adds an accepted deal ID once the current transaction commits and, if configured,
+     * broadcasts it to the other instances.
+     */
+    public void add(String dealId) {
+        if (properties.isEnabled()) {
+            afterCommit(() -> put(dealId));
+        }
+    }
+
+    private void put(String dealId) {
+        filter.put(dealId);
+        if (properties.isShareViaRedis()) {
+            StringRedisTemplate redisTemplate = redisTemplateProvider.getIfAvailable();
+            if (redisTemplate == null) {
+                return;
+            }
+            try {
+                redisTemplate.convertAndSend(properties.getChannel(), dealId);
+            } catch (Exception e) {
+                log.warn("Failed to broadcast deal ID {} to the duplicate filters: {}", dealId, e.getMessage());
+            }
+        }
+    }
+
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        if (properties.isEnabled()) {
+            filter.put(new String(message.getBody(), StandardCharsets.UTF_8));
+        }
+    }
+
+    /**
+     * Whether the initial load has finished and the filter answers lookups.
+     */
+    public boolean isReady() {
+        return ready;
+    }
+
+    /**
+     * Runs an action after the current transaction commits, or immediately without one.
+     */
+    private static void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+
+    private double observedFalsePositiveRate() {
+        long total = positives.get();
+        return total == 0 ? 0 : falsePositives.count() / total;
+    }
+}
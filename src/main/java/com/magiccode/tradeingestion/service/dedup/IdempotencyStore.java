@@ -0,0 +1,117 @@
+package com.magiccode.tradeingestion.service.dedup;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.magiccode.tradeingestion.config.IdempotencyProperties;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.stereotype.Component;
+
+/**
+ * Bounded, expiring record of the deal versions a step has already processed.
+ *
+ * Entries are keyed by step, deal ID and version, so a later version of a deal is never taken
+ * for a duplicate. They live in a Caffeine cache bounded by {@code maximum-size} and expiring
+ * after {@code ttl}, so memory stays flat however long the application runs. With
+ * {@code redis-enabled} each entry is also claimed in Redis with {@code SET NX} and the same TTL,
+ * so a version processed by another instance is recognised too; if Redis cannot be reached the
+ * local record alone decides.
+ */
+@Component
+@Slf4j
+public class IdempotencyStore {
+    private final IdempotencyProperties properties;
+    private final ObjectProvider<StringRedisTemplate> redisTemplateProvider;
+    private final Cache<String, Boolean> processed;
+    private final Counter duplicates;
+
+    @Autowired
+    public IdempotencyStore(IdempotencyProperties properties,
+                            ObjectProvider<StringRedisTemplate> redisTemplateProvider,
+                            MeterRegistry meterRegistry) {
+        properties.validate();
+        this.properties = properties;
+        this.redisTemplateProvider = redisTemplateProvider;
+        this.processed = Caffeine.newBuilder()
+            .maximumSize(properties.getMaximumSize())
+            .expireAfterWrite(properties.getTtl())
+            .recordStats()
+            .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, processed, "idempotency");
+        this.duplicates = Counter.builder("deal.idempotency.duplicates")
+            .description("Number of deal versions recognised as already processed")
+            .register(meterRegistry);
+    }
+
+    /**
+     * Creates a store that only records versions in memory.
+     */
+    public static IdempotencyStore inMemory() {
+        return new IdempotencyStore(new IdempotencyProperties(), null, new SimpleMeterRegistry());
+    }
+
+    /**
+     * Records a deal version as processed by a step.
+     *
+     * @param step The processing step, such as {@code transformation}
+     * @param dealId The deal ID
+     * @param version The deal version; null is recorded as its own version
+     * @return true if the version was not processed before, false for a duplicate
+     */
+    public boolean markProcessed(String step, String dealId, Long version) {
+        String key = key(step, dealId, version);
+        if (processed.asMap().putIfAbsent(key, Boolean.TRUE) != null) {
+            duplicates.increment();
+            return false;
+        }
+        StringRedisTemplate redisTemplate = redisTemplate();
+        if (redisTemplate == null) {
+            return true;
+        }
+        try {
+            Boolean claimed = redisTemplate.opsForValue()
+                .setIfAbsent(properties.getRedisKeyPrefix() + key, "1", properties.getTtl());
+            if (Boolean.FALSE.equals(claimed)) {
+                duplicates.increment();
+                return false;
+            }
+        } catch (Exception e) {
+            log.warn("Failed to record {} in Redis, relying on the local record: {}", key, e.getMessage());
+        }
+        return true;
+    }
+
+    /**
+     * Forgets a deal version, so a step that failed on it can process it again.
+     */
+    public void forget(String step, String dealId, Long version) {
+        String key = key(step, dealId, version);
+        processed.invalidate(key);
+        StringRedisTemplate redisTemplate = redisTemplate();
+        if (redisTemplate != null) {
+            try {
+                redisTemplate.delete(properties.getRedisKeyPrefix() + key);
+            } catch (Exception e) {
+                log.warn("Failed to remove {} from Redis: {}", key, e.getMessage());
+            }
+        }
+    }
+
+    public long size() {
+        return processed.estimatedSize();
+    }
+
+    private StringRedisTemplate redisTemplate() {
+        return properties.isRedisEnabled() && redisTemplateProvider != null ? redisTemplateProvider.getIfAvailable() : null;
+    }
+
+    private static String key(String step, String dealId, Long version) {
+        return step + ':' + dealId + ':' + (version != null ? version : "-");
+    }
+}
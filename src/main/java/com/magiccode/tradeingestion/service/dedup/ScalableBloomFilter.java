@@ -0,0 +1,193 @@
+package com.magiccode.tradeingestion.service.dedup;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Thread-safe scalable Bloom filter over strings.
+ *
+ * The filter starts with one segment sized for the expected number of insertions. When that
+ * segment is full, a new one with twice the capacity and half the false-positive rate is added,
+ * so the compound false-positive rate stays below twice the configured rate however many
+ * elements are added. Lookups check every segment; inserts go to the newest one.
+ *
+ * Elements are hashed twice with differently seeded 64-bit FNV-1a over the UTF-8 bytes and a
+ * MurmurHash3 finalizer; the bit positions are derived from both by double hashing.
+ */
+public class ScalableBloomFilter {
+    private static final double GROWTH = 2.0;
+    private static final double TIGHTENING = 0.5;
+
+    private final List<Segment> segments = new CopyOnWriteArrayList<>();
+    private final AtomicLong count = new AtomicLong();
+
+    /**
+     * @param initialCapacity Expected insertions of the first segment
+     * @param falsePositiveRate False-positive rate of the first segment
+     */
+    public ScalableBloomFilter(long initialCapacity, double falsePositiveRate) {
+        if (initialCapacity <= 0 || falsePositiveRate <= 0 || falsePositiveRate >= 1) {
+            throw new IllegalArgumentException("Capacity must be positive and false-positive rate between 0 and 1");
+        }
+        segments.add(new Segment(initialCapacity, falsePositiveRate));
+    }
+
+    /**
+     * Adds an element.
+     *
+     * @return false if the element was possibly present already
+     */
+    public boolean put(String element) {
+        long hash1 = hash(element, 0x9E3779B97F4A7C15L);
+        long hash2 = hash(element, 0xC2B2AE3D27D4EB4FL);
+        for (Segment segment : segments) {
+            if (segment.mightContain(hash1, hash2)) {
+                return false;
+            }
+        }
+        Segment current = current();
+        current.put(hash1, hash2);
+        count.incrementAndGet();
+        return true;
+    }
+
+    /**
+     * Whether the element might have been added; false means it definitely was not.
+     */
+    public boolean mightContain(String element) {
+        long hash1 = hash(element, 0x9E3779B97F4A7C15L);
+        long hash2 = hash(element, 0xC2B2AE3D27D4EB4FL);
+        for (Segment segment : segments) {
+            if (segment.mightContain(hash1, hash2)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Number of distinct elements added, as far as the filter can tell.
+     */
+    public long approximateElementCount() {
+        return count.get();
+    }
+
+    /**
+     * Memory held by the bit arrays of all segments.
+     */
+    public long bitSizeInBytes() {
+        return segments.stream().mapToLong(segment -> segment.bits.length() * (long) Long.BYTES).sum();
+    }
+
+    /**
+     * Current false-positive probability estimated from the fill ratio of every segment.
+     */
+    public double expectedFalsePositiveRate() {
+        double allMiss = 1.0;
+        for (Segment segment : segments) {
+            allMiss *= 1.0 - segment.expectedFalsePositiveRate();
+        }
+        return 1.0 - allMiss;
+    }
+
+    int segmentCount() {
+        return segments.size();
+    }
+
+    private Segment current() {
+        Segment last = segments.get(segments.size() - 1);
+        if (last.count.get() < last.capacity) {
+            return last;
+        }
+        synchronized (segments) {
+            last = segments.get(segments.size() - 1);
+            if (last.count.get() >= last.capacity) {
+                last = new Segment((long) (last.capacity * GROWTH), last.falsePositiveRate * TIGHTENING);
+                segments.add(last);
+            }
+            return last;
+        }
+    }
+
+    private static long hash(String element, long seed) {
+        byte[] bytes = element.getBytes(StandardCharsets.UTF_8);
+        long h = seed ^ bytes.length;
+        for (byte b : bytes) {
+            h = (h ^ (b & 0xFF)) * 0x100000001B3L;
+        }
+        return fmix64(h);
+    }
+
+    private static long fmix64(long h) {
+        h ^= h >>> 33;
+        h *= 0xFF51AFD7ED558CCDL;
+        h ^= h >>> 33;
+        h *= 0xC4CEB9FE1A85EC53L;
+        h ^= h >>> 33;
+        return h;
+    }
+
+    private static final class Segment {
+        private final long capacity;
+        private final double falsePositiveRate;
+        private final long bitCount;
+        private final int hashCount;
+        private final AtomicLongArray bits;
+        private final AtomicLong count = new AtomicLong();
+        private final AtomicLong bitsSet = new AtomicLong();
+
+        private Segment(long capacity, double falsePositiveRate) {
+            this.capacity = capacity;
+            this.falsePositiveRate = falsePositiveRate;
+            long optimalBits = (long) Math.ceil(-capacity * Math.log(falsePositiveRate) / (Math.log(2) * Math.log(2)));
+            int words = (int) Math.min(Integer.MAX_VALUE - 8, Math.max(1, (optimalBits + 63) / 64));
+            this.bits = new AtomicLongArray(words);
+            this.bitCount = words * 64L;
+            this.hashCount = Math.max(1, (int) Math.round((double) bitCount / capacity * Math.log(2)));
+        }
+
+        private void put(long hash1, long hash2) {
+            long combined = hash1;
+            for (int i = 0; i < hashCount; i++) {
+                long index = (combined & Long.MAX_VALUE) % bitCount;
+                if (setBit(index)) {
+                    bitsSet.incrementAndGet();
+                }
+                combined += hash2;
+            }
+            count.incrementAndGet();
+        }
+
+        private boolean mightContain(long hash1, long hash2) {
+            long combined = hash1;
+            for (int i = 0; i < hashCount; i++) {
+                long index = (combined & Long.MAX_VALUE) % bitCount;
+                if ((bits.get((int) (index >>> 6)) & (1L << index)) == 0) {
+                    return false;
+                }
+                combined += hash2;
+            }
+            return true;
+        }
+
+        private boolean setBit(long index) {
+            int word = (int) (index >>> 6);
+            long mask = 1L << index;
+            long current;
+            do {
+                current = bits.get(word);
+                if ((current & mask) != 0) {
+                    return false;
+                }
+            } while (!bits.compareAndSet(word, current, current | mask));
+            return true;
+        }
+
+        private double expectedFalsePositiveRate() {
+            return Math.pow((double) bitsSet.get() / bitCount, hashCount);
+        }
+    }
+}
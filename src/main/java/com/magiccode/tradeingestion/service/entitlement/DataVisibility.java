@@ -0,0 +1,34 @@
+package com.magiccode.tradeingestion.service.entitlement;
+
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * Deals a principal may see, expressed as values of the deal's data security fields so that
+ * repository queries can filter on them.
+ *
+ * A deal is visible when its classification level is one of {@code classificationLevels}, its
+ * data jurisdiction is one of {@code jurisdictions} and its access control list is empty or
+ * names one of {@code accessControlEntries}. Unset classification levels and jurisdictions do not
+ * restrict a deal.
+ *
+ * @param unrestricted Whether every deal is visible and no filter applies
+ * @param classificationLevels Classification levels up to the principal's clearance
+ * @param jurisdictions Jurisdictions the principal is entitled to
+ * @param accessControlEntries The principal name and its roles
+ */
+public record DataVisibility(boolean unrestricted,
+                             Set<String> classificationLevels,
+                             Set<String> jurisdictions,
+                             Set<String> accessControlEntries) {
+    public static final DataVisibility UNRESTRICTED = new DataVisibility(true, Set.of(), Set.of(), Set.of());
+
+    /**
+     * Key under which lists filtered by this visibility are cached, shared by principals that see the same deals.
+     */
+    public String cacheKey() {
+        return unrestricted ? "" : String.join(",", new TreeSet<>(classificationLevels))
+            + '|' + String.join(",", new TreeSet<>(jurisdictions))
+            + '|' + String.join(",", new TreeSet<>(accessControlEntries));
+    }
+}
@@ -0,0 +1,28 @@
+package com.magiccode.tradeingestion.service.entitlement;
+
+import com.magiccode.tradeingestion.service.AuthorizationResult;
+
+/**
+ * Outcome of an entitlement check, each with a shared {@link AuthorizationResult}.
+ */
+public enum EntitlementDecision {
+    AUTHORIZED(true, "Authorized"),
+    MISSING_PERMISSION(false, "Unauthorized"),
+    MISSING_ROLE(false, "Missing required role"),
+    INSUFFICIENT_CLEARANCE(false, "Insufficient classification clearance"),
+    JURISDICTION_NOT_PERMITTED(false, "Jurisdiction not permitted");
+
+    private final AuthorizationResult result;
+
+    EntitlementDecision(boolean authorized, String reason) {
+        this.result = new AuthorizationResult(authorized, reason);
+    }
+
+    public boolean isAuthorized() {
+        return result.isAuthorized();
+    }
+
+    public AuthorizationResult toResult() {
+        return result;
+    }
+}
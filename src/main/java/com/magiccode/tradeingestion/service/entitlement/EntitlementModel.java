@@ -0,0 +1,190 @@
+package com.magiccode.tradeingestion.service.entitlement;
+
+import com.magiccode.tradeingestion.config.EntitlementProperties;
+import com.magiccode.tradeingestion.service.AuthorizationContext;
+import com.magiccode.tradeingestion.service.Operation;
+import com.magiccode.tradeingestion.service.Resource;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Dictionaries that compile roles, classification levels, jurisdictions and permissions to bit
+ * positions, and the bitwise check against them.
+ *
+ * Principals are compiled once into {@link PrincipalEntitlements}, and the required roles of a
+ * context once into a {@link RequiredRoleMask} kept on the context; a check then takes a map
+ * lookup each for the context's level and jurisdiction and some mask tests, and allocates
+ * nothing. A role or jurisdiction missing from the dictionaries can never be held, so requiring
+ * one always denies.
+ */
+public class EntitlementModel {
+    private static final int OPERATIONS = Operation.values().length;
+
+    private final Map<String, Integer> roleBits;
+    private final Map<String, Integer> levels;
+    private final Map<String, Integer> jurisdictionBits;
+    private final List<String> roleNames;
+    private final List<String> levelNames;
+    private final List<String> jurisdictionNames;
+    private final RequiredRoleMask noRequiredRoles;
+
+    public EntitlementModel(EntitlementProperties properties) {
+        this.roleNames = List.copyOf(new LinkedHashSet<>(properties.getRoles()));
+        this.levelNames = List.copyOf(new LinkedHashSet<>(properties.getClassificationLevels()));
+        this.jurisdictionNames = List.copyOf(new LinkedHashSet<>(properties.getJurisdictions()));
+        this.roleBits = index(roleNames);
+        this.levels = index(levelNames);
+        this.jurisdictionBits = index(jurisdictionNames);
+        this.noRequiredRoles = new RequiredRoleMask(this, 0L, true);
+    }
+
+    /**
+     * Compiles a grant to bitsets; values missing from the dictionaries are ignored.
+     */
+    public PrincipalEntitlements compile(EntitlementProperties.Grant grant) {
+        if (grant == null) {
+            return PrincipalEntitlements.NONE;
+        }
+        long roles = mask(roleBits, grant.getRoles());
+        int clearance = grant.getClearance() != null ? levels.getOrDefault(grant.getClearance(), -1) : -1;
+        long jurisdictions = mask(jurisdictionBits, grant.getJurisdictions());
+        long permissions = 0L;
+        for (String permission : grant.getPermissions()) {
+            int separator = permission.indexOf(':');
+            if (separator > 0) {
+                permissions |= permissionBit(
+                    Resource.valueOf(permission.substring(0, separator)),
+                    Operation.valueOf(permission.substring(separator + 1)));
+            }
+        }
+        return new PrincipalEntitlements(roles, clearance, jurisdictions, permissions);
+    }
+
+    /**
+     * Bit of one resource and operation pair.
+     */
+    public static long permissionBit(Resource resource, Operation operation) {
+        return 1L << (resource.ordinal() * OPERATIONS + operation.ordinal());
+    }
+
+    /**
+     * Mask of several operations on one resource.
+     */
+    public static long permissionMask(Resource resource, Collection<Operation> operations) {
+        long mask = 0L;
+        for (Operation operation : operations) {
+            mask |= permissionBit(resource, operation);
+        }
+        return mask;
+    }
+
+    /**
+     * Checks a principal against a permission mask and the requirements of a context.
+     *
+     * @param entitlements The principal's compiled entitlements
+     * @param permissionMask Required permission bits
+     * @param context Required roles, classification level and jurisdiction; may be null
+     * @return The decision
+     */
+    public EntitlementDecision check(PrincipalEntitlements entitlements, long permissionMask, AuthorizationContext context) {
+        if ((entitlements.permissions() & permissionMask) != permissionMask) {
+            return EntitlementDecision.MISSING_PERMISSION;
+        }
+        if (context == null) {
+            return EntitlementDecision.AUTHORIZED;
+        }
+        RequiredRoleMask requiredRoles = requiredRoleMask(context);
+        if (!requiredRoles.satisfiable() || (entitlements.roles() & requiredRoles.mask()) != requiredRoles.mask()) {
+            return EntitlementDecision.MISSING_ROLE;
+        }
+        if (context.getClassificationLevel() != null) {
+            Integer level = levels.get(context.getClassificationLevel());
+            if (level == null || level > entitlements.clearance()) {
+                return EntitlementDecision.INSUFFICIENT_CLEARANCE;
+            }
+        }
+        if (context.getJurisdiction() != null) {
+            Integer bit = jurisdictionBits.get(context.getJurisdiction());
+            if (bit == null || (entitlements.jurisdictions() & (1L << bit)) == 0) {
+                return EntitlementDecision.JURISDICTION_NOT_PERMITTED;
+            }
+        }
+        return EntitlementDecision.AUTHORIZED;
+    }
+
+    /**
+     * Returns the context's required roles compiled against this model, compiling them on first use.
+     */
+    RequiredRoleMask requiredRoleMask(AuthorizationContext context) {
+        RequiredRoleMask compiled = context.getRequiredRoleMask();
+        if (compiled != null && compiled.model() == this) {
+            return compiled;
+        }
+        Set<String> requiredRoles = context.getRequiredRoles();
+        if (requiredRoles == null || requiredRoles.isEmpty()) {
+            compiled = noRequiredRoles;
+        } else {
+            boolean satisfiable = true;
+            for (String role : requiredRoles) {
+                satisfiable &= roleBits.containsKey(role);
+            }
+            compiled = new RequiredRoleMask(this, mask(roleBits, requiredRoles), satisfiable);
+        }
+        context.setRequiredRoleMask(compiled);
+        return compiled;
+    }
+
+    /**
+     * Translates a principal's entitlements back to the data security values it may see.
+     *
+     * @param principalName The principal name, matched against access control lists
+     * @param entitlements The principal's compiled entitlements
+     * @return The visibility used to filter repository queries
+     */
+    public DataVisibility visibility(String principalName, PrincipalEntitlements entitlements) {
+        Set<String> aclEntries = new LinkedHashSet<>(names(roleNames, entitlements.roles()));
+        if (principalName != null && !principalName.isEmpty()) {
+            aclEntries.add(principalName);
+        }
+        return new DataVisibility(false,
+            Set.copyOf(levelNames.subList(0, entitlements.clearance() + 1)),
+            names(jurisdictionNames, entitlements.jurisdictions()),
+            Set.copyOf(aclEntries));
+    }
+
+    private static Set<String> names(List<String> dictionary, long bits) {
+        Set<String> names = new LinkedHashSet<>();
+        for (int bit = 0; bit < dictionary.size(); bit++) {
+            if ((bits & (1L << bit)) != 0) {
+                names.add(dictionary.get(bit));
+            }
+        }
+        return Set.copyOf(names);
+    }
+
+    private static Map<String, Integer> index(Collection<String> values) {
+        Map<String, Integer> index = new HashMap<>();
+        for (String value : values) {
+            index.putIfAbsent(value, index.size());
+        }
+        return Map.copyOf(index);
+    }
+
+    private static long mask(Map<String, Integer> bits, Collection<String> values) {
+        long mask = 0L;
+        if (values != null) {
+            for (String value : values) {
+                Integer bit = bits.get(value);
+                if (bit != null) {
+                    mask |= 1L << bit;
+                }
+            }
+        }
+        return mask;
+    }
+}
@@ -0,0 +1,17 @@
+package com.magiccode.tradeingestion.service.entitlement;
+
+import com.magiccode.tradeingestion.config.EntitlementProperties;
+
+/**
+ * Source of the raw entitlements granted to a principal.
+ */
+public interface EntitlementSource {
+
+    /**
+     * Loads the grant of a principal.
+     *
+     * @param principalName The principal name
+     * @return The grant, or null if the principal has no entitlements
+     */
+    EntitlementProperties.Grant load(String principalName);
+}
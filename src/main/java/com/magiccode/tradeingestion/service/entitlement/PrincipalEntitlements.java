@@ -0,0 +1,13 @@
+package com.magiccode.tradeingestion.service.entitlement;
+
+/**
+ * Entitlements of one principal compiled to bitsets.
+ *
+ * @param roles Bit per role in the {@link EntitlementModel} role dictionary
+ * @param clearance Index of the highest classification level the principal may see, -1 for none
+ * @param jurisdictions Bit per jurisdiction in the jurisdiction dictionary
+ * @param permissions Bit per resource and operation pair
+ */
+public record PrincipalEntitlements(long roles, int clearance, long jurisdictions, long permissions) {
+    public static final PrincipalEntitlements NONE = new PrincipalEntitlements(0L, -1, 0L, 0L);
+}
@@ -0,0 +1,11 @@
+package com.magiccode.tradeingestion.service.entitlement;
+
+/**
+ * Required roles of an authorization context compiled against one model's role dictionary.
+ *
+ * @param model The model whose dictionary assigned the bits
+ * @param mask Bit per required role
+ * @param satisfiable Whether every required role is in the dictionary; one outside it can never be held
+ */
+public record RequiredRoleMask(EntitlementModel model, long mask, boolean satisfiable) {
+}
@@ -0,0 +1,490 @@
+package com.magiccode.tradeingestion.service.journal;
+
+import com.magiccode.tradeingestion.exception.DealProcessingException;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.LockSupport;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Stream;
+import java.util.zip.CRC32;
+
+/**
+ * Append-only, memory-mapped journal of accepted deals.
+ *
+ * The journal is a sequence of fixed-size segment files. Each record is laid out as
+ * {@code [length:int][crc32:int][appendedAt:long][payload]}; a zero length marks the unused
+ * tail of a segment. Positions are logical byte offsets across all segments
+ * ({@code segmentIndex * segmentSize + offset}).
+ *
+ * Appends are made durable by a single sync thread that fsyncs everything written since the
+ * last sync, so concurrent appenders share one fsync (group commit). {@link #append(byte[])}
+ * returns only after its record is on disk. Consumers read synced records with
+ * {@link #read(long, int)} and move the {@link #checkpoint(long) checkpoint} forward once the
+ * records are stored elsewhere; segments entirely behind the checkpoint are deleted.
+ *
+ * On open, records after the checkpoint are validated by checksum and the first torn or
+ * corrupt record ends the journal.
+ */
+@Slf4j
+public class IngestJournal implements Closeable {
+    static final int HEADER_BYTES = 16;
+    private static final String SEGMENT_PREFIX = "journal-";
+    private static final String SEGMENT_SUFFIX = ".seg";
+    private static final String CHECKPOINT_FILE = "checkpoint";
+    private static final int ZERO_CHUNK = 64 * 1024;
+
+    /**
+     * A journal record.
+     *
+     * @param position Logical position of the record
+     * @param nextPosition Logical position just past the record, used as the checkpoint once it is flushed
+     * @param appendedAt Epoch millis at which the record was appended
+     * @param payload The record payload
+     */
+    public record Entry(long position, long nextPosition, long appendedAt, byte[] payload) {
+    }
+
+    private final Path directory;
+    private final int segmentSize;
+    private final long groupCommitWindowNanos;
+    private final Timer fsyncTimer;
+    private final ConcurrentSkipListMap<Long, MappedByteBuffer> segments = new ConcurrentSkipListMap<>();
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition appended = lock.newCondition();
+    private final Condition synced = lock.newCondition();
+    private final Thread syncThread;
+
+    private long writePosition;
+    private volatile long syncedPosition;
+    private volatile long checkpoint;
+    private volatile RuntimeException syncFailure;
+    private volatile boolean open = true;
+
+    public IngestJournal(Path directory, int segmentSize, Duration groupCommitWindow, MeterRegistry meterRegistry)
+            throws IOException {
+        this.directory = directory;
+        this.segmentSize = segmentSize;
+        this.groupCommitWindowNanos = groupCommitWindow.toNanos();
+        Files.createDirectories(directory);
+
+        openExistingSegments();
+        long firstPosition = segments.isEmpty() ? 0 : segments.firstKey() * segmentSize;
+        this.checkpoint = Math.max(readCheckpoint(), firstPosition);
+        this.writePosition = recover();
+        this.syncedPosition = writePosition;
+
+        this.fsyncTimer = Timer.builder("deal.journal.fsync")
+            .description("Time taken to fsync a group of journal appends")
+            .register(meterRegistry);
+        Gauge.builder("deal.journal.size", this, IngestJournal::pendingBytes)
+            .description("Bytes of journal records not yet flushed to the database")
+            .baseUnit("bytes")
+            .register(meterRegistry);
+        Gauge.builder("deal.journal.segments", segments, ConcurrentSkipListMap::size)
+            .description("Number of journal segment files on disk")
+            .register(meterRegistry);
+
+        this.syncThread = Thread.ofPlatform().name("deal-journal-sync").daemon().start(this::syncLoop);
+    }
+
+    /**
+     * Appends a record and waits until it has been fsynced.
+     *
+     * @param payload The record payload, must not be empty
+     * @return The logical position just past the record
+     * @throws DealProcessingException if the journal is closed, the record does not fit in a
+     *         segment, or syncing failed
+     */
+    public long append(byte[] payload) {
+        int recordSize = HEADER_BYTES + payload.length;
+        if (payload.length == 0 || recordSize > segmentSize) {
+            throw new DealProcessingException("Journal record of " + payload.length + " bytes does not fit in a segment");
+        }
+        CRC32 crc = new CRC32();
+        crc.update(payload);
+
+        lock.lock();
+        try {
+            ensureWritable();
+            int offset = offsetOf(writePosition);
+            if (offset + recordSize > segmentSize) {
+                writePosition = segmentStart(segmentIndexOf(writePosition) + 1);
+                offset = 0;
+            }
+            MappedByteBuffer segment = segment(segmentIndexOf(writePosition));
+            segment.putInt(offset + 4, (int) crc.getValue());
+            segment.putLong(offset + 8, System.currentTimeMillis());
+            segment.put(offset + HEADER_BYTES, payload);
+            segment.putInt(offset, payload.length);
+            writePosition += recordSize;
+            long end = writePosition;
+            appended.signal();
+
+            while (syncedPosition < end) {
+                if (syncFailure != null) {
+                    throw new DealProcessingException("Journal sync failed", syncFailure);
+                }
+                synced.await();
+            }
+            return end;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new DealProcessingException("Interrupted while waiting for journal sync", e);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Reads synced records starting at the given position.
+     *
+     * @param from Logical position to start from, usually the current checkpoint
+     * @param maxEntries Maximum number of records to return
+     * @return The records in append order, empty when nothing is pending
+     */
+    public List<Entry> read(long from, int maxEntries) {
+        long limit = syncedPosition;
+        List<Entry> entries = new ArrayList<>(Math.min(maxEntries, 1024));
+        long position = from;
+        while (entries.size() < maxEntries && position < limit) {
+            long at = locate(position);
+            if (at < 0 || at >= limit) {
+                break;
+            }
+            Entry entry = readEntry(at);
+            if (entry == null) {
+                throw new DealProcessingException("Corrupt journal record at position " + at);
+            }
+            entries.add(entry);
+            position = entry.nextPosition();
+        }
+        return entries;
+    }
+
+    /**
+     * Records that everything before the given position has been flushed and deletes
+     * segments that are no longer needed.
+     */
+    public void checkpoint(long position) {
+        try {
+            writeCheckpoint(position);
+        } catch (IOException e) {
+            throw new DealProcessingException("Failed to write journal checkpoint", e);
+        }
+        checkpoint = position;
+        long keepFrom = segmentIndexOf(position);
+        for (Long index : segments.headMap(keepFrom).keySet()) {
+            segments.remove(index);
+            try {
+                Files.deleteIfExists(segmentPath(index));
+            } catch (IOException e) {
+                log.warn("Failed to delete flushed journal segment {}: {}", index, e.getMessage());
+            }
+        }
+    }
+
+    public long checkpoint() {
+        return checkpoint;
+    }
+
+    /**
+     * Returns the append time of the oldest record that has not been flushed, or 0 if none.
+     */
+    public long oldestPendingAppendedAt() {
+        long at = locate(checkpoint);
+        if (at < 0 || at >= syncedPosition) {
+            return 0;
+        }
+        MappedByteBuffer segment = segments.get(segmentIndexOf(at));
+        return segment != null ? segment.getLong(offsetOf(at) + 8) : 0;
+    }
+
+    public long pendingBytes() {
+        return Math.max(0, syncedPosition - checkpoint);
+    }
+
+    /**
+     * Stops accepting appends, syncs anything still pending and stops the sync thread.
+     */
+    @Override
+    public void close() {
+        lock.lock();
+        try {
+            open = false;
+            appended.signal();
+        } finally {
+            lock.unlock();
+        }
+        try {
+            syncThread.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void syncLoop() {
+        while (true) {
+            lock.lock();
+            try {
+                while (open && writePosition == syncedPosition) {
+                    appended.await();
+                }
+                if (writePosition == syncedPosition) {
+                    return;
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } finally {
+                lock.unlock();
+            }
+
+            if (open && groupCommitWindowNanos > 0) {
+                // Give concurrent appenders a chance to join this fsync
+                LockSupport.parkNanos(groupCommitWindowNanos);
+            }
+
+            long from = syncedPosition;
+            long target;
+            lock.lock();
+            try {
+                target = writePosition;
+            } finally {
+                lock.unlock();
+            }
+
+            try {
+                fsyncTimer.record(() -> force(from, target));
+            } catch (RuntimeException e) {
+                log.error("Journal fsync failed, rejecting further appends", e);
+                syncFailure = e;
+            }
+
+            lock.lock();
+            try {
+                if (syncFailure == null) {
+                    syncedPosition = target;
+                }
+                synced.signalAll();
+            } finally {
+                lock.unlock();
+            }
+            if (syncFailure != null) {
+                return;
+            }
+        }
+    }
+
+    private void force(long from, long to) {
+        for (long index = segmentIndexOf(from); index <= segmentIndexOf(to - 1); index++) {
+            MappedByteBuffer segment = segments.get(index);
+            if (segment == null) {
+                continue;
+            }
+            int start = (int) Math.max(0, from - segmentStart(index));
+            int end = (int) Math.min(segmentSize, to - segmentStart(index));
+            if (end > start) {
+                segment.force(start, end - start);
+            }
+        }
+    }
+
+    /**
+     * Returns the position of the first record at or after the given position, skipping unused
+     * segment tails, or -1 if there is none.
+     */
+    private long locate(long position) {
+        while (true) {
+            long index = segmentIndexOf(position);
+            MappedByteBuffer segment = segments.get(index);
+            if (segment == null) {
+                return -1;
+            }
+            int offset = offsetOf(position);
+            if (offset + HEADER_BYTES <= segmentSize && segment.getInt(offset) != 0) {
+                return position;
+            }
+            if (!segments.containsKey(index + 1)) {
+                return -1;
+            }
+            position = segmentStart(index + 1);
+        }
+    }
+
+    private Entry readEntry(long position) {
+        MappedByteBuffer segment = segments.get(segmentIndexOf(position));
+        if (segment == null) {
+            return null;
+        }
+        int offset = offsetOf(position);
+        int length = segment.getInt(offset);
+        if (length <= 0 || offset + HEADER_BYTES + length > segmentSize) {
+            return null;
+        }
+        byte[] payload = new byte[length];
+        segment.get(offset + HEADER_BYTES, payload);
+        CRC32 crc = new CRC32();
+        crc.update(payload);
+        if ((int) crc.getValue() != segment.getInt(offset + 4)) {
+            return null;
+        }
+        return new Entry(position, position + HEADER_BYTES + length, segment.getLong(offset + 8), payload);
+    }
+
+    private long recover() throws IOException {
+        long position = checkpoint;
+        long end = checkpoint;
+        int pending = 0;
+        while (true) {
+            long at = locate(position);
+            if (at < 0) {
+                break;
+            }
+            Entry entry = readEntry(at);
+            if (entry == null) {
+                log.warn("Journal ends with a torn or corrupt record at position {}, discarding the tail", at);
+                break;
+            }
+            pending++;
+            end = entry.nextPosition();
+            position = end;
+        }
+        truncateAfter(end);
+        if (pending > 0) {
+            log.info("Journal in {} has {} unflushed record(s) after checkpoint {}", directory, pending, checkpoint);
+        }
+        return end;
+    }
+
+    private void truncateAfter(long position) throws IOException {
+        long lastIndex = segmentIndexOf(position);
+        for (Long index : segments.tailMap(lastIndex, false).keySet()) {
+            segments.remove(index);
+            Files.deleteIfExists(segmentPath(index));
+        }
+        MappedByteBuffer segment = segments.get(lastIndex);
+        if (segment != null) {
+            byte[] zeros = new byte[ZERO_CHUNK];
+            for (int offset = offsetOf(position); offset < segmentSize; offset += ZERO_CHUNK) {
+                segment.put(offset, zeros, 0, Math.min(ZERO_CHUNK, segmentSize - offset));
+            }
+            segment.force();
+        }
+    }
+
+    private void openExistingSegments() throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            for (Path file : files.filter(IngestJournal::isSegment).toList()) {
+                if (Files.size(file) != segmentSize) {
+                    throw new IllegalStateException("Journal segment " + file + " does not match the configured segment size");
+                }
+                long index = Long.parseLong(file.getFileName().toString()
+                    .substring(SEGMENT_PREFIX.length(), file.getFileName().toString().length() - SEGMENT_SUFFIX.length()));
+                segments.put(index, map(file));
+            }
+        }
+    }
+
+    private MappedByteBuffer segment(long index) {
+        MappedByteBuffer segment = segments.get(index);
+        if (segment == null) {
+            try {
+                segment = map(segmentPath(index));
+            } catch (IOException e) {
+                throw new UncheckedIOException("Failed to create journal segment " + index, e);
+            }
+            segments.put(index, segment);
+        }
+        return segment;
+    }
+
+    private MappedByteBuffer map(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file,
+                StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            return channel.map(FileChannel.MapMode.READ_WRITE, 0, segmentSize);
+        }
+    }
+
+    private long readCheckpoint() throws IOException {
+        Path file = directory.resolve(CHECKPOINT_FILE);
+        if (!Files.exists(file)) {
+            return 0;
+        }
+        ByteBuffer buffer = ByteBuffer.wrap(Files.readAllBytes(file));
+        if (buffer.remaining() != 12) {
+            log.warn("Ignoring malformed journal checkpoint, replaying from the first segment");
+            return 0;
+        }
+        long position = buffer.getLong();
+        CRC32 crc = new CRC32();
+        crc.update(buffer.array(), 0, 8);
+        if ((int) crc.getValue() != buffer.getInt()) {
+            log.warn("Ignoring journal checkpoint with a bad checksum, replaying from the first segment");
+            return 0;
+        }
+        return position;
+    }
+
+    private void writeCheckpoint(long position) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(12).putLong(position);
+        CRC32 crc = new CRC32();
+        crc.update(buffer.array(), 0, 8);
+        buffer.putInt((int) crc.getValue()).flip();
+        Path temp = directory.resolve(CHECKPOINT_FILE + ".tmp");
+        try (FileChannel channel = FileChannel.open(temp,
+                StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            channel.write(buffer);
+            channel.force(true);
+        }
+        Files.move(temp, directory.resolve(CHECKPOINT_FILE),
+            StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    private void ensureWritable() {
+        if (!open) {
+            throw new DealProcessingException("Journal is closed");
+        }
+        if (syncFailure != null) {
+            throw new DealProcessingException("Journal sync failed", syncFailure);
+        }
+    }
+
+    private static boolean isSegment(Path file) {
+        String name = file.getFileName().toString();
+        return name.startsWith(SEGMENT_PREFIX) && name.endsWith(SEGMENT_SUFFIX);
+    }
+
+    private Path segmentPath(long index) {
+        return directory.resolve(String.format("%s%012d%s", SEGMENT_PREFIX, index, SEGMENT_SUFFIX));
+    }
+
+    private long segmentIndexOf(long position) {
+        return position / segmentSize;
+    }
+
+    private long segmentStart(long index) {
+        return index * segmentSize;
+    }
+
+    private int offsetOf(long position) {
+        return (int) (position % segmentSize);
+    }
+}
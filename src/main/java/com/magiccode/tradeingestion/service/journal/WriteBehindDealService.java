@@ -0,0 +1,342 @@
+package com.magiccode.tradeingestion.service.journal;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.magiccode.tradeingestion.exception.DealProcessingException;
+import com.magiccode.tradeingestion.model.FixedIncomeDerivativeDeal;
+import com.magiccode.tradeingestion.repository.FixedIncomeDerivativeDealRepository;
+import com.magiccode.tradeingestion.service.DealHistoryService;
+import com.magiccode.tradeingestion.service.FixedIncomeDerivativeDealService;
+import com.magiccode.tradeingestion.service.RawPayloadStore;
+import com.magiccode.tradeingestion.service.RawPayloadStore.Received;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.validation.ConstraintViolationException;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jms.core.JmsTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Write-behind ingestion of fixed income derivative deals.
+ *
+ * {@link #accept(FixedIncomeDerivativeDeal, String)} validates and transforms a deal, appends it
+ * with its raw message text to the {@link IngestJournal} and returns once the record is fsynced,
+ * so the message can be acknowledged without waiting on Postgres. A background flusher saves
+ * journal records in batches of {@code deal.journal.flush-batch-size}, together with their raw
+ * payloads, publishes them like
+ * {@link FixedIncomeDerivativeDealService#processDeal(FixedIncomeDerivativeDeal)} does and then
+ * moves the journal checkpoint forward.
+ *
+ * Records left over from a previous run are flushed during bean initialization, before the JMS
+ * listener containers start consuming. Flushing is at-least-once: deals that already exist in
+ * the database are skipped, so a crash between commit and checkpoint does not duplicate them.
+ * Flushed deals are written through to the deal caches like directly processed ones, and records
+ * the database rejects are dead-lettered to {@code fixed-income-deals.dlq} and counted as
+ * {@code deal.journal.dead.letters}.
+ */
+@Slf4j
+public class WriteBehindDealService {
+    private static final String PUBLISH_DESTINATION = "fixed-income-deals";
+    private static final String DEAD_LETTER_DESTINATION = "fixed-income-deals.dlq";
+
+    private final IngestJournal journal;
+    private final FixedIncomeDerivativeDealService dealService;
+    private final FixedIncomeDerivativeDealRepository dealRepository;
+    private final DealHistoryService dealHistoryService;
+    private final RawPayloadStore rawPayloadStore;
+    private final JmsTemplate jmsTemplate;
+    private final ObjectMapper objectMapper;
+    private final TransactionTemplate transactionTemplate;
+    private final int flushBatchSize;
+    private final long flushIntervalMillis;
+    private final Set<String> pendingDealIds = ConcurrentHashMap.newKeySet();
+    private final DistributionSummary flushBatch;
+    private final Counter flushFailures;
+    private final Counter deadLetters;
+    private volatile boolean running = false;
+    private Thread flusherThread;
+
+    public WriteBehindDealService(
+            IngestJournal journal,
+            FixedIncomeDerivativeDealService dealService,
+            FixedIncomeDerivativeDealRepository dealRepository,
+            DealHistoryService dealHistoryService,
+            RawPayloadStore rawPayloadStore,
+            JmsTemplate jmsTemplate,
+            ObjectMapper objectMapper,
+            PlatformTransactionManager transactionManager,
+            MeterRegistry meterRegistry,
+            int flushBatchSize,
+            Duration flushInterval) {
+        this.journal = journal;
+        this.dealService = dealService;
+        this.dealRepository = dealRepository;
+        this.dealHistoryService = dealHistoryService;
+        this.rawPayloadStore = rawPayloadStore;
+        this.jmsTemplate = jmsTemplate;
+        this.objectMapper = objectMapper;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.flushBatchSize = flushBatchSize;
+        this.flushIntervalMillis = flushInterval.toMillis();
+        this.flushBatch = DistributionSummary.builder("deal.journal.flush.batch")
+            .description("Number of journal records written to the database per flush")
+            .register(meterRegistry);
+        this.flushFailures = Counter.builder("deal.journal.flush.failures")
+            .description("Number of journal flushes that failed and will be retried")
+            .register(meterRegistry);
+        this.deadLetters = Counter.builder("deal.journal.dead.letters")
+            .description("Number of journal records moved to the dead letter queue instead of being saved")
+            .register(meterRegistry);
+        Gauge.builder("deal.journal.flush.lag", journal, WriteBehindDealService::flushLagMillis)
+            .description("Age of the oldest journal record not yet written to the database")
+            .baseUnit("milliseconds")
+            .register(meterRegistry);
+    }
+
+    /**
+     * Replays journal records left by a previous run and starts the background flusher.
+     */
+    @PostConstruct
+    public void start() {
+        int recovered = 0;
+        int flushed;
+        while ((flushed = flushOnce(true)) > 0) {
+            recovered += flushed;
+        }
+        if (recovered > 0) {
+            log.info("Recovered {} journaled deal(s) before starting consumption", recovered);
+        }
+        running = true;
+        flusherThread = Thread.ofPlatform().name("deal-journal-flusher").daemon().start(this::flushLoop);
+    }
+
+    @PreDestroy
+    public void stop() {
+        running = false;
+        if (flusherThread != null) {
+            flusherThread.interrupt();
+            try {
+                flusherThread.join(Duration.ofSeconds(30));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    /**
+     * Accepts a deal into the journal.
+     *
+     * @param deal The deal to accept
+     * @param rawPayload The message text the deal was mapped from, stored when the deal is flushed
+     * @return The prepared deal as it will be saved
+     * @throws DealProcessingException if the deal is invalid, already exists or cannot be journaled
+     */
+    public FixedIncomeDerivativeDeal accept(FixedIncomeDerivativeDeal deal, String rawPayload) {
+        if (!pendingDealIds.add(deal.getDealId())) {
+            throw new DealProcessingException("Deal already exists: " + deal.getDealId());
+        }
+        FixedIncomeDerivativeDeal prepared;
+        try {
+            prepared = dealService.prepareDeal(deal);
+        } catch (RuntimeException e) {
+            pendingDealIds.remove(deal.getDealId());
+            throw e;
+        }
+        try {
+            Received record = new Received(prepared, rawPayloadStore.isEnabled() ? rawPayload : null);
+            journal.append(objectMapper.writeValueAsBytes(record));
+            log.debug("Journaled fixed income derivative deal: {}", prepared.getDealId());
+            return prepared;
+        } catch (IOException e) {
+            abandon(prepared);
+            throw new DealProcessingException("Failed to serialize deal for journal: " + deal.getDealId(), e);
+        } catch (RuntimeException e) {
+            abandon(prepared);
+            throw e;
+        }
+    }
+
+    // The deal never reached the journal, so a redelivery must be prepared from scratch
+    private void abandon(FixedIncomeDerivativeDeal prepared) {
+        pendingDealIds.remove(prepared.getDealId());
+        dealService.releasePrepared(prepared);
+    }
+
+    private void flushLoop() {
+        while (running) {
+            try {
+                if (flushOnce(false) < flushBatchSize) {
+                    Thread.sleep(flushIntervalMillis);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (Exception e) {
+                flushFailures.increment();
+                log.error("Failed to flush journal to the database, retrying: {}", e.getMessage(), e);
+                try {
+                    Thread.sleep(flushIntervalMillis);
+                } catch (InterruptedException ie) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+            }
+        }
+    }
+
+    /**
+     * Writes the next batch of journal records to the database.
+     *
+     * The batch is saved in one transaction. If that fails on bad data, the deals are saved one by
+     * one and those that still fail are dead-lettered, so a single poison record cannot stall the
+     * journal. Any other failure leaves the checkpoint where it is and the batch is retried.
+     *
+     * @param recovering Whether records come from a previous run and are not tracked as pending
+     * @return The number of journal records consumed
+     */
+    int flushOnce(boolean recovering) {
+        List<IngestJournal.Entry> entries = journal.read(journal.checkpoint(), flushBatchSize);
+        if (entries.isEmpty()) {
+            return 0;
+        }
+
+        Map<String, Received> records = new LinkedHashMap<>();
+        Map<String, byte[]> payloads = new LinkedHashMap<>();
+        for (IngestJournal.Entry entry : entries) {
+            try {
+                Received record = readRecord(entry.payload());
+                String dealId = record.deal().getDealId();
+                if (records.putIfAbsent(dealId, record) == null) {
+                    payloads.put(dealId, entry.payload());
+                }
+            } catch (IOException e) {
+                deadLetter("at position " + entry.position(), entry.payload(), e);
+            }
+        }
+
+        int saved;
+        try {
+            saved = saveAndPublish(records.values());
+        } catch (RuntimeException e) {
+            if (!isBadData(e)) {
+                throw e;
+            }
+            log.warn("Journal batch of {} deal(s) was rejected, saving them one by one: {}", records.size(), e.getMessage());
+            saved = 0;
+            for (Received record : records.values()) {
+                String dealId = record.deal().getDealId();
+                try {
+                    saved += saveAndPublish(List.of(record));
+                } catch (RuntimeException dealFailure) {
+                    if (!isBadData(dealFailure)) {
+                        throw dealFailure;
+                    }
+                    deadLetter(dealId, payloads.get(dealId), dealFailure);
+                }
+            }
+        }
+
+        journal.checkpoint(entries.get(entries.size() - 1).nextPosition());
+        pendingDealIds.removeAll(records.keySet());
+        flushBatch.record(saved);
+        if (recovering) {
+            log.info("Flushed {} recovered journal record(s), {} new deal(s)", entries.size(), saved);
+        }
+        return entries.size();
+    }
+
+    // Records journaled before raw payloads were included hold the bare deal
+    private Received readRecord(byte[] payload) throws IOException {
+        Received record = objectMapper.readValue(payload, Received.class);
+        if (record.deal() != null) {
+            return record;
+        }
+        return new Received(objectMapper.readValue(payload, FixedIncomeDerivativeDeal.class), null);
+    }
+
+    /**
+     * Saves the deals not yet in the database and the raw payloads not yet stored in one
+     * transaction, writes the deals through to the caches on commit and publishes them.
+     *
+     * @return The number of deals saved
+     */
+    private int saveAndPublish(Collection<Received> records) {
+        List<FixedIncomeDerivativeDeal> saved = transactionTemplate.execute(status -> {
+            Set<String> existing = dealService.findExistingDealIds(
+                records.stream().map(record -> record.deal().getDealId()).toList());
+            List<FixedIncomeDerivativeDeal> toSave = new ArrayList<>(records.size());
+            for (Received record : records) {
+                if (!existing.contains(record.deal().getDealId())) {
+                    toSave.add(record.deal());
+                }
+            }
+            // Redelivered messages keep their first stored payload, as on the synchronous path
+            rawPayloadStore.storeAll(records);
+            List<FixedIncomeDerivativeDeal> savedDeals = dealRepository.saveAll(toSave);
+            // Flush inside the transaction so bad data fails here rather than at commit
+            dealRepository.flush();
+            for (FixedIncomeDerivativeDeal savedDeal : savedDeals) {
+                dealHistoryService.record(savedDeal);
+                dealService.writeThroughAfterCommit(savedDeal);
+            }
+            return savedDeals;
+        });
+        if (saved == null) {
+            return 0;
+        }
+        for (FixedIncomeDerivativeDeal deal : saved) {
+            try {
+                jmsTemplate.convertAndSend(PUBLISH_DESTINATION, deal);
+            } catch (Exception e) {
+                log.warn("Failed to publish journaled deal {}: {}", deal.getDealId(), e.getMessage());
+            }
+        }
+        return saved.size();
+    }
+
+    /**
+     * Moves a record the database will never accept to the dead letter queue.
+     * If the queue cannot be reached the failure propagates, so the record is retried rather than lost.
+     */
+    private void deadLetter(String record, byte[] payload, Exception cause) {
+        jmsTemplate.convertAndSend(DEAD_LETTER_DESTINATION, new String(payload, StandardCharsets.UTF_8));
+        deadLetters.increment();
+        log.error("Dead-lettered journal record {}: {}", record, cause.getMessage());
+    }
+
+    // Failures a retry cannot fix: integrity or validation errors on the deal itself
+    private static boolean isBadData(Throwable e) {
+        for (Throwable cause = e; cause != null; cause = cause.getCause()) {
+            if (cause instanceof DataIntegrityViolationException || cause instanceof ConstraintViolationException) {
+                return true;
+            }
+            if (cause instanceof SQLException sqlException && sqlException.getSQLState() != null
+                && sqlException.getSQLState().startsWith("23")) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static double flushLagMillis(IngestJournal journal) {
+        long oldest = journal.oldestPendingAppendedAt();
+        return oldest == 0 ? 0 : Math.max(0, System.currentTimeMillis() - oldest);
+    }
+}
@@ -0,0 +1,176 @@
+package com.magiccode.tradeingestion.service.pipeline;
+
+import com.magiccode.tradeingestion.exception.DealProcessingException;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Supplier;
+
+/**
+ * Runs independent pipeline steps of one deal concurrently, each on its own virtual thread.
+ *
+ * Modelled on {@code StructuredTaskScope.ShutdownOnFailure}, which is still a preview API on
+ * Java 21: steps are forked inside a try-with-resources block and {@link #join()} waits for all
+ * of them. The first step to fail cancels the others and is rethrown from {@code join}. Closing
+ * the scope waits until every forked thread has finished, so no step outlives its deal.
+ *
+ * Each step's duration is recorded as {@code deal.pipeline.step.time}, tagged by step. The step
+ * that finished last, on the critical path, is counted as {@code deal.pipeline.critical.step}.
+ */
+public final class StepScope implements AutoCloseable {
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+    private final MeterRegistry meterRegistry;
+    private final List<Step<?>> steps = new CopyOnWriteArrayList<>();
+    private final AtomicReference<Throwable> failure = new AtomicReference<>();
+    private volatile boolean joined;
+
+    public StepScope(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    /**
+     * Starts a step on a new virtual thread.
+     *
+     * @param name The step name, used as the metric tag
+     * @param task The step
+     * @return The step's result, available once {@link #join()} has returned
+     */
+    public <T> Supplier<T> fork(String name, Callable<T> task) {
+        Step<T> step = new Step<>(name);
+        steps.add(step);
+        // execute rather than submit: a cancelled Future counts as done before its thread ends, so close would not wait
+        executor.execute(() -> run(step, task));
+        if (failure.get() != null) {
+            step.cancel();
+        }
+        return () -> {
+            if (!joined) {
+                throw new IllegalStateException("Step " + name + " read before the scope was joined");
+            }
+            return step.result.join();
+        };
+    }
+
+    /**
+     * Waits for every forked step.
+     *
+     * @throws RuntimeException The first step failure, as thrown by the step; checked exceptions
+     *         are wrapped in {@link DealProcessingException}
+     */
+    public void join() {
+        try {
+            CompletableFuture.allOf(steps.stream().map(step -> step.result).toArray(CompletableFuture[]::new))
+                .exceptionally(e -> null)
+                .get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            cancelAll();
+            throw new DealProcessingException("Interrupted while waiting for pipeline steps", e);
+        } catch (ExecutionException e) {
+            // Not reached: failures are swallowed above and read from the failure field
+            throw new IllegalStateException(e);
+        }
+        joined = true;
+        Throwable first = failure.get();
+        if (first instanceof RuntimeException runtimeException) {
+            throw runtimeException;
+        }
+        if (first instanceof Error error) {
+            throw error;
+        }
+        if (first != null) {
+            throw new DealProcessingException("Pipeline step failed: " + first.getMessage(), first);
+        }
+        recordCriticalStep();
+    }
+
+    /**
+     * Cancels any step still running if the scope was not joined, then waits for every step thread.
+     */
+    @Override
+    public void close() {
+        if (!joined) {
+            cancelAll();
+        }
+        executor.close();
+    }
+
+    private <T> void run(Step<T> step, Callable<T> task) {
+        step.runner = Thread.currentThread();
+        if (step.cancelled) {
+            return;
+        }
+        long start = System.nanoTime();
+        T value;
+        try {
+            value = task.call();
+        } catch (Throwable e) {
+            finish(step, start);
+            // A step cancelled because a sibling failed does not replace the original failure
+            if (failure.compareAndSet(null, e)) {
+                cancelAll();
+            }
+            step.result.completeExceptionally(e);
+            return;
+        }
+        finish(step, start);
+        step.result.complete(value);
+    }
+
+    // Recorded before the result completes, so join never compares a step that has not finished yet
+    private void finish(Step<?> step, long start) {
+        step.finishedAt = System.nanoTime();
+        meterRegistry.timer("deal.pipeline.step.time", "step", step.name)
+            .record(step.finishedAt - start, TimeUnit.NANOSECONDS);
+    }
+
+    private void cancelAll() {
+        for (Step<?> step : steps) {
+            step.cancel();
+        }
+    }
+
+    private void recordCriticalStep() {
+        Step<?> last = null;
+        for (Step<?> step : steps) {
+            if (last == null || step.finishedAt > last.finishedAt) {
+                last = step;
+            }
+        }
+        if (last != null) {
+            meterRegistry.counter("deal.pipeline.critical.step", "step", last.name).increment();
+        }
+    }
+
+    private static final class Step<T> {
+        private final String name;
+        private final CompletableFuture<T> result = new CompletableFuture<>();
+        private volatile Thread runner;
+        private volatile boolean cancelled;
+        private volatile long finishedAt;
+
+        private Step(String name) {
+            this.name = name;
+        }
+
+        // Pairs with run: either run sees the flag and skips the step, or cancel sees the runner and interrupts it
+        private void cancel() {
+            cancelled = true;
+            Thread running = runner;
+            if (running != null && running != Thread.currentThread() && !result.isDone()) {
+                running.interrupt();
+            }
+            // Completes a step that had not started yet, so join does not wait for it
+            result.completeExceptionally(new CancellationException("Step " + name + " cancelled"));
+        }
+    }
+}
@@ -0,0 +1,51 @@
+package com.magiccode.tradeingestion.service.refdata;
+
+import com.magiccode.tradeingestion.exception.DealProcessingException;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+
+/**
+ * Reference data source backed by the reference data service.
+ *
+ * {@code GET {url}/snapshot} returns all data and {@code GET {url}/changes?since={version}}
+ * the changes after a version; the latter answers 410 Gone when the version is too old.
+ */
+public class HttpReferenceDataSource implements ReferenceDataSource {
+    private final WebClient webClient;
+    private final String baseUrl;
+
+    public HttpReferenceDataSource(WebClient webClient, String baseUrl) {
+        this.webClient = webClient;
+        this.baseUrl = baseUrl;
+    }
+
+    @Override
+    public ReferenceDataSnapshot loadAll() {
+        ReferenceDataSnapshot snapshot = webClient.get()
+            .uri(baseUrl + "/snapshot")
+            .retrieve()
+            .bodyToMono(ReferenceDataSnapshot.class)
+            .block();
+        if (snapshot == null) {
+            throw new DealProcessingException("Reference data service returned no snapshot");
+        }
+        return snapshot;
+    }
+
+    @Override
+    public ReferenceDataDelta loadChanges(long sinceVersion) {
+        try {
+            return webClient.get()
+                .uri(baseUrl + "/changes?since={version}", sinceVersion)
+                .retrieve()
+                .bodyToMono(ReferenceDataDelta.class)
+                .block();
+        } catch (WebClientResponseException e) {
+            if (e.getStatusCode() == HttpStatus.GONE) {
+                return null;
+            }
+            throw e;
+        }
+    }
+}
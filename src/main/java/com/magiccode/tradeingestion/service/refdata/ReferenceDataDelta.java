@@ -0,0 +1,18 @@
+package com.magiccode.tradeingestion.service.refdata;
+
+import com.magiccode.tradeingestion.model.Counterparty;
+import com.magiccode.tradeingestion.model.Instrument;
+
+import java.util.List;
+
+/**
+ * Reference data changes since a source version, up to and including {@code version}.
+ */
+public record ReferenceDataDelta(
+    long version,
+    List<Counterparty> counterparties,
+    List<Instrument> instruments,
+    List<String> removedCounterpartyIds,
+    List<String> removedInstrumentIds
+) {
+}
@@ -0,0 +1,16 @@
+package com.magiccode.tradeingestion.service.refdata;
+
+import com.magiccode.tradeingestion.model.Counterparty;
+import com.magiccode.tradeingestion.model.Instrument;
+
+import java.util.List;
+
+/**
+ * Complete set of reference data at a source version.
+ */
+public record ReferenceDataSnapshot(
+    long version,
+    List<Counterparty> counterparties,
+    List<Instrument> instruments
+) {
+}
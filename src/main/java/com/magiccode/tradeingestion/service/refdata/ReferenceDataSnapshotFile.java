@@ -0,0 +1,110 @@
+package com.magiccode.tradeingestion.service.refdata;
+
+import com.magiccode.tradeingestion.model.Counterparty;
+import com.magiccode.tradeingestion.model.Instrument;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Local binary snapshot of the reference data.
+ *
+ * The layout is {@code [magic][format version][data version]}, followed by the counterparties
+ * and instruments, each list prefixed with its size and every field written as a nullable
+ * modified-UTF-8 string. A new file is written next to the old one and moved over it atomically,
+ * so a crash never leaves a partial snapshot behind.
+ */
+public class ReferenceDataSnapshotFile {
+    private static final int MAGIC = 0x52454644;
+    private static final int FORMAT_VERSION = 1;
+
+    private final Path path;
+
+    public ReferenceDataSnapshotFile(Path path) {
+        this.path = path;
+    }
+
+    public Path getPath() {
+        return path;
+    }
+
+    /**
+     * Reads the snapshot.
+     *
+     * @return The snapshot, or empty if there is no file or it was written in another format
+     * @throws IOException if the file cannot be read
+     */
+    public Optional<ReferenceDataSnapshot> read() throws IOException {
+        if (!Files.exists(path)) {
+            return Optional.empty();
+        }
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(path), 1 << 16))) {
+            if (in.readInt() != MAGIC || in.readInt() != FORMAT_VERSION) {
+                return Optional.empty();
+            }
+            long version = in.readLong();
+            int counterpartyCount = in.readInt();
+            List<Counterparty> counterparties = new ArrayList<>(counterpartyCount);
+            for (int i = 0; i < counterpartyCount; i++) {
+                counterparties.add(new Counterparty(readString(in), readString(in), readString(in)));
+            }
+            int instrumentCount = in.readInt();
+            List<Instrument> instruments = new ArrayList<>(instrumentCount);
+            for (int i = 0; i < instrumentCount; i++) {
+                instruments.add(new Instrument(readString(in), readString(in)));
+            }
+            return Optional.of(new ReferenceDataSnapshot(version, counterparties, instruments));
+        }
+    }
+
+    /**
+     * Replaces the snapshot file.
+     */
+    public void write(long version, Collection<Counterparty> counterparties, Collection<Instrument> instruments) throws IOException {
+        Path directory = path.toAbsolutePath().getParent();
+        Files.createDirectories(directory);
+        Path temp = Files.createTempFile(directory, path.getFileName().toString(), ".tmp");
+        try {
+            try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temp), 1 << 16))) {
+                out.writeInt(MAGIC);
+                out.writeInt(FORMAT_VERSION);
+                out.writeLong(version);
+                out.writeInt(counterparties.size());
+                for (Counterparty counterparty : counterparties) {
+                    writeString(out, counterparty.getId());
+                    writeString(out, counterparty.getName());
+                    writeString(out, counterparty.getLei());
+                }
+                out.writeInt(instruments.size());
+                for (Instrument instrument : instruments) {
+                    writeString(out, instrument.getId());
+                    writeString(out, instrument.getSymbol());
+                }
+            }
+            Files.move(temp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    private static void writeString(DataOutputStream out, String value) throws IOException {
+        out.writeBoolean(value != null);
+        if (value != null) {
+            out.writeUTF(value);
+        }
+    }
+
+    private static String readString(DataInputStream in) throws IOException {
+        return in.readBoolean() ? in.readUTF() : null;
+    }
+}
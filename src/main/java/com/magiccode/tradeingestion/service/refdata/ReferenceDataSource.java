@@ -0,0 +1,20 @@
+package com.magiccode.tradeingestion.service.refdata;
+
+/**
+ * Bulk source of counterparty and instrument reference data.
+ */
+public interface ReferenceDataSource {
+
+    /**
+     * Loads all reference data.
+     */
+    ReferenceDataSnapshot loadAll();
+
+    /**
+     * Loads the changes made after the given version.
+     *
+     * @param sinceVersion The version the caller already has
+     * @return The changes, or null if the source no longer has changes that far back
+     */
+    ReferenceDataDelta loadChanges(long sinceVersion);
+}
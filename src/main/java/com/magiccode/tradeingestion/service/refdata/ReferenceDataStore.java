@@ -0,0 +1,217 @@
+package com.magiccode.tradeingestion.service.refdata;
+
+import com.magiccode.tradeingestion.config.ReferenceDataProperties;
+import com.magiccode.tradeingestion.model.Counterparty;
+import com.magiccode.tradeingestion.model.Instrument;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * In-memory counterparty and instrument reference data.
+ *
+ * Counterparties are indexed by ID and LEI, instruments by ID and symbol. At startup the store
+ * loads the local snapshot file, which takes milliseconds, and then catches up with the
+ * {@link ReferenceDataSource} in the background: a full load when there is no usable snapshot,
+ * otherwise the changes since the snapshot's version. Changes are polled every
+ * {@code deal.reference-data.refresh-interval} and every change rewrites the snapshot file.
+ *
+ * Lookups only read local maps and never block on the source.
+ */
+@Service
+@Slf4j
+public class ReferenceDataStore {
+    private final ObjectProvider<ReferenceDataSource> sourceProvider;
+    private final ReferenceDataSnapshotFile snapshotFile;
+    private final Timer snapshotLoadTimer;
+    private final Counter refreshFailures;
+    private final Object updateLock = new Object();
+    private volatile Indexes indexes = new Indexes();
+    private volatile long version = -1;
+
+    public ReferenceDataStore(ReferenceDataProperties properties,
+                              ObjectProvider<ReferenceDataSource> sourceProvider,
+                              MeterRegistry meterRegistry) {
+        this.sourceProvider = sourceProvider;
+        this.snapshotFile = new ReferenceDataSnapshotFile(Path.of(properties.getSnapshotFile()));
+        this.snapshotLoadTimer = Timer.builder("deal.refdata.snapshot.load")
+            .description("Time taken to load the local reference data snapshot")
+            .register(meterRegistry);
+        this.refreshFailures = Counter.builder("deal.refdata.refresh.failures")
+            .description("Number of failed reference data refreshes from the source")
+            .register(meterRegistry);
+        Gauge.builder("deal.refdata.counterparties", this, store -> store.indexes.counterpartiesById.size())
+            .description("Number of counterparties in the reference data store")
+            .register(meterRegistry);
+        Gauge.builder("deal.refdata.instruments", this, store -> store.indexes.instrumentsById.size())
+            .description("Number of instruments in the reference data store")
+            .register(meterRegistry);
+        Gauge.builder("deal.refdata.version", this, store -> store.version)
+            .description("Source version of the reference data held in memory")
+            .register(meterRegistry);
+    }
+
+    /**
+     * Loads the local snapshot file, if there is one.
+     */
+    @PostConstruct
+    public void loadSnapshot() {
+        try {
+            Optional<ReferenceDataSnapshot> snapshot = snapshotLoadTimer.recordCallable(snapshotFile::read);
+            if (snapshot != null && snapshot.isPresent()) {
+                replace(snapshot.get());
+                log.info("Loaded reference data snapshot version {} with {} counterparties and {} instruments",
+                    version, indexes.counterpartiesById.size(), indexes.instrumentsById.size());
+            }
+        } catch (Exception e) {
+            log.warn("Ignoring unreadable reference data snapshot {}: {}", snapshotFile.getPath(), e.getMessage());
+        }
+    }
+
+    /**
+     * Brings the store up to date with the source: a full load the first time, changes afterwards.
+     */
+    @Scheduled(fixedDelayString = "${deal.reference-data.refresh-interval:30000}",
+               initialDelayString = "${deal.reference-data.initial-delay:0}")
+    public void refresh() {
+        ReferenceDataSource source = sourceProvider.getIfAvailable();
+        if (source == null) {
+            return;
+        }
+        try {
+            ReferenceDataDelta delta = version < 0 ? null : source.loadChanges(version);
+            if (delta == null) {
+                replace(source.loadAll());
+                log.info("Loaded reference data version {} from source", version);
+            } else if (delta.version() > version) {
+                apply(delta);
+            } else {
+                return;
+            }
+            writeSnapshot();
+        } catch (Exception e) {
+            refreshFailures.increment();
+            log.warn("Failed to refresh reference data, keeping version {}: {}", version, e.getMessage());
+        }
+    }
+
+    /**
+     * Whether any reference data has been loaded, from the snapshot file or the source.
+     */
+    public boolean isLoaded() {
+        return version >= 0;
+    }
+
+    public long getVersion() {
+        return version;
+    }
+
+    public Optional<Counterparty> findCounterparty(String id) {
+        return id == null ? Optional.empty() : Optional.ofNullable(indexes.counterpartiesById.get(id));
+    }
+
+    public Optional<Counterparty> findCounterpartyByLei(String lei) {
+        return lei == null ? Optional.empty() : Optional.ofNullable(indexes.counterpartiesByLei.get(lei));
+    }
+
+    public Optional<Instrument> findInstrument(String id) {
+        return id == null ? Optional.empty() : Optional.ofNullable(indexes.instrumentsById.get(id));
+    }
+
+    public Optional<Instrument> findInstrumentBySymbol(String symbol) {
+        return symbol == null ? Optional.empty() : Optional.ofNullable(indexes.instrumentsBySymbol.get(symbol));
+    }
+
+    /**
+     * Replaces all data with a snapshot.
+     */
+    public void replace(ReferenceDataSnapshot snapshot) {
+        Indexes replacement = new Indexes();
+        snapshot.counterparties().forEach(replacement::put);
+        snapshot.instruments().forEach(replacement::put);
+        synchronized (updateLock) {
+            indexes = replacement;
+            version = snapshot.version();
+        }
+    }
+
+    /**
+     * Applies changes on top of the current data.
+     */
+    public void apply(ReferenceDataDelta delta) {
+        synchronized (updateLock) {
+            Indexes current = indexes;
+            nullSafe(delta.removedCounterpartyIds()).forEach(current::removeCounterparty);
+            nullSafe(delta.removedInstrumentIds()).forEach(current::removeInstrument);
+            nullSafe(delta.counterparties()).forEach(current::put);
+            nullSafe(delta.instruments()).forEach(current::put);
+            version = delta.version();
+        }
+    }
+
+    private void writeSnapshot() throws IOException {
+        synchronized (updateLock) {
+            snapshotFile.write(version, indexes.counterpartiesById.values(), indexes.instrumentsById.values());
+        }
+    }
+
+    private static <T> List<T> nullSafe(List<T> list) {
+        return list != null ? list : List.of();
+    }
+
+    private static final class Indexes {
+        private final Map<String, Counterparty> counterpartiesById = new ConcurrentHashMap<>();
+        private final Map<String, Counterparty> counterpartiesByLei = new ConcurrentHashMap<>();
+        private final Map<String, Instrument> instrumentsById = new ConcurrentHashMap<>();
+        private final Map<String, Instrument> instrumentsBySymbol = new ConcurrentHashMap<>();
+
+        // The new entry goes in before the previous one's secondary key is dropped, so concurrent
+        // lookups of an updated entry never miss
+        private void put(Counterparty counterparty) {
+            Counterparty previous = counterpartiesById.put(counterparty.getId(), counterparty);
+            if (counterparty.getLei() != null) {
+                counterpartiesByLei.put(counterparty.getLei(), counterparty);
+            }
+            if (previous != null && previous.getLei() != null && !previous.getLei().equals(counterparty.getLei())) {
+                counterpartiesByLei.remove(previous.getLei(), previous);
+            }
+        }
+
+        private void put(Instrument instrument) {
+            Instrument previous = instrumentsById.put(instrument.getId(), instrument);
+            if (instrument.getSymbol() != null) {
+                instrumentsBySymbol.put(instrument.getSymbol(), instrument);
+            }
+            if (previous != null && previous.getSymbol() != null && !previous.getSymbol().equals(instrument.getSymbol())) {
+                instrumentsBySymbol.remove(previous.getSymbol(), previous);
+            }
+        }
+
+        private void removeCounterparty(String id) {
+            Counterparty previous = counterpartiesById.remove(id);
+            if (previous != null && previous.getLei() != null) {
+                counterpartiesByLei.remove(previous.getLei(), previous);
+            }
+        }
+
+        private void removeInstrument(String id) {
+            Instrument previous = instrumentsById.remove(id);
+            if (previous != null && previous.getSymbol() != null) {
+                instrumentsBySymbol.remove(previous.getSymbol(), previous);
+            }
+        }
+    }
+}
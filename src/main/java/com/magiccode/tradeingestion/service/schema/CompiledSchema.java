@@ -0,0 +1,231 @@
+package com.magiccode.tradeingestion.service.schema;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.magiccode.tradeingestion.config.SchemaGateProperties.FieldType;
+import com.magiccode.tradeingestion.config.SchemaGateProperties.Schema;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * One schema version compiled for checking a payload on the parser's token stream.
+ *
+ * Rules are indexed by field path, required fields and their ancestors by their parent path, and
+ * only objects and arrays on the way to a rule are descended into; everything else is skipped
+ * without being materialized.
+ */
+final class CompiledSchema {
+    private static final String[] NONE = new String[0];
+
+    private final String version;
+    private final Map<String, FieldType> types;
+    private final Map<String, Set<String>> allowedValues;
+    private final Map<String, List<String>> allowedValueLists;
+    private final Map<String, String[]> requiredByParent;
+    private final Set<String> descend;
+    private final int maxDepth;
+    private final int maxViolations;
+
+    CompiledSchema(String version, Schema schema, int maxDepth, int maxViolations) {
+        this.version = version;
+        this.types = Map.copyOf(schema.getTypes());
+        Map<String, Set<String>> allowed = new HashMap<>();
+        schema.getAllowedValues().forEach((path, values) -> allowed.put(path, Set.copyOf(values)));
+        this.allowedValues = allowed;
+        this.allowedValueLists = Map.copyOf(schema.getAllowedValues());
+
+        // A required field's ancestors are required too, otherwise leaving out the parent object
+        // would skip the check; an array ancestor is required to be present, not non-empty
+        Map<String, Set<String>> required = new LinkedHashMap<>();
+        for (String path : schema.getRequired()) {
+            String child = path;
+            while (true) {
+                int dot = child.lastIndexOf('.');
+                String parent = dot < 0 ? "" : child.substring(0, dot);
+                String name = child.substring(dot + 1);
+                if (name.endsWith("[]")) {
+                    name = name.substring(0, name.length() - 2);
+                }
+                required.computeIfAbsent(parent, p -> new LinkedHashSet<>()).add(name);
+                if (dot < 0) {
+                    break;
+                }
+                child = parent;
+            }
+        }
+        Map<String, String[]> requiredArrays = new HashMap<>();
+        required.forEach((parent, names) -> requiredArrays.put(parent, names.toArray(NONE)));
+        this.requiredByParent = requiredArrays;
+
+        Set<String> parents = new HashSet<>();
+        for (String path : concat(schema.getRequired(), types.keySet(), allowedValues.keySet())) {
+            addParents(path, parents);
+        }
+        this.descend = parents;
+        this.maxDepth = maxDepth;
+        this.maxViolations = maxViolations;
+    }
+
+    String version() {
+        return version;
+    }
+
+    /**
+     * Checks a payload positioned before its first token.
+     *
+     * @return The violations found, empty if the payload conforms
+     */
+    List<String> check(JsonParser parser) throws IOException {
+        List<String> violations = new ArrayList<>(0);
+        if (parser.nextToken() != JsonToken.START_OBJECT) {
+            violations.add("payload is not a JSON object");
+            return violations;
+        }
+        walkObject(parser, "", 1, violations);
+        if (violations.size() < maxViolations && parser.nextToken() != null) {
+            violations.add("unexpected content after the payload");
+        }
+        return violations;
+    }
+
+    private void walkObject(JsonParser parser, String prefix, int depth, List<String> violations) throws IOException {
+        if (depth > maxDepth) {
+            throw new TooDeepException();
+        }
+        String[] required = requiredByParent.getOrDefault(prefix, NONE);
+        boolean[] seen = required.length > 0 ? new boolean[required.length] : null;
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String name = parser.currentName();
+            String path = prefix.isEmpty() ? name : prefix + '.' + name;
+            JsonToken value = parser.nextToken();
+            if (seen != null && value != JsonToken.VALUE_NULL) {
+                for (int i = 0; i < required.length; i++) {
+                    if (required[i].equals(name)) {
+                        seen[i] = true;
+                    }
+                }
+            }
+            checkValue(parser, path, value, violations);
+            walkValue(parser, path, value, depth, violations);
+            if (violations.size() >= maxViolations) {
+                return;
+            }
+        }
+        for (int i = 0; i < required.length; i++) {
+            if (!seen[i]) {
+                violations.add((prefix.isEmpty() ? "" : prefix + '.') + required[i] + " is required");
+            }
+        }
+    }
+
+    private void walkValue(JsonParser parser, String path, JsonToken value, int depth, List<String> violations) throws IOException {
+        if (value == JsonToken.START_OBJECT) {
+            if (descend.contains(path)) {
+                walkObject(parser, path, depth + 1, violations);
+            } else {
+                parser.skipChildren();
+            }
+        } else if (value == JsonToken.START_ARRAY) {
+            String elementPath = path + "[]";
+            if (!descend.contains(path) && !descend.contains(elementPath)) {
+                parser.skipChildren();
+                return;
+            }
+            JsonToken element;
+            while ((element = parser.nextToken()) != JsonToken.END_ARRAY) {
+                checkValue(parser, elementPath, element, violations);
+                walkValue(parser, elementPath, element, depth + 1, violations);
+                if (violations.size() >= maxViolations) {
+                    return;
+                }
+            }
+        }
+    }
+
+    private void checkValue(JsonParser parser, String path, JsonToken value, List<String> violations) throws IOException {
+        FieldType type = types.get(path);
+        if (type != null && value != JsonToken.VALUE_NULL && !matches(type, value, parser)) {
+            violations.add(path + " must be " + type);
+            return;
+        }
+        Set<String> allowed = allowedValues.get(path);
+        if (allowed != null && value == JsonToken.VALUE_STRING && !allowed.contains(parser.getText())) {
+            violations.add(path + " must be one of " + allowedValueLists.get(path));
+        }
+    }
+
+    private static boolean matches(FieldType type, JsonToken value, JsonParser parser) throws IOException {
+        return switch (type) {
+            case STRING -> value == JsonToken.VALUE_STRING;
+            case NUMBER -> value == JsonToken.VALUE_NUMBER_INT || value == JsonToken.VALUE_NUMBER_FLOAT;
+            case INTEGER -> value == JsonToken.VALUE_NUMBER_INT;
+            case BOOLEAN -> value == JsonToken.VALUE_TRUE || value == JsonToken.VALUE_FALSE;
+            case OBJECT -> value == JsonToken.START_OBJECT;
+            case ARRAY -> value == JsonToken.START_ARRAY;
+            case DATE -> value == JsonToken.VALUE_STRING && isIsoDate(parser);
+        };
+    }
+
+    // yyyy-MM-dd, read from the parser's buffer without creating a String
+    private static boolean isIsoDate(JsonParser parser) throws IOException {
+        if (parser.getTextLength() != 10) {
+            return false;
+        }
+        char[] text = parser.getTextCharacters();
+        int offset = parser.getTextOffset();
+        for (int i = 0; i < 10; i++) {
+            char c = text[offset + i];
+            boolean ok = (i == 4 || i == 7) ? c == '-' : c >= '0' && c <= '9';
+            if (!ok) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static void addParents(String path, Set<String> parents) {
+        int end = path.length();
+        while (true) {
+            int dot = path.lastIndexOf('.', end - 1);
+            if (dot < 0) {
+                break;
+            }
+            String parent = path.substring(0, dot);
+            parents.add(parent);
+            if (parent.endsWith("[]")) {
+                parents.add(parent.substring(0, parent.length() - 2));
+            }
+            end = dot;
+        }
+        if (path.endsWith("[]")) {
+            parents.add(path.substring(0, path.length() - 2));
+        }
+    }
+
+    @SafeVarargs
+    private static List<String> concat(Collection<String>... collections) {
+        List<String> all = new ArrayList<>();
+        for (Collection<String> collection : collections) {
+            all.addAll(collection);
+        }
+        return all;
+    }
+
+    /**
+     * Signals a payload nested deeper than the schema allows.
+     */
+    static final class TooDeepException extends RuntimeException {
+        TooDeepException() {
+            super(null, null, false, false);
+        }
+    }
+}
@@ -0,0 +1,145 @@
+package com.magiccode.tradeingestion.service.schema;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.magiccode.tradeingestion.config.SchemaGateProperties;
+import com.magiccode.tradeingestion.config.SchemaGateProperties.Schema;
+import com.magiccode.tradeingestion.exception.DealProcessingException;
+import com.magiccode.tradeingestion.exception.PayloadRejectedException;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Checks raw deal payloads against the schemas of {@code deal.schema-gate} before they are bound.
+ *
+ * The payload is read twice on the token stream: a first pass finds
+ * {@code messageHeader.schemaVersion}, skipping every other subtree, and a second pass runs the
+ * schema of that version, compiled on first use and cached. No tree or deal object is built, so
+ * a malformed or non-conforming message costs a scan rather than a full bind and is rejected
+ * with {@link PayloadRejectedException} before any further processing.
+ *
+ * Rejections are counted as {@code deal.schema.gate.rejected} by schema version and reason; the
+ * time spent per payload is recorded as {@code deal.schema.gate.time}.
+ */
+@Component
+@Slf4j
+public class PayloadSchemaGate {
+    private static final String HEADER = "messageHeader";
+    private static final String VERSION = "schemaVersion";
+
+    private final SchemaGateProperties properties;
+    private final JsonFactory jsonFactory;
+    private final MeterRegistry meterRegistry;
+    private final Timer timer;
+    private final Map<String, CompiledSchema> compiledSchemas = new ConcurrentHashMap<>();
+
+    public PayloadSchemaGate(SchemaGateProperties properties, ObjectMapper objectMapper, MeterRegistry meterRegistry) {
+        properties.validate();
+        this.properties = properties;
+        this.jsonFactory = objectMapper.getFactory();
+        this.meterRegistry = meterRegistry;
+        this.timer = Timer.builder("deal.schema.gate.time")
+            .description("Time taken to check a raw payload against its schema")
+            .register(meterRegistry);
+        if (properties.isEnabled()) {
+            // Compile the default eagerly so configuration errors fail startup rather than the first message
+            compiled(properties.getDefaultVersion());
+        }
+    }
+
+    public boolean isEnabled() {
+        return properties.isEnabled();
+    }
+
+    /**
+     * Checks a raw payload; does nothing while the gate is disabled.
+     *
+     * @param payload The raw JSON payload
+     * @throws PayloadRejectedException If the payload is malformed or does not conform to its schema
+     */
+    public void check(String payload) {
+        if (!properties.isEnabled()) {
+            return;
+        }
+        long start = System.nanoTime();
+        String version = properties.getDefaultVersion();
+        try {
+            version = schemaVersion(payload);
+            CompiledSchema schema = compiled(version);
+            List<String> violations;
+            try (JsonParser parser = jsonFactory.createParser(payload)) {
+                violations = schema.check(parser);
+            }
+            if (!violations.isEmpty()) {
+                throw reject(version, "schema", violations);
+            }
+        } catch (CompiledSchema.TooDeepException e) {
+            throw reject(version, "depth", List.of("payload is nested deeper than " + properties.getMaxDepth()));
+        } catch (JsonProcessingException e) {
+            throw reject(version, "malformed", List.of("malformed JSON: " + e.getOriginalMessage()));
+        } catch (IOException e) {
+            throw new DealProcessingException("Failed to read payload for schema check", e);
+        } finally {
+            timer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    private String schemaVersion(String payload) throws IOException {
+        try (JsonParser parser = jsonFactory.createParser(payload)) {
+            if (parser.nextToken() != JsonToken.START_OBJECT) {
+                return properties.getDefaultVersion();
+            }
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                boolean header = HEADER.equals(parser.currentName());
+                if (parser.nextToken() == JsonToken.START_OBJECT && header) {
+                    while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                        boolean version = VERSION.equals(parser.currentName());
+                        if (parser.nextToken() == JsonToken.VALUE_STRING && version) {
+                            return parser.getText();
+                        }
+                        parser.skipChildren();
+                    }
+                    return properties.getDefaultVersion();
+                }
+                parser.skipChildren();
+            }
+        }
+        return properties.getDefaultVersion();
+    }
+
+    private CompiledSchema compiled(String version) {
+        CompiledSchema schema = compiledSchemas.get(version);
+        if (schema != null) {
+            return schema;
+        }
+        Schema configured = properties.getVersions().get(version);
+        if (configured == null) {
+            if (properties.isRejectUnknownVersions()) {
+                throw reject(version, "unknown-version", List.of("no schema for version " + version));
+            }
+            // Unknown versions share the default schema rather than each compiling a copy of it
+            return compiled(properties.getDefaultVersion());
+        }
+        return compiledSchemas.computeIfAbsent(version, v ->
+            new CompiledSchema(v, configured, properties.getMaxDepth(), properties.getMaxViolations()));
+    }
+
+    private PayloadRejectedException reject(String version, String reason, List<String> violations) {
+        // Versions come from the payload, so only configured ones become tag values
+        String versionTag = properties.getVersions().containsKey(version) ? version : "unknown";
+        meterRegistry.counter("deal.schema.gate.rejected", "version", versionTag, "reason", reason).increment();
+        log.debug("Rejected payload with schema version {}: {}", version, violations);
+        return new PayloadRejectedException(version, violations);
+    }
+}
@@ -4,4 +4,15 @@
 
 public interface DealTransformationService<T extends Deal> {
     T transform(T deal);
-} 
\ No newline at end of file
+
+    /**
+     * Transforms a deal whose version may have been transformed before, as a replay does.
+     */
+    T retransform(T deal);
+
+    /**
+     * Forgets that a deal's version was transformed, after the caller failed to keep the result
+     * outside a transaction. Within a transaction a rollback does this on its own.
+     */
+    void release(T deal);
+}
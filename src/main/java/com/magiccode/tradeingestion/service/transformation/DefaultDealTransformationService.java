@@ -1,37 +1,98 @@
 package com.magiccode.tradeingestion.service.transformation;
 
+import com.magiccode.tradeingestion.exception.DealProcessingException;
 import com.magiccode.tradeingestion.model.Deal;
+import com.magiccode.tradeingestion.service.dedup.IdempotencyStore;
 import io.micrometer.core.annotation.Timed;
-import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
-import java.util.concurrent.ConcurrentHashMap;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
+/**
+ * Transforms deals in process with the compiled rules of the {@link TransformationRuleEngine}.
+ *
+ * Deals pass through unchanged while {@code deal.transformation.rules.enabled} is false. Each
+ * deal version is transformed once; a repeat is recognised through the {@link IdempotencyStore}
+ * and rejected. The record is released when the rules fail, when the enclosing transaction does
+ * not commit, or through {@link #release(Deal)}, so a retried version is transformed again.
+ * Replays use {@link #retransform(Deal)}, which does not consult the record.
+ */
 @Service
-@RequiredArgsConstructor
 @Slf4j
 public class DefaultDealTransformationService<T extends Deal> implements DealTransformationService<T> {
 
-    private final ConcurrentHashMap<String, Boolean> transformedDeals = new ConcurrentHashMap<>();
+    static final String STEP = "transformation";
+
+    private final TransformationRuleEngine ruleEngine;
+    private final IdempotencyStore idempotencyStore;
+
+    /**
+     * Creates a service that passes deals through unchanged.
+     */
+    public DefaultDealTransformationService() {
+        this(null, IdempotencyStore.inMemory());
+    }
+
+    @Autowired
+    public DefaultDealTransformationService(TransformationRuleEngine ruleEngine, IdempotencyStore idempotencyStore) {
+        this.ruleEngine = ruleEngine;
+        this.idempotencyStore = idempotencyStore;
+    }
 
     @Override
     @Timed(value = "deal.transformation.time", description = "Time taken to transform a deal")
     public T transform(T deal) {
         String dealId = deal.getDealId();
-        
-        // Check if deal was already transformed
-        if (transformedDeals.putIfAbsent(dealId, true) != null) {
-            log.debug("Deal {} was already transformed, skipping", dealId);
-            return deal;
+        Long version = deal.getVersion();
+
+        // A version transformed and kept before is a redelivery, never something to pass on as output
+        if (!idempotencyStore.markProcessed(STEP, dealId, version)) {
+            throw new DealProcessingException("Deal " + dealId + " version " + version + " was already transformed");
         }
-        
-        log.info("Transforming deal: {}", dealId);
-        
-        // In a real application, this would contain complex transformation logic
-        // For now, we'll just return the deal as is
-        
-        log.info("Deal transformation completed: {}", dealId);
-        
+        releaseOnRollback(dealId, version);
+
+        try {
+            return apply(deal);
+        } catch (RuntimeException e) {
+            idempotencyStore.forget(STEP, dealId, version);
+            throw e;
+        }
+    }
+
+    @Override
+    @Timed(value = "deal.transformation.time", description = "Time taken to transform a deal")
+    public T retransform(T deal) {
+        return apply(deal);
+    }
+
+    @Override
+    public void release(T deal) {
+        idempotencyStore.forget(STEP, deal.getDealId(), deal.getVersion());
+    }
+
+    private T apply(T deal) {
+        log.info("Transforming deal: {}", deal.getDealId());
+        if (ruleEngine != null && ruleEngine.isEnabled()) {
+            ruleEngine.apply(deal);
+        }
+        log.info("Deal transformation completed: {}", deal.getDealId());
         return deal;
     }
-} 
\ No newline at end of file
+
+    // A transaction that does not commit did not keep the transformed deal, so a retry must transform it again
+    private void releaseOnRollback(String dealId, Long version) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                if (status != STATUS_COMMITTED) {
+                    idempotencyStore.forget(STEP, dealId, version);
+                }
+            }
+        });
+    }
+}
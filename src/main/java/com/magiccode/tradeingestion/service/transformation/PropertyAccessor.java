@@ -0,0 +1,142 @@
+package com.magiccode.tradeingestion.service.transformation;
+
+import org.springframework.beans.BeanUtils;
+
+import java.beans.PropertyDescriptor;
+import java.lang.invoke.LambdaMetafactory;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Method;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+
+/**
+ * Getter and setter of a bean property path, compiled into lambdas that call the accessor
+ * methods directly.
+ *
+ * The accessors are resolved by reflection once and bound through {@link LambdaMetafactory}, so
+ * reading or writing a property costs an interface call, not a reflective one. Intermediate
+ * null values along a path read as null, and writes through them are skipped.
+ */
+final class PropertyAccessor {
+    private static final MethodHandles.Lookup LOOKUP = MethodHandles.lookup();
+
+    private final String path;
+    private final Class<?> type;
+    private final Function<Object, Object> getter;
+    private final Function<Object, Object> parentGetter;
+    private final BiConsumer<Object, Object> setter;
+
+    private PropertyAccessor(String path, Class<?> type, Function<Object, Object> getter,
+                             Function<Object, Object> parentGetter, BiConsumer<Object, Object> setter) {
+        this.path = path;
+        this.type = type;
+        this.getter = getter;
+        this.parentGetter = parentGetter;
+        this.setter = setter;
+    }
+
+    /**
+     * Compiles the accessors of a property path.
+     *
+     * @param beanClass The class the path starts from
+     * @param path The dotted property path
+     * @return The accessor, or null if the class has no such readable property
+     * @throws IllegalStateException if the accessors cannot be bound
+     */
+    static PropertyAccessor compile(Class<?> beanClass, String path) {
+        String[] segments = path.split("\\.");
+        // Null while the path has no parent segments
+        Function<Object, Object> parentGetter = null;
+        Class<?> current = beanClass;
+        for (int i = 0; i < segments.length - 1; i++) {
+            PropertyDescriptor descriptor = BeanUtils.getPropertyDescriptor(current, segments[i]);
+            if (descriptor == null || descriptor.getReadMethod() == null) {
+                return null;
+            }
+            parentGetter = nullSafe(parentGetter, getter(descriptor.getReadMethod()));
+            current = descriptor.getPropertyType();
+        }
+        PropertyDescriptor descriptor = BeanUtils.getPropertyDescriptor(current, segments[segments.length - 1]);
+        if (descriptor == null || descriptor.getReadMethod() == null) {
+            return null;
+        }
+        Function<Object, Object> getter = nullSafe(parentGetter, getter(descriptor.getReadMethod()));
+        BiConsumer<Object, Object> setter = descriptor.getWriteMethod() != null ? setter(descriptor.getWriteMethod()) : null;
+        return new PropertyAccessor(path, descriptor.getPropertyType(), getter, parentGetter, setter);
+    }
+
+    String path() {
+        return path;
+    }
+
+    Class<?> type() {
+        return type;
+    }
+
+    boolean isWritable() {
+        return setter != null;
+    }
+
+    Object get(Object bean) {
+        return getter.apply(bean);
+    }
+
+    void set(Object bean, Object value) {
+        Object parent = parentGetter != null ? parentGetter.apply(bean) : bean;
+        if (parent != null) {
+            setter.accept(parent, value);
+        }
+    }
+
+    private static Function<Object, Object> nullSafe(Function<Object, Object> first, Function<Object, Object> second) {
+        if (first == null) {
+            return second;
+        }
+        return bean -> {
+            Object intermediate = first.apply(bean);
+            return intermediate != null ? second.apply(intermediate) : null;
+        };
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Function<Object, Object> getter(Method method) {
+        try {
+            MethodHandle handle = LOOKUP.unreflect(method);
+            return (Function<Object, Object>) LambdaMetafactory.metafactory(
+                    LOOKUP,
+                    "apply",
+                    MethodType.methodType(Function.class),
+                    MethodType.methodType(Object.class, Object.class),
+                    handle,
+                    MethodType.methodType(wrap(method.getReturnType()), method.getDeclaringClass()))
+                .getTarget()
+                .invokeExact();
+        } catch (Throwable e) {
+            throw new IllegalStateException("Cannot compile getter " + method, e);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static BiConsumer<Object, Object> setter(Method method) {
+        try {
+            MethodHandle handle = LOOKUP.unreflect(method);
+            return (BiConsumer<Object, Object>) LambdaMetafactory.metafactory(
+                    LOOKUP,
+                    "accept",
+                    MethodType.methodType(BiConsumer.class),
+                    MethodType.methodType(void.class, Object.class, Object.class),
+                    handle,
+                    MethodType.methodType(void.class, method.getDeclaringClass(), wrap(method.getParameterTypes()[0])))
+                .getTarget()
+                .invokeExact();
+        } catch (Throwable e) {
+            throw new IllegalStateException("Cannot compile setter " + method, e);
+        }
+    }
+
+    private static Class<?> wrap(Class<?> type) {
+        return type.isPrimitive() ? MethodType.methodType(type).wrap().returnType() : type;
+    }
+}
@@ -0,0 +1,208 @@
+package com.magiccode.tradeingestion.service.transformation;
+
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.magiccode.tradeingestion.config.TransformationBatchProperties;
+import com.magiccode.tradeingestion.exception.DealProcessingException;
+import com.magiccode.tradeingestion.model.Deal;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Mono;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Coalesces concurrent calls to the remote transformation service into list requests.
+ *
+ * A submitted deal waits for at most {@code linger}; the batch is sent as soon as
+ * {@code max-batch-size} deals are queued or the linger expires, whichever comes first. The
+ * service answers with the transformed deals in request order, and each one completes its
+ * caller's future. If a batch fails, its deals are sent one by one to the single-deal endpoint
+ * when {@code fallback-to-single} is set, otherwise their futures fail.
+ *
+ * Requests are non-blocking, so the single flush thread never waits on the service.
+ */
+@Component
+@Slf4j
+public class TransformationBatcher {
+    private final WebClient webClient;
+    private final ObjectMapper objectMapper;
+    private final TransformationBatchProperties properties;
+    private final String singleUrl;
+    private final Queue<Pending> queue = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger queued = new AtomicInteger();
+    private final AtomicBoolean flushScheduled = new AtomicBoolean();
+    private final ScheduledExecutorService flusher;
+    private final DistributionSummary batchSizes;
+    private final Timer batchTimer;
+    private final Counter fallbacks;
+
+    public TransformationBatcher(
+            @Qualifier("transformationWebClient") WebClient webClient,
+            ObjectMapper objectMapper,
+            TransformationBatchProperties properties,
+            MeterRegistry meterRegistry,
+            @Value("${deal.transformation.service.url:http://localhost:8082/api/transform}") String singleUrl) {
+        properties.validate();
+        this.webClient = webClient;
+        this.objectMapper = objectMapper;
+        this.properties = properties;
+        this.singleUrl = singleUrl;
+        this.flusher = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "deal-transformation-batcher");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.batchSizes = DistributionSummary.builder("deal.transformation.batch.size")
+            .description("Number of deals sent per transformation batch")
+            .register(meterRegistry);
+        this.batchTimer = Timer.builder("deal.transformation.batch.time")
+            .description("Time taken by one transformation batch request")
+            .publishPercentiles(0.5, 0.99)
+            .register(meterRegistry);
+        this.fallbacks = Counter.builder("deal.transformation.batch.fallbacks")
+            .description("Number of failed transformation batches retried as single calls")
+            .register(meterRegistry);
+    }
+
+    public boolean isEnabled() {
+        return properties.isEnabled();
+    }
+
+    /**
+     * Queues a deal for the next transformation batch.
+     *
+     * @param deal The deal to transform
+     * @return Completes with the transformed deal, or exceptionally with a DealProcessingException
+     */
+    public CompletableFuture<Deal> submit(Deal deal) {
+        Pending pending = new Pending(deal, new CompletableFuture<>());
+        queue.add(pending);
+        if (queued.incrementAndGet() >= properties.getMaxBatchSize()) {
+            flusher.execute(this::flush);
+        } else if (flushScheduled.compareAndSet(false, true)) {
+            flusher.schedule(this::lingerExpired, properties.getLinger().toNanos(), TimeUnit.NANOSECONDS);
+        }
+        return pending.result();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        flusher.shutdownNow();
+        Pending pending;
+        while ((pending = queue.poll()) != null) {
+            pending.result().completeExceptionally(new DealProcessingException("Transformation batcher shut down"));
+        }
+    }
+
+    private void lingerExpired() {
+        // Cleared before draining so a deal queued after the drain schedules its own flush
+        flushScheduled.set(false);
+        flush();
+    }
+
+    private void flush() {
+        while (true) {
+            List<Pending> batch = new ArrayList<>(Math.min(queued.get(), properties.getMaxBatchSize()));
+            Pending pending;
+            while (batch.size() < properties.getMaxBatchSize() && (pending = queue.poll()) != null) {
+                batch.add(pending);
+            }
+            if (batch.isEmpty()) {
+                return;
+            }
+            queued.addAndGet(-batch.size());
+            send(batch);
+            if (queued.get() < properties.getMaxBatchSize()) {
+                return;
+            }
+        }
+    }
+
+    private void send(List<Pending> batch) {
+        batchSizes.record(batch.size());
+        List<Deal> deals = new ArrayList<>(batch.size());
+        for (Pending pending : batch) {
+            deals.add(pending.deal());
+        }
+        long start = System.nanoTime();
+        webClient.post()
+            .uri(properties.getUrl())
+            .bodyValue(deals)
+            .retrieve()
+            .bodyToMono(JsonNode.class)
+            .switchIfEmpty(Mono.error(() -> new DealProcessingException("Transformation batch returned no body")))
+            .timeout(properties.getRequestTimeout())
+            .subscribe(
+                response -> {
+                    batchTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+                    route(batch, response);
+                },
+                error -> fail(batch, error));
+    }
+
+    private void route(List<Pending> batch, JsonNode response) {
+        if (response == null || !response.isArray() || response.size() != batch.size()) {
+            fail(batch, new DealProcessingException("Transformation batch returned "
+                + (response != null && response.isArray() ? response.size() : 0) + " deals for " + batch.size()));
+            return;
+        }
+        for (int i = 0; i < batch.size(); i++) {
+            Pending pending = batch.get(i);
+            try {
+                Deal transformed = objectMapper.readerFor(pending.deal().getClass())
+                    .without(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES)
+                    .readValue(response.get(i));
+                pending.result().complete(transformed);
+            } catch (Exception e) {
+                pending.result().completeExceptionally(
+                    new DealProcessingException("Failed to read transformed deal: " + pending.deal().getDealId(), e));
+            }
+        }
+    }
+
+    private void fail(List<Pending> batch, Throwable error) {
+        if (!properties.isFallbackToSingle()) {
+            log.warn("Transformation batch of {} deals failed: {}", batch.size(), error.getMessage());
+            DealProcessingException failure = new DealProcessingException("Deal transformation batch failed", error);
+            batch.forEach(pending -> pending.result().completeExceptionally(failure));
+            return;
+        }
+        fallbacks.increment();
+        log.warn("Transformation batch of {} deals failed, transforming them one by one: {}", batch.size(), error.getMessage());
+        for (Pending pending : batch) {
+            webClient.post()
+                .uri(singleUrl)
+                .bodyValue(pending.deal())
+                .retrieve()
+                .bodyToMono(pending.deal().getClass())
+                .switchIfEmpty(Mono.error(() -> new DealProcessingException("Transformation returned no body")))
+                .timeout(properties.getRequestTimeout())
+                .subscribe(
+                    transformed -> pending.result().complete(transformed),
+                    e -> pending.result().completeExceptionally(
+                        new DealProcessingException("Deal transformation failed: " + pending.deal().getDealId(), e)));
+        }
+    }
+
+    private record Pending(Deal deal, CompletableFuture<Deal> result) {
+    }
+}
@@ -0,0 +1,214 @@
+package com.magiccode.tradeingestion.service.transformation;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.MapperFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.magiccode.tradeingestion.config.TransformationMemoProperties;
+import com.magiccode.tradeingestion.config.TransformationMemoProperties.HashAlgorithm;
+import com.magiccode.tradeingestion.exception.DealProcessingException;
+import com.magiccode.tradeingestion.model.Deal;
+import com.magiccode.tradeingestion.service.RedisService;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import net.jpountz.xxhash.XXHash64;
+import net.jpountz.xxhash.XXHashFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.stereotype.Component;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.function.Function;
+
+/**
+ * Memoizes transformation results by the content of the deal.
+ *
+ * A deal is serialized to canonical JSON, with properties and map entries sorted, and hashed
+ * with xxHash64 or SHA-256. The transformed deal is kept as JSON under that hash in a
+ * size- and TTL-bounded Caffeine cache and, with {@code redis-enabled}, in Redis for other
+ * instances. A repeated payload is answered by deserializing the stored result, so every caller
+ * gets its own instance and the transformation is not run again.
+ *
+ * Hits, misses and hit ratio of the local cache are published as {@code cache.*} with
+ * {@code cache=transformationMemo}; calls saved are counted as {@code deal.transformation.memo.saved}
+ * per path that produced the stored result, which is kept in front of the JSON as
+ * {@code <path>\n}.
+ */
+@Component
+@Slf4j
+public class TransformationMemo {
+    private static final XXHash64 XXH64 = XXHashFactory.fastestInstance().hash64();
+    private static final HexFormat HEX = HexFormat.of();
+    private static final byte PATH_SEPARATOR = '\n';
+    // Results stored by earlier versions are bare JSON and do not say which path produced them
+    private static final String UNKNOWN_PATH = "unknown";
+
+    private final TransformationMemoProperties properties;
+    private final ObjectMapper objectMapper;
+    private final ObjectMapper canonicalMapper;
+    private final ObjectProvider<RedisService> redisServiceProvider;
+    private final Cache<String, byte[]> results;
+    private final MeterRegistry meterRegistry;
+    private final Counter redisHits;
+
+    public TransformationMemo(TransformationMemoProperties properties,
+                              ObjectMapper objectMapper,
+                              ObjectProvider<RedisService> redisServiceProvider,
+                              MeterRegistry meterRegistry) {
+        properties.validate();
+        this.properties = properties;
+        this.objectMapper = objectMapper;
+        this.canonicalMapper = JsonMapper.builder()
+            .findAndAddModules()
+            .enable(MapperFeature.SORT_PROPERTIES_ALPHABETICALLY)
+            .enable(SerializationFeature.ORDER_MAP_ENTRIES_BY_KEYS)
+            .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+            .build();
+        this.redisServiceProvider = redisServiceProvider;
+        this.meterRegistry = meterRegistry;
+        this.results = Caffeine.newBuilder()
+            .maximumSize(properties.getMaximumSize())
+            .expireAfterWrite(properties.getTtl())
+            .recordStats()
+            .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, results, "transformationMemo");
+        this.redisHits = Counter.builder("deal.transformation.memo.redis.hits")
+            .description("Number of transformation results found in Redis after a local miss")
+            .register(meterRegistry);
+    }
+
+    public boolean isEnabled() {
+        return properties.isEnabled();
+    }
+
+    /**
+     * Returns the memoized result for a deal's content, transforming and storing it on a miss.
+     *
+     * @param deal The deal to transform
+     * @param transformer Transforms the deal on a miss and reports the path that did it
+     * @return The transformed deal
+     */
+    public Deal transform(Deal deal, Function<Deal, Transformed> transformer) {
+        if (!properties.isEnabled()) {
+            return transformer.apply(deal).deal();
+        }
+        String key = key(deal);
+        byte[] stored = results.getIfPresent(key);
+        if (stored == null) {
+            stored = fromRedis(key);
+            if (stored != null) {
+                redisHits.increment();
+                results.put(key, stored);
+            }
+        }
+        if (stored != null) {
+            int separator = stored[0] == '{' ? -1 : indexOf(stored, PATH_SEPARATOR);
+            String path = separator < 0 ? UNKNOWN_PATH : new String(stored, 0, separator, StandardCharsets.UTF_8);
+            meterRegistry.counter("deal.transformation.memo.saved", "path", path).increment();
+            return read(deal, stored, separator + 1);
+        }
+
+        Transformed transformed = transformer.apply(deal);
+        byte[] result = write(transformed);
+        results.put(key, result);
+        toRedis(key, result);
+        return transformed.deal();
+    }
+
+    private String key(Deal deal) {
+        byte[] canonical;
+        try {
+            canonical = canonicalMapper.writeValueAsBytes(deal);
+        } catch (JsonProcessingException e) {
+            throw new DealProcessingException("Failed to serialize deal for memoization: " + deal.getDealId(), e);
+        }
+        String hash;
+        if (properties.getHash() == HashAlgorithm.SHA_256) {
+            try {
+                hash = HEX.formatHex(MessageDigest.getInstance("SHA-256").digest(canonical));
+            } catch (NoSuchAlgorithmException e) {
+                throw new IllegalStateException(e);
+            }
+        } else {
+            hash = HEX.toHexDigits(XXH64.hash(canonical, 0, canonical.length, 0));
+        }
+        // The class is part of the key because the same JSON can describe different deal types
+        return deal.getClass().getSimpleName() + ':' + hash;
+    }
+
+    private Deal read(Deal deal, byte[] stored, int offset) {
+        try {
+            ObjectReader reader = objectMapper.readerFor(deal.getClass())
+                .without(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES);
+            return reader.readValue(stored, offset, stored.length - offset);
+        } catch (Exception e) {
+            throw new DealProcessingException("Failed to read memoized transformation of deal: " + deal.getDealId(), e);
+        }
+    }
+
+    private byte[] write(Transformed transformed) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(512);
+        try {
+            out.write(transformed.path().getBytes(StandardCharsets.UTF_8));
+            out.write(PATH_SEPARATOR);
+            objectMapper.writeValue(out, transformed.deal());
+        } catch (IOException e) {
+            throw new DealProcessingException("Failed to serialize transformed deal: " + transformed.deal().getDealId(), e);
+        }
+        return out.toByteArray();
+    }
+
+    private static int indexOf(byte[] bytes, byte value) {
+        for (int i = 0; i < bytes.length; i++) {
+            if (bytes[i] == value) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private byte[] fromRedis(String key) {
+        RedisService redisService = properties.isRedisEnabled() ? redisServiceProvider.getIfAvailable() : null;
+        if (redisService == null) {
+            return null;
+        }
+        try {
+            return redisService.getBytes(properties.getRedisKeyPrefix() + key);
+        } catch (Exception e) {
+            log.warn("Failed to read memoized transformation {} from Redis: {}", key, e.getMessage());
+            return null;
+        }
+    }
+
+    private void toRedis(String key, byte[] result) {
+        RedisService redisService = properties.isRedisEnabled() ? redisServiceProvider.getIfAvailable() : null;
+        if (redisService == null) {
+            return;
+        }
+        try {
+            redisService.setBytes(properties.getRedisKeyPrefix() + key, result, properties.getTtl());
+        } catch (Exception e) {
+            log.warn("Failed to store memoized transformation {} in Redis: {}", key, e.getMessage());
+        }
+    }
+
+    /**
+     * A transformed deal and the path that transformed it.
+     *
+     * @param deal The transformed deal
+     * @param path The transformation path, such as {@code local} or {@code remote}
+     */
+    public record Transformed(Deal deal, String path) {
+    }
+}
@@ -0,0 +1,207 @@
+package com.magiccode.tradeingestion.service.transformation;
+
+import com.magiccode.tradeingestion.config.TransformationRuleProperties;
+import com.magiccode.tradeingestion.config.TransformationRuleProperties.Rule;
+import com.magiccode.tradeingestion.model.Deal;
+import com.magiccode.tradeingestion.model.FixedIncomeDerivativeDeal;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.convert.ConversionService;
+import org.springframework.core.convert.support.DefaultConversionService;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.function.UnaryOperator;
+
+/**
+ * Applies the transformation rules of {@code deal.transformation.rules} in process.
+ *
+ * Rules are compiled once per deal class: property paths become {@link PropertyAccessor}s bound
+ * to the accessor methods, and constants and mappings are converted to the property types up
+ * front. Transforming a deal then runs a fixed array of compiled rules with no reflection,
+ * parsing or type conversion. Rules naming a property the deal class does not have are left
+ * out for that class.
+ *
+ * The time spent per deal is recorded as {@code deal.transformation.rules.time}.
+ */
+@Component
+@Slf4j
+public class TransformationRuleEngine {
+    private static final ConversionService CONVERSIONS = DefaultConversionService.getSharedInstance();
+
+    private final TransformationRuleProperties properties;
+    private final Timer timer;
+    private final ClassValue<CompiledRule[]> compiledRules = new ClassValue<>() {
+        @Override
+        protected CompiledRule[] computeValue(Class<?> dealClass) {
+            return compile(dealClass);
+        }
+    };
+
+    public TransformationRuleEngine(TransformationRuleProperties properties, MeterRegistry meterRegistry) {
+        properties.validate();
+        this.properties = properties;
+        this.timer = Timer.builder("deal.transformation.rules.time")
+            .description("Time taken to apply the compiled transformation rules to a deal")
+            .publishPercentiles(0.5, 0.99)
+            .register(meterRegistry);
+        if (properties.isEnabled()) {
+            // Compile eagerly so configuration errors fail startup rather than the first deal
+            compiledRules.get(FixedIncomeDerivativeDeal.class);
+        }
+    }
+
+    public boolean isEnabled() {
+        return properties.isEnabled();
+    }
+
+    public boolean isFallbackToRemote() {
+        return properties.isFallbackToRemote();
+    }
+
+    /**
+     * Applies the rules to a deal in place.
+     *
+     * @param deal The deal to transform
+     * @return The same deal instance
+     */
+    public <T extends Deal> T apply(T deal) {
+        long start = System.nanoTime();
+        CompiledRule[] rules = compiledRules.get(deal.getClass());
+        String dealType = deal.getDealType();
+        for (CompiledRule rule : rules) {
+            if (rule.dealTypes().isEmpty() || rule.dealTypes().contains(dealType)) {
+                rule.action().apply(deal);
+            }
+        }
+        timer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        return deal;
+    }
+
+    private CompiledRule[] compile(Class<?> dealClass) {
+        List<CompiledRule> compiled = new ArrayList<>();
+        for (Rule rule : properties.getRules()) {
+            PropertyAccessor field = PropertyAccessor.compile(dealClass, rule.getField());
+            if (field == null) {
+                log.debug("Skipping {} rule on {} for {}, no such property", rule.getKind(), rule.getField(), dealClass.getSimpleName());
+                continue;
+            }
+            if (!field.isWritable()) {
+                throw new IllegalStateException("Transformation rule field is not writable: " + rule.getField());
+            }
+            RuleAction action = switch (rule.getKind()) {
+                case DEFAULT -> defaultValue(field, convert(rule.getValue(), field));
+                case ENRICH -> enrich(field, convert(rule.getValue(), field));
+                case COPY -> copy(field, source(dealClass, rule));
+                case MAP -> map(field, rule.getSource() != null ? source(dealClass, rule) : field, rule.getMapping());
+                case NORMALIZE -> normalize(field, rule);
+            };
+            if (action != null) {
+                compiled.add(new CompiledRule(Set.copyOf(rule.getDealTypes()), action));
+            }
+        }
+        log.info("Compiled {} transformation rule(s) for {}", compiled.size(), dealClass.getSimpleName());
+        return compiled.toArray(new CompiledRule[0]);
+    }
+
+    private static RuleAction defaultValue(PropertyAccessor field, Object value) {
+        return deal -> {
+            if (field.get(deal) == null) {
+                field.set(deal, value);
+            }
+        };
+    }
+
+    private static RuleAction enrich(PropertyAccessor field, Object value) {
+        return deal -> field.set(deal, value);
+    }
+
+    private static RuleAction copy(PropertyAccessor field, PropertyAccessor source) {
+        if (source == null) {
+            return null;
+        }
+        if (!field.type().isAssignableFrom(source.type())) {
+            throw new IllegalStateException("Cannot copy " + source.path() + " into " + field.path() + ": incompatible types");
+        }
+        return deal -> {
+            if (field.get(deal) == null) {
+                field.set(deal, source.get(deal));
+            }
+        };
+    }
+
+    private static RuleAction map(PropertyAccessor field, PropertyAccessor source, Map<String, String> mapping) {
+        if (source == null) {
+            return null;
+        }
+        Map<Object, Object> converted = new HashMap<>(mapping.size() * 2);
+        mapping.forEach((from, to) -> converted.put(convert(from, source), convert(to, field)));
+        return deal -> {
+            Object value = source.get(deal);
+            if (value != null) {
+                Object mapped = converted.get(value);
+                if (mapped != null) {
+                    field.set(deal, mapped);
+                }
+            }
+        };
+    }
+
+    private static RuleAction normalize(PropertyAccessor field, Rule rule) {
+        UnaryOperator<Object> operation = switch (rule.getNormalize()) {
+            case UPPER_CASE -> value -> ((String) value).toUpperCase(Locale.ROOT);
+            case LOWER_CASE -> value -> ((String) value).toLowerCase(Locale.ROOT);
+            case TRIM -> value -> ((String) value).strip();
+            case SCALE -> {
+                int scale = rule.getScale();
+                yield value -> ((BigDecimal) value).setScale(scale, RoundingMode.HALF_EVEN);
+            }
+        };
+        Class<?> expected = rule.getNormalize() == TransformationRuleProperties.Normalization.SCALE ? BigDecimal.class : String.class;
+        if (field.type() != expected) {
+            throw new IllegalStateException("Cannot apply " + rule.getNormalize() + " to " + field.path()
+                + " of type " + field.type().getSimpleName());
+        }
+        return deal -> {
+            Object value = field.get(deal);
+            if (value != null) {
+                field.set(deal, operation.apply(value));
+            }
+        };
+    }
+
+    private static PropertyAccessor source(Class<?> dealClass, Rule rule) {
+        PropertyAccessor source = PropertyAccessor.compile(dealClass, rule.getSource());
+        if (source == null) {
+            log.debug("Skipping {} rule on {} for {}, no source property {}", rule.getKind(), rule.getField(),
+                dealClass.getSimpleName(), rule.getSource());
+        }
+        return source;
+    }
+
+    private static Object convert(String value, PropertyAccessor field) {
+        try {
+            return CONVERSIONS.convert(value, field.type());
+        } catch (RuntimeException e) {
+            throw new IllegalStateException("Cannot convert '" + value + "' for " + field.path()
+                + " to " + field.type().getSimpleName(), e);
+        }
+    }
+
+    @FunctionalInterface
+    private interface RuleAction {
+        void apply(Object deal);
+    }
+
+    private record CompiledRule(Set<String> dealTypes, RuleAction action) {
+    }
+}
@@ -0,0 +1,162 @@
+package com.magiccode.tradeingestion.service.validation;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.magiccode.tradeingestion.config.BusinessRuleProperties;
+import com.magiccode.tradeingestion.model.Deal;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.io.DefaultResourceLoader;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.ResourceLoader;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Arrays;
+import java.util.Set;
+import java.util.function.BiPredicate;
+
+/**
+ * Evaluates the business rules of a versioned rule file: notional limits, allowed execution
+ * venues per deal type and lifecycle transitions.
+ *
+ * The file named by {@code deal.business-rules.location} is compiled into
+ * {@link CompiledBusinessRules} and published through a single volatile reference. It is checked
+ * for changes every {@code deal.business-rules.reload-interval}; a changed file is compiled on
+ * the scheduler thread that runs {@link #reloadIfChanged()}, off the validation path, and swapped
+ * in atomically, so a deal is always evaluated against one complete version. A file that fails
+ * to load or compile is logged and the current rules stay in place.
+ *
+ * Each rule's evaluation time is recorded as {@code deal.business.rules.time}, tagged by rule.
+ * Timers of rules that a reload drops are removed from the registry.
+ * Reloads are counted as {@code deal.business.rules.reloads} by outcome.
+ */
+@Component
+@Slf4j
+public class BusinessRuleEngine {
+    private final BusinessRuleProperties properties;
+    private final ObjectMapper objectMapper;
+    private final MeterRegistry meterRegistry;
+    private final ResourceLoader resourceLoader = new DefaultResourceLoader();
+
+    // Null while business rules are disabled
+    private volatile CompiledBusinessRules rules;
+
+    // Content of the file behind the current rules, to tell a changed file from an unchanged one
+    private volatile byte[] loadedContent;
+
+    public BusinessRuleEngine(BusinessRuleProperties properties, ObjectMapper objectMapper, MeterRegistry meterRegistry) {
+        properties.validate();
+        this.properties = properties;
+        this.objectMapper = objectMapper;
+        this.meterRegistry = meterRegistry;
+        Gauge.builder("deal.business.rules.count", this, engine -> {
+                CompiledBusinessRules current = engine.rules;
+                return current != null ? current.size() : 0;
+            })
+            .description("Number of business rules in the current version")
+            .register(meterRegistry);
+        if (properties.isEnabled()) {
+            // Load eagerly so a broken rule file fails startup rather than the first deal
+            byte[] content = read();
+            swap(compile(content), content);
+        }
+    }
+
+    public boolean isEnabled() {
+        return rules != null;
+    }
+
+    /**
+     * The version of the rules in force, or null while business rules are disabled.
+     */
+    public String currentVersion() {
+        CompiledBusinessRules current = rules;
+        return current != null ? current.version() : null;
+    }
+
+    /**
+     * Checks a lifecycle transition against the rules in force.
+     *
+     * @param lastEventType The deal's last event type, or null for a new deal
+     * @param eventType The incoming event type
+     * @param fallback Decides the transition when the rules in force do not define the lifecycle
+     * @return Whether the transition is allowed
+     */
+    public boolean isTransitionAllowed(String lastEventType, String eventType, BiPredicate<String, String> fallback) {
+        CompiledBusinessRules current = rules;
+        if (current == null || !current.hasLifecycle()) {
+            return fallback.test(lastEventType, eventType);
+        }
+        return current.isTransitionAllowed(lastEventType, eventType);
+    }
+
+    /**
+     * Reloads the rule file if its content changed since the last load.
+     *
+     * @return Whether new rules were swapped in
+     */
+    @Scheduled(fixedDelayString = "${deal.business-rules.reload-interval:30000}",
+               initialDelayString = "${deal.business-rules.reload-interval:30000}")
+    public boolean reloadIfChanged() {
+        if (!properties.isEnabled()) {
+            return false;
+        }
+        try {
+            byte[] content = read();
+            if (Arrays.equals(content, loadedContent)) {
+                return false;
+            }
+            String previous = currentVersion();
+            swap(compile(content), content);
+            meterRegistry.counter("deal.business.rules.reloads", "outcome", "swapped").increment();
+            log.info("Reloaded business rules: version {} replaces {}", currentVersion(), previous);
+            return true;
+        } catch (RuntimeException e) {
+            meterRegistry.counter("deal.business.rules.reloads", "outcome", "failed").increment();
+            log.error("Failed to reload business rules from {}, keeping version {}: {}",
+                properties.getLocation(), currentVersion(), e.getMessage());
+            return false;
+        }
+    }
+
+    void evaluate(Deal deal, ValidationErrors errors) {
+        CompiledBusinessRules current = rules;
+        if (current != null) {
+            current.evaluate(deal, errors);
+        }
+    }
+
+    private void swap(CompiledBusinessRules compiled, byte[] content) {
+        CompiledBusinessRules previous = rules;
+        loadedContent = content;
+        rules = compiled;
+        if (previous != null) {
+            Set<Timer> retained = compiled.timers();
+            // A deal still evaluating against the old version may record once more into a removed timer, which is harmless
+            previous.timers().stream()
+                .filter(timer -> !retained.contains(timer))
+                .forEach(meterRegistry::remove);
+        }
+    }
+
+    private CompiledBusinessRules compile(byte[] content) {
+        try {
+            return new CompiledBusinessRules(objectMapper.readValue(content, BusinessRuleSet.class), meterRegistry);
+        } catch (IOException e) {
+            throw new IllegalStateException("Invalid business rule file " + properties.getLocation() + ": " + e.getMessage(), e);
+        }
+    }
+
+    private byte[] read() {
+        Resource resource = resourceLoader.getResource(properties.getLocation());
+        try (InputStream in = resource.getInputStream()) {
+            return in.readAllBytes();
+        } catch (IOException e) {
+            throw new IllegalStateException("Cannot read business rule file " + properties.getLocation(), e);
+        }
+    }
+}
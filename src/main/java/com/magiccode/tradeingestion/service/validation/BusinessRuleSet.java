@@ -0,0 +1,55 @@
+package com.magiccode.tradeingestion.service.validation;
+
+import lombok.Getter;
+import lombok.Setter;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * One version of the business rule file, as read before compilation.
+ */
+@Getter
+@Setter
+public class BusinessRuleSet {
+    /**
+     * Identifies this revision of the rules; required, and logged on every swap
+     */
+    private String version;
+
+    private List<NotionalLimit> notionalLimits = new ArrayList<>();
+
+    /**
+     * Execution venues accepted per deal type; deal types without an entry accept any venue
+     */
+    private Map<String, List<String>> allowedVenues = new LinkedHashMap<>();
+
+    private Lifecycle lifecycle;
+
+    /**
+     * Bounds on the notional of a deal, or of each leg of a fixed income derivative deal.
+     * Unset deal type or currency matches any.
+     */
+    @Getter
+    @Setter
+    public static class NotionalLimit {
+        private String id;
+        private String dealType;
+        private String currency;
+        private BigDecimal min;
+        private BigDecimal max;
+    }
+
+    /**
+     * Event types a deal may start with, and the event types allowed after each one.
+     */
+    @Getter
+    @Setter
+    public static class Lifecycle {
+        private List<String> initial = new ArrayList<>();
+        private Map<String, List<String>> transitions = new LinkedHashMap<>();
+    }
+}
@@ -0,0 +1,209 @@
+package com.magiccode.tradeingestion.service.validation;
+
+import com.magiccode.tradeingestion.model.Deal;
+import com.magiccode.tradeingestion.model.DealLeg;
+import com.magiccode.tradeingestion.model.FixedIncomeDerivativeDeal;
+import com.magiccode.tradeingestion.service.validation.BusinessRuleSet.Lifecycle;
+import com.magiccode.tradeingestion.service.validation.BusinessRuleSet.NotionalLimit;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * One version of the business rules compiled into lambdas.
+ *
+ * Rules are grouped by the deal type they apply to, so evaluating a deal runs the rules for any
+ * type followed by the array for its own type, with no parsing or lookups per rule. Each rule
+ * carries its own timer. Instances are immutable and replaced as a whole on reload.
+ */
+final class CompiledBusinessRules {
+    private static final Rule[] NONE = new Rule[0];
+
+    private final String version;
+    private final Rule[] anyType;
+    private final Map<String, Rule[]> byType;
+    private final Set<String> initialEvents;
+    private final Map<String, Set<String>> transitions;
+    private final Timer lifecycleTimer;
+
+    CompiledBusinessRules(BusinessRuleSet ruleSet, MeterRegistry meterRegistry) {
+        if (ruleSet.getVersion() == null || ruleSet.getVersion().isBlank()) {
+            throw new IllegalStateException("Business rule set has no version");
+        }
+        this.version = ruleSet.getVersion();
+
+        List<Rule> anyTypeRules = new ArrayList<>();
+        Map<String, List<Rule>> typedRules = new HashMap<>();
+        for (NotionalLimit limit : ruleSet.getNotionalLimits()) {
+            Rule rule = notionalLimit(limit, meterRegistry);
+            if (limit.getDealType() == null) {
+                anyTypeRules.add(rule);
+            } else {
+                typedRules.computeIfAbsent(limit.getDealType(), t -> new ArrayList<>()).add(rule);
+            }
+        }
+        ruleSet.getAllowedVenues().forEach((dealType, venues) ->
+            typedRules.computeIfAbsent(dealType, t -> new ArrayList<>()).add(allowedVenues(dealType, venues, meterRegistry)));
+        this.anyType = anyTypeRules.toArray(NONE);
+        Map<String, Rule[]> compiled = new HashMap<>();
+        typedRules.forEach((dealType, rules) -> compiled.put(dealType, rules.toArray(NONE)));
+        this.byType = compiled;
+
+        Lifecycle lifecycle = ruleSet.getLifecycle();
+        if (lifecycle != null) {
+            this.initialEvents = Set.copyOf(lifecycle.getInitial());
+            Map<String, Set<String>> allowed = new HashMap<>();
+            lifecycle.getTransitions().forEach((from, to) -> allowed.put(from, Set.copyOf(to)));
+            this.transitions = allowed;
+        } else {
+            this.initialEvents = null;
+            this.transitions = null;
+        }
+        this.lifecycleTimer = timer("lifecycle", meterRegistry);
+    }
+
+    String version() {
+        return version;
+    }
+
+    /**
+     * The timers of this version's rules, so a reload can remove those of rules it dropped.
+     */
+    Set<Timer> timers() {
+        Set<Timer> timers = new HashSet<>();
+        timers.add(lifecycleTimer);
+        for (Rule rule : anyType) {
+            timers.add(rule.timer());
+        }
+        byType.values().forEach(rules -> {
+            for (Rule rule : rules) {
+                timers.add(rule.timer());
+            }
+        });
+        return timers;
+    }
+
+    int size() {
+        int size = anyType.length;
+        for (Rule[] rules : byType.values()) {
+            size += rules.length;
+        }
+        return size;
+    }
+
+    void evaluate(Deal deal, ValidationErrors errors) {
+        run(anyType, deal, errors);
+        String dealType = deal.getDealType();
+        if (dealType != null) {
+            run(byType.getOrDefault(dealType, NONE), deal, errors);
+        }
+    }
+
+    /**
+     * Whether the rules define the deal lifecycle; when not, transitions are left to the caller.
+     */
+    boolean hasLifecycle() {
+        return transitions != null;
+    }
+
+    boolean isTransitionAllowed(String lastEventType, String eventType) {
+        long start = System.nanoTime();
+        try {
+            if (lastEventType == null) {
+                return initialEvents.contains(eventType);
+            }
+            Set<String> allowed = transitions.get(lastEventType);
+            return allowed != null && allowed.contains(eventType);
+        } finally {
+            lifecycleTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    private static void run(Rule[] rules, Deal deal, ValidationErrors errors) {
+        for (Rule rule : rules) {
+            long start = System.nanoTime();
+            rule.check().apply(deal, errors);
+            rule.timer().record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    private static Rule notionalLimit(NotionalLimit limit, MeterRegistry meterRegistry) {
+        String id = limit.getId() != null ? limit.getId()
+            : "notional-limit:" + orAny(limit.getDealType()) + ':' + orAny(limit.getCurrency());
+        if (limit.getMin() == null && limit.getMax() == null) {
+            throw new IllegalStateException("Notional limit " + id + " has neither min nor max");
+        }
+        String currency = limit.getCurrency();
+        BigDecimal min = limit.getMin();
+        BigDecimal max = limit.getMax();
+        String message = "Notional is outside limit " + id;
+        ValidationPlan.Check check = (deal, errors) -> {
+            if (deal instanceof FixedIncomeDerivativeDeal fixedIncomeDeal && fixedIncomeDeal.getLegs() != null) {
+                for (DealLeg leg : fixedIncomeDeal.getLegs()) {
+                    if (leg.getNotionalAmount() == null) {
+                        continue;
+                    }
+                    String legCurrency = leg.getNotionalAmount().getCurrency() != null
+                        ? leg.getNotionalAmount().getCurrency() : leg.getLegCurrency();
+                    if (outside(leg.getNotionalAmount().getAmount(), legCurrency, currency, min, max)) {
+                        errors.add(message);
+                        return;
+                    }
+                }
+                return;
+            }
+            BigDecimal quantity = deal.getQuantity();
+            BigDecimal price = deal.getPrice();
+            if (quantity != null && price != null
+                && outside(quantity.multiply(price), deal.getCurrency(), currency, min, max)) {
+                errors.add(message);
+            }
+        };
+        return new Rule(check, timer(id, meterRegistry));
+    }
+
+    private static Rule allowedVenues(String dealType, List<String> venues, MeterRegistry meterRegistry) {
+        String id = "allowed-venues:" + dealType;
+        Set<String> allowed = Set.copyOf(venues);
+        String message = "Execution venue not allowed for " + dealType;
+        ValidationPlan.Check check = (deal, errors) -> {
+            // Only fixed income derivative deals carry a venue; a missing one is left to bean validation
+            if (deal instanceof FixedIncomeDerivativeDeal fixedIncomeDeal
+                && fixedIncomeDeal.getExecutionVenue() != null
+                && !allowed.contains(fixedIncomeDeal.getExecutionVenue())) {
+                errors.add(message);
+            }
+        };
+        return new Rule(check, timer(id, meterRegistry));
+    }
+
+    private static boolean outside(BigDecimal amount, String amountCurrency, String currency,
+                                   BigDecimal min, BigDecimal max) {
+        if (amount == null || (currency != null && !currency.equals(amountCurrency))) {
+            return false;
+        }
+        return (min != null && amount.compareTo(min) < 0) || (max != null && amount.compareTo(max) > 0);
+    }
+
+    private static String orAny(String value) {
+        return value != null ? value : "*";
+    }
+
+    private static Timer timer(String ruleId, MeterRegistry meterRegistry) {
+        return Timer.builder("deal.business.rules.time")
+            .description("Time taken to evaluate one business rule")
+            .tag("rule", ruleId)
+            .register(meterRegistry);
+    }
+
+    private record Rule(ValidationPlan.Check check, Timer timer) {
+    }
+}
@@ -2,6 +2,27 @@
 
 import com.magiccode.tradeingestion.model.Deal;
 
+import java.util.ArrayList;
+import java.util.List;
+
 public interface DealValidationService {
     void validateDeal(Deal deal);
-} 
\ No newline at end of file
+
+    /**
+     * Validates a deal and reports every failed rule instead of stopping at the first.
+     */
+    ValidationResult validate(Deal deal);
+
+    /**
+     * Validates a batch of deals.
+     *
+     * @return One result per deal, in the order of the given list
+     */
+    default List<ValidationResult> validateAll(List<? extends Deal> deals) {
+        List<ValidationResult> results = new ArrayList<>(deals.size());
+        for (Deal deal : deals) {
+            results.add(validate(deal));
+        }
+        return results;
+    }
+}
@@ -1,38 +1,84 @@
 package com.magiccode.tradeingestion.service.validation;
 
 import com.magiccode.tradeingestion.model.Deal;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
+import java.util.List;
+
+/**
+ * Validates deals against the standard {@link ValidationPlan}.
+ *
+ * The plan is compiled once; each thread collects errors in its own reusable buffer.
+ * {@link #validateDeal(Deal)} throws a single exception listing every problem of the deal, and
+ * {@link #validateAll(List)} validates large batches in parallel.
+ *
+ * When a {@link BusinessRuleEngine} is enabled, its configurable rules run after the plan and
+ * their errors are reported together with the plan's.
+ */
 @Service
 public class DefaultDealValidationService implements DealValidationService {
+    // Below this many deals a batch is validated on the calling thread
+    private static final int PARALLEL_THRESHOLD = 256;
+
+    private final ValidationPlan plan = ValidationPlan.standard();
+    private final ThreadLocal<ValidationErrors> buffers = ThreadLocal.withInitial(ValidationErrors::new);
+    private final BusinessRuleEngine businessRules;
+
+    /**
+     * Creates a service that applies the standard plan only.
+     */
+    public DefaultDealValidationService() {
+        this(null);
+    }
+
+    @Autowired
+    public DefaultDealValidationService(BusinessRuleEngine businessRules) {
+        this.businessRules = businessRules;
+    }
+
     @Override
     public void validateDeal(Deal deal) {
         if (deal == null) {
             throw new IllegalArgumentException("Deal cannot be null");
         }
-        if (deal.getDealId() == null || deal.getDealId().trim().isEmpty()) {
-            throw new IllegalArgumentException("Deal ID cannot be null or empty");
-        }
-        if (deal.getClientId() == null || deal.getClientId().trim().isEmpty()) {
-            throw new IllegalArgumentException("Client ID cannot be null or empty");
-        }
-        if (deal.getInstrumentId() == null || deal.getInstrumentId().trim().isEmpty()) {
-            throw new IllegalArgumentException("Instrument ID cannot be null or empty");
-        }
-        if (deal.getQuantity() == null || deal.getQuantity().signum() <= 0) {
-            throw new IllegalArgumentException("Quantity must be positive");
+        ValidationErrors errors = buffers.get();
+        try {
+            run(deal, errors);
+            if (!errors.isEmpty()) {
+                throw new IllegalArgumentException(errors.join());
+            }
+        } finally {
+            errors.clear();
         }
-        if (deal.getPrice() == null || deal.getPrice().signum() <= 0) {
-            throw new IllegalArgumentException("Price must be positive");
+    }
+
+    @Override
+    public ValidationResult validate(Deal deal) {
+        if (deal == null) {
+            return new ValidationResult(null, List.of("Deal cannot be null"));
         }
-        if (deal.getCurrency() == null || !deal.getCurrency().matches("^[A-Z]{3}$")) {
-            throw new IllegalArgumentException("Currency must be a valid 3-letter code");
+        ValidationErrors errors = buffers.get();
+        try {
+            run(deal, errors);
+            return new ValidationResult(deal.getDealId(), errors.toList());
+        } finally {
+            errors.clear();
         }
-        if (deal.getStatus() == null || !deal.getStatus().matches("^(NEW|PROCESSING|COMPLETED|FAILED|CONFIRMED|AMENDED|CANCELLED)$")) {
-            throw new IllegalArgumentException("Invalid deal status");
+    }
+
+    @Override
+    public List<ValidationResult> validateAll(List<? extends Deal> deals) {
+        if (deals.size() < PARALLEL_THRESHOLD) {
+            return DealValidationService.super.validateAll(deals);
         }
-        if (deal.getDealDate() == null) {
-            throw new IllegalArgumentException("Deal date cannot be null");
+        return deals.parallelStream().map(this::validate).toList();
+    }
+
+    private void run(Deal deal, ValidationErrors errors) {
+        plan.run(deal, errors);
+        if (businessRules != null) {
+            businessRules.evaluate(deal, errors);
         }
     }
-} 
+}
@@ -13,10 +13,15 @@ public class EventTypeValidator {
     private static final Duration SEQUENCE_TTL = Duration.ofHours(24);
 
     private final RedisService redisService;
+    private final BusinessRuleEngine businessRules;
 
     public boolean isValid(String dealId, String eventType) {
         String lastEventType = redisService.get(SEQUENCE_KEY_PREFIX + dealId + ":event");
+        // Configured lifecycle rules take precedence over the built-in sequence
+        return businessRules.isTransitionAllowed(lastEventType, eventType, EventTypeValidator::isBuiltInTransition);
+    }
 
+    private static boolean isBuiltInTransition(String lastEventType, String eventType) {
         // If no previous event, only CREATED is allowed
         if (lastEventType == null) {
             return "CREATED".equals(eventType);
@@ -0,0 +1,42 @@
+package com.magiccode.tradeingestion.service.validation;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Reusable buffer collecting the error messages of one validation run.
+ *
+ * A buffer is cleared and reused for the next deal, so validating a valid deal allocates nothing.
+ * Not thread-safe; each thread uses its own buffer.
+ */
+final class ValidationErrors {
+    private String[] messages = new String[8];
+    private int size;
+
+    void add(String message) {
+        if (size == messages.length) {
+            messages = Arrays.copyOf(messages, size * 2);
+        }
+        messages[size++] = message;
+    }
+
+    boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * Copies the collected messages; the shared empty list when there are none.
+     */
+    List<String> toList() {
+        return size == 0 ? List.of() : List.of(Arrays.copyOf(messages, size));
+    }
+
+    String join() {
+        return String.join("; ", toList());
+    }
+
+    void clear() {
+        Arrays.fill(messages, 0, size, null);
+        size = 0;
+    }
+}
@@ -0,0 +1,108 @@
+package com.magiccode.tradeingestion.service.validation;
+
+import com.magiccode.tradeingestion.model.Deal;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Deal validation rules compiled once into a fixed array of checks.
+ *
+ * Running a plan walks the checks and adds the message of every failed one to a
+ * {@link ValidationErrors} buffer, so all problems of a deal are reported in one pass. Checks only
+ * read the deal: no regular expressions are compiled, no strings are trimmed or copied and status
+ * values are looked up in a precomputed set.
+ */
+final class ValidationPlan {
+    private static final Set<String> STATUSES = Stream.of(Status.values())
+        .map(Enum::name)
+        .collect(Collectors.toUnmodifiableSet());
+
+    private final Check[] checks;
+
+    private ValidationPlan(List<Check> checks) {
+        this.checks = checks.toArray(new Check[0]);
+    }
+
+    /**
+     * The standard rules: required identifiers, positive quantity and price, an ISO-style
+     * currency code, a known status and a deal date.
+     */
+    static ValidationPlan standard() {
+        List<Check> checks = new ArrayList<>();
+        checks.add(notBlank(Deal::getDealId, "Deal ID cannot be null or empty"));
+        checks.add(notBlank(Deal::getClientId, "Client ID cannot be null or empty"));
+        checks.add(notBlank(Deal::getInstrumentId, "Instrument ID cannot be null or empty"));
+        checks.add(positive(Deal::getQuantity, "Quantity must be positive"));
+        checks.add(positive(Deal::getPrice, "Price must be positive"));
+        checks.add((deal, errors) -> {
+            if (!isCurrencyCode(deal.getCurrency())) {
+                errors.add("Currency must be a valid 3-letter code");
+            }
+        });
+        checks.add((deal, errors) -> {
+            String status = deal.getStatus();
+            if (status == null || !STATUSES.contains(status)) {
+                errors.add("Invalid deal status");
+            }
+        });
+        checks.add((deal, errors) -> {
+            if (deal.getDealDate() == null) {
+                errors.add("Deal date cannot be null");
+            }
+        });
+        return new ValidationPlan(checks);
+    }
+
+    void run(Deal deal, ValidationErrors errors) {
+        for (Check check : checks) {
+            check.apply(deal, errors);
+        }
+    }
+
+    private static Check notBlank(Function<Deal, String> field, String message) {
+        return (deal, errors) -> {
+            String value = field.apply(deal);
+            if (value == null || value.isBlank()) {
+                errors.add(message);
+            }
+        };
+    }
+
+    private static Check positive(Function<Deal, BigDecimal> field, String message) {
+        return (deal, errors) -> {
+            BigDecimal value = field.apply(deal);
+            if (value == null || value.signum() <= 0) {
+                errors.add(message);
+            }
+        };
+    }
+
+    // Same as ^[A-Z]{3}$ without a Matcher per call
+    private static boolean isCurrencyCode(String currency) {
+        if (currency == null || currency.length() != 3) {
+            return false;
+        }
+        for (int i = 0; i < 3; i++) {
+            char c = currency.charAt(i);
+            if (c < 'A' || c > 'Z') {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @FunctionalInterface
+    interface Check {
+        void apply(Deal deal, ValidationErrors errors);
+    }
+
+    private enum Status {
+        NEW, PROCESSING, COMPLETED, FAILED, CONFIRMED, AMENDED, CANCELLED
+    }
+}
@@ -0,0 +1,16 @@
+package com.magiccode.tradeingestion.service.validation;
+
+import java.util.List;
+
+/**
+ * Outcome of validating one deal.
+ *
+ * @param dealId The deal's ID, or null if it had none
+ * @param errors Every failed rule's message; empty for a valid deal
+ */
+public record ValidationResult(String dealId, List<String> errors) {
+
+    public boolean isValid() {
+        return errors.isEmpty();
+    }
+}
@@ -0,0 +1,168 @@
+package com.magiccode.tradeingestion.integration.postgresql;
+
+import com.magiccode.tradeingestion.config.ReadReplicaProperties;
+import com.magiccode.tradeingestion.config.ReadReplicaRoutingConfig;
+import com.magiccode.tradeingestion.config.ReplicaLagMonitor;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.SpringBootConfiguration;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceAutoConfiguration;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceTransactionManagerAutoConfiguration;
+import org.springframework.boot.autoconfigure.jdbc.JdbcTemplateAutoConfiguration;
+import org.springframework.boot.autoconfigure.transaction.TransactionAutoConfiguration;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.testcontainers.containers.GenericContainer;
+import org.testcontainers.containers.Network;
+import org.testcontainers.containers.wait.strategy.Wait;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+import org.testcontainers.utility.DockerImageName;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Verifies read-only transactions are served by a streaming replica and fall back to the
+ * primary when the replica cannot be reached.
+ */
+@Testcontainers
+@SpringBootTest(classes = ReadReplicaRoutingIntegrationTest.ReplicaTestApplication.class)
+class ReadReplicaRoutingIntegrationTest {
+
+    private static final DockerImageName POSTGRES_IMAGE = DockerImageName.parse("bitnami/postgresql:15");
+    private static final Network NETWORK = Network.newNetwork();
+
+    @Container
+    static final GenericContainer<?> primaryContainer = new GenericContainer<>(POSTGRES_IMAGE)
+        .withNetwork(NETWORK)
+        .withNetworkAliases("pg-primary")
+        .withEnv("POSTGRESQL_REPLICATION_MODE", "master")
+        .withEnv("POSTGRESQL_REPLICATION_USER", "repl")
+        .withEnv("POSTGRESQL_REPLICATION_PASSWORD", "repl")
+        .withEnv("POSTGRESQL_USERNAME", "test")
+        .withEnv("POSTGRESQL_PASSWORD", "test")
+        .withEnv("POSTGRESQL_DATABASE", "testdb")
+        .withExposedPorts(5432)
+        .waitingFor(Wait.forLogMessage(".*database system is ready to accept connections.*", 1))
+        .withStartupTimeout(Duration.ofMinutes(2));
+
+    @Container
+    static final GenericContainer<?> replicaContainer = new GenericContainer<>(POSTGRES_IMAGE)
+        .withNetwork(NETWORK)
+        .dependsOn(primaryContainer)
+        .withEnv("POSTGRESQL_REPLICATION_MODE", "slave")
+        .withEnv("POSTGRESQL_MASTER_HOST", "pg-primary")
+        .withEnv("POSTGRESQL_MASTER_PORT_NUMBER", "5432")
+        .withEnv("POSTGRESQL_REPLICATION_USER", "repl")
+        .withEnv("POSTGRESQL_REPLICATION_PASSWORD", "repl")
+        .withEnv("POSTGRESQL_PASSWORD", "test")
+        .withExposedPorts(5432)
+        .waitingFor(Wait.forLogMessage(".*database system is ready to accept read-only connections.*", 1))
+        .withStartupTimeout(Duration.ofMinutes(2));
+
+    @DynamicPropertySource
+    static void registerProperties(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", () -> jdbcUrl(primaryContainer));
+        registry.add("spring.datasource.username", () -> "test");
+        registry.add("spring.datasource.password", () -> "test");
+        registry.add("deal.datasource.replica.enabled", () -> "true");
+        registry.add("deal.datasource.replica.url", () -> jdbcUrl(replicaContainer) + "?socketTimeout=5");
+        registry.add("deal.datasource.replica.max-lag", () -> "10s");
+    }
+
+    private static String jdbcUrl(GenericContainer<?> container) {
+        return "jdbc:postgresql://" + container.getHost() + ":" + container.getMappedPort(5432) + "/testdb";
+    }
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private ReplicaLagMonitor replicaLagMonitor;
+
+    @Test
+    void readOnlyTransactionsUseReplicaAndWritesUsePrimary() throws InterruptedException {
+        // Given
+        transactionTemplate.executeWithoutResult(status -> {
+            jdbcTemplate.execute("CREATE TABLE IF NOT EXISTS replica_probe (id INT PRIMARY KEY)");
+            jdbcTemplate.update("INSERT INTO replica_probe (id) VALUES (1) ON CONFLICT DO NOTHING");
+        });
+        awaitReplicaAvailable();
+
+        // When
+        Boolean readOnlyInRecovery = readOnly().execute(status ->
+            jdbcTemplate.queryForObject("SELECT pg_is_in_recovery()", Boolean.class));
+        Integer replicatedRows = readOnly().execute(status ->
+            jdbcTemplate.queryForObject("SELECT count(*) FROM replica_probe", Integer.class));
+        Boolean writeInRecovery = transactionTemplate.execute(status ->
+            jdbcTemplate.queryForObject("SELECT pg_is_in_recovery()", Boolean.class));
+
+        // Then
+        assertTrue(readOnlyInRecovery, "Read-only transaction should run on the replica");
+        assertEquals(1, replicatedRows);
+        assertFalse(writeInRecovery, "Read-write transaction should run on the primary");
+    }
+
+    @Test
+    void readOnlyTransactionsFallBackToPrimaryWhenReplicaIsDown() throws InterruptedException {
+        // Given
+        awaitReplicaAvailable();
+        replicaContainer.getDockerClient().pauseContainerCmd(replicaContainer.getContainerId()).exec();
+
+        try {
+            // When
+            replicaLagMonitor.checkLag();
+            Boolean readOnlyInRecovery = readOnly().execute(status ->
+                jdbcTemplate.queryForObject("SELECT pg_is_in_recovery()", Boolean.class));
+
+            // Then
+            assertFalse(replicaLagMonitor.isReplicaAvailable());
+            assertFalse(readOnlyInRecovery, "Read-only transaction should fall back to the primary");
+        } finally {
+            replicaContainer.getDockerClient().unpauseContainerCmd(replicaContainer.getContainerId()).exec();
+        }
+    }
+
+    private TransactionTemplate readOnly() {
+        TransactionTemplate template = new TransactionTemplate(transactionTemplate.getTransactionManager());
+        template.setReadOnly(true);
+        return template;
+    }
+
+    private void awaitReplicaAvailable() throws InterruptedException {
+        for (int attempt = 0; attempt < 30 && !replicaLagMonitor.isReplicaAvailable(); attempt++) {
+            replicaLagMonitor.checkLag();
+            Thread.sleep(500);
+        }
+        assertTrue(replicaLagMonitor.isReplicaAvailable(), "Replica should become available");
+    }
+
+    @SpringBootConfiguration
+    @ImportAutoConfiguration({
+        DataSourceAutoConfiguration.class,
+        DataSourceTransactionManagerAutoConfiguration.class,
+        TransactionAutoConfiguration.class,
+        JdbcTemplateAutoConfiguration.class
+    })
+    @Import({ReadReplicaRoutingConfig.class, ReadReplicaProperties.class})
+    static class ReplicaTestApplication {
+
+        @Bean
+        MeterRegistry meterRegistry() {
+            return new SimpleMeterRegistry();
+        }
+    }
+}
@@ -2,6 +2,8 @@
 
 import com.magiccode.tradeingestion.model.FixedIncomeDerivativeDeal;
 import com.magiccode.tradeingestion.service.FixedIncomeDerivativeDealService;
+import com.magiccode.tradeingestion.service.RawPayloadStore;
+import com.magiccode.tradeingestion.service.journal.WriteBehindDealService;
 import com.magiccode.tradeingestion.exception.DealProcessingException;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -9,6 +11,7 @@
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.jms.core.JmsTemplate;
 import jakarta.jms.Message;
 import jakarta.jms.Session;
@@ -27,6 +30,12 @@ class FixedIncomeDerivativeDealListenerTest {
     @Mock
     private FixedIncomeDerivativeDealService dealService;
 
+    @Mock
+    private RawPayloadStore rawPayloadStore;
+
+    @Mock
+    private ObjectProvider<WriteBehindDealService> writeBehindDealService;
+
     @Mock
     private JmsTemplate jmsTemplate;
 
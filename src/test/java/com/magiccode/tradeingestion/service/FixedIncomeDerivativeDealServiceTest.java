@@ -1,8 +1,12 @@
 package com.magiccode.tradeingestion.service;
 
+import com.magiccode.tradeingestion.cache.DealCacheTags;
+import com.magiccode.tradeingestion.cache.DealCacheWriter;
 import com.magiccode.tradeingestion.exception.DealProcessingException;
 import com.magiccode.tradeingestion.model.FixedIncomeDerivativeDeal;
 import com.magiccode.tradeingestion.repository.FixedIncomeDerivativeDealRepository;
+import com.magiccode.tradeingestion.service.dedup.DealIdFilter;
+import com.magiccode.tradeingestion.service.entitlement.DataVisibility;
 import com.magiccode.tradeingestion.service.transformation.DealTransformationService;
 import com.magiccode.tradeingestion.service.validation.DealValidationService;
 import org.junit.jupiter.api.BeforeEach;
@@ -10,11 +14,16 @@
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.jms.core.JmsTemplate;
 
 import java.time.LocalDateTime;
+import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.Callable;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.*;
@@ -35,14 +44,45 @@ class FixedIncomeDerivativeDealServiceTest {
     @Mock
     private DealTransformationService<FixedIncomeDerivativeDeal> transformationService;
 
+    @Mock
+    private DealHistoryService dealHistoryService;
+
+    @Mock
+    private DealArchivalService dealArchivalService;
+
+    @Mock
+    private DealCacheWriter dealCacheWriter;
+
+    @Mock
+    private DealIdFilter dealIdFilter;
+
+    @Mock
+    private DealCacheTags dealCacheTags;
+
     private FixedIncomeDerivativeDealService dealService;
 
     private FixedIncomeDerivativeDeal testDeal;
 
     @BeforeEach
     void setUp() {
-        dealService = new FixedIncomeDerivativeDealService(dealRepository, jmsTemplate, validationService, transformationService);
+        dealService = new FixedIncomeDerivativeDealService(dealRepository, jmsTemplate, validationService, transformationService, dealHistoryService, dealArchivalService, dealCacheWriter, dealIdFilter, dealCacheTags);
         testDeal = createTestDeal();
+        lenient().when(dealIdFilter.mightContain(anyString())).thenReturn(true);
+    }
+
+    @Test
+    void processDeal_FilterKnowsDealIsNew_SkipsDuplicateLookup() {
+        // Setup
+        when(dealIdFilter.mightContain(testDeal.getDealId())).thenReturn(false);
+        when(transformationService.transform(any(FixedIncomeDerivativeDeal.class))).thenReturn(testDeal);
+        when(dealRepository.save(any(FixedIncomeDerivativeDeal.class))).thenReturn(testDeal);
+
+        // Execute
+        dealService.processDeal(testDeal);
+
+        // Verify
+        verify(dealRepository, never()).findByDealId(anyString());
+        verify(dealIdFilter).add(testDeal.getDealId());
     }
 
     @Test
@@ -66,6 +106,26 @@ void processDeal_ValidDeal_Success() {
         verify(jmsTemplate).convertAndSend(eq("fixed-income-deals"), any(FixedIncomeDerivativeDeal.class));
     }
 
+    @Test
+    void processDeal_ConcurrentInsertOfSameDealId_ReportsDealExists() {
+        // Setup
+        when(dealRepository.findByDealId(anyString())).thenReturn(Optional.empty());
+        when(transformationService.transform(any(FixedIncomeDerivativeDeal.class))).thenReturn(testDeal);
+        when(dealRepository.save(any(FixedIncomeDerivativeDeal.class))).thenReturn(testDeal);
+        doThrow(new DataIntegrityViolationException("could not execute statement",
+                new RuntimeException("duplicate key value violates unique constraint: Key (base_deal_id)")))
+            .when(dealRepository).flush();
+
+        // Execute
+        DealProcessingException exception = assertThrows(DealProcessingException.class,
+            () -> dealService.processDeal(testDeal));
+
+        // Verify
+        assertEquals("Deal already exists: " + testDeal.getDealId(), exception.getMessage());
+        verify(dealIdFilter, never()).add(anyString());
+        verifyNoInteractions(jmsTemplate, dealHistoryService);
+    }
+
     @Test
     void processDeal_ValidationFailure_ThrowsException() {
         // Given
@@ -91,6 +151,34 @@ void processDeal_DuplicateDeal_ThrowsException() {
         verifyNoMoreInteractions(transformationService, dealRepository, jmsTemplate);
     }
 
+    @Test
+    void processDeal_ArchivedDealReingested_ReportsDealExists() {
+        // Setup
+        when(dealRepository.findByDealId(testDeal.getDealId())).thenReturn(Optional.empty());
+        when(dealArchivalService.isArchived(testDeal.getDealId())).thenReturn(true);
+
+        // Execute
+        DealProcessingException exception = assertThrows(DealProcessingException.class,
+            () -> dealService.processDeal(testDeal));
+
+        // Verify
+        assertEquals("Deal already exists: " + testDeal.getDealId(), exception.getMessage());
+        verify(dealIdFilter, never()).recordFalsePositive();
+        verify(dealRepository, never()).save(any(FixedIncomeDerivativeDeal.class));
+        verifyNoInteractions(transformationService, jmsTemplate);
+    }
+
+    @Test
+    void findExistingDealIds_LiveAndArchived_ReturnsBoth() {
+        // Setup
+        List<String> dealIds = List.of("IRS-LIVE", "IRS-ARCHIVED", "IRS-NEW");
+        when(dealRepository.findExistingDealIds(dealIds)).thenReturn(Set.of("IRS-LIVE"));
+        when(dealArchivalService.findArchivedDealIds(List.of("IRS-ARCHIVED", "IRS-NEW"))).thenReturn(Set.of("IRS-ARCHIVED"));
+
+        // Execute & Verify
+        assertEquals(Set.of("IRS-LIVE", "IRS-ARCHIVED"), dealService.findExistingDealIds(dealIds));
+    }
+
     @Test
     void processDeal_TransformationFailure_ThrowsException() {
         // Setup
@@ -133,6 +221,25 @@ void getDealById_InvalidId_ThrowsException() {
         verify(dealRepository).findById(id);
     }
 
+    @Test
+    @SuppressWarnings("unchecked")
+    void getDealsByCounterparty_RestrictedVisibility_FiltersInQuery() {
+        // Setup
+        DataVisibility visibility = new DataVisibility(false, Set.of("PUBLIC"), Set.of("AU"), Set.of("trader_jdoe"));
+        when(dealCacheTags.getTagged(anyString(), anyString(), anyCollection(), any()))
+            .thenAnswer(invocation -> ((Callable<?>) invocation.getArgument(3)).call());
+        when(dealRepository.findAll(any(Specification.class))).thenReturn(List.of(testDeal));
+
+        // Execute
+        List<FixedIncomeDerivativeDeal> result = dealService.getDealsByCounterparty("CP001", visibility);
+
+        // Verify
+        assertEquals(List.of(testDeal), result);
+        verify(dealCacheTags).getTagged(eq("fixedIncomeDealsByCounterparty"), eq("CP001#PUBLIC|AU|trader_jdoe"),
+            eq(List.of("counterparty:CP001")), any());
+        verify(dealRepository, never()).findByCounterpartyEntityId(anyString());
+    }
+
     private FixedIncomeDerivativeDeal createTestDeal() {
         FixedIncomeDerivativeDeal deal = new FixedIncomeDerivativeDeal();
         deal.setDealId("TEST-DEAL-001");
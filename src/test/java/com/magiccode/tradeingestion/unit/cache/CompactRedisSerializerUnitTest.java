@@ -0,0 +1,148 @@
+package com.magiccode.tradeingestion.unit.cache;
+
+import com.magiccode.tradeingestion.cache.CompactCodec;
+import com.magiccode.tradeingestion.cache.CompactRedisSerializer;
+import com.magiccode.tradeingestion.config.CompactCodecProperties;
+import com.magiccode.tradeingestion.model.DealLeg;
+import com.magiccode.tradeingestion.model.FixedIncomeDerivativeDeal;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.serializer.GenericJackson2JsonRedisSerializer;
+import org.springframework.util.unit.DataSize;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for CompactRedisSerializer and the compact codec.
+ * These tests verify:
+ * - Values round-trip through the compact format, with and without compression
+ * - Compact values are smaller than the JSON written before
+ * - JSON values written by instances on the old format are still readable
+ * - Values in a newer format version are treated as missing
+ */
+class CompactRedisSerializerUnitTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private CompactRedisSerializer smileSerializer;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        smileSerializer = new CompactRedisSerializer(properties(CompactCodecProperties.Format.SMILE, 256), meterRegistry);
+    }
+
+    @Test
+    void serialize_Smile_RoundTripsAndIsSmallerThanJson() {
+        // Arrange
+        Map<String, Object> value = sampleValue();
+        byte[] json = new GenericJackson2JsonRedisSerializer().serialize(value);
+
+        // Act
+        byte[] compact = smileSerializer.serialize(value);
+        Object decoded = smileSerializer.deserialize(compact);
+
+        // Assert
+        assertTrue(CompactCodec.isCompact(compact));
+        assertTrue(compact.length < json.length, "compact " + compact.length + " vs json " + json.length);
+        assertEquals(value, decoded);
+        assertEquals(1, meterRegistry.get("deal.codec.size").tag("format", "smile").summary().count());
+    }
+
+    @Test
+    void serialize_LargeValue_IsCompressed() {
+        // Arrange
+        Map<String, Object> value = new HashMap<>();
+        value.put("notes", "repeated text ".repeat(200));
+        CompactRedisSerializer uncompressed =
+            new CompactRedisSerializer(properties(CompactCodecProperties.Format.SMILE, 0), new SimpleMeterRegistry());
+
+        // Act
+        byte[] compressed = smileSerializer.serialize(value);
+        byte[] plain = uncompressed.serialize(value);
+
+        // Assert
+        assertTrue(compressed.length < plain.length / 4);
+        assertEquals(value, smileSerializer.deserialize(compressed));
+    }
+
+    @Test
+    void serialize_FixedIncomeDeal_RoundTripsWithType() {
+        // Arrange
+        FixedIncomeDerivativeDeal deal = FixedIncomeDerivativeDeal.builder()
+            .id(UUID.randomUUID())
+            .dealId("IRS-20240101-00001")
+            .dealType("IRS")
+            .status("NEW")
+            .quantity(new BigDecimal("1000000"))
+            .price(new BigDecimal("1"))
+            .maturityDate(LocalDate.now().plusYears(5))
+            .build();
+        DealLeg leg = new DealLeg();
+        leg.setLegId("LEG-1");
+        leg.setPayOrReceive("PAY");
+        leg.setFixedRate(new BigDecimal("0.035"));
+        leg.setDeal(deal);
+        deal.setLegs(new ArrayList<>(List.of(leg)));
+
+        // Act
+        Object decoded = smileSerializer.deserialize(smileSerializer.serialize(deal));
+
+        // Assert
+        FixedIncomeDerivativeDeal result = assertInstanceOf(FixedIncomeDerivativeDeal.class, decoded);
+        assertEquals(deal.getDealId(), result.getDealId());
+        assertEquals(1, result.getLegs().size());
+        assertEquals(0, new BigDecimal("0.035").compareTo(result.getLegs().get(0).getFixedRate()));
+    }
+
+    @Test
+    void deserialize_LegacyJson_IsReadable() {
+        // Arrange
+        Map<String, Object> value = sampleValue();
+        byte[] json = new GenericJackson2JsonRedisSerializer().serialize(value);
+
+        // Act
+        Object decoded = smileSerializer.deserialize(json);
+
+        // Assert
+        assertEquals(value, decoded);
+    }
+
+    @Test
+    void deserialize_NewerFormatVersion_IsTreatedAsMissing() {
+        // Arrange
+        byte[] compact = smileSerializer.serialize(sampleValue());
+        compact[1] = (byte) (compact[1] + 1);
+
+        // Act
+        Object decoded = smileSerializer.deserialize(compact);
+
+        // Assert
+        assertNull(decoded);
+        assertEquals(1.0, meterRegistry.get("deal.codec.unreadable").counter().count());
+    }
+
+    private static Map<String, Object> sampleValue() {
+        Map<String, Object> value = new HashMap<>();
+        value.put("dealId", "DEAL-001");
+        value.put("counterparty", "COUNTERPARTY-001");
+        value.put("status", "NEW");
+        value.put("quantity", 1_000_000);
+        return value;
+    }
+
+    private static CompactCodecProperties properties(CompactCodecProperties.Format format, int threshold) {
+        CompactCodecProperties properties = new CompactCodecProperties();
+        properties.setFormat(format);
+        properties.setCompressionThreshold(DataSize.ofBytes(threshold));
+        return properties;
+    }
+}
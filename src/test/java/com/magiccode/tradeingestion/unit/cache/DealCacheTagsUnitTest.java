@@ -0,0 +1,152 @@
+package com.magiccode.tradeingestion.unit.cache;
+
+import com.magiccode.tradeingestion.cache.DealCacheTags;
+import com.magiccode.tradeingestion.config.CacheTierProperties;
+import com.magiccode.tradeingestion.model.CounterpartyInfo;
+import com.magiccode.tradeingestion.model.FixedIncomeDerivativeDeal;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.data.redis.RedisConnectionFailureException;
+import org.springframework.data.redis.core.StringRedisTemplate;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for DealCacheTags.
+ * These tests verify:
+ * - Cached lists are served from the cache until one of their tags is evicted
+ * - Evicting a deal's tags leaves lists with unrelated tags cached
+ * - Losing the shared tag index clears every tagged region
+ * - Cache hits do not touch the shared tag index
+ * - A list whose tag is evicted while it loads is not left cached
+ */
+class DealCacheTagsUnitTest {
+
+    private ConcurrentMapCacheManager cacheManager;
+    private DealCacheTags dealCacheTags;
+    private final AtomicInteger loads = new AtomicInteger();
+
+    @BeforeEach
+    void setUp() {
+        cacheManager = new ConcurrentMapCacheManager();
+        dealCacheTags = new DealCacheTags(cacheManager, noRedis(), new CacheTierProperties(), new SimpleMeterRegistry());
+    }
+
+    @Test
+    void getTagged_CachesUntilTagEvicted() {
+        // Arrange
+        getByStatus("NEW");
+        getByStatus("NEW");
+
+        // Act
+        dealCacheTags.evictTagged(List.of("status:NEW"));
+        getByStatus("NEW");
+
+        // Assert
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    void evictTagged_DealTags_KeepsUnrelatedLists() {
+        // Arrange
+        FixedIncomeDerivativeDeal deal = FixedIncomeDerivativeDeal.builder()
+            .dealId("IRS-001")
+            .dealType("IRS")
+            .status("CONFIRMED")
+            .counterparty(CounterpartyInfo.builder().entityId("CP001").build())
+            .build();
+        getByStatus("NEW");
+        getByStatus("CONFIRMED");
+        dealCacheTags.getTagged("fixedIncomeDealsByType", "IRS", List.of("type:IRS"), List::of);
+        dealCacheTags.getTagged("allFixedIncomeDeals", DealCacheTags.ALL, List.of(DealCacheTags.ALL), List::of);
+
+        // Act
+        dealCacheTags.evictTagged(DealCacheTags.tagsOf(deal));
+
+        // Assert
+        assertNotNull(cacheManager.getCache("fixedIncomeDealsByStatus").get("NEW"));
+        assertNull(cacheManager.getCache("fixedIncomeDealsByStatus").get("CONFIRMED"));
+        assertNull(cacheManager.getCache("fixedIncomeDealsByType").get("IRS"));
+        assertNull(cacheManager.getCache("allFixedIncomeDeals").get(DealCacheTags.ALL));
+    }
+
+    @Test
+    void evictTagged_IndexUnavailable_ClearsTaggedRegions() {
+        // Arrange
+        StringRedisTemplate redisTemplate = mock(StringRedisTemplate.class);
+        when(redisTemplate.opsForSet()).thenThrow(new RedisConnectionFailureException("down"));
+        @SuppressWarnings("unchecked")
+        ObjectProvider<StringRedisTemplate> provider = mock(ObjectProvider.class);
+        when(provider.getIfAvailable()).thenReturn(redisTemplate);
+        dealCacheTags = new DealCacheTags(cacheManager, provider, new CacheTierProperties(), new SimpleMeterRegistry());
+        getByStatus("NEW");
+        getByStatus("CONFIRMED");
+
+        // Act
+        dealCacheTags.evictTagged(List.of("status:NEW"));
+
+        // Assert
+        assertNull(cacheManager.getCache("fixedIncomeDealsByStatus").get("NEW"));
+        assertNull(cacheManager.getCache("fixedIncomeDealsByStatus").get("CONFIRMED"));
+    }
+
+    @Test
+    void getTagged_Hit_DoesNotRecordTagsAgain() {
+        // Arrange
+        StringRedisTemplate redisTemplate = mock(StringRedisTemplate.class, RETURNS_DEEP_STUBS);
+        when(redisTemplate.opsForSet().isMember(anyString(), anyString())).thenReturn(true);
+        dealCacheTags = new DealCacheTags(cacheManager, redisProvider(redisTemplate), new CacheTierProperties(), new SimpleMeterRegistry());
+        getByStatus("NEW");
+
+        // Act
+        getByStatus("NEW");
+        getByStatus("NEW");
+
+        // Assert
+        assertEquals(1, loads.get());
+        verify(redisTemplate.opsForSet(), times(1)).add(eq("deal:cache:tag:status:NEW"), anyString());
+    }
+
+    @Test
+    void getTagged_TagEvictedDuringLoad_DoesNotCacheStaleList() {
+        // Arrange
+        List<String> stale = List.of("stale");
+
+        // Act
+        List<String> result = dealCacheTags.getTagged("fixedIncomeDealsByStatus", "NEW", List.of("status:NEW"), () -> {
+            dealCacheTags.evictTagged(List.of("status:NEW"));
+            return stale;
+        });
+
+        // Assert
+        assertSame(stale, result);
+        assertNull(cacheManager.getCache("fixedIncomeDealsByStatus").get("NEW"));
+    }
+
+    private List<String> getByStatus(String status) {
+        return dealCacheTags.getTagged("fixedIncomeDealsByStatus", status, List.of("status:" + status), () -> {
+            loads.incrementAndGet();
+            return List.of(status);
+        });
+    }
+
+    @SuppressWarnings("unchecked")
+    private static ObjectProvider<StringRedisTemplate> redisProvider(StringRedisTemplate redisTemplate) {
+        ObjectProvider<StringRedisTemplate> provider = mock(ObjectProvider.class);
+        when(provider.getIfAvailable()).thenReturn(redisTemplate);
+        return provider;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static ObjectProvider<StringRedisTemplate> noRedis() {
+        return mock(ObjectProvider.class);
+    }
+}
@@ -0,0 +1,116 @@
+package com.magiccode.tradeingestion.unit.cache;
+
+import com.magiccode.tradeingestion.cache.DealCacheWriter;
+import com.magiccode.tradeingestion.model.TestDeal;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for DealCacheWriter.
+ * These tests verify:
+ * - Saved deals are written to both single-deal regions only after commit
+ * - Nothing is written when the transaction rolls back
+ * - List entries are evicted after commit
+ * - Without a transaction the cache is updated immediately
+ */
+class DealCacheWriterUnitTest {
+
+    private ConcurrentMapCacheManager cacheManager;
+    private DealCacheWriter writer;
+    private TestDeal deal;
+
+    @BeforeEach
+    void setUp() {
+        cacheManager = new ConcurrentMapCacheManager();
+        writer = new DealCacheWriter(cacheManager, new SimpleMeterRegistry());
+        deal = new TestDeal();
+        deal.setId(UUID.randomUUID());
+        deal.setDealId("TEST-DEAL-001");
+        deal.setInstrumentId("INST001");
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void putAfterCommit_WritesBothRegionsOnCommit() {
+        // Arrange
+        TransactionSynchronizationManager.initSynchronization();
+
+        // Act
+        writer.putAfterCommit(deal, "deals", "dealsByDealId");
+        boolean cachedBeforeCommit = cacheManager.getCache("deals").get(deal.getId()) != null;
+        complete(true);
+
+        // Assert
+        assertFalse(cachedBeforeCommit);
+        assertSame(deal, cacheManager.getCache("deals").get(deal.getId()).get());
+        assertSame(deal, cacheManager.getCache("dealsByDealId").get("TEST-DEAL-001").get());
+    }
+
+    @Test
+    void putAfterCommit_Rollback_WritesNothing() {
+        // Arrange
+        TransactionSynchronizationManager.initSynchronization();
+
+        // Act
+        writer.putAfterCommit(deal, "deals", "dealsByDealId");
+        complete(false);
+
+        // Assert
+        assertNull(cacheManager.getCache("deals").get(deal.getId()));
+        assertNull(cacheManager.getCache("dealsByDealId").get("TEST-DEAL-001"));
+    }
+
+    @Test
+    void evictAfterCommit_RemovesListEntry() {
+        // Arrange
+        cacheManager.getCache("dealsBySymbol").put("INST001", List.of(deal));
+        TransactionSynchronizationManager.initSynchronization();
+
+        // Act
+        writer.evictAfterCommit("dealsBySymbol", "INST001");
+        boolean presentBeforeCommit = cacheManager.getCache("dealsBySymbol").get("INST001") != null;
+        complete(true);
+
+        // Assert
+        assertTrue(presentBeforeCommit);
+        assertNull(cacheManager.getCache("dealsBySymbol").get("INST001"));
+    }
+
+    @Test
+    void putAfterCommit_NoTransaction_WritesImmediately() {
+        // Act
+        writer.putAfterCommit(deal, "deals", "dealsByDealId");
+
+        // Assert
+        assertSame(deal, cacheManager.getCache("deals").get(deal.getId()).get());
+    }
+
+    private static void complete(boolean committed) {
+        List<TransactionSynchronization> synchronizations = TransactionSynchronizationManager.getSynchronizations();
+        TransactionSynchronizationManager.clearSynchronization();
+        for (TransactionSynchronization synchronization : synchronizations) {
+            if (committed) {
+                synchronization.afterCommit();
+            }
+            synchronization.afterCompletion(committed
+                ? TransactionSynchronization.STATUS_COMMITTED
+                : TransactionSynchronization.STATUS_ROLLED_BACK);
+        }
+    }
+}
@@ -0,0 +1,265 @@
+package com.magiccode.tradeingestion.unit.cache;
+
+import com.magiccode.tradeingestion.cache.CacheInvalidationPublisher;
+import com.magiccode.tradeingestion.cache.TwoTierCacheManager;
+import com.magiccode.tradeingestion.config.CacheTierProperties;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.cache.Cache;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.data.redis.connection.DefaultMessage;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for the two-tier cache.
+ * These tests verify:
+ * - Reads are served from L1 once populated from L2
+ * - Writes and evictions reach both tiers and are broadcast
+ * - Invalidations from other instances drop only the local L1 entry
+ * - Regions with L1 disabled go straight to L2
+ * - Concurrent misses on one key run a single load
+ * - Entries past the refresh-ahead threshold are reloaded in the background
+ * - A refresh that overlaps a newer write does not overwrite it
+ */
+@ExtendWith(MockitoExtension.class)
+class TwoTierCacheUnitTest {
+
+    @Mock
+    private CacheInvalidationPublisher publisher;
+
+    private ConcurrentMapCacheManager l2CacheManager;
+    private SimpleMeterRegistry meterRegistry;
+    private TwoTierCacheManager cacheManager;
+
+    @BeforeEach
+    void setUp() {
+        l2CacheManager = new ConcurrentMapCacheManager();
+        meterRegistry = new SimpleMeterRegistry();
+        CacheTierProperties properties = new CacheTierProperties();
+        CacheTierProperties.Region redisOnly = new CacheTierProperties.Region();
+        redisOnly.setL1Enabled(false);
+        properties.getRegions().put("redisOnly", redisOnly);
+        CacheTierProperties.Region refreshed = new CacheTierProperties.Region();
+        refreshed.setL1Ttl(Duration.ofMillis(200));
+        refreshed.setRefreshAhead(0.1);
+        properties.getRegions().put("refreshed", refreshed);
+        lenient().when(publisher.getNodeId()).thenReturn("local-node");
+        cacheManager = new TwoTierCacheManager(l2CacheManager, properties, publisher, meterRegistry);
+    }
+
+    @Test
+    void get_PopulatesL1FromL2AndServesRepeatReadsLocally() {
+        // Arrange
+        l2CacheManager.getCache("deals").put("DEAL-1", "value");
+        Cache cache = cacheManager.getCache("deals");
+
+        // Act
+        cache.get("DEAL-1");
+        l2CacheManager.getCache("deals").evict("DEAL-1");
+        Cache.ValueWrapper second = cache.get("DEAL-1");
+
+        // Assert
+        assertNotNull(second);
+        assertEquals("value", second.get());
+        assertEquals(1.0, requests("l2", "hit"));
+        assertEquals(1.0, requests("l1", "hit"));
+        assertEquals(1.0, requests("l1", "miss"));
+    }
+
+    @Test
+    void putAndEvict_WriteBothTiersAndBroadcast() {
+        // Arrange
+        Cache cache = cacheManager.getCache("deals");
+
+        // Act
+        cache.put("DEAL-1", "value");
+        String afterPut = l2CacheManager.getCache("deals").get("DEAL-1", String.class);
+        cache.evict("DEAL-1");
+
+        // Assert
+        assertEquals("value", afterPut);
+        assertNull(l2CacheManager.getCache("deals").get("DEAL-1"));
+        assertNull(cache.get("DEAL-1"));
+        verify(publisher, times(2)).publish("deals", "DEAL-1");
+    }
+
+    @Test
+    void onMessage_RemoteInvalidation_DropsOnlyL1Entry() {
+        // Arrange
+        Cache cache = cacheManager.getCache("deals");
+        cache.put("DEAL-1", "stale");
+        l2CacheManager.getCache("deals").put("DEAL-1", "fresh");
+
+        // Act
+        cacheManager.onMessage(message("other-node\ndeals\nDEAL-1"), null);
+
+        // Assert
+        assertEquals("fresh", cache.get("DEAL-1", String.class));
+    }
+
+    @Test
+    void onMessage_OwnInvalidation_IsIgnored() {
+        // Arrange
+        Cache cache = cacheManager.getCache("deals");
+        cache.put("DEAL-1", "local");
+        l2CacheManager.getCache("deals").put("DEAL-1", "remote");
+
+        // Act
+        cacheManager.onMessage(message("local-node\ndeals"), null);
+
+        // Assert
+        assertEquals("local", cache.get("DEAL-1", String.class));
+    }
+
+    @Test
+    void get_L1Disabled_ReadsL2EveryTime() {
+        // Arrange
+        Cache cache = cacheManager.getCache("redisOnly");
+        cache.put("KEY", "value");
+
+        // Act
+        cache.get("KEY");
+        cache.get("KEY");
+
+        // Assert
+        assertEquals(2.0, requests("l2", "hit"));
+        assertEquals(0.0, requests("l1", "hit"));
+    }
+
+    @Test
+    void getWithLoader_LoadsOnceAndCachesInBothTiers() {
+        // Arrange
+        Cache cache = cacheManager.getCache("deals");
+
+        // Act
+        String first = cache.get("DEAL-1", () -> "loaded");
+        String second = cache.get("DEAL-1", () -> "reloaded");
+
+        // Assert
+        assertEquals("loaded", first);
+        assertEquals("loaded", second);
+        assertEquals("loaded", l2CacheManager.getCache("deals").get("DEAL-1", String.class));
+        assertEquals(1.0, requests("l2", "miss"));
+    }
+
+    @Test
+    void getWithLoader_ConcurrentMisses_RunSingleLoad() throws Exception {
+        // Arrange
+        Cache cache = cacheManager.getCache("deals");
+        AtomicInteger loads = new AtomicInteger();
+        CountDownLatch loading = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+
+        // Act
+        Future<String> first = executor.submit(() -> cache.get("DEAL-1", () -> {
+            loads.incrementAndGet();
+            loading.countDown();
+            release.await();
+            return "loaded";
+        }));
+        loading.await();
+        List<Future<String>> others = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            others.add(executor.submit(() -> cache.get("DEAL-1", () -> {
+                loads.incrementAndGet();
+                return "duplicate";
+            })));
+        }
+        while (meterRegistry.get("deal.cache.coalesced").counter().count() < 3) {
+            Thread.sleep(5);
+        }
+        release.countDown();
+
+        // Assert
+        assertEquals("loaded", first.get(5, TimeUnit.SECONDS));
+        for (Future<String> other : others) {
+            assertEquals("loaded", other.get(5, TimeUnit.SECONDS));
+        }
+        assertEquals(1, loads.get());
+        assertEquals(1.0, meterRegistry.get("deal.cache.stampede").counter().count());
+        executor.shutdownNow();
+    }
+
+    @Test
+    void getWithLoader_OldEntry_IsRefreshedAhead() throws Exception {
+        // Arrange
+        Cache cache = cacheManager.getCache("refreshed");
+        cache.get("DEAL-1", () -> "v1");
+        Thread.sleep(50);
+
+        // Act
+        String served = cache.get("DEAL-1", () -> "v2");
+        long deadline = System.currentTimeMillis() + 5000;
+        while (meterRegistry.get("deal.cache.refresh").tag("result", "success").counter().count() < 1
+                && System.currentTimeMillis() < deadline) {
+            Thread.sleep(5);
+        }
+
+        // Assert
+        assertEquals("v1", served);
+        assertEquals("v2", l2CacheManager.getCache("refreshed").get("DEAL-1", String.class));
+        assertEquals("v2", cache.get("DEAL-1", () -> "v3"));
+    }
+
+    @Test
+    void getWithLoader_WriteDuringRefresh_KeepsNewerValue() throws Exception {
+        // Arrange
+        Cache cache = cacheManager.getCache("refreshed");
+        cache.get("DEAL-1", () -> "v1");
+        Thread.sleep(50);
+        CountDownLatch refreshStarted = new CountDownLatch(1);
+        CountDownLatch written = new CountDownLatch(1);
+
+        // Act
+        cache.get("DEAL-1", () -> {
+            refreshStarted.countDown();
+            written.await(5, TimeUnit.SECONDS);
+            return "stale";
+        });
+        assertTrue(refreshStarted.await(5, TimeUnit.SECONDS));
+        cache.put("DEAL-1", "v2");
+        written.countDown();
+        long deadline = System.currentTimeMillis() + 5000;
+        while (meterRegistry.get("deal.cache.refresh").tag("result", "superseded").counter().count() < 1
+                && System.currentTimeMillis() < deadline) {
+            Thread.sleep(5);
+        }
+
+        // Assert
+        assertEquals(1.0, meterRegistry.get("deal.cache.refresh").tag("result", "superseded").counter().count());
+        assertEquals("v2", l2CacheManager.getCache("refreshed").get("DEAL-1", String.class));
+        assertEquals("v2", cache.get("DEAL-1", String.class));
+    }
+
+    private double requests(String tier, String result) {
+        return meterRegistry.get("deal.cache.requests")
+            .tag("tier", tier)
+            .tag("result", result)
+            .counters().stream()
+            .mapToDouble(counter -> counter.count())
+            .sum();
+    }
+
+    private static DefaultMessage message(String body) {
+        return new DefaultMessage("deal-cache-invalidation".getBytes(StandardCharsets.UTF_8),
+            body.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,124 @@
+package com.magiccode.tradeingestion.unit.config;
+
+import com.magiccode.tradeingestion.config.HttpClientProperties;
+import com.magiccode.tradeingestion.config.OutboundHttpClientFactory;
+import com.sun.net.httpserver.HttpServer;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.reactive.function.client.WebClient;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.concurrent.Executors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for OutboundHttpClientFactory against a local stub server.
+ * These tests verify:
+ * - Per-downstream settings override the defaults
+ * - Request latency is recorded per downstream and status
+ * - The response timeout of a downstream is enforced
+ */
+class OutboundHttpClientFactoryUnitTest {
+
+    private HttpServer server;
+    private SimpleMeterRegistry meterRegistry;
+    private OutboundHttpClientFactory factory;
+    private String baseUrl;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/ok", exchange -> {
+            byte[] body = "ok".getBytes(StandardCharsets.UTF_8);
+            exchange.sendResponseHeaders(200, body.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(body);
+            }
+        });
+        server.createContext("/slow", exchange -> {
+            try {
+                Thread.sleep(1_000);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            exchange.sendResponseHeaders(204, -1);
+            exchange.close();
+        });
+        server.setExecutor(Executors.newCachedThreadPool());
+        server.start();
+        baseUrl = "http://127.0.0.1:" + server.getAddress().getPort();
+
+        HttpClientProperties properties = new HttpClientProperties();
+        HttpClientProperties.Client slow = new HttpClientProperties.Client();
+        slow.setResponseTimeout(Duration.ofMillis(200));
+        slow.setMaxConnections(2);
+        properties.getClients().put("impatient", slow);
+        meterRegistry = new SimpleMeterRegistry();
+        factory = new OutboundHttpClientFactory(properties, meterRegistry);
+    }
+
+    @AfterEach
+    void tearDown() {
+        factory.destroy();
+        server.stop(0);
+    }
+
+    @Test
+    void client_MergesOverridesWithDefaults() {
+        // Arrange
+        HttpClientProperties properties = new HttpClientProperties();
+        HttpClientProperties.Client override = new HttpClientProperties.Client();
+        override.setMaxConnections(7);
+        properties.getClients().put("transformation", override);
+
+        // Act
+        HttpClientProperties.Client merged = properties.client("transformation");
+
+        // Assert
+        assertEquals(7, merged.getMaxConnections());
+        assertEquals(properties.getDefaults().getResponseTimeout(), merged.getResponseTimeout());
+        assertSame(properties.getDefaults(), properties.client("unknown"));
+    }
+
+    @Test
+    void create_RecordsLatencyPerDownstream() {
+        // Arrange
+        WebClient client = factory.create("transformation");
+
+        // Act
+        String body = client.get().uri(baseUrl + "/ok").retrieve().bodyToMono(String.class).block();
+        client.get().uri(baseUrl + "/ok").retrieve().bodyToMono(String.class).block();
+
+        // Assert
+        assertEquals("ok", body);
+        Timer timer = meterRegistry.find("deal.http.client.requests")
+            .tag("client", "transformation")
+            .tag("status", "200")
+            .timer();
+        assertNotNull(timer);
+        assertEquals(2, timer.count());
+        assertEquals(1, meterRegistry.find("deal.http.client.requests").tag("client", "transformation").timers().size());
+    }
+
+    @Test
+    void create_EnforcesResponseTimeout() {
+        // Arrange
+        WebClient client = factory.create("impatient");
+
+        // Act & Assert
+        assertThrows(Exception.class,
+            () -> client.get().uri(baseUrl + "/slow").retrieve().toBodilessEntity().block());
+        assertNotNull(meterRegistry.find("deal.http.client.requests")
+            .tag("client", "impatient")
+            .tag("status", "IO_ERROR")
+            .timer());
+    }
+}
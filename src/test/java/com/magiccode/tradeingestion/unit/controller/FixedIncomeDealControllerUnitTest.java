@@ -0,0 +1,119 @@
+package com.magiccode.tradeingestion.unit.controller;
+
+import com.magiccode.tradeingestion.config.EntitlementProperties;
+import com.magiccode.tradeingestion.controller.FixedIncomeDealController;
+import com.magiccode.tradeingestion.model.DataSecurity;
+import com.magiccode.tradeingestion.model.FixedIncomeDerivativeDeal;
+import com.magiccode.tradeingestion.service.DefaultAuthorizationService;
+import com.magiccode.tradeingestion.service.FixedIncomeDerivativeDealService;
+import com.magiccode.tradeingestion.service.entitlement.DataVisibility;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.empty;
+import static org.hamcrest.Matchers.hasSize;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+/**
+ * Unit tests for FixedIncomeDealController.
+ * These tests verify:
+ * - A restricted principal's list is queried with its visibility and excludes other jurisdictions' deals
+ * - Filtered lookups by status pass the caller's visibility through
+ * - Principals without entitlements see no restricted deals
+ */
+class FixedIncomeDealControllerUnitTest {
+
+    private final FixedIncomeDerivativeDeal auDeal = deal("IRS-AU-001", "AU");
+    private final FixedIncomeDerivativeDeal usDeal = deal("IRS-US-001", "US");
+
+    private FixedIncomeDerivativeDealService dealService;
+    private MockMvc mockMvc;
+
+    @BeforeEach
+    void setUp() {
+        dealService = mock(FixedIncomeDerivativeDealService.class);
+        when(dealService.getAllDeals()).thenReturn(List.of(auDeal, usDeal));
+        when(dealService.getAllDeals(any(DataVisibility.class)))
+            .thenAnswer(invocation -> visible(invocation.getArgument(0)));
+        when(dealService.getDealsByStatus(eq("NEW"), any(DataVisibility.class)))
+            .thenAnswer(invocation -> visible(invocation.getArgument(1)));
+        mockMvc = MockMvcBuilders
+            .standaloneSetup(new FixedIncomeDealController(dealService, entitledService()))
+            .build();
+    }
+
+    @Test
+    void getAllDeals_RestrictedPrincipal_ExcludesOtherJurisdictions() throws Exception {
+        // Act & Assert
+        mockMvc.perform(get("/api/fixed-income-deals").principal(() -> "trader_jdoe"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$", hasSize(1)))
+            .andExpect(jsonPath("$[0].dealId").value("IRS-AU-001"));
+        verify(dealService, never()).getAllDeals();
+    }
+
+    @Test
+    void getDealsByStatus_RestrictedPrincipal_PassesVisibility() throws Exception {
+        // Act & Assert
+        mockMvc.perform(get("/api/fixed-income-deals/status/NEW").principal(() -> "trader_jdoe"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$[*].dealId", contains("IRS-AU-001")));
+        verify(dealService).getDealsByStatus(eq("NEW"), argThat(v -> v.jurisdictions().equals(Set.of("AU"))));
+    }
+
+    @Test
+    void getAllDeals_UnknownPrincipal_SeesNoRestrictedDeals() throws Exception {
+        // Act & Assert
+        mockMvc.perform(get("/api/fixed-income-deals").principal(() -> "stranger"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$", empty()));
+    }
+
+    // Stands in for the repository's visibility predicate on the jurisdiction column
+    private List<FixedIncomeDerivativeDeal> visible(DataVisibility visibility) {
+        return List.of(auDeal, usDeal).stream()
+            .filter(deal -> visibility.unrestricted()
+                || visibility.jurisdictions().contains(deal.getDataSecurity().getDataJurisdiction()))
+            .toList();
+    }
+
+    private static DefaultAuthorizationService entitledService() {
+        EntitlementProperties properties = new EntitlementProperties();
+        properties.setEnabled(true);
+        properties.setRoles(Set.of("trader"));
+        properties.setJurisdictions(Set.of("AU", "US"));
+        EntitlementProperties.Grant grant = new EntitlementProperties.Grant();
+        grant.setRoles(Set.of("trader"));
+        grant.setClearance("CONFIDENTIAL");
+        grant.setJurisdictions(Set.of("AU"));
+        grant.setPermissions(Set.of("DEAL:READ"));
+        properties.setPrincipals(Map.of("trader_jdoe", grant));
+        return new DefaultAuthorizationService(properties, properties.getPrincipals()::get, new SimpleMeterRegistry());
+    }
+
+    private static FixedIncomeDerivativeDeal deal(String dealId, String jurisdiction) {
+        return FixedIncomeDerivativeDeal.builder()
+            .dealId(dealId)
+            .dealType("InterestRateSwap")
+            .status("NEW")
+            .quantity(new BigDecimal("100"))
+            .price(new BigDecimal("99.5"))
+            .dataSecurity(DataSecurity.builder()
+                .classificationLevel("INTERNAL")
+                .dataJurisdiction(jurisdiction)
+                .build())
+            .build();
+    }
+}
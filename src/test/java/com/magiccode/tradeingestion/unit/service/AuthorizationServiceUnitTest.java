@@ -6,7 +6,11 @@
 import com.magiccode.tradeingestion.service.Operation;
 import com.magiccode.tradeingestion.service.Resource;
 import com.magiccode.tradeingestion.service.DefaultAuthorizationService;
+import com.magiccode.tradeingestion.config.EntitlementProperties;
 import com.magiccode.tradeingestion.model.Deal;
+import com.magiccode.tradeingestion.service.entitlement.DataVisibility;
+import com.magiccode.tradeingestion.service.entitlement.RequiredRoleMask;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.Mock;
@@ -14,6 +18,7 @@
 import org.junit.jupiter.api.extension.ExtendWith;
 
 import java.security.Principal;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
 
@@ -22,7 +27,8 @@
 
 /**
  * Unit tests for DefaultAuthorizationService.
- * This test class verifies the authorization logic and caching behavior of the service.
+ * This test class verifies the authorization logic and caching behavior of the service,
+ * with and without compiled entitlements.
  */
 @ExtendWith(MockitoExtension.class)
 class AuthorizationServiceUnitTest {
@@ -136,4 +142,106 @@ void authorize_Unauthorized_NullUserId() {
         assertFalse(result.isAuthorized());
         assertEquals("Invalid user ID", result.getReason());
     }
-} 
\ No newline at end of file
+
+    @Test
+    void authorize_Entitlements_ChecksRolesClearanceAndJurisdiction() {
+        // Arrange
+        DefaultAuthorizationService service = entitledService();
+        Principal trader = () -> "trader_jdoe";
+        AuthorizationContext restricted = AuthorizationContext.builder()
+            .classificationLevel("RESTRICTED").jurisdiction("AU").build();
+        AuthorizationContext otherJurisdiction = AuthorizationContext.builder()
+            .classificationLevel("INTERNAL").jurisdiction("US").build();
+        AuthorizationContext otherRole = AuthorizationContext.builder()
+            .requiredRoles(Set.of("compliance")).build();
+
+        // Act & Assert
+        assertTrue(service.authorize(trader, Operation.WRITE, Resource.DEAL, testContext).isAuthorized());
+        assertEquals("Insufficient classification clearance",
+            service.authorize(trader, Operation.READ, Resource.DEAL, restricted).getReason());
+        assertEquals("Jurisdiction not permitted",
+            service.authorize(trader, Operation.READ, Resource.DEAL, otherJurisdiction).getReason());
+        assertEquals("Missing required role",
+            service.authorize(trader, Operation.READ, Resource.DEAL, otherRole).getReason());
+        assertFalse(service.authorize(trader, Operation.DELETE, Resource.DEAL, testContext).isAuthorized());
+        assertFalse(service.authorize(() -> "unknown", Operation.READ, Resource.DEAL, testContext).isAuthorized());
+    }
+
+    @Test
+    void isAuthorized_Entitlements_RequiresEveryOperation() {
+        // Arrange
+        DefaultAuthorizationService service = entitledService();
+
+        // Act & Assert
+        assertTrue(service.isAuthorized("trader_jdoe", Set.of(Operation.READ, Operation.WRITE), Resource.DEAL));
+        assertFalse(service.isAuthorized("trader_jdoe", Set.of(Operation.READ, Operation.DELETE), Resource.DEAL));
+        assertFalse(service.isAuthorized("trader_jdoe", Operation.READ, Resource.SYSTEM));
+    }
+
+    @Test
+    void authorizeAll_Entitlements_DecidesEachResource() {
+        // Arrange
+        DefaultAuthorizationService service = entitledService();
+        List<AuthorizationContext> contexts = List.of(
+            testContext,
+            AuthorizationContext.builder().jurisdiction("US").build(),
+            AuthorizationContext.builder().classificationLevel("PUBLIC").build());
+
+        // Act
+        boolean[] authorized = service.authorizeAll(() -> "trader_jdoe", Operation.READ, Resource.DEAL, contexts);
+
+        // Assert
+        assertArrayEquals(new boolean[] {true, false, true}, authorized);
+    }
+
+    @Test
+    void authorize_Entitlements_CompilesRequiredRolesOnce() {
+        // Arrange
+        DefaultAuthorizationService service = entitledService();
+        Principal trader = () -> "trader_jdoe";
+        AuthorizationContext unheldRole = AuthorizationContext.builder().requiredRoles(Set.of("trader", "compliance")).build();
+        AuthorizationContext unknownRole = AuthorizationContext.builder().requiredRoles(Set.of("auditor")).build();
+
+        // Act
+        boolean first = service.authorize(trader, Operation.READ, Resource.DEAL, testContext).isAuthorized();
+        RequiredRoleMask compiled = testContext.getRequiredRoleMask();
+        boolean second = service.authorize(trader, Operation.READ, Resource.DEAL, testContext).isAuthorized();
+
+        // Assert
+        assertTrue(first);
+        assertTrue(second);
+        assertNotNull(compiled);
+        assertSame(compiled, testContext.getRequiredRoleMask());
+        assertFalse(service.authorize(trader, Operation.READ, Resource.DEAL, unheldRole).isAuthorized());
+        assertFalse(service.authorize(trader, Operation.READ, Resource.DEAL, unknownRole).isAuthorized());
+        assertFalse(unknownRole.getRequiredRoleMask().satisfiable());
+    }
+
+    @Test
+    void visibility_Entitlements_ListsVisibleSecurityValues() {
+        // Act
+        DataVisibility visibility = entitledService().visibility(() -> "trader_jdoe");
+        DataVisibility permissive = authorizationService.visibility(() -> "trader_jdoe");
+
+        // Assert
+        assertFalse(visibility.unrestricted());
+        assertEquals(Set.of("PUBLIC", "INTERNAL", "CONFIDENTIAL"), visibility.classificationLevels());
+        assertEquals(Set.of("AU"), visibility.jurisdictions());
+        assertEquals(Set.of("trader_jdoe", "trader", "risk-analyst"), visibility.accessControlEntries());
+        assertTrue(permissive.unrestricted());
+    }
+
+    private DefaultAuthorizationService entitledService() {
+        EntitlementProperties properties = new EntitlementProperties();
+        properties.setEnabled(true);
+        properties.setRoles(Set.of("trader", "risk-analyst", "compliance"));
+        properties.setJurisdictions(Set.of("AU", "US"));
+        EntitlementProperties.Grant grant = new EntitlementProperties.Grant();
+        grant.setRoles(Set.of("trader", "risk-analyst"));
+        grant.setClearance("CONFIDENTIAL");
+        grant.setJurisdictions(Set.of("AU"));
+        grant.setPermissions(Set.of("DEAL:READ", "DEAL:WRITE"));
+        properties.setPrincipals(Map.of("trader_jdoe", grant));
+        return new DefaultAuthorizationService(properties, properties.getPrincipals()::get, new SimpleMeterRegistry());
+    }
+}
@@ -0,0 +1,140 @@
+package com.magiccode.tradeingestion.unit.service;
+
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.magiccode.tradeingestion.cache.DealCacheTags;
+import com.magiccode.tradeingestion.model.ArchivedDeal;
+import com.magiccode.tradeingestion.model.FixedIncomeDerivativeDeal;
+import com.magiccode.tradeingestion.repository.ArchivedDealRepository;
+import com.magiccode.tradeingestion.repository.FixedIncomeDerivativeDealRepository;
+import com.magiccode.tradeingestion.service.DealArchivalService;
+import io.github.resilience4j.ratelimiter.RateLimiterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for DealArchivalService.
+ * These tests verify:
+ * - Eligible deals are moved to the archive and removed from the hot tables
+ * - Archived deals can be read back by deal ID
+ * - The job does nothing while disabled
+ */
+@ExtendWith(MockitoExtension.class)
+class DealArchivalServiceUnitTest {
+
+    @Mock
+    private FixedIncomeDerivativeDealRepository dealRepository;
+
+    @Mock
+    private ArchivedDealRepository archivedDealRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @Mock
+    private DealCacheTags dealCacheTags;
+
+    // Matches the Spring Boot default of ignoring derived read-only properties such as notionalAmount
+    private final ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules()
+        .configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
+    private final ConcurrentMapCacheManager cacheManager = new ConcurrentMapCacheManager();
+
+    private FixedIncomeDerivativeDeal maturedDeal;
+
+    @BeforeEach
+    void setUp() {
+        maturedDeal = FixedIncomeDerivativeDeal.builder()
+            .id(UUID.randomUUID())
+            .dealId("IRS-20200101-00001")
+            .dealType("IRS")
+            .status("COMPLETED")
+            .quantity(new BigDecimal("1000000"))
+            .price(new BigDecimal("1"))
+            .maturityDate(LocalDate.now().minusDays(1))
+            .build();
+    }
+
+    @Test
+    void archiveEligibleDeals_MovesBatchToArchive() {
+        // Arrange
+        DealArchivalService service = createService(true);
+        when(dealRepository.findArchivableDealIds(any(), eq(""), any())).thenReturn(List.of(maturedDeal.getDealId()));
+        when(dealRepository.findArchivableDealIds(any(), eq(maturedDeal.getDealId()), any())).thenReturn(List.of());
+        when(dealRepository.findByDealIdIn(List.of(maturedDeal.getDealId()))).thenReturn(List.of(maturedDeal));
+        cacheManager.getCache("fixedIncomeDealsByDealId").put(maturedDeal.getDealId(), maturedDeal);
+
+        // Act
+        int archived = service.archiveEligibleDeals();
+
+        // Assert
+        assertEquals(1, archived);
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<ArchivedDeal>> captor = ArgumentCaptor.forClass(List.class);
+        verify(archivedDealRepository).saveAll(captor.capture());
+        ArchivedDeal archivedDeal = captor.getValue().get(0);
+        assertEquals(maturedDeal.getDealId(), archivedDeal.getDealId());
+        assertEquals("FixedIncomeDerivativeDeal", archivedDeal.getDealClass());
+        verify(dealRepository).deleteAll(List.of(maturedDeal));
+        assertNull(cacheManager.getCache("fixedIncomeDealsByDealId").get(maturedDeal.getDealId()));
+        verify(dealCacheTags).evictTagged(argThat(tags -> tags.contains("status:COMPLETED") && tags.contains("type:IRS")));
+    }
+
+    @Test
+    void findArchived_ReturnsDecompressedDeal() {
+        // Arrange
+        DealArchivalService service = createService(true);
+        when(dealRepository.findArchivableDealIds(any(), eq(""), any())).thenReturn(List.of(maturedDeal.getDealId()));
+        when(dealRepository.findArchivableDealIds(any(), eq(maturedDeal.getDealId()), any())).thenReturn(List.of());
+        when(dealRepository.findByDealIdIn(any())).thenReturn(List.of(maturedDeal));
+        service.archiveEligibleDeals();
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<ArchivedDeal>> captor = ArgumentCaptor.forClass(List.class);
+        verify(archivedDealRepository).saveAll(captor.capture());
+        when(archivedDealRepository.findById(maturedDeal.getDealId())).thenReturn(Optional.of(captor.getValue().get(0)));
+
+        // Act
+        Optional<FixedIncomeDerivativeDeal> result = service.findArchived(maturedDeal.getDealId());
+
+        // Assert
+        assertTrue(result.isPresent());
+        assertEquals(maturedDeal.getDealId(), result.get().getDealId());
+        assertEquals(maturedDeal.getMaturityDate(), result.get().getMaturityDate());
+    }
+
+    @Test
+    void archiveEligibleDeals_Disabled_DoesNothing() {
+        // Arrange
+        DealArchivalService service = createService(false);
+
+        // Act
+        int archived = service.archiveEligibleDeals();
+
+        // Assert
+        assertEquals(0, archived);
+        verifyNoInteractions(dealRepository, archivedDealRepository);
+    }
+
+    private DealArchivalService createService(boolean enabled) {
+        return new DealArchivalService(dealRepository, archivedDealRepository, objectMapper, cacheManager, dealCacheTags,
+            new SimpleMeterRegistry(), transactionManager, RateLimiterRegistry.ofDefaults(),
+            enabled, 100, 100, Duration.ZERO, 10);
+    }
+}
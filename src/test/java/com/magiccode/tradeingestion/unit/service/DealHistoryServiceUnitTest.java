@@ -0,0 +1,184 @@
+package com.magiccode.tradeingestion.unit.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.magiccode.tradeingestion.exception.DealProcessingException;
+import com.magiccode.tradeingestion.model.DealCurrentVersion;
+import com.magiccode.tradeingestion.model.DealVersion;
+import com.magiccode.tradeingestion.model.TestDeal;
+import com.magiccode.tradeingestion.repository.DealCurrentVersionRepository;
+import com.magiccode.tradeingestion.repository.DealVersionRepository;
+import com.magiccode.tradeingestion.service.DealHistoryService;
+import com.magiccode.tradeingestion.service.DealVersionView;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for DealHistoryService.
+ * These tests verify:
+ * - The first version and every snapshot-interval-th version are full snapshots
+ * - Versions in between only hold the changed fields
+ * - Without a cached base state the delta is computed against the state rebuilt from the history
+ * - A deal is rebuilt correctly at any version from the stored chain
+ */
+@ExtendWith(MockitoExtension.class)
+class DealHistoryServiceUnitTest {
+
+    private static final int SNAPSHOT_INTERVAL = 3;
+
+    @Mock
+    private DealVersionRepository versionRepository;
+
+    @Mock
+    private DealCurrentVersionRepository currentVersionRepository;
+
+    private final List<DealVersion> versions = new ArrayList<>();
+    private DealCurrentVersion pointer;
+    private DealHistoryService historyService;
+
+    @BeforeEach
+    void setUp() {
+        historyService = new DealHistoryService(versionRepository, currentVersionRepository,
+            new ObjectMapper().findAndRegisterModules(), new SimpleMeterRegistry(), true, SNAPSHOT_INTERVAL, 100);
+
+        lenient().when(currentVersionRepository.findById("TEST-DEAL-001"))
+            .thenAnswer(invocation -> Optional.ofNullable(pointer));
+        lenient().when(currentVersionRepository.save(any())).thenAnswer(invocation -> {
+            pointer = invocation.getArgument(0);
+            return pointer;
+        });
+        lenient().when(versionRepository.save(any())).thenAnswer(invocation -> {
+            DealVersion version = invocation.getArgument(0);
+            version.setId(UUID.randomUUID());
+            versions.add(version);
+            return version;
+        });
+        lenient().when(versionRepository.findChainUpToVersion(eq("TEST-DEAL-001"), anyLong(), any()))
+            .thenAnswer(invocation -> chainUpTo(invocation.getArgument(1), SNAPSHOT_INTERVAL));
+    }
+
+    @Test
+    void record_WritesSnapshotsAtIntervalAndDeltasBetween() {
+        // Arrange
+        TestDeal deal = createTestDeal();
+
+        // Act
+        for (int i = 1; i <= 5; i++) {
+            deal.setPrice(new BigDecimal(10 + i));
+            historyService.record(deal);
+        }
+
+        // Assert
+        assertEquals(5, versions.size());
+        assertTrue(versions.get(0).isSnapshot());
+        assertFalse(versions.get(1).isSnapshot());
+        assertFalse(versions.get(2).isSnapshot());
+        assertTrue(versions.get(3).isSnapshot());
+        assertTrue(versions.get(1).getPayload().contains("\"price\":12"));
+        assertFalse(versions.get(1).getPayload().contains("clientId"));
+        assertEquals(5, pointer.getVersion());
+        assertEquals(4, pointer.getLastSnapshotVersion());
+    }
+
+    @Test
+    void record_BaseStateNotCached_RebuildsItFromHistory() {
+        // Arrange
+        TestDeal deal = createTestDeal();
+        historyService.record(deal);
+        deal.setStatus("AMENDED");
+        historyService.record(deal);
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        DealHistoryService restarted = new DealHistoryService(versionRepository, currentVersionRepository,
+            new ObjectMapper().findAndRegisterModules(), meterRegistry, true, SNAPSHOT_INTERVAL, 100);
+
+        // Act
+        deal.setPrice(new BigDecimal("11"));
+        restarted.record(deal);
+
+        // Assert
+        String payload = versions.get(2).getPayload();
+        assertTrue(payload.contains("\"price\":11"));
+        assertFalse(payload.contains("status"));
+        assertEquals(1.0, meterRegistry.get("deal.history.base.rebuilds").counter().count());
+    }
+
+    @Test
+    void getVersion_RebuildsStateFromSnapshotAndDeltas() {
+        // Arrange
+        TestDeal deal = createTestDeal();
+        historyService.record(deal);
+        deal.setStatus("AMENDED");
+        deal.setEventType("UPDATED");
+        historyService.record(deal);
+        deal.setCurrency(null);
+        historyService.record(deal);
+
+        // Act
+        DealVersionView second = historyService.getVersion("TEST-DEAL-001", 2);
+        DealVersionView third = historyService.getVersion("TEST-DEAL-001", 3);
+
+        // Assert
+        assertEquals(2, second.version());
+        assertEquals("AMENDED", second.state().get("status").asText());
+        assertEquals("USD", second.state().get("currency").asText());
+        assertEquals("UPDATED", third.eventType());
+        assertFalse(third.state().has("currency"));
+        assertEquals("CLIENT001", third.state().get("clientId").asText());
+    }
+
+    @Test
+    void getVersion_NoHistory_ThrowsException() {
+        assertThrows(DealProcessingException.class, () -> historyService.getVersion("TEST-DEAL-001", 1));
+    }
+
+    @Test
+    void record_Disabled_DoesNothing() {
+        // Arrange
+        DealHistoryService disabled = new DealHistoryService(versionRepository, currentVersionRepository,
+            new ObjectMapper().findAndRegisterModules(), new SimpleMeterRegistry(), false, SNAPSHOT_INTERVAL, 100);
+
+        // Act
+        assertNull(disabled.record(createTestDeal()));
+
+        // Assert
+        verifyNoInteractions(versionRepository, currentVersionRepository);
+    }
+
+    private List<DealVersion> chainUpTo(long version, int limit) {
+        return versions.stream()
+            .filter(v -> v.getVersion() <= version)
+            .sorted(Comparator.comparingLong(DealVersion::getVersion).reversed())
+            .limit(limit)
+            .toList();
+    }
+
+    private TestDeal createTestDeal() {
+        TestDeal deal = new TestDeal();
+        deal.setDealId("TEST-DEAL-001");
+        deal.setEventType("CREATED");
+        deal.setClientId("CLIENT001");
+        deal.setInstrumentId("INST001");
+        deal.setQuantity(new BigDecimal("100"));
+        deal.setPrice(new BigDecimal("10.5"));
+        deal.setCurrency("USD");
+        deal.setStatus("NEW");
+        deal.setVersion(1L);
+        deal.setDealDate(LocalDateTime.now());
+        return deal;
+    }
+}
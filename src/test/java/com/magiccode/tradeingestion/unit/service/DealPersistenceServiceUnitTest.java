@@ -1,8 +1,11 @@
 package com.magiccode.tradeingestion.unit.service;
 
+import com.magiccode.tradeingestion.cache.DealCacheWriter;
 import com.magiccode.tradeingestion.exception.DealProcessingException;
 import com.magiccode.tradeingestion.model.TestDeal;
 import com.magiccode.tradeingestion.repository.DealRepository;
+import com.magiccode.tradeingestion.service.DealArchivalService;
+import com.magiccode.tradeingestion.service.DealHistoryService;
 import com.magiccode.tradeingestion.service.DealPersistenceService;
 import com.magiccode.tradeingestion.unit.LightweightUnitTest;
 import org.junit.jupiter.api.BeforeEach;
@@ -24,13 +27,22 @@ class DealPersistenceServiceUnitTest extends LightweightUnitTest {
     @Mock
     private DealRepository dealRepository;
 
+    @Mock
+    private DealHistoryService dealHistoryService;
+
+    @Mock
+    private DealArchivalService dealArchivalService;
+
+    @Mock
+    private DealCacheWriter dealCacheWriter;
+
     private DealPersistenceService dealPersistenceService;
     private TestDeal testDeal;
     private UUID dealUuid;
 
     @BeforeEach
     void setUp() {
-        dealPersistenceService = new DealPersistenceService(dealRepository);
+        dealPersistenceService = new DealPersistenceService(dealRepository, dealHistoryService, dealArchivalService, dealCacheWriter);
         dealUuid = UUID.randomUUID();
         testDeal = createTestDeal();
     }
@@ -0,0 +1,74 @@
+package com.magiccode.tradeingestion.unit.service;
+
+import com.magiccode.tradeingestion.config.ReferenceDataProperties;
+import com.magiccode.tradeingestion.model.Counterparty;
+import com.magiccode.tradeingestion.model.CounterpartyInfo;
+import com.magiccode.tradeingestion.model.FixedIncomeDerivativeDeal;
+import com.magiccode.tradeingestion.model.Instrument;
+import com.magiccode.tradeingestion.service.DealValidationService;
+import com.magiccode.tradeingestion.service.refdata.ReferenceDataSnapshot;
+import com.magiccode.tradeingestion.service.refdata.ReferenceDataStore;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.ObjectProvider;
+
+import java.math.BigDecimal;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+
+/**
+ * Unit tests for DealValidationService.
+ * These tests verify:
+ * - A counterparty unknown to the loaded reference data is reported
+ * - A counterparty is accepted by its entity ID or its LEI
+ */
+class DealValidationServiceUnitTest {
+
+    @TempDir
+    Path tempDir;
+
+    private DealValidationService validationService;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        ReferenceDataProperties properties = new ReferenceDataProperties();
+        properties.setSnapshotFile(tempDir.resolve("refdata.snapshot").toString());
+        ReferenceDataStore store = new ReferenceDataStore(properties, mock(ObjectProvider.class), new SimpleMeterRegistry());
+        store.replace(new ReferenceDataSnapshot(1,
+            List.of(new Counterparty("CP001", "Acme Bank", "5493001KJTIIGC8Y1R12")),
+            List.of(new Instrument("INST001", "UST10Y"))));
+        validationService = new DealValidationService(store);
+    }
+
+    @Test
+    void validateDeal_UnknownCounterparty_ReportsError() {
+        // Act
+        List<String> errors = validationService.validateDeal(deal("CP999", null));
+
+        // Assert
+        assertEquals(List.of("Unknown counterparty: CP999"), errors);
+    }
+
+    @Test
+    void validateDeal_CounterpartyKnownByIdOrLei_Passes() {
+        // Act & Assert
+        assertTrue(validationService.validateDeal(deal("CP001", null)).isEmpty());
+        assertTrue(validationService.validateDeal(deal("ACME-LOCAL", "5493001KJTIIGC8Y1R12")).isEmpty());
+    }
+
+    private static FixedIncomeDerivativeDeal deal(String entityId, String lei) {
+        return FixedIncomeDerivativeDeal.builder()
+            .dealId("IRS-001")
+            .instrumentId("INST001")
+            .quantity(new BigDecimal("100"))
+            .price(new BigDecimal("99.5"))
+            .counterparty(CounterpartyInfo.builder().entityId(entityId).lei(lei).build())
+            .build();
+    }
+}
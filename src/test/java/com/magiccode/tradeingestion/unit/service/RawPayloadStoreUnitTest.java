@@ -0,0 +1,125 @@
+package com.magiccode.tradeingestion.unit.service;
+
+import com.magiccode.tradeingestion.model.FixedIncomeDerivativeDeal;
+import com.magiccode.tradeingestion.model.MessageHeader;
+import com.magiccode.tradeingestion.model.RawDealPayload;
+import com.magiccode.tradeingestion.repository.RawDealPayloadRepository;
+import com.magiccode.tradeingestion.service.RawPayloadStore;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for RawPayloadStore.
+ * Verifies payload encoding, round-tripping and deduplication by message ID.
+ */
+@ExtendWith(MockitoExtension.class)
+class RawPayloadStoreUnitTest {
+
+    private static final String PAYLOAD =
+        "{\"dealId\":\"IRS-20240101-00001\",\"dealType\":\"IRS\",\"legs\":[{\"legId\":\"L1\"},{\"legId\":\"L2\"}]}";
+
+    @Mock
+    private RawDealPayloadRepository payloadRepository;
+
+    private FixedIncomeDerivativeDeal deal;
+
+    @BeforeEach
+    void setUp() {
+        deal = FixedIncomeDerivativeDeal.builder()
+            .dealId("IRS-20240101-00001")
+            .version(1L)
+            .messageHeader(MessageHeader.builder().messageId("MSG-001").build())
+            .build();
+    }
+
+    @Test
+    void store_Gzip_CompressesAndRoundTrips() {
+        // Arrange
+        RawPayloadStore store = new RawPayloadStore(payloadRepository, new SimpleMeterRegistry(), true, "gzip");
+        when(payloadRepository.existsById("MSG-001")).thenReturn(false);
+
+        // Act
+        store.store(deal, PAYLOAD);
+
+        // Assert
+        ArgumentCaptor<RawDealPayload> captor = ArgumentCaptor.forClass(RawDealPayload.class);
+        verify(payloadRepository).save(captor.capture());
+        RawDealPayload saved = captor.getValue();
+        assertEquals("MSG-001", saved.getMessageId());
+        assertEquals("GZIP", saved.getEncoding());
+        assertNull(saved.getPayloadJson());
+        assertEquals(saved.getPayloadCompressed().length, saved.getStoredSize());
+        assertEquals(PAYLOAD, store.decode(saved));
+    }
+
+    @Test
+    void store_Json_KeepsPayloadAsIs() {
+        // Arrange
+        RawPayloadStore store = new RawPayloadStore(payloadRepository, new SimpleMeterRegistry(), true, "json");
+        when(payloadRepository.existsById("MSG-001")).thenReturn(false);
+
+        // Act
+        store.store(deal, PAYLOAD);
+
+        // Assert
+        ArgumentCaptor<RawDealPayload> captor = ArgumentCaptor.forClass(RawDealPayload.class);
+        verify(payloadRepository).save(captor.capture());
+        assertEquals(PAYLOAD, captor.getValue().getPayloadJson());
+        assertEquals(captor.getValue().getOriginalSize(), captor.getValue().getStoredSize());
+        assertEquals(PAYLOAD, store.decode(captor.getValue()));
+    }
+
+    @Test
+    void store_RedeliveredMessage_KeepsFirstCopy() {
+        // Arrange
+        RawPayloadStore store = new RawPayloadStore(payloadRepository, new SimpleMeterRegistry(), true, "gzip");
+        when(payloadRepository.existsById("MSG-001")).thenReturn(true);
+
+        // Act
+        store.store(deal, PAYLOAD);
+
+        // Assert
+        verify(payloadRepository, never()).save(any());
+    }
+
+    @Test
+    void store_WithoutMessageHeader_KeysByDealAndVersion() {
+        // Arrange
+        RawPayloadStore store = new RawPayloadStore(payloadRepository, new SimpleMeterRegistry(), true, "gzip");
+        deal.setMessageHeader(null);
+        when(payloadRepository.existsById("IRS-20240101-00001:1")).thenReturn(false);
+
+        // Act
+        store.store(deal, PAYLOAD);
+
+        // Assert
+        verify(payloadRepository).save(argThat(payload -> "IRS-20240101-00001:1".equals(payload.getMessageId())));
+    }
+
+    @Test
+    void store_Disabled_DoesNothing() {
+        // Arrange
+        RawPayloadStore store = new RawPayloadStore(payloadRepository, new SimpleMeterRegistry(), false, "gzip");
+
+        // Act
+        store.store(deal, PAYLOAD);
+
+        // Assert
+        verifyNoInteractions(payloadRepository);
+    }
+
+    @Test
+    void constructor_UnsupportedEncoding_Throws() {
+        assertThrows(IllegalStateException.class,
+            () -> new RawPayloadStore(payloadRepository, new SimpleMeterRegistry(), true, "zstd"));
+    }
+}
@@ -0,0 +1,139 @@
+package com.magiccode.tradeingestion.unit.service.dealid;
+
+import com.magiccode.tradeingestion.config.DealIdBlockProperties;
+import com.magiccode.tradeingestion.exception.DealProcessingException;
+import com.magiccode.tradeingestion.service.DealIdGeneratorService;
+import com.sun.net.httpserver.HttpServer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.reactive.function.client.WebClient;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for DealIdGeneratorService against a local stub of the deal ID service.
+ * These tests verify:
+ * - IDs are served from one block without a request per ID
+ * - The next block is prefetched once the pool drops below the low-watermark
+ * - Failed block requests are retried and reported once retries run out
+ */
+class DealIdGeneratorServiceUnitTest {
+
+    private static final Pattern SIZE = Pattern.compile("\"size\":(\\d+)");
+
+    private HttpServer server;
+    private final AtomicInteger requests = new AtomicInteger();
+    private final AtomicInteger failuresToReturn = new AtomicInteger();
+    private final AtomicInteger nextId = new AtomicInteger();
+    private SimpleMeterRegistry meterRegistry;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        meterRegistry = new SimpleMeterRegistry();
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/api/deal-ids/blocks", exchange -> {
+            requests.incrementAndGet();
+            String body = new String(exchange.getRequestBody().readAllBytes(), StandardCharsets.UTF_8);
+            if (failuresToReturn.getAndDecrement() > 0) {
+                exchange.sendResponseHeaders(503, -1);
+                exchange.close();
+                return;
+            }
+            Matcher matcher = SIZE.matcher(body);
+            int size = matcher.find() ? Integer.parseInt(matcher.group(1)) : 1;
+            String ids = IntStream.range(0, size)
+                .mapToObj(i -> "\"DEAL-" + nextId.incrementAndGet() + "\"")
+                .collect(Collectors.joining(",", "[", "]"));
+            byte[] response = ids.getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().add("Content-Type", "application/json");
+            exchange.sendResponseHeaders(200, response.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(response);
+            }
+        });
+        server.start();
+    }
+
+    @AfterEach
+    void tearDown() {
+        server.stop(0);
+    }
+
+    @Test
+    void generateDealId_ServesIdsFromOneBlock() {
+        // Arrange
+        DealIdGeneratorService service = createService(10, 0.1);
+
+        // Act
+        Set<String> ids = new HashSet<>();
+        for (int i = 0; i < 5; i++) {
+            ids.add(service.generateDealId("CP001"));
+        }
+
+        // Assert
+        assertEquals(5, ids.size());
+        assertEquals(1, requests.get());
+        assertEquals(5.0, meterRegistry.get("deal.id.pool.available").gauge().value());
+    }
+
+    @Test
+    void generateDealId_BelowLowWatermark_PrefetchesNextBlock() throws InterruptedException {
+        // Arrange
+        DealIdGeneratorService service = createService(4, 0.5);
+
+        // Act
+        for (int i = 0; i < 3; i++) {
+            service.generateDealId("CP001");
+        }
+        long deadline = System.nanoTime() + Duration.ofSeconds(5).toNanos();
+        while (requests.get() < 2 && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+
+        // Assert
+        assertEquals(2, requests.get());
+        assertEquals(1.0, meterRegistry.get("deal.id.pool.empty").counter().count());
+    }
+
+    @Test
+    void generateDealId_ServiceFailures_RetriesThenGivesUp() {
+        // Arrange
+        DealIdGeneratorService service = createService(10, 0.1);
+        failuresToReturn.set(2);
+
+        // Act
+        String dealId = service.generateDealId("CP001");
+        failuresToReturn.set(10);
+
+        // Assert
+        assertNotNull(dealId);
+        assertEquals(3, requests.get());
+        assertThrows(DealProcessingException.class, () -> service.generateDealId("CP002"));
+    }
+
+    private DealIdGeneratorService createService(int initialSize, double lowWatermark) {
+        DealIdBlockProperties properties = new DealIdBlockProperties();
+        properties.setInitialSize(initialSize);
+        properties.setMinSize(1);
+        properties.setLowWatermark(lowWatermark);
+        properties.setRetryBackoff(Duration.ofMillis(10));
+        properties.setMaxRetries(2);
+        String url = "http://127.0.0.1:" + server.getAddress().getPort() + "/api/deal-ids";
+        return new DealIdGeneratorService(url, WebClient.create(), properties, meterRegistry);
+    }
+}
@@ -0,0 +1,109 @@
+package com.magiccode.tradeingestion.unit.service.dealid;
+
+import com.magiccode.tradeingestion.exception.DealProcessingException;
+import com.magiccode.tradeingestion.service.dealid.LocalDealIdGenerator;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for LocalDealIdGenerator.
+ * These tests verify:
+ * - IDs follow the PREFIX-yyyyMMdd-digits format and sort in generation order
+ * - IDs stay unique across concurrent generators with different node IDs
+ * - A clock rollback never repeats an ID, and generation fails once the drift limit is exceeded
+ */
+class LocalDealIdGeneratorUnitTest {
+
+    private static final long NOON = LocalDateTime.of(2024, 1, 1, 12, 0).toInstant(ZoneOffset.UTC).toEpochMilli();
+
+    @Test
+    void next_FormatsTimeOrderedIds() {
+        // Arrange
+        AtomicLong clock = new AtomicLong(NOON);
+        LocalDealIdGenerator generator = new LocalDealIdGenerator("IRS", () -> 7, clock::get, 5_000);
+
+        // Act
+        String first = generator.next();
+        String second = generator.next();
+        clock.addAndGet(1);
+        String third = generator.next();
+
+        // Assert
+        assertTrue(first.matches("IRS-20240101-\\d{15}"), first);
+        assertTrue(first.compareTo(second) < 0);
+        assertTrue(second.compareTo(third) < 0);
+    }
+
+    @Test
+    void next_ConcurrentGenerators_AreUnique() throws Exception {
+        // Arrange
+        int nodes = 4;
+        int threadsPerNode = 4;
+        int idsPerThread = 20_000;
+        List<LocalDealIdGenerator> generators = new ArrayList<>();
+        for (int node = 0; node < nodes; node++) {
+            int nodeId = node;
+            generators.add(new LocalDealIdGenerator("IRS", () -> nodeId, System::currentTimeMillis, 5_000));
+        }
+        Set<String> ids = ConcurrentHashMap.newKeySet();
+        ExecutorService executor = Executors.newFixedThreadPool(nodes * threadsPerNode);
+
+        // Act
+        List<Future<?>> futures = new ArrayList<>();
+        for (LocalDealIdGenerator generator : generators) {
+            for (int t = 0; t < threadsPerNode; t++) {
+                futures.add(executor.submit(() -> {
+                    for (int i = 0; i < idsPerThread; i++) {
+                        ids.add(generator.next());
+                    }
+                }));
+            }
+        }
+        for (Future<?> future : futures) {
+            future.get();
+        }
+        executor.shutdown();
+
+        // Assert
+        assertEquals(nodes * threadsPerNode * idsPerThread, ids.size());
+    }
+
+    @Test
+    void next_ClockRollback_KeepsCountingForwardWithinDriftLimit() {
+        // Arrange
+        AtomicLong clock = new AtomicLong(NOON);
+        LocalDealIdGenerator generator = new LocalDealIdGenerator("IRS", () -> 1, clock::get, 1_000);
+        String beforeRollback = generator.next();
+
+        // Act
+        clock.addAndGet(-999);
+        String afterRollback = generator.next();
+
+        // Assert
+        assertTrue(beforeRollback.compareTo(afterRollback) < 0);
+        assertThrows(DealProcessingException.class, () -> {
+            for (int i = 0; i < 3 * 4096; i++) {
+                generator.next();
+            }
+        });
+    }
+
+    @Test
+    void next_NoNodeLease_Throws() {
+        LocalDealIdGenerator generator = new LocalDealIdGenerator("IRS", () -> -1, System::currentTimeMillis, 5_000);
+
+        assertThrows(DealProcessingException.class, generator::next);
+    }
+}
@@ -0,0 +1,47 @@
+package com.magiccode.tradeingestion.unit.service.dealid;
+
+import com.magiccode.tradeingestion.config.LocalDealIdProperties;
+import com.magiccode.tradeingestion.service.dealid.RedisNodeIdLease;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.ValueOperations;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for RedisNodeIdLease.
+ * These tests verify:
+ * - A newly acquired node ID is withheld until the maximum clock drift has passed
+ */
+class RedisNodeIdLeaseUnitTest {
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void currentNodeId_NewLease_WaitsOutMaxClockDrift() throws Exception {
+        // Arrange
+        StringRedisTemplate redisTemplate = mock(StringRedisTemplate.class);
+        ValueOperations<String, String> valueOperations = mock(ValueOperations.class);
+        when(redisTemplate.opsForValue()).thenReturn(valueOperations);
+        when(valueOperations.setIfAbsent(anyString(), anyString(), any(Duration.class))).thenReturn(true);
+        LocalDealIdProperties properties = new LocalDealIdProperties();
+        properties.setMaxClockDrift(Duration.ofSeconds(1));
+
+        // Act
+        try (RedisNodeIdLease lease = new RedisNodeIdLease(redisTemplate, properties)) {
+            verify(valueOperations, timeout(5000)).setIfAbsent(anyString(), anyString(), any(Duration.class));
+            int duringDrift = lease.currentNodeId();
+            long deadline = System.currentTimeMillis() + 5000;
+            while (lease.currentNodeId() < 0 && System.currentTimeMillis() < deadline) {
+                Thread.sleep(10);
+            }
+
+            // Assert
+            assertEquals(-1, duringDrift);
+            assertTrue(lease.currentNodeId() >= 0);
+        }
+    }
+}
@@ -0,0 +1,127 @@
+package com.magiccode.tradeingestion.unit.service.dedup;
+
+import com.magiccode.tradeingestion.config.DealIdFilterProperties;
+import com.magiccode.tradeingestion.repository.ArchivedDealRepository;
+import com.magiccode.tradeingestion.repository.FixedIncomeDerivativeDealRepository;
+import com.magiccode.tradeingestion.service.dedup.DealIdFilter;
+import com.magiccode.tradeingestion.service.dedup.ScalableBloomFilter;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for the deal ID duplicate filter.
+ * These tests verify:
+ * - The Bloom filter has no false negatives and stays near its false-positive rate as it grows
+ * - Lookups fall back to the database until existing IDs are loaded
+ * - Loaded live, loaded archived and added IDs are reported as possibly present, unknown IDs as new
+ * - IDs added and false positives recorded in a rolled back transaction leave no trace
+ */
+@ExtendWith(MockitoExtension.class)
+class DealIdFilterUnitTest {
+
+    @Mock
+    private FixedIncomeDerivativeDealRepository dealRepository;
+
+    @Mock
+    private ArchivedDealRepository archivedDealRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @Mock
+    private ObjectProvider<StringRedisTemplate> redisTemplateProvider;
+
+    private SimpleMeterRegistry meterRegistry;
+    private DealIdFilter dealIdFilter;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        lenient().when(transactionManager.getTransaction(any())).thenReturn(new SimpleTransactionStatus());
+        DealIdFilterProperties properties = new DealIdFilterProperties();
+        properties.setExpectedInsertions(1_000);
+        dealIdFilter = new DealIdFilter(properties, dealRepository, archivedDealRepository, transactionManager, redisTemplateProvider, meterRegistry);
+    }
+
+    @Test
+    void scalableBloomFilter_GrowsWithoutFalseNegatives() {
+        // Arrange
+        ScalableBloomFilter filter = new ScalableBloomFilter(1_000, 0.01);
+
+        // Act
+        IntStream.range(0, 20_000).forEach(i -> filter.put("DEAL-" + i));
+        long falsePositives = IntStream.range(20_000, 40_000).filter(i -> filter.mightContain("DEAL-" + i)).count();
+
+        // Assert
+        assertTrue(IntStream.range(0, 20_000).allMatch(i -> filter.mightContain("DEAL-" + i)));
+        assertTrue(falsePositives < 20_000 * 0.02 * 2, "false positives: " + falsePositives);
+        assertTrue(filter.expectedFalsePositiveRate() < 0.04);
+        assertTrue(filter.bitSizeInBytes() > 0);
+    }
+
+    @Test
+    void mightContain_BeforeLoad_AlwaysConsultsDatabase() {
+        assertFalse(dealIdFilter.isReady());
+        assertTrue(dealIdFilter.mightContain("UNKNOWN-DEAL"));
+    }
+
+    @Test
+    void mightContain_AfterLoad_AnswersFromFilter() {
+        // Arrange
+        when(dealRepository.streamAllDealIds()).thenReturn(Stream.of("DEAL-1", "DEAL-2"));
+        when(archivedDealRepository.streamAllDealIds()).thenReturn(Stream.of("ARCHIVED-1"));
+
+        // Act
+        dealIdFilter.loadExistingDealIds();
+        dealIdFilter.add("DEAL-3");
+
+        // Assert
+        assertTrue(dealIdFilter.isReady());
+        assertTrue(dealIdFilter.mightContain("DEAL-1"));
+        assertTrue(dealIdFilter.mightContain("ARCHIVED-1"));
+        assertTrue(dealIdFilter.mightContain("DEAL-3"));
+        assertFalse(dealIdFilter.mightContain("DEAL-4"));
+        assertEquals(1.0, meterRegistry.get("deal.dedup.filter.lookups.avoided").counter().count());
+        assertEquals(4.0, meterRegistry.get("deal.dedup.filter.elements").gauge().value());
+    }
+
+    @Test
+    void add_TransactionRolledBack_LeavesFilterUnchanged() {
+        // Arrange
+        when(dealRepository.streamAllDealIds()).thenReturn(Stream.empty());
+        when(archivedDealRepository.streamAllDealIds()).thenReturn(Stream.empty());
+        dealIdFilter.loadExistingDealIds();
+
+        // Act
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            dealIdFilter.recordFalsePositive();
+            dealIdFilter.add("DEAL-1");
+            TransactionSynchronizationManager.getSynchronizations()
+                .forEach(sync -> sync.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK));
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        // Assert
+        assertFalse(dealIdFilter.mightContain("DEAL-1"));
+        assertEquals(0.0, meterRegistry.get("deal.dedup.filter.false.positives").counter().count());
+    }
+}
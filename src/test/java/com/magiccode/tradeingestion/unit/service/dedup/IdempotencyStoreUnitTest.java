@@ -0,0 +1,86 @@
+package com.magiccode.tradeingestion.unit.service.dedup;
+
+import com.magiccode.tradeingestion.config.IdempotencyProperties;
+import com.magiccode.tradeingestion.service.dedup.IdempotencyStore;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.ValueOperations;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for IdempotencyStore.
+ * These tests verify:
+ * - A repeated deal version is a duplicate while a later version is not
+ * - Entries expire after the TTL and can be forgotten
+ * - A version claimed in Redis by another instance is a duplicate
+ */
+@ExtendWith(MockitoExtension.class)
+class IdempotencyStoreUnitTest {
+
+    @Mock
+    private ObjectProvider<StringRedisTemplate> redisTemplateProvider;
+
+    @Mock
+    private StringRedisTemplate redisTemplate;
+
+    @Mock
+    private ValueOperations<String, String> valueOperations;
+
+    @Test
+    void markProcessed_SameVersionIsDuplicate_LaterVersionIsNot() {
+        // Arrange
+        IdempotencyStore store = IdempotencyStore.inMemory();
+
+        // Act & Assert
+        assertTrue(store.markProcessed("transformation", "DEAL-1", 1L));
+        assertFalse(store.markProcessed("transformation", "DEAL-1", 1L));
+        assertTrue(store.markProcessed("transformation", "DEAL-1", 2L));
+        assertTrue(store.markProcessed("validation", "DEAL-1", 1L));
+    }
+
+    @Test
+    void markProcessed_AfterTtlOrForget_IsNewAgain() throws InterruptedException {
+        // Arrange
+        IdempotencyProperties properties = new IdempotencyProperties();
+        properties.setTtl(Duration.ofMillis(50));
+        IdempotencyStore store = new IdempotencyStore(properties, redisTemplateProvider, new SimpleMeterRegistry());
+        store.markProcessed("transformation", "DEAL-1", 1L);
+        store.markProcessed("transformation", "DEAL-2", 1L);
+
+        // Act
+        store.forget("transformation", "DEAL-2", 1L);
+        boolean forgotten = store.markProcessed("transformation", "DEAL-2", 1L);
+        Thread.sleep(100);
+        boolean expired = store.markProcessed("transformation", "DEAL-1", 1L);
+
+        // Assert
+        assertTrue(forgotten);
+        assertTrue(expired);
+        verifyNoInteractions(redisTemplateProvider);
+    }
+
+    @Test
+    void markProcessed_ClaimedByOtherInstance_IsDuplicate() {
+        // Arrange
+        IdempotencyProperties properties = new IdempotencyProperties();
+        properties.setRedisEnabled(true);
+        when(redisTemplateProvider.getIfAvailable()).thenReturn(redisTemplate);
+        when(redisTemplate.opsForValue()).thenReturn(valueOperations);
+        when(valueOperations.setIfAbsent(eq("deal:idempotency:transformation:DEAL-1:1"), eq("1"), any(Duration.class)))
+            .thenReturn(false);
+        IdempotencyStore store = new IdempotencyStore(properties, redisTemplateProvider, new SimpleMeterRegistry());
+
+        // Act & Assert
+        assertFalse(store.markProcessed("transformation", "DEAL-1", 1L));
+    }
+}
@@ -0,0 +1,176 @@
+package com.magiccode.tradeingestion.unit.service.journal;
+
+import com.magiccode.tradeingestion.exception.DealProcessingException;
+import com.magiccode.tradeingestion.service.journal.IngestJournal;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for IngestJournal.
+ * These tests verify:
+ * - Appended records are readable once append returns
+ * - Records roll over into new segments
+ * - Checkpointed records are not replayed after reopening
+ * - Torn tails are discarded on recovery
+ */
+class IngestJournalUnitTest {
+
+    private static final int SEGMENT_SIZE = 64 * 1024;
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void append_RecordIsReadableAfterSync() throws IOException {
+        // Arrange
+        try (IngestJournal journal = open()) {
+            // Act
+            long end = journal.append(bytes("deal-1"));
+            journal.append(bytes("deal-2"));
+
+            // Assert
+            List<IngestJournal.Entry> entries = journal.read(journal.checkpoint(), 10);
+            assertEquals(2, entries.size());
+            assertEquals("deal-1", text(entries.get(0)));
+            assertEquals(end, entries.get(0).nextPosition());
+            assertEquals("deal-2", text(entries.get(1)));
+            assertTrue(entries.get(0).appendedAt() > 0);
+        }
+    }
+
+    @Test
+    void append_ConcurrentAppendersShareSegments() throws Exception {
+        // Arrange
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try (IngestJournal journal = open()) {
+            // Act
+            List<Future<Long>> futures = new ArrayList<>();
+            for (int i = 0; i < 400; i++) {
+                String payload = "deal-" + i + "-" + "x".repeat(200);
+                futures.add(executor.submit(() -> journal.append(bytes(payload))));
+            }
+            for (Future<Long> future : futures) {
+                future.get();
+            }
+
+            // Assert
+            assertEquals(400, journal.read(journal.checkpoint(), 1000).size());
+            assertTrue(segmentCount() > 1, "Records should roll over into more than one segment");
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void reopen_ReplaysOnlyRecordsAfterCheckpoint() throws IOException {
+        // Arrange
+        try (IngestJournal journal = open()) {
+            long flushed = journal.append(bytes("flushed"));
+            journal.append(bytes("pending"));
+            journal.checkpoint(flushed);
+        }
+
+        // Act
+        try (IngestJournal journal = open()) {
+            List<IngestJournal.Entry> entries = journal.read(journal.checkpoint(), 10);
+
+            // Assert
+            assertEquals(1, entries.size());
+            assertEquals("pending", text(entries.get(0)));
+
+            journal.append(bytes("after-restart"));
+            assertEquals(2, journal.read(journal.checkpoint(), 10).size());
+        }
+    }
+
+    @Test
+    void reopen_TornTailIsDiscarded() throws IOException {
+        // Arrange
+        long end;
+        try (IngestJournal journal = open()) {
+            journal.append(bytes("complete"));
+            end = journal.append(bytes("torn"));
+        }
+        Path segment = segments().get(0);
+        try (FileChannel channel = FileChannel.open(segment, StandardOpenOption.WRITE)) {
+            // Corrupt the last payload byte so its checksum no longer matches
+            channel.write(ByteBuffer.wrap(new byte[]{'X'}), end - 1);
+        }
+
+        // Act
+        try (IngestJournal journal = open()) {
+            List<IngestJournal.Entry> entries = journal.read(journal.checkpoint(), 10);
+
+            // Assert
+            assertEquals(1, entries.size());
+            assertEquals("complete", text(entries.get(0)));
+        }
+    }
+
+    @Test
+    void checkpoint_DeletesFlushedSegments() throws IOException {
+        // Arrange
+        try (IngestJournal journal = open()) {
+            long last = 0;
+            for (int i = 0; i < 100; i++) {
+                last = journal.append(bytes("x".repeat(2000)));
+            }
+            assertTrue(segmentCount() > 1);
+
+            // Act
+            journal.checkpoint(last);
+
+            // Assert
+            assertEquals(1, segmentCount());
+            assertEquals(0, journal.pendingBytes());
+            assertEquals(0, journal.oldestPendingAppendedAt());
+        }
+    }
+
+    @Test
+    void append_OversizedRecord_ThrowsException() throws IOException {
+        try (IngestJournal journal = open()) {
+            assertThrows(DealProcessingException.class, () -> journal.append(new byte[SEGMENT_SIZE]));
+        }
+    }
+
+    private IngestJournal open() throws IOException {
+        return new IngestJournal(directory, SEGMENT_SIZE, Duration.ofMillis(1), new SimpleMeterRegistry());
+    }
+
+    private List<Path> segments() throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.filter(file -> file.getFileName().toString().endsWith(".seg")).sorted().toList();
+        }
+    }
+
+    private long segmentCount() throws IOException {
+        return segments().size();
+    }
+
+    private static byte[] bytes(String value) {
+        return value.getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static String text(IngestJournal.Entry entry) {
+        return new String(entry.payload(), StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,159 @@
+package com.magiccode.tradeingestion.unit.service.journal;
+
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.magiccode.tradeingestion.model.FixedIncomeDerivativeDeal;
+import com.magiccode.tradeingestion.repository.FixedIncomeDerivativeDealRepository;
+import com.magiccode.tradeingestion.service.DealHistoryService;
+import com.magiccode.tradeingestion.service.FixedIncomeDerivativeDealService;
+import com.magiccode.tradeingestion.service.RawPayloadStore;
+import com.magiccode.tradeingestion.service.journal.IngestJournal;
+import com.magiccode.tradeingestion.service.journal.WriteBehindDealService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.jms.core.JmsTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for WriteBehindDealService.
+ * These tests verify:
+ * - A deal the database rejects is dead-lettered and the rest of its batch is saved
+ * - Flushed deals are written through to the caches
+ * - Any other failure leaves the checkpoint in place so the batch is retried
+ * - Raw payloads travel in the journal and are stored by the flusher, not when the deal is accepted
+ */
+@ExtendWith(MockitoExtension.class)
+class WriteBehindDealServiceUnitTest {
+
+    @TempDir
+    Path directory;
+
+    @Mock
+    private FixedIncomeDerivativeDealService dealService;
+
+    @Mock
+    private FixedIncomeDerivativeDealRepository dealRepository;
+
+    @Mock
+    private DealHistoryService dealHistoryService;
+
+    @Mock
+    private RawPayloadStore rawPayloadStore;
+
+    @Mock
+    private JmsTemplate jmsTemplate;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    // Configured like the application's mapper, which ignores derived properties such as "cancelled"
+    private final ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules()
+        .configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
+    private SimpleMeterRegistry meterRegistry;
+    private IngestJournal journal;
+    private WriteBehindDealService writeBehind;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        meterRegistry = new SimpleMeterRegistry();
+        journal = new IngestJournal(directory, 64 * 1024, Duration.ofMillis(1), meterRegistry);
+        writeBehind = new WriteBehindDealService(journal, dealService, dealRepository, dealHistoryService, rawPayloadStore,
+            jmsTemplate, objectMapper, transactionManager, meterRegistry, 10, Duration.ofSeconds(10));
+        when(dealService.findExistingDealIds(any())).thenReturn(Set.of());
+    }
+
+    @AfterEach
+    void tearDown() {
+        writeBehind.stop();
+        journal.close();
+    }
+
+    @Test
+    void start_PoisonRecord_DeadLetteredAndRestSaved() throws IOException {
+        // Arrange
+        journal.append(objectMapper.writeValueAsBytes(createDeal("IRS-GOOD")));
+        long end = journal.append(objectMapper.writeValueAsBytes(createDeal("IRS-POISON")));
+        when(dealRepository.saveAll(anyList())).thenAnswer(invocation -> {
+            List<FixedIncomeDerivativeDeal> deals = invocation.getArgument(0);
+            if (deals.stream().anyMatch(deal -> deal.getDealId().equals("IRS-POISON"))) {
+                throw new DataIntegrityViolationException("duplicate key value violates unique constraint");
+            }
+            return deals;
+        });
+
+        // Act
+        writeBehind.start();
+
+        // Assert
+        verify(jmsTemplate).convertAndSend(eq("fixed-income-deals.dlq"), contains("IRS-POISON"));
+        verify(jmsTemplate).convertAndSend(eq("fixed-income-deals"), argThat((Object deal) ->
+            ((FixedIncomeDerivativeDeal) deal).getDealId().equals("IRS-GOOD")));
+        verify(dealService).writeThroughAfterCommit(argThat(deal -> deal.getDealId().equals("IRS-GOOD")));
+        assertEquals(end, journal.checkpoint());
+        assertEquals(1.0, meterRegistry.counter("deal.journal.dead.letters").count());
+    }
+
+    @Test
+    void start_TransientFailure_CheckpointNotAdvanced() throws IOException {
+        // Arrange
+        journal.append(objectMapper.writeValueAsBytes(createDeal("IRS-GOOD")));
+        long checkpoint = journal.checkpoint();
+        when(dealRepository.saveAll(anyList())).thenThrow(new QueryTimeoutException("statement timeout"));
+
+        // Act & Assert
+        assertThrows(QueryTimeoutException.class, () -> writeBehind.start());
+        assertEquals(checkpoint, journal.checkpoint());
+        verify(jmsTemplate, never()).convertAndSend(eq("fixed-income-deals.dlq"), any(Object.class));
+    }
+
+    @Test
+    void accept_RawPayload_StoredByFlusher() {
+        // Arrange
+        FixedIncomeDerivativeDeal deal = createDeal("IRS-NEW");
+        String rawPayload = "{\"deal\":{\"dealId\":\"IRS-NEW\"}}";
+        when(rawPayloadStore.isEnabled()).thenReturn(true);
+        when(dealService.prepareDeal(deal)).thenReturn(deal);
+        when(dealRepository.saveAll(anyList())).thenAnswer(invocation -> invocation.getArgument(0));
+
+        // Act
+        writeBehind.accept(deal, rawPayload);
+        verifyNoInteractions(dealRepository);
+        writeBehind.start();
+
+        // Assert
+        verify(rawPayloadStore).storeAll(argThat(records -> records.size() == 1
+            && records.iterator().next().deal().getDealId().equals("IRS-NEW")
+            && records.iterator().next().rawPayload().equals(rawPayload)));
+        verify(rawPayloadStore, never()).store(any(), anyString());
+    }
+
+    private static FixedIncomeDerivativeDeal createDeal(String dealId) {
+        return FixedIncomeDerivativeDeal.builder()
+            .dealId(dealId)
+            .dealType("InterestRateSwap")
+            .executionVenue("OTC")
+            .quantity(new BigDecimal("100"))
+            .price(new BigDecimal("99.5"))
+            .version(1L)
+            .build();
+    }
+}
@@ -0,0 +1,110 @@
+package com.magiccode.tradeingestion.unit.service.pipeline;
+
+import com.magiccode.tradeingestion.exception.DealProcessingException;
+import com.magiccode.tradeingestion.service.pipeline.StepScope;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for StepScope.
+ * These tests verify:
+ * - Steps run concurrently and their results are available after join
+ * - Each step is timed and the last one to finish is counted as the critical step
+ * - A failing step cancels its siblings and is rethrown as thrown
+ * - Checked step failures are wrapped in DealProcessingException
+ */
+class StepScopeUnitTest {
+
+    private SimpleMeterRegistry meterRegistry;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+    }
+
+    @Test
+    void join_AllStepsSucceed_ResultsAvailableAndTimed() {
+        // Arrange
+        CountDownLatch bothStarted = new CountDownLatch(2);
+        Supplier<String> fast;
+        Supplier<String> slow;
+
+        // Act
+        try (StepScope scope = new StepScope(meterRegistry)) {
+            fast = scope.fork("fast", () -> {
+                bothStarted.countDown();
+                assertTrue(bothStarted.await(5, TimeUnit.SECONDS));
+                return "validated";
+            });
+            slow = scope.fork("slow", () -> {
+                bothStarted.countDown();
+                assertTrue(bothStarted.await(5, TimeUnit.SECONDS));
+                Thread.sleep(50);
+                return "transformed";
+            });
+            scope.join();
+        }
+
+        // Assert
+        assertEquals("validated", fast.get());
+        assertEquals("transformed", slow.get());
+        assertEquals(1, meterRegistry.timer("deal.pipeline.step.time", "step", "fast").count());
+        assertEquals(1.0, meterRegistry.counter("deal.pipeline.critical.step", "step", "slow").count());
+    }
+
+    @Test
+    void join_StepFails_CancelsSiblingAndRethrows() {
+        // Arrange
+        AtomicBoolean siblingInterrupted = new AtomicBoolean();
+        CountDownLatch siblingStarted = new CountDownLatch(1);
+        IllegalArgumentException failure = new IllegalArgumentException("Invalid deal");
+        long start = System.nanoTime();
+
+        // Act
+        IllegalArgumentException thrown = assertThrows(IllegalArgumentException.class, () -> {
+            try (StepScope scope = new StepScope(meterRegistry)) {
+                scope.fork("transformation", () -> {
+                    siblingStarted.countDown();
+                    try {
+                        Thread.sleep(10_000);
+                    } catch (InterruptedException e) {
+                        siblingInterrupted.set(true);
+                        throw e;
+                    }
+                    return "transformed";
+                });
+                scope.fork("validation", () -> {
+                    siblingStarted.await(5, TimeUnit.SECONDS);
+                    throw failure;
+                });
+                scope.join();
+            }
+        });
+
+        // Assert
+        assertSame(failure, thrown);
+        assertTrue(siblingInterrupted.get());
+        assertTrue(System.nanoTime() - start < TimeUnit.SECONDS.toNanos(5));
+    }
+
+    @Test
+    void join_CheckedFailure_WrappedInDealProcessingException() {
+        try (StepScope scope = new StepScope(meterRegistry)) {
+            scope.fork("transformation", () -> {
+                throw new IOException("connection reset");
+            });
+
+            DealProcessingException e = assertThrows(DealProcessingException.class, scope::join);
+            assertInstanceOf(IOException.class, e.getCause());
+        }
+    }
+}
@@ -0,0 +1,148 @@
+package com.magiccode.tradeingestion.unit.service.refdata;
+
+import com.magiccode.tradeingestion.config.ReferenceDataProperties;
+import com.magiccode.tradeingestion.model.Counterparty;
+import com.magiccode.tradeingestion.model.Instrument;
+import com.magiccode.tradeingestion.service.refdata.ReferenceDataDelta;
+import com.magiccode.tradeingestion.service.refdata.ReferenceDataSnapshot;
+import com.magiccode.tradeingestion.service.refdata.ReferenceDataSource;
+import com.magiccode.tradeingestion.service.refdata.ReferenceDataStore;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.beans.factory.ObjectProvider;
+
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for ReferenceDataStore.
+ * These tests verify:
+ * - A full load from the source is written to the snapshot file and loaded by a new store
+ * - Deltas add, replace and remove entries and keep the LEI and symbol indexes in step
+ * - Updating an entry in place keeps its unchanged LEI and symbol mappings
+ * - A version the source no longer has changes for triggers a full reload
+ */
+@ExtendWith(MockitoExtension.class)
+class ReferenceDataStoreUnitTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Mock
+    private ReferenceDataSource source;
+
+    @Mock
+    private ObjectProvider<ReferenceDataSource> sourceProvider;
+
+    private ReferenceDataProperties properties;
+
+    @BeforeEach
+    void setUp() {
+        properties = new ReferenceDataProperties();
+        properties.setSnapshotFile(tempDir.resolve("refdata.snapshot").toString());
+        lenient().when(sourceProvider.getIfAvailable()).thenReturn(source);
+    }
+
+    @Test
+    void refresh_FullLoad_SnapshotWarmsNewStore() {
+        // Arrange
+        when(source.loadAll()).thenReturn(snapshot(7));
+        ReferenceDataStore store = newStore();
+        store.loadSnapshot();
+        assertFalse(store.isLoaded());
+
+        // Act
+        store.refresh();
+        @SuppressWarnings("unchecked")
+        ObjectProvider<ReferenceDataSource> noSource = mock(ObjectProvider.class);
+        ReferenceDataStore restarted = new ReferenceDataStore(properties, noSource, new SimpleMeterRegistry());
+        restarted.loadSnapshot();
+
+        // Assert
+        assertTrue(restarted.isLoaded());
+        assertEquals(7, restarted.getVersion());
+        assertEquals("Acme Bank", restarted.findCounterparty("CP001").orElseThrow().getName());
+        assertEquals("CP001", restarted.findCounterpartyByLei("5493001KJTIIGC8Y1R12").orElseThrow().getId());
+        assertTrue(restarted.findCounterparty("CP002").isPresent());
+        assertNull(restarted.findCounterparty("CP002").orElseThrow().getLei());
+        assertEquals("INST001", restarted.findInstrumentBySymbol("UST10Y").orElseThrow().getId());
+    }
+
+    @Test
+    void refresh_Delta_AppliesChangesAndKeepsIndexesInStep() {
+        // Arrange
+        when(source.loadAll()).thenReturn(snapshot(7));
+        ReferenceDataStore store = newStore();
+        store.refresh();
+        when(source.loadChanges(7)).thenReturn(new ReferenceDataDelta(8,
+            List.of(new Counterparty("CP001", "Acme Bank plc", "213800ABCDEFGHIJKL12")),
+            List.of(new Instrument("INST003", "BUND10Y")),
+            List.of("CP002"),
+            List.of("INST002")));
+
+        // Act
+        store.refresh();
+
+        // Assert
+        assertEquals(8, store.getVersion());
+        assertTrue(store.findCounterpartyByLei("5493001KJTIIGC8Y1R12").isEmpty());
+        assertEquals("Acme Bank plc", store.findCounterpartyByLei("213800ABCDEFGHIJKL12").orElseThrow().getName());
+        assertTrue(store.findCounterparty("CP002").isEmpty());
+        assertTrue(store.findInstrumentBySymbol("UKT5Y").isEmpty());
+        assertTrue(store.findInstrument("INST003").isPresent());
+        verify(source, times(1)).loadAll();
+    }
+
+    @Test
+    void apply_UnchangedSecondaryKeys_KeepsMappingsToUpdatedEntries() {
+        // Arrange
+        ReferenceDataStore store = newStore();
+        store.replace(snapshot(7));
+
+        // Act
+        store.apply(new ReferenceDataDelta(8,
+            List.of(new Counterparty("CP001", "Acme Bank plc", "5493001KJTIIGC8Y1R12")),
+            List.of(new Instrument("INST001", "UST10Y")),
+            List.of(),
+            List.of()));
+
+        // Assert
+        assertEquals("Acme Bank plc", store.findCounterpartyByLei("5493001KJTIIGC8Y1R12").orElseThrow().getName());
+        assertSame(store.findInstrument("INST001").orElseThrow(), store.findInstrumentBySymbol("UST10Y").orElseThrow());
+    }
+
+    @Test
+    void refresh_VersionTooOld_ReloadsEverything() {
+        // Arrange
+        when(source.loadAll()).thenReturn(snapshot(7), snapshot(42));
+        ReferenceDataStore store = newStore();
+        store.refresh();
+        when(source.loadChanges(7)).thenReturn(null);
+
+        // Act
+        store.refresh();
+
+        // Assert
+        assertEquals(42, store.getVersion());
+        verify(source, times(2)).loadAll();
+    }
+
+    private ReferenceDataStore newStore() {
+        return new ReferenceDataStore(properties, sourceProvider, new SimpleMeterRegistry());
+    }
+
+    private ReferenceDataSnapshot snapshot(long version) {
+        return new ReferenceDataSnapshot(version,
+            List.of(new Counterparty("CP001", "Acme Bank", "5493001KJTIIGC8Y1R12"),
+                new Counterparty("CP002", "Beta Capital", null)),
+            List.of(new Instrument("INST001", "UST10Y"), new Instrument("INST002", "UKT5Y")));
+    }
+}
@@ -0,0 +1,129 @@
+package com.magiccode.tradeingestion.unit.service.schema;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.magiccode.tradeingestion.config.SchemaGateProperties;
+import com.magiccode.tradeingestion.config.SchemaGateProperties.FieldType;
+import com.magiccode.tradeingestion.config.SchemaGateProperties.Schema;
+import com.magiccode.tradeingestion.exception.PayloadRejectedException;
+import com.magiccode.tradeingestion.service.schema.PayloadSchemaGate;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for PayloadSchemaGate.
+ * These tests verify:
+ * - A conforming envelope passes without being bound
+ * - Missing, mistyped and out-of-range fields are all reported, including inside arrays
+ * - Leaving out the parent of a required field is reported rather than skipping the check
+ * - The schema is chosen by messageHeader.schemaVersion
+ * - Malformed JSON is rejected as a payload error
+ */
+class PayloadSchemaGateUnitTest {
+
+    private SchemaGateProperties properties;
+    private SimpleMeterRegistry meterRegistry;
+    private PayloadSchemaGate gate;
+
+    @BeforeEach
+    void setUp() {
+        Schema v1 = new Schema();
+        v1.setRequired(List.of("messageHeader.messageId", "deal.dealId", "deal.tradeDate", "legs[].legId"));
+        v1.setTypes(Map.of(
+            "deal.dealId", FieldType.STRING,
+            "deal.tradeDate", FieldType.DATE,
+            "legs", FieldType.ARRAY,
+            "legs[].fixedRate", FieldType.NUMBER));
+        v1.setAllowedValues(Map.of("deal.status", List.of("NEW", "AMENDED", "CONFIRMED", "CANCELLED")));
+
+        Schema v3 = new Schema();
+        v3.setRequired(List.of("deal.uti"));
+
+        properties = new SchemaGateProperties();
+        properties.setEnabled(true);
+        properties.setVersions(Map.of("1.0", v1, "3.0", v3));
+        meterRegistry = new SimpleMeterRegistry();
+        gate = new PayloadSchemaGate(properties, new ObjectMapper(), meterRegistry);
+    }
+
+    @Test
+    void check_ConformingEnvelope_Passes() throws IOException {
+        // Arrange
+        String payload = read("test-data/deals/FIXED_INCOME_DERIVATIVE_new.json");
+
+        // Act & Assert
+        assertDoesNotThrow(() -> gate.check(payload));
+    }
+
+    @Test
+    void check_NonConformingEnvelope_ReportsEveryViolation() {
+        // Arrange
+        String payload = """
+            {"messageHeader":{"schemaVersion":"1.0"},
+             "deal":{"dealId":42,"tradeDate":"10/04/2025","status":"PENDING","trader":{"id":"TR1"}},
+             "legs":[{"legId":"L1","fixedRate":"high"},{"fixedRate":0.03}]}
+            """;
+
+        // Act
+        PayloadRejectedException e = assertThrows(PayloadRejectedException.class, () -> gate.check(payload));
+
+        // Assert
+        assertEquals("1.0", e.getSchemaVersion());
+        assertEquals(List.of(
+            "messageHeader.messageId is required",
+            "deal.dealId must be STRING",
+            "deal.tradeDate must be DATE",
+            "deal.status must be one of [NEW, AMENDED, CONFIRMED, CANCELLED]",
+            "legs[].fixedRate must be NUMBER",
+            "legs[].legId is required"), e.getViolations());
+        assertEquals(1.0, meterRegistry.counter("deal.schema.gate.rejected", "version", "1.0", "reason", "schema").count());
+    }
+
+    @Test
+    void check_EmptyObject_ReportsMissingParents() {
+        // Act
+        PayloadRejectedException e = assertThrows(PayloadRejectedException.class, () -> gate.check("{}"));
+
+        // Assert
+        assertEquals("1.0", e.getSchemaVersion());
+        assertEquals(List.of("messageHeader is required", "deal is required", "legs is required"), e.getViolations());
+    }
+
+    @Test
+    void check_SchemaVersionInHeader_SelectsSchema() {
+        // Arrange
+        String v1Payload = "{\"deal\":{\"dealId\":\"D1\"},\"messageHeader\":{\"schemaVersion\":\"1.0\",\"messageId\":\"M1\"},\"legs\":[]}";
+        String v3Payload = "{\"deal\":{\"dealId\":\"D1\"},\"messageHeader\":{\"schemaVersion\":\"3.0\",\"messageId\":\"M1\"},\"legs\":[]}";
+
+        // Act & Assert
+        assertDoesNotThrow(() -> gate.check(v1Payload.replace("\"D1\"", "\"D1\",\"tradeDate\":\"2025-04-10\"")));
+        PayloadRejectedException e = assertThrows(PayloadRejectedException.class, () -> gate.check(v3Payload));
+        assertEquals("3.0", e.getSchemaVersion());
+        assertEquals(List.of("deal.uti is required"), e.getViolations());
+    }
+
+    @Test
+    void check_MalformedJson_IsRejected() {
+        // Act
+        PayloadRejectedException e = assertThrows(PayloadRejectedException.class,
+            () -> gate.check("{\"deal\":{\"dealId\":\"D1\""));
+
+        // Assert
+        assertTrue(e.getViolations().get(0).startsWith("malformed JSON"));
+        assertInstanceOf(IllegalArgumentException.class, e);
+    }
+
+    private static String read(String resource) throws IOException {
+        try (InputStream in = PayloadSchemaGateUnitTest.class.getClassLoader().getResourceAsStream(resource)) {
+            return new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        }
+    }
+}
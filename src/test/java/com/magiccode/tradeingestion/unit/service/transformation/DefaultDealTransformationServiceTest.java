@@ -1,16 +1,20 @@
 package com.magiccode.tradeingestion.unit.service.transformation;
 
+import com.magiccode.tradeingestion.exception.DealProcessingException;
 import com.magiccode.tradeingestion.model.TestDeal;
 import com.magiccode.tradeingestion.service.transformation.DefaultDealTransformationService;
 import com.magiccode.tradeingestion.unit.LightweightUnitTest;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 
 class DefaultDealTransformationServiceTest extends LightweightUnitTest {
 
@@ -50,6 +54,44 @@ void transform_PreservesAllDealProperties() {
         assertEquals(testDeal.getDealDate(), result.getDealDate());
     }
 
+    @Test
+    void transform_RepeatedVersion_IsRejected() {
+        // Arrange
+        transformationService.transform(testDeal);
+
+        // Act & Assert
+        assertThrows(DealProcessingException.class, () -> transformationService.transform(createTestDeal()));
+    }
+
+    @Test
+    void transform_RolledBackTransaction_ReleasesVersion() {
+        // Arrange
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            transformationService.transform(testDeal);
+
+            // Act
+            TransactionSynchronizationManager.getSynchronizations()
+                .forEach(synchronization -> synchronization.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK));
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        // Assert
+        TestDeal retried = createTestDeal();
+        assertSame(retried, transformationService.transform(retried));
+    }
+
+    @Test
+    void retransform_RepeatedVersion_IsTransformedAgain() {
+        // Arrange
+        transformationService.transform(testDeal);
+        TestDeal replayed = createTestDeal();
+
+        // Act & Assert
+        assertSame(replayed, transformationService.retransform(replayed));
+    }
+
     private TestDeal createTestDeal() {
         TestDeal deal = new TestDeal();
         deal.setDealId("TEST-DEAL-001");
@@ -0,0 +1,166 @@
+package com.magiccode.tradeingestion.unit.service.transformation;
+
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.magiccode.tradeingestion.config.TransformationBatchProperties;
+import com.magiccode.tradeingestion.model.Deal;
+import com.magiccode.tradeingestion.model.TestDeal;
+import com.magiccode.tradeingestion.service.transformation.TransformationBatcher;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.reactive.function.client.WebClient;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.net.InetSocketAddress;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for TransformationBatcher against a local stub of the transformation service.
+ * These tests verify:
+ * - Concurrent deals are sent as list requests of at most the maximum batch size
+ * - Each transformed deal completes the future of the deal it was sent for
+ * - Deals of a failed batch fall back to single-deal calls
+ */
+class TransformationBatcherUnitTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules()
+        .configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
+    private final AtomicInteger batchRequests = new AtomicInteger();
+    private final AtomicInteger singleRequests = new AtomicInteger();
+    private final AtomicBoolean failBatches = new AtomicBoolean();
+    private HttpServer server;
+    private TransformationBatcher batcher;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/api/transform/batch", exchange -> {
+            batchRequests.incrementAndGet();
+            if (failBatches.get()) {
+                exchange.sendResponseHeaders(503, -1);
+                exchange.close();
+                return;
+            }
+            JsonNode deals = objectMapper.readTree(exchange.getRequestBody());
+            deals.forEach(deal -> ((ObjectNode) deal).put("status", "TRANSFORMED"));
+            respond(exchange, deals);
+        });
+        server.createContext("/api/transform", exchange -> {
+            singleRequests.incrementAndGet();
+            ObjectNode deal = (ObjectNode) objectMapper.readTree(exchange.getRequestBody());
+            deal.put("status", "SINGLE");
+            respond(exchange, deal);
+        });
+        server.start();
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (batcher != null) {
+            batcher.shutdown();
+        }
+        server.stop(0);
+    }
+
+    @Test
+    void submit_CoalescesConcurrentDealsIntoBatches() throws Exception {
+        // Arrange
+        batcher = createBatcher(10, Duration.ofMillis(200));
+
+        // Act
+        List<CompletableFuture<Deal>> results = new ArrayList<>();
+        for (int i = 0; i < 25; i++) {
+            results.add(batcher.submit(createDeal("DEAL-" + i)));
+        }
+
+        // Assert
+        for (int i = 0; i < results.size(); i++) {
+            Deal transformed = results.get(i).get(5, TimeUnit.SECONDS);
+            assertEquals("DEAL-" + i, transformed.getDealId());
+            assertEquals("TRANSFORMED", transformed.getStatus());
+            assertInstanceOf(TestDeal.class, transformed);
+        }
+        assertEquals(3, batchRequests.get());
+        assertEquals(0, singleRequests.get());
+    }
+
+    @Test
+    void submit_LingerExpires_SendsPartialBatch() throws Exception {
+        // Arrange
+        batcher = createBatcher(100, Duration.ofMillis(10));
+
+        // Act
+        Deal transformed = batcher.submit(createDeal("DEAL-1")).get(5, TimeUnit.SECONDS);
+
+        // Assert
+        assertEquals("TRANSFORMED", transformed.getStatus());
+        assertEquals(1, batchRequests.get());
+    }
+
+    @Test
+    void submit_BatchFails_FallsBackToSingleCalls() throws Exception {
+        // Arrange
+        failBatches.set(true);
+        batcher = createBatcher(3, Duration.ofMillis(10));
+
+        // Act
+        List<CompletableFuture<Deal>> results = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            results.add(batcher.submit(createDeal("DEAL-" + i)));
+        }
+
+        // Assert
+        for (int i = 0; i < results.size(); i++) {
+            Deal transformed = results.get(i).get(5, TimeUnit.SECONDS);
+            assertEquals("DEAL-" + i, transformed.getDealId());
+            assertEquals("SINGLE", transformed.getStatus());
+        }
+        assertEquals(1, batchRequests.get());
+        assertEquals(3, singleRequests.get());
+    }
+
+    private TransformationBatcher createBatcher(int maxBatchSize, Duration linger) {
+        String baseUrl = "http://127.0.0.1:" + server.getAddress().getPort() + "/api/transform";
+        TransformationBatchProperties properties = new TransformationBatchProperties();
+        properties.setEnabled(true);
+        properties.setUrl(baseUrl + "/batch");
+        properties.setMaxBatchSize(maxBatchSize);
+        properties.setLinger(linger);
+        return new TransformationBatcher(WebClient.create(), objectMapper, properties, new SimpleMeterRegistry(), baseUrl);
+    }
+
+    private void respond(HttpExchange exchange, JsonNode body) throws IOException {
+        byte[] response = objectMapper.writeValueAsBytes(body);
+        exchange.getResponseHeaders().add("Content-Type", "application/json");
+        exchange.sendResponseHeaders(200, response.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(response);
+        }
+    }
+
+    private TestDeal createDeal(String dealId) {
+        TestDeal deal = new TestDeal();
+        deal.setDealId(dealId);
+        deal.setStatus("NEW");
+        deal.setQuantity(new BigDecimal("100"));
+        deal.setPrice(new BigDecimal("10.5"));
+        deal.setCurrency("USD");
+        return deal;
+    }
+}
@@ -0,0 +1,146 @@
+package com.magiccode.tradeingestion.unit.service.transformation;
+
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.magiccode.tradeingestion.config.TransformationMemoProperties;
+import com.magiccode.tradeingestion.config.TransformationMemoProperties.HashAlgorithm;
+import com.magiccode.tradeingestion.model.Deal;
+import com.magiccode.tradeingestion.model.TestDeal;
+import com.magiccode.tradeingestion.service.RedisService;
+import com.magiccode.tradeingestion.service.transformation.TransformationMemo;
+import com.magiccode.tradeingestion.service.transformation.TransformationMemo.Transformed;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.beans.factory.ObjectProvider;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for TransformationMemo.
+ * These tests verify:
+ * - A repeated payload is answered from the memo as a separate instance without transforming it
+ * - Payloads that differ in any field are transformed separately
+ * - Results found in Redis are used after a local miss
+ * - Saved calls are counted under the path that produced the stored result
+ */
+@ExtendWith(MockitoExtension.class)
+class TransformationMemoUnitTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules()
+        .configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final AtomicInteger transformations = new AtomicInteger();
+    private final Function<Deal, Transformed> transformer = deal -> {
+        transformations.incrementAndGet();
+        deal.setStatus("TRANSFORMED");
+        return new Transformed(deal, "remote");
+    };
+
+    @Mock
+    private ObjectProvider<RedisService> redisServiceProvider;
+
+    @Mock
+    private RedisService redisService;
+
+    @Test
+    void transform_RepeatedPayload_SkipsTransformation() {
+        // Arrange
+        TransformationMemo memo = createMemo(HashAlgorithm.XXH64, false);
+        memo.transform(createDeal("DEAL-1"), transformer);
+
+        // Act
+        Deal repeated = memo.transform(createDeal("DEAL-1"), transformer);
+        Deal again = memo.transform(createDeal("DEAL-1"), transformer);
+
+        // Assert
+        assertEquals(1, transformations.get());
+        assertEquals("TRANSFORMED", repeated.getStatus());
+        assertInstanceOf(TestDeal.class, repeated);
+        assertNotSame(repeated, again);
+        assertEquals(2.0, meterRegistry.get("deal.transformation.memo.saved").tag("path", "remote").counter().count());
+    }
+
+    @Test
+    void transform_DifferentPayloads_AreTransformedSeparately() {
+        // Arrange
+        TransformationMemo memo = createMemo(HashAlgorithm.SHA_256, false);
+        TestDeal changed = createDeal("DEAL-1");
+        changed.setPrice(new BigDecimal("10.6"));
+
+        // Act
+        memo.transform(createDeal("DEAL-1"), transformer);
+        memo.transform(changed, transformer);
+        memo.transform(createDeal("DEAL-2"), transformer);
+
+        // Assert
+        assertEquals(3, transformations.get());
+    }
+
+    @Test
+    void transform_LocalMiss_UsesResultFromRedis() throws Exception {
+        // Arrange
+        TransformationMemo memo = createMemo(HashAlgorithm.XXH64, true);
+        TestDeal stored = createDeal("DEAL-1");
+        stored.setStatus("FROM-REDIS");
+        when(redisService.getBytes(startsWith("deal:transform:memo:TestDeal:")))
+            .thenReturn(("remote\n" + objectMapper.writeValueAsString(stored)).getBytes(StandardCharsets.UTF_8));
+
+        // Act
+        Deal result = memo.transform(createDeal("DEAL-1"), transformer);
+
+        // Assert
+        assertEquals("FROM-REDIS", result.getStatus());
+        assertEquals(0, transformations.get());
+        assertEquals(1.0, meterRegistry.get("deal.transformation.memo.saved").tag("path", "remote").counter().count());
+        verify(redisService, never()).setBytes(anyString(), any(), any());
+    }
+
+    @Test
+    void transform_RulesFellBackToRemote_CountsSavedCallsAsRemote() {
+        // Arrange
+        TransformationMemo memo = createMemo(HashAlgorithm.XXH64, false);
+        Function<Deal, Transformed> fellBack = deal -> new Transformed(deal, "remote");
+        memo.transform(createDeal("DEAL-1"), fellBack);
+        Function<Deal, Transformed> local = deal -> new Transformed(deal, "local");
+        memo.transform(createDeal("DEAL-2"), local);
+
+        // Act
+        memo.transform(createDeal("DEAL-1"), local);
+        memo.transform(createDeal("DEAL-2"), local);
+
+        // Assert
+        assertEquals(1.0, meterRegistry.get("deal.transformation.memo.saved").tag("path", "remote").counter().count());
+        assertEquals(1.0, meterRegistry.get("deal.transformation.memo.saved").tag("path", "local").counter().count());
+    }
+
+    private TransformationMemo createMemo(HashAlgorithm hash, boolean redisEnabled) {
+        TransformationMemoProperties properties = new TransformationMemoProperties();
+        properties.setEnabled(true);
+        properties.setHash(hash);
+        properties.setRedisEnabled(redisEnabled);
+        lenient().when(redisServiceProvider.getIfAvailable()).thenReturn(redisService);
+        return new TransformationMemo(properties, objectMapper, redisServiceProvider, meterRegistry);
+    }
+
+    private static TestDeal createDeal(String dealId) {
+        TestDeal deal = new TestDeal();
+        deal.setDealId(dealId);
+        deal.setClientId("CLIENT001");
+        deal.setInstrumentId("INST001");
+        deal.setQuantity(new BigDecimal("100"));
+        deal.setPrice(new BigDecimal("10.5"));
+        deal.setCurrency("USD");
+        deal.setStatus("NEW");
+        return deal;
+    }
+}
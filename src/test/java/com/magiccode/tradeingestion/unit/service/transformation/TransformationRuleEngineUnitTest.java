@@ -0,0 +1,128 @@
+package com.magiccode.tradeingestion.unit.service.transformation;
+
+import com.magiccode.tradeingestion.config.TransformationRuleProperties;
+import com.magiccode.tradeingestion.config.TransformationRuleProperties.Kind;
+import com.magiccode.tradeingestion.config.TransformationRuleProperties.Normalization;
+import com.magiccode.tradeingestion.config.TransformationRuleProperties.Rule;
+import com.magiccode.tradeingestion.model.DataSecurity;
+import com.magiccode.tradeingestion.model.TestDeal;
+import com.magiccode.tradeingestion.service.transformation.TransformationRuleEngine;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for TransformationRuleEngine.
+ * These tests verify:
+ * - Defaults, enrichments, copies, mappings and normalizations are applied in order
+ * - Nested property paths are read and written, and skipped through null parents
+ * - Rules limited to other deal types are not applied
+ * - Misconfigured rules fail when they are compiled
+ */
+class TransformationRuleEngineUnitTest {
+
+    @Test
+    void apply_RunsCompiledRulesInOrder() {
+        // Arrange
+        TransformationRuleEngine engine = createEngine(
+            rule(Kind.NORMALIZE, "currency", r -> r.setNormalize(Normalization.UPPER_CASE)),
+            rule(Kind.MAP, "status", r -> r.setMapping(Map.of("N", "NEW"))),
+            rule(Kind.DEFAULT, "eventType", r -> r.setValue("CREATED")),
+            rule(Kind.COPY, "instrumentId", r -> r.setSource("clientId")),
+            rule(Kind.ENRICH, "version", r -> r.setValue("1")),
+            rule(Kind.NORMALIZE, "price", r -> {
+                r.setNormalize(Normalization.SCALE);
+                r.setScale(2);
+            }));
+        TestDeal deal = createDeal();
+
+        // Act
+        TestDeal result = engine.apply(deal);
+
+        // Assert
+        assertSame(deal, result);
+        assertEquals("USD", deal.getCurrency());
+        assertEquals("NEW", deal.getStatus());
+        assertEquals("CREATED", deal.getEventType());
+        assertEquals("CLIENT001", deal.getInstrumentId());
+        assertEquals(1L, deal.getVersion());
+        assertEquals(new BigDecimal("10.46"), deal.getPrice());
+    }
+
+    @Test
+    void apply_NestedPath_WritesThroughParentAndSkipsNullParent() {
+        // Arrange
+        TransformationRuleEngine engine = createEngine(
+            rule(Kind.DEFAULT, "dataSecurity.classificationLevel", r -> r.setValue("INTERNAL")));
+        TestDeal withSecurity = createDeal();
+        withSecurity.setDataSecurity(new DataSecurity());
+        TestDeal withoutSecurity = createDeal();
+
+        // Act
+        engine.apply(withSecurity);
+        engine.apply(withoutSecurity);
+
+        // Assert
+        assertEquals("INTERNAL", withSecurity.getDataSecurity().getClassificationLevel());
+        assertNull(withoutSecurity.getDataSecurity());
+    }
+
+    @Test
+    void apply_RuleForOtherDealType_IsSkipped() {
+        // Arrange
+        TransformationRuleEngine engine = createEngine(
+            rule(Kind.ENRICH, "status", r -> {
+                r.setValue("ENRICHED");
+                r.setDealTypes(Set.of("IRS"));
+            }));
+        TestDeal deal = createDeal();
+
+        // Act
+        engine.apply(deal);
+
+        // Assert
+        assertEquals("N", deal.getStatus());
+    }
+
+    @Test
+    void apply_NormalizationOfWrongType_FailsCompilation() {
+        // Arrange
+        TransformationRuleEngine engine = createEngine(
+            rule(Kind.NORMALIZE, "price", r -> r.setNormalize(Normalization.UPPER_CASE)));
+
+        // Act & Assert
+        assertThrows(IllegalStateException.class, () -> engine.apply(createDeal()));
+    }
+
+    private static TransformationRuleEngine createEngine(Rule... rules) {
+        TransformationRuleProperties properties = new TransformationRuleProperties();
+        properties.getRules().addAll(List.of(rules));
+        return new TransformationRuleEngine(properties, new SimpleMeterRegistry());
+    }
+
+    private static Rule rule(Kind kind, String field, Consumer<Rule> customizer) {
+        Rule rule = new Rule();
+        rule.setKind(kind);
+        rule.setField(field);
+        customizer.accept(rule);
+        return rule;
+    }
+
+    private static TestDeal createDeal() {
+        TestDeal deal = new TestDeal();
+        deal.setDealId("TEST-DEAL-001");
+        deal.setClientId("CLIENT001");
+        deal.setCurrency("usd");
+        deal.setStatus("N");
+        deal.setQuantity(new BigDecimal("100"));
+        deal.setPrice(new BigDecimal("10.455"));
+        return deal;
+    }
+}
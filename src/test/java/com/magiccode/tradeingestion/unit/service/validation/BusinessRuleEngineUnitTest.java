@@ -0,0 +1,144 @@
+package com.magiccode.tradeingestion.unit.service.validation;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.magiccode.tradeingestion.config.BusinessRuleProperties;
+import com.magiccode.tradeingestion.model.DealLeg;
+import com.magiccode.tradeingestion.model.FixedIncomeDerivativeDeal;
+import com.magiccode.tradeingestion.model.NotionalAmount;
+import com.magiccode.tradeingestion.service.validation.BusinessRuleEngine;
+import com.magiccode.tradeingestion.service.validation.DefaultDealValidationService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for BusinessRuleEngine.
+ * These tests verify:
+ * - Notional limits and allowed venues are reported through the validation service
+ * - A changed rule file is swapped in, and a broken one leaves the current rules in place
+ * - Lifecycle transitions follow the rules, or the fallback when the rules define none
+ * - Each rule's evaluation is timed, and the timers of rules a reload drops are removed
+ */
+class BusinessRuleEngineUnitTest {
+
+    private static final String RULES_V1 = """
+        {"version":"v1",
+         "notionalLimits":[{"id":"irs-aud","dealType":"InterestRateSwap","currency":"AUD","max":1000000}],
+         "allowedVenues":{"InterestRateSwap":["OTC"]},
+         "lifecycle":{"initial":["CREATED"],"transitions":{"CREATED":["CANCELLED"]}}}
+        """;
+
+    @TempDir
+    Path directory;
+
+    private Path ruleFile;
+    private SimpleMeterRegistry meterRegistry;
+    private BusinessRuleEngine engine;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        ruleFile = directory.resolve("business-rules.json");
+        Files.writeString(ruleFile, RULES_V1);
+        BusinessRuleProperties properties = new BusinessRuleProperties();
+        properties.setEnabled(true);
+        properties.setLocation(ruleFile.toUri().toString());
+        meterRegistry = new SimpleMeterRegistry();
+        engine = new BusinessRuleEngine(properties, new ObjectMapper(), meterRegistry);
+    }
+
+    @Test
+    void validate_BreachedRules_ReportedWithPlanErrors() {
+        // Arrange
+        DefaultDealValidationService validationService = new DefaultDealValidationService(engine);
+        FixedIncomeDerivativeDeal deal = createDeal("SEF", new BigDecimal("2000000"));
+
+        // Act
+        List<String> errors = validationService.validate(deal).errors();
+
+        // Assert
+        assertTrue(errors.contains("Notional is outside limit irs-aud"));
+        assertTrue(errors.contains("Execution venue not allowed for InterestRateSwap"));
+        assertTrue(errors.contains("Client ID cannot be null or empty"));
+        assertEquals(1, meterRegistry.find("deal.business.rules.time").tag("rule", "irs-aud").timer().count());
+    }
+
+    @Test
+    void reloadIfChanged_ChangedFile_SwapsRules() throws IOException {
+        // Arrange
+        DefaultDealValidationService validationService = new DefaultDealValidationService(engine);
+        FixedIncomeDerivativeDeal deal = createDeal("OTC", new BigDecimal("2000000"));
+        assertFalse(engine.reloadIfChanged());
+        Files.writeString(ruleFile, RULES_V1.replace("\"v1\"", "\"v2\"").replace("1000000", "5000000"));
+
+        // Act
+        boolean swapped = engine.reloadIfChanged();
+
+        // Assert
+        assertTrue(swapped);
+        assertEquals("v2", engine.currentVersion());
+        assertFalse(validationService.validate(deal).errors().contains("Notional is outside limit irs-aud"));
+    }
+
+    @Test
+    void reloadIfChanged_DroppedRule_RemovesItsTimer() throws IOException {
+        // Arrange
+        Files.writeString(ruleFile, RULES_V1.replace("\"v1\"", "\"v2\"").replace("irs-aud", "irs-aud-2025"));
+
+        // Act
+        engine.reloadIfChanged();
+
+        // Assert
+        assertNull(meterRegistry.find("deal.business.rules.time").tag("rule", "irs-aud").timer());
+        assertNotNull(meterRegistry.find("deal.business.rules.time").tag("rule", "irs-aud-2025").timer());
+        assertNotNull(meterRegistry.find("deal.business.rules.time").tag("rule", "allowed-venues:InterestRateSwap").timer());
+        assertNotNull(meterRegistry.find("deal.business.rules.time").tag("rule", "lifecycle").timer());
+    }
+
+    @Test
+    void reloadIfChanged_BrokenFile_KeepsCurrentRules() throws IOException {
+        // Arrange
+        Files.writeString(ruleFile, "{\"notionalLimits\":[");
+
+        // Act
+        boolean swapped = engine.reloadIfChanged();
+
+        // Assert
+        assertFalse(swapped);
+        assertEquals("v1", engine.currentVersion());
+        assertEquals(1.0, meterRegistry.counter("deal.business.rules.reloads", "outcome", "failed").count());
+    }
+
+    @Test
+    void isTransitionAllowed_FollowsRulesOrFallback() {
+        // Arrange
+        BusinessRuleEngine disabled = new BusinessRuleEngine(new BusinessRuleProperties(), new ObjectMapper(), meterRegistry);
+
+        // Act & Assert
+        assertTrue(engine.isTransitionAllowed(null, "CREATED", (last, next) -> false));
+        assertTrue(engine.isTransitionAllowed("CREATED", "CANCELLED", (last, next) -> false));
+        assertFalse(engine.isTransitionAllowed("CREATED", "UPDATED", (last, next) -> true));
+        assertFalse(engine.isTransitionAllowed("CANCELLED", "UPDATED", (last, next) -> true));
+        assertTrue(disabled.isTransitionAllowed("CREATED", "UPDATED", (last, next) -> true));
+    }
+
+    private FixedIncomeDerivativeDeal createDeal(String venue, BigDecimal notional) {
+        DealLeg leg = new DealLeg();
+        leg.setLegId("LEG-1");
+        leg.setNotionalAmount(new NotionalAmount(notional, "AUD"));
+        return FixedIncomeDerivativeDeal.builder()
+            .dealId("IRS-20250410-00001")
+            .dealType("InterestRateSwap")
+            .executionVenue(venue)
+            .legs(List.of(leg))
+            .build();
+    }
+}
@@ -2,15 +2,21 @@
 
 import com.magiccode.tradeingestion.model.TestDeal;
 import com.magiccode.tradeingestion.service.validation.DefaultDealValidationService;
+import com.magiccode.tradeingestion.service.validation.ValidationResult;
 import com.magiccode.tradeingestion.unit.LightweightUnitTest;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
 
 import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 class DefaultDealValidationServiceUnitTest extends LightweightUnitTest {
 
@@ -224,6 +230,50 @@ void validateDeal_NullDealDate_ThrowsException() {
         assertThrows(IllegalArgumentException.class, () -> validationService.validateDeal(validDeal));
     }
 
+    @Test
+    void validate_SeveralProblems_ReportsAllOfThem() {
+        // Arrange
+        validDeal.setCurrency("usd");
+        validDeal.setStatus("UNKNOWN");
+        validDeal.setPrice(null);
+
+        // Act
+        ValidationResult result = validationService.validate(validDeal);
+        IllegalArgumentException exception = assertThrows(IllegalArgumentException.class,
+            () -> validationService.validateDeal(validDeal));
+
+        // Assert
+        assertFalse(result.isValid());
+        assertEquals(List.of("Price must be positive", "Currency must be a valid 3-letter code", "Invalid deal status"),
+            result.errors());
+        assertTrue(exception.getMessage().contains("Invalid deal status"));
+        assertTrue(validationService.validate(createValidTestDeal()).isValid());
+    }
+
+    @Test
+    void validateAll_LargeBatch_KeepsOrder() {
+        // Arrange
+        List<TestDeal> deals = new ArrayList<>();
+        for (int i = 0; i < 1_000; i++) {
+            TestDeal deal = createValidTestDeal();
+            deal.setDealId("TEST-DEAL-" + i);
+            if (i % 7 == 0) {
+                deal.setQuantity(BigDecimal.ZERO);
+            }
+            deals.add(deal);
+        }
+
+        // Act
+        List<ValidationResult> results = validationService.validateAll(deals);
+
+        // Assert
+        assertEquals(deals.size(), results.size());
+        for (int i = 0; i < results.size(); i++) {
+            assertEquals("TEST-DEAL-" + i, results.get(i).dealId());
+            assertEquals(i % 7 != 0, results.get(i).isValid());
+        }
+    }
+
     private TestDeal createValidTestDeal() {
         TestDeal deal = new TestDeal();
         deal.setDealId("TEST-DEAL-001");